@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) 2013-2015 Cinchapi Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.cinchapi.concourse;
+
+/**
+ * The functions that the server can use to reduce all the values stored for a
+ * key to a single value.
+ * <ul>
+ * <li>{@link #COUNT} - the number of values</li>
+ * <li>{@link #SUM} - the sum of the numeric values</li>
+ * <li>{@link #AVERAGE} - the mean of the numeric values</li>
+ * <li>{@link #MIN} - the smallest value</li>
+ * <li>{@link #MAX} - the largest value</li>
+ * </ul>
+ * Non-numeric values are ignored by {@link #SUM} and {@link #AVERAGE}. Every
+ * function except {@link #COUNT} returns {@code null} when there are no
+ * values to aggregate.
+ * 
+ * @author Jeff Nelson
+ */
+public enum Aggregation {
+    COUNT, SUM, AVERAGE, MIN, MAX
+}
@@ -0,0 +1,372 @@
+/*
+ * Copyright (c) 2013-2015 Cinchapi Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.cinchapi.concourse;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import org.cinchapi.concourse.lang.Criteria;
+
+import com.google.common.base.Function;
+import com.google.common.base.Throwables;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * An {@link AsyncConcourse} is a handler that issues requests to Concourse
+ * without blocking the caller. Each method immediately returns a
+ * {@link ListenableFuture} that completes once the server responds, so a
+ * single thread can have many requests in flight at once.
+ * <p>
+ * Outstanding requests are multiplexed over a small, fixed number of
+ * connections: each connection is served by its own thread and requests wait
+ * in a queue until a connection is free. Therefore, an application can issue
+ * hundreds of concurrent requests without holding hundreds of sockets and
+ * threads.
+ * </p>
+ * <p>
+ * Requests are not guaranteed to use the same connection, so an operation
+ * that spans multiple requests (i.e. a transaction) must be done within a
+ * single function that is passed to {@link #submit(Function)}.
+ * </p>
+ * <h2>Supported calls</h2>
+ * <p>
+ * Only the following calls have an asynchronous version:
+ * <ul>
+ * <li>{@link #add(String, Object, long) add(key, value, record)}</li>
+ * <li>{@link #find(Criteria) find(criteria)} and {@link #find(String)
+ * find(ccl)}</li>
+ * <li>{@link #get(String, long) get(key, record)}</li>
+ * <li>{@link #remove(String, Object, long) remove(key, value, record)}</li>
+ * <li>{@link #select(long) select(record)} and
+ * {@link #select(String, long) select(key, record)}</li>
+ * <li>{@link #set(String, Object, long) set(key, value, record)}</li>
+ * </ul>
+ * Every other {@link Concourse} method is not supported directly. This
+ * includes the other overloads of the methods above and {@code abort},
+ * {@code aggregate}, {@code audit}, {@code batch}, {@code browse},
+ * {@code browseCursor}, {@code chronologize}, {@code clear}, {@code commit},
+ * {@code create}, {@code describe}, {@code diff}, {@code findCursor},
+ * {@code findOrAdd}, {@code findOrInsert}, {@code insert},
+ * {@code inventory}, {@code jsonify}, {@code link}, {@code ping},
+ * {@code revert}, {@code search}, {@code searchRanked}, {@code stage},
+ * {@code time}, {@code unlink}, {@code verify}, {@code verifyAndSwap} and
+ * {@code verifyOrSet}. Any of them can still be called asynchronously by
+ * passing a function that calls it to {@link #submit(Function)}.
+ * </p>
+ * <h2>Usage</h2>
+ * 
+ * <pre>
+ * AsyncConcourse concourse = AsyncConcourse.connect(4);
+ * ListenableFuture&lt;Object&gt; name = concourse.get(&quot;name&quot;, 1);
+ * ListenableFuture&lt;Set&lt;Long&gt;&gt; records = concourse.find(&quot;age &gt; 30&quot;);
+ * ...
+ * concourse.close();
+ * </pre>
+ * 
+ * @author Jeff Nelson
+ */
+@ThreadSafe
+public final class AsyncConcourse implements AutoCloseable {
+
+    /**
+     * Create a new {@link AsyncConcourse} that uses {@code connections} to the
+     * Concourse instance described in {@code concourse_client.prefs} (or the
+     * default connection info if the prefs file does not exist).
+     * 
+     * @param connections
+     * @return the handler
+     */
+    public static AsyncConcourse connect(int connections) {
+        return new AsyncConcourse(
+                ConnectionPool.newFixedConnectionPool(connections), connections);
+    }
+
+    /**
+     * Create a new {@link AsyncConcourse} that uses {@code connections} to the
+     * default environment of the Concourse instance at
+     * {@code host}:{@code port} on behalf of the user identified by
+     * {@code username} and {@code password}.
+     * 
+     * @param host
+     * @param port
+     * @param username
+     * @param password
+     * @param connections
+     * @return the handler
+     */
+    public static AsyncConcourse connect(String host, int port,
+            String username, String password, int connections) {
+        return connect(host, port, username, password, "", connections);
+    }
+
+    /**
+     * Create a new {@link AsyncConcourse} that uses {@code connections} to the
+     * {@code environment} of the Concourse instance at
+     * {@code host}:{@code port} on behalf of the user identified by
+     * {@code username} and {@code password}.
+     * 
+     * @param host
+     * @param port
+     * @param username
+     * @param password
+     * @param environment
+     * @param connections
+     * @return the handler
+     */
+    public static AsyncConcourse connect(String host, int port,
+            String username, String password, String environment,
+            int connections) {
+        return new AsyncConcourse(ConnectionPool.newFixedConnectionPool(host,
+                port, username, password, environment, connections),
+                connections);
+    }
+
+    /**
+     * The connections over which requests are multiplexed.
+     */
+    private final ConnectionPool connections;
+
+    /**
+     * The threads that issue requests on behalf of the caller. There is one
+     * thread per connection, so a thread never waits for a connection.
+     */
+    private final ListeningExecutorService executor;
+
+    /**
+     * Construct a new instance.
+     * 
+     * @param connections
+     * @param size
+     */
+    private AsyncConcourse(ConnectionPool connections, int size) {
+        this.connections = connections;
+        this.executor = MoreExecutors.listeningDecorator(Executors
+                .newFixedThreadPool(size, new ThreadFactoryBuilder()
+                        .setNameFormat("AsyncConcourse" + " %d")
+                        .setDaemon(true).build()));
+    }
+
+    /**
+     * Asynchronously add {@code key} as {@code value} to {@code record}.
+     * 
+     * @param key
+     * @param value
+     * @param record
+     * @return a future that completes with {@code true} if the value is added
+     * @see Concourse#add(String, Object, long)
+     */
+    public <T> ListenableFuture<Boolean> add(final String key, final T value,
+            final long record) {
+        return submit(new Function<Concourse, Boolean>() {
+
+            @Override
+            public Boolean apply(Concourse concourse) {
+                return concourse.add(key, value, record);
+            }
+
+        });
+    }
+
+    /**
+     * Wait for the outstanding requests to finish and then close all of the
+     * connections. No new requests can be submitted once this method is
+     * called.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+            connections.close();
+        }
+        catch (Exception e) {
+            throw Throwables.propagate(e);
+        }
+    }
+
+    /**
+     * Asynchronously find the records that match the {@code criteria}.
+     * 
+     * @param criteria
+     * @return a future that completes with the records that match the criteria
+     * @see Concourse#find(Criteria)
+     */
+    public ListenableFuture<Set<Long>> find(final Criteria criteria) {
+        return submit(new Function<Concourse, Set<Long>>() {
+
+            @Override
+            public Set<Long> apply(Concourse concourse) {
+                return concourse.find(criteria);
+            }
+
+        });
+    }
+
+    /**
+     * Asynchronously find the records that match the {@code ccl} criteria.
+     * 
+     * @param ccl
+     * @return a future that completes with the records that match the criteria
+     * @see Concourse#find(String)
+     */
+    public ListenableFuture<Set<Long>> find(final String ccl) {
+        return submit(new Function<Concourse, Set<Long>>() {
+
+            @Override
+            public Set<Long> apply(Concourse concourse) {
+                return concourse.find(ccl);
+            }
+
+        });
+    }
+
+    /**
+     * Asynchronously get the most recently added value for {@code key} in
+     * {@code record}.
+     * 
+     * @param key
+     * @param record
+     * @return a future that completes with the value or {@code null}
+     * @see Concourse#get(String, long)
+     */
+    public <T> ListenableFuture<T> get(final String key, final long record) {
+        return submit(new Function<Concourse, T>() {
+
+            @Override
+            public T apply(Concourse concourse) {
+                return concourse.get(key, record);
+            }
+
+        });
+    }
+
+    /**
+     * Asynchronously remove {@code key} as {@code value} from {@code record}.
+     * 
+     * @param key
+     * @param value
+     * @param record
+     * @return a future that completes with {@code true} if the value is
+     *         removed
+     * @see Concourse#remove(String, Object, long)
+     */
+    public <T> ListenableFuture<Boolean> remove(final String key,
+            final T value, final long record) {
+        return submit(new Function<Concourse, Boolean>() {
+
+            @Override
+            public Boolean apply(Concourse concourse) {
+                return concourse.remove(key, value, record);
+            }
+
+        });
+    }
+
+    /**
+     * Asynchronously select all the values for every key in {@code record}.
+     * 
+     * @param record
+     * @return a future that completes with a mapping from each key to its
+     *         values
+     * @see Concourse#select(long)
+     */
+    public ListenableFuture<Map<String, Set<Object>>> select(final long record) {
+        return submit(new Function<Concourse, Map<String, Set<Object>>>() {
+
+            @Override
+            public Map<String, Set<Object>> apply(Concourse concourse) {
+                return concourse.select(record);
+            }
+
+        });
+    }
+
+    /**
+     * Asynchronously select all the values for {@code key} in {@code record}.
+     * 
+     * @param key
+     * @param record
+     * @return a future that completes with the values
+     * @see Concourse#select(String, long)
+     */
+    public <T> ListenableFuture<Set<T>> select(final String key,
+            final long record) {
+        return submit(new Function<Concourse, Set<T>>() {
+
+            @Override
+            public Set<T> apply(Concourse concourse) {
+                return concourse.select(key, record);
+            }
+
+        });
+    }
+
+    /**
+     * Asynchronously set {@code key} as {@code value} in {@code record}.
+     * 
+     * @param key
+     * @param value
+     * @param record
+     * @return a future that completes once the value is set
+     * @see Concourse#set(String, Object, long)
+     */
+    public <T> ListenableFuture<Void> set(final String key, final T value,
+            final long record) {
+        return submit(new Function<Concourse, Void>() {
+
+            @Override
+            public Void apply(Concourse concourse) {
+                concourse.set(key, value, record);
+                return null;
+            }
+
+        });
+    }
+
+    /**
+     * Asynchronously apply the {@code operation} to a connection and return a
+     * future that completes with its result. The connection is only leased to
+     * the {@code operation} while it runs, so it must not be retained.
+     * 
+     * @param operation
+     * @return a future that completes with the result of the operation
+     */
+    public <T> ListenableFuture<T> submit(final Function<Concourse, T> operation) {
+        return executor.submit(new Callable<T>() {
+
+            @Override
+            public T call() throws Exception {
+                Concourse concourse = connections.request();
+                try {
+                    return operation.apply(concourse);
+                }
+                finally {
+                    connections.release(concourse);
+                }
+            }
+
+        });
+    }
+
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2013-2015 Cinchapi Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.cinchapi.concourse;
+
+import java.util.List;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import org.cinchapi.concourse.thrift.TMutation;
+import org.cinchapi.concourse.thrift.TMutationType;
+import org.cinchapi.concourse.util.Convert;
+
+import com.google.common.collect.Lists;
+
+/**
+ * A {@link Batch} collects writes (adds, removes, sets and clears) across any
+ * number of records on the client and then {@link #submit() submits} them to
+ * the server in a single request.
+ * <p>
+ * The server applies all of the writes in the batch, in the order they were
+ * added, within one atomic operation. So bulk loads only pay for one round
+ * trip and one commit instead of one of each per write and, like any other
+ * atomic operation, either all of the writes in the batch are applied or none
+ * of them are.
+ * </p>
+ * 
+ * <pre>
+ * List&lt;Boolean&gt; results = concourse.batch().add(&quot;name&quot;, &quot;Jeff&quot;, 1)
+ *         .set(&quot;age&quot;, 30, 1).remove(&quot;name&quot;, &quot;John&quot;, 2).clear(3).submit();
+ * </pre>
+ * 
+ * @author Jeff Nelson
+ */
+@NotThreadSafe
+public final class Batch {
+
+    /**
+     * The connection that is used to submit the batch.
+     */
+    private final Concourse concourse;
+
+    /**
+     * The writes that have been added to the batch, in order.
+     */
+    private final List<TMutation> mutations = Lists.newArrayList();
+
+    /**
+     * Construct a new instance.
+     * 
+     * @param concourse
+     */
+    Batch(Concourse concourse) {
+        this.concourse = concourse;
+    }
+
+    /**
+     * Add {@code key} as {@code value} in {@code record} when the batch is
+     * submitted.
+     * 
+     * @param key
+     * @param value
+     * @param record
+     * @return this
+     */
+    public <T> Batch add(String key, T value, long record) {
+        return enqueue(TMutationType.ADD, key, value, record);
+    }
+
+    /**
+     * Remove every key and value from {@code record} when the batch is
+     * submitted.
+     * 
+     * @param record
+     * @return this
+     */
+    public Batch clear(long record) {
+        mutations.add(new TMutation(TMutationType.CLEAR, record));
+        return this;
+    }
+
+    /**
+     * Remove every value for {@code key} from {@code record} when the batch is
+     * submitted.
+     * 
+     * @param key
+     * @param record
+     * @return this
+     */
+    public Batch clear(String key, long record) {
+        mutations.add(new TMutation(TMutationType.CLEAR, record).setKey(key));
+        return this;
+    }
+
+    /**
+     * Remove {@code key} as {@code value} from {@code record} when the batch
+     * is submitted.
+     * 
+     * @param key
+     * @param value
+     * @param record
+     * @return this
+     */
+    public <T> Batch remove(String key, T value, long record) {
+        return enqueue(TMutationType.REMOVE, key, value, record);
+    }
+
+    /**
+     * Set {@code key} as {@code value} in {@code record} when the batch is
+     * submitted.
+     * 
+     * @param key
+     * @param value
+     * @param record
+     * @return this
+     */
+    public <T> Batch set(String key, T value, long record) {
+        return enqueue(TMutationType.SET, key, value, record);
+    }
+
+    /**
+     * Return the number of writes in the batch.
+     * 
+     * @return the size
+     */
+    public int size() {
+        return mutations.size();
+    }
+
+    /**
+     * Atomically apply all the writes in the batch and return, for each write
+     * in the order it was added, a boolean that indicates whether the write
+     * was applied. A set or clear is always applied. Once the batch is
+     * submitted, it is empty and can be reused.
+     * 
+     * @return the results of the writes
+     */
+    public List<Boolean> submit() {
+        List<Boolean> results = concourse.mutate(mutations);
+        mutations.clear();
+        return results;
+    }
+
+    /**
+     * Add a write of the {@code type} to the batch.
+     * 
+     * @param type
+     * @param key
+     * @param value
+     * @param record
+     * @return this
+     */
+    private Batch enqueue(TMutationType type, String key, Object value,
+            long record) {
+        mutations.add(new TMutation(type, record).setKey(key).setValue(
+                Convert.javaToThrift(value)));
+        return this;
+    }
+
+}
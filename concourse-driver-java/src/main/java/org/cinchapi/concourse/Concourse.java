@@ -17,6 +17,7 @@ package org.cinchapi.concourse;
 
 import java.nio.ByteBuffer;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -27,8 +28,8 @@ import javax.annotation.Nullable;
 import javax.annotation.concurrent.NotThreadSafe;
 
 import org.apache.thrift.TException;
-import org.apache.thrift.protocol.TBinaryProtocol;
 import org.apache.thrift.protocol.TProtocol;
+import org.apache.thrift.transport.TFramedTransport;
 import org.apache.thrift.transport.TSocket;
 import org.apache.thrift.transport.TTransport;
 import org.apache.thrift.transport.TTransportException;
@@ -42,22 +43,32 @@ import org.cinchapi.concourse.thrift.AccessToken;
 import org.cinchapi.concourse.thrift.ConcourseService;
 import org.cinchapi.concourse.thrift.Diff;
 import org.cinchapi.concourse.thrift.Operator;
+import org.cinchapi.concourse.thrift.TCriteria;
 import org.cinchapi.concourse.thrift.TDuplicateEntryException;
+import org.cinchapi.concourse.thrift.TInvalidCursorException;
+import org.cinchapi.concourse.thrift.TMutation;
 import org.cinchapi.concourse.thrift.TObject;
 import org.cinchapi.concourse.thrift.TSecurityException;
 import org.cinchapi.concourse.thrift.TTransactionException;
 import org.cinchapi.concourse.thrift.TransactionToken;
 import org.cinchapi.concourse.time.Time;
 import org.cinchapi.concourse.util.Collections;
+import org.cinchapi.concourse.util.CompressingTransport;
 import org.cinchapi.concourse.util.Conversions;
 import org.cinchapi.concourse.util.Convert;
+import org.cinchapi.concourse.util.NegotiatingProtocol;
 import org.cinchapi.concourse.util.PrettyLinkedTableMap;
 import org.cinchapi.concourse.util.Transformers;
 import org.cinchapi.concourse.util.PrettyLinkedHashMap;
 
 import com.google.common.base.Preconditions;
 import com.google.common.base.Throwables;
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.Iterators;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Ordering;
+import com.google.common.collect.Sets;
 
 /**
  * <p>
@@ -226,6 +237,95 @@ public abstract class Concourse implements AutoCloseable {
      */
     public abstract <T> boolean add(String key, T value, long record);
 
+    /**
+     * Apply the aggregation {@code function} to all the values that are
+     * stored for {@code key} and return the result. The aggregation is done by
+     * the server, so only the result is sent over the wire.
+     * 
+     * @param function
+     * @param key
+     * @return the aggregate value or {@code null} if there are no values to
+     *         aggregate
+     */
+    public abstract <T> T aggregate(Aggregation function, String key);
+
+    /**
+     * Apply the aggregation {@code function} to the values that are stored
+     * for {@code key} in the records that match the {@code criteria} and
+     * return the result. The aggregation is done by the server, so only the
+     * result is sent over the wire.
+     * 
+     * @param function
+     * @param key
+     * @param criteria
+     * @return the aggregate value or {@code null} if there are no values to
+     *         aggregate
+     */
+    public abstract <T> T aggregate(Aggregation function, String key,
+            Criteria criteria);
+
+    /**
+     * Apply the aggregation {@code function} to the values that were stored
+     * for {@code key} at {@code timestamp} in the records that match the
+     * {@code criteria} and return the result. The aggregation is done by the
+     * server, so only the result is sent over the wire.
+     * 
+     * @param function
+     * @param key
+     * @param criteria
+     * @param timestamp
+     * @return the aggregate value or {@code null} if there are no values to
+     *         aggregate
+     */
+    public abstract <T> T aggregate(Aggregation function, String key,
+            Criteria criteria, Timestamp timestamp);
+
+    /**
+     * Apply the aggregation {@code function} to the values that are stored
+     * for {@code key} in the records that match the {@code ccl} criteria and
+     * return the result. The aggregation is done by the server, so only the
+     * result is sent over the wire.
+     * 
+     * @param function
+     * @param key
+     * @param ccl
+     * @return the aggregate value or {@code null} if there are no values to
+     *         aggregate
+     */
+    public abstract <T> T aggregate(Aggregation function, String key,
+            String ccl);
+
+    /**
+     * Apply the aggregation {@code function} to the values that were stored
+     * for {@code key} at {@code timestamp} in the records that match the
+     * {@code ccl} criteria and return the result. The aggregation is done by
+     * the server, so only the result is sent over the wire.
+     * 
+     * @param function
+     * @param key
+     * @param ccl
+     * @param timestamp
+     * @return the aggregate value or {@code null} if there are no values to
+     *         aggregate
+     */
+    public abstract <T> T aggregate(Aggregation function, String key,
+            String ccl, Timestamp timestamp);
+
+    /**
+     * Apply the aggregation {@code function} to all the values that were
+     * stored for {@code key} at {@code timestamp} and return the result. The
+     * aggregation is done by the server, so only the result is sent over the
+     * wire.
+     * 
+     * @param function
+     * @param key
+     * @param timestamp
+     * @return the aggregate value or {@code null} if there are no values to
+     *         aggregate
+     */
+    public abstract <T> T aggregate(Aggregation function, String key,
+            Timestamp timestamp);
+
     /**
      * Audit {@code record} and return a log of revisions.
      * 
@@ -286,6 +386,15 @@ public abstract class Concourse implements AutoCloseable {
     public abstract Map<Timestamp, String> audit(String key, long record,
             Timestamp start, Timestamp end);
 
+    /**
+     * Return a new {@link Batch} that collects writes across any number of
+     * records and then submits all of them to the server in one request that
+     * is applied atomically.
+     * 
+     * @return the Batch
+     */
+    public abstract Batch batch();
+
     /**
      * Browse all of the {@code keys} and return all the data that is indexed as
      * a mapping from value to the set of records containing the value for each
@@ -330,6 +439,32 @@ public abstract class Concourse implements AutoCloseable {
     public abstract Map<Object, Set<Long>> browse(String key,
             Timestamp timestamp);
 
+    /**
+     * Browse {@code key} and return the {@code page} of the indexed values
+     * (sorted in ascending order) as a mapping from value to the set of
+     * records containing the value for {@code key}. Since the values
+     * themselves are sorted, the {@code page} cannot specify an order key.
+     * 
+     * @param key
+     * @param page
+     * @return a mapping of the indexed values in the page and their associated
+     *         records.
+     */
+    public abstract Map<Object, Set<Long>> browse(String key, Page page);
+
+    /**
+     * Browse {@code key} and return an {@link Iterator} over the indexed
+     * values (sorted in ascending order), each paired with the set of records
+     * that contain the value for {@code key}. The data is captured by the
+     * server when this method is called and streamed to the client in chunks
+     * as the iterator advances, so the client never needs to hold the entire
+     * index in memory.
+     * 
+     * @param key
+     * @return an iterator over the indexed values and their associated records
+     */
+    public abstract Iterator<Entry<Object, Set<Long>>> browseCursor(String key);
+
     /**
      * Chronologize non-empty sets of values in {@code key} from {@code record}
      * and return a mapping from each timestamp to the non-empty set of values.
@@ -584,6 +719,17 @@ public abstract class Concourse implements AutoCloseable {
      */
     public abstract Set<Long> find(Criteria criteria);
 
+    /**
+     * Find and return the {@code page} of records that satisfy the
+     * {@code criteria}. Only the records in the page are returned by the
+     * server and they are iterated in the order described by the {@code page}.
+     * 
+     * @param criteria
+     * @param page
+     * @return the records in the page that match the {@code criteria}
+     */
+    public abstract Set<Long> find(Criteria criteria, Page page);
+
     /**
      * Find and return the set of records that satisfy the {@code criteria}.
      * This is analogous to the SELECT action in SQL.
@@ -605,6 +751,17 @@ public abstract class Concourse implements AutoCloseable {
      */
     public abstract Set<Long> find(String ccl);
 
+    /**
+     * Find and return the {@code page} of records that satisfy the {@code ccl}
+     * criteria. Only the records in the page are returned by the server and
+     * they are iterated in the order described by the {@code page}.
+     * 
+     * @param ccl
+     * @param page
+     * @return the records in the page that match the criteria
+     */
+    public abstract Set<Long> find(String ccl, Page page);
+
     /**
      * Find and return the set of records where {@code key} is equal to
      * {@code value}. This method is a shortcut for calling
@@ -724,6 +881,30 @@ public abstract class Concourse implements AutoCloseable {
     public abstract Set<Long> find(String key, String operator, Object value,
             Timestamp timestamp);
 
+    /**
+     * Find the records that satisfy the {@code criteria} and return an
+     * {@link Iterator} over them in ascending order. The result set is
+     * captured by the server when this method is called and streamed to the
+     * client in chunks as the iterator advances, so the client never needs to
+     * hold all of the matching records in memory.
+     * 
+     * @param criteria
+     * @return an iterator over the records that match the {@code criteria}
+     */
+    public abstract Iterator<Long> findCursor(Criteria criteria);
+
+    /**
+     * Find the records that satisfy the {@code ccl} criteria and return an
+     * {@link Iterator} over them in ascending order. The result set is
+     * captured by the server when this method is called and streamed to the
+     * client in chunks as the iterator advances, so the client never needs to
+     * hold all of the matching records in memory.
+     * 
+     * @param ccl
+     * @return an iterator over the records that match the criteria
+     */
+    public abstract Iterator<Long> findCursor(String ccl);
+
     /**
      * Find and return the unique record where {@code key}
      * {@link Operator#EQUALS
@@ -1288,6 +1469,16 @@ public abstract class Concourse implements AutoCloseable {
      */
     public abstract boolean link(String key, long source, long destination);
 
+    /**
+     * Atomically apply each of the {@code mutations}, in order, and return a
+     * list of booleans that indicate whether each one was applied. This method
+     * is used to {@link Batch#submit() submit} a {@link Batch}.
+     * 
+     * @param mutations
+     * @return the result of each mutation
+     */
+    abstract List<Boolean> mutate(List<TMutation> mutations);
+
     /**
      * Ping each of the {@code records}.
      * 
@@ -1391,6 +1582,21 @@ public abstract class Concourse implements AutoCloseable {
      */
     public abstract Set<Long> search(String key, String query);
 
+    /**
+     * Search {@code key} for {@code query} and return the (at most)
+     * {@code limit} most relevant records that match, each mapped to its
+     * relevance score. The records are ranked on the server using the BM25
+     * relevance function, so only the top records are sent over the wire.
+     * 
+     * @param key
+     * @param query
+     * @param limit
+     * @return a mapping from each of the top records to its score, in
+     *         descending order of score
+     */
+    public abstract Map<Long, Double> searchRanked(String key, String query,
+            int limit);
+
     /**
      * Select the {@code records} and return a mapping from each record to all
      * the data that is contained as a mapping from key name to value set.
@@ -1468,6 +1674,20 @@ public abstract class Concourse implements AutoCloseable {
     public abstract <T> Map<Long, Map<String, Set<T>>> select(
             Collection<String> keys, Criteria criteria, Timestamp timestamp);
 
+    /**
+     * Select the values for each of the {@code keys} in the {@code page} of
+     * records that match {@code criteria}. Only the records in the page are
+     * returned by the server and they are iterated in the order described by
+     * the {@code page}.
+     * 
+     * @param keys
+     * @param criteria
+     * @param page
+     * @return the result set
+     */
+    public abstract <T> Map<Long, Map<String, Set<T>>> select(
+            Collection<String> keys, Criteria criteria, Page page);
+
     /**
      * Select each of the {@code keys} from {@code record} and return a mapping
      * from each key to the contained values.
@@ -1541,6 +1761,20 @@ public abstract class Concourse implements AutoCloseable {
     public abstract <T> Map<Long, Map<String, Set<T>>> select(
             Collection<String> keys, String ccl, Timestamp timestamp);
 
+    /**
+     * Select the values for each of the {@code keys} in the {@code page} of
+     * records that match the {@code ccl} criteria. Only the records in the page
+     * are returned by the server and they are iterated in the order described
+     * by the {@code page}.
+     * 
+     * @param keys
+     * @param ccl
+     * @param page
+     * @return the result set
+     */
+    public abstract <T> Map<Long, Map<String, Set<T>>> select(
+            Collection<String> keys, String ccl, Page page);
+
     /**
      * Select all of the values for every key in all the records that match
      * {@code criteria}.
@@ -1563,6 +1797,19 @@ public abstract class Concourse implements AutoCloseable {
     public abstract <T> Map<Long, Map<String, Set<T>>> select(
             Criteria criteria, Timestamp timestamp);
 
+    /**
+     * Select all of the values for every key in the {@code page} of records
+     * that match {@code criteria}. Only the records in the page are returned
+     * by the server and they are iterated in the order described by the
+     * {@code page}.
+     * 
+     * @param criteria
+     * @param page
+     * @return the result set
+     */
+    public abstract <T> Map<Long, Map<String, Set<T>>> select(
+            Criteria criteria, Page page);
+
     /**
      * Select {@code record} and return all the data that is presently contained
      * as a mapping from key name to value set.
@@ -1624,6 +1871,19 @@ public abstract class Concourse implements AutoCloseable {
      */
     public abstract <T> Map<Long, Map<String, Set<T>>> select(String ccl);
 
+    /**
+     * Select all of the values for every key in the {@code page} of records
+     * that match the {@code ccl} criteria. Only the records in the page are
+     * returned by the server and they are iterated in the order described by
+     * the {@code page}.
+     * 
+     * @param ccl
+     * @param page
+     * @return the result set
+     */
+    public abstract <T> Map<Long, Map<String, Set<T>>> select(String ccl,
+            Page page);
+
     /**
      * Select {@code key} from each of the {@code records} and return a mapping
      * from each record to contained values.
@@ -1936,7 +2196,16 @@ public abstract class Concourse implements AutoCloseable {
      */
     private final static class Client extends Concourse {
 
+        /**
+         * The number of rows that are fetched from a server side cursor in
+         * each round trip.
+         */
+        private static final int CURSOR_FETCH_SIZE = 1000;
+
+        private static boolean COMPACT;
+        private static boolean COMPRESSION;
         private static String ENVIRONMENT;
+        private static boolean FRAMED;
         private static String PASSWORD;
         private static String SERVER_HOST;
         private static int SERVER_PORT;
@@ -1955,12 +2224,19 @@ public abstract class Concourse implements AutoCloseable {
             USERNAME = "admin";
             PASSWORD = "admin";
             ENVIRONMENT = "";
+            FRAMED = false;
+            COMPACT = false;
+            COMPRESSION = false;
             if(config != null) {
                 SERVER_HOST = config.getString("host", SERVER_HOST);
                 SERVER_PORT = config.getInt("port", SERVER_PORT);
                 USERNAME = config.getString("username", USERNAME);
                 PASSWORD = config.getString("password", PASSWORD);
                 ENVIRONMENT = config.getString("environment", ENVIRONMENT);
+                FRAMED = config.getBoolean("framed", FRAMED);
+                COMPACT = config.getString("protocol", "binary")
+                        .equalsIgnoreCase("compact");
+                COMPRESSION = config.getBoolean("compression", COMPRESSION);
             }
         }
 
@@ -2063,10 +2339,20 @@ public abstract class Concourse implements AutoCloseable {
             this.username = ClientSecurity.encrypt(username);
             this.password = ClientSecurity.encrypt(password);
             this.environment = environment;
-            final TTransport transport = new TSocket(host, port);
+            // A server that multiplexes connections with non-blocking I/O
+            // (i.e. the SELECTOR client_worker_model) can only read framed
+            // requests.
+            final TTransport transport = FRAMED ? new TFramedTransport(
+                    new TSocket(host, port)) : new TSocket(host, port);
             try {
                 transport.open();
-                TProtocol protocol = new TBinaryProtocol(transport);
+                // The server detects the protocol of each request and only
+                // compresses responses for clients that wrap their requests
+                // in envelopes, so both options are negotiated implicitly.
+                TProtocol protocol = new NegotiatingProtocol(
+                        new CompressingTransport(transport, COMPRESSION,
+                                CompressingTransport.DEFAULT_THRESHOLD),
+                        COMPACT);
                 client = new ConcourseService.Client(protocol);
                 authenticate();
                 Runtime.getRuntime().addShutdownHook(new Thread("shutdown") {
@@ -2155,6 +2441,112 @@ public abstract class Concourse implements AutoCloseable {
             });
         }
 
+        @Override
+        @Nullable
+        public <T> T aggregate(final Aggregation function, final String key) {
+            return execute(new Callable<T>() {
+
+                @SuppressWarnings("unchecked")
+                @Override
+                public T call() throws Exception {
+                    return (T) Convert.thriftToJava(client.aggregateKey(
+                            function.name(), key, creds, transaction,
+                            environment));
+                }
+
+            });
+        }
+
+        @Override
+        @Nullable
+        public <T> T aggregate(final Aggregation function, final String key,
+                final Criteria criteria) {
+            return execute(new Callable<T>() {
+
+                @SuppressWarnings("unchecked")
+                @Override
+                public T call() throws Exception {
+                    TCriteria tcriteria = Language
+                            .translateToThriftCriteria(criteria);
+                    return (T) Convert.thriftToJava(client
+                            .aggregateKeyCriteria(function.name(), key,
+                                    tcriteria, creds, transaction, environment));
+                }
+
+            });
+        }
+
+        @Override
+        @Nullable
+        public <T> T aggregate(final Aggregation function, final String key,
+                final Criteria criteria, final Timestamp timestamp) {
+            return execute(new Callable<T>() {
+
+                @SuppressWarnings("unchecked")
+                @Override
+                public T call() throws Exception {
+                    TCriteria tcriteria = Language
+                            .translateToThriftCriteria(criteria);
+                    return (T) Convert.thriftToJava(client
+                            .aggregateKeyCriteriaTime(function.name(), key,
+                                    tcriteria, timestamp.getMicros(), creds,
+                                    transaction, environment));
+                }
+
+            });
+        }
+
+        @Override
+        @Nullable
+        public <T> T aggregate(final Aggregation function, final String key,
+                final String ccl) {
+            return execute(new Callable<T>() {
+
+                @SuppressWarnings("unchecked")
+                @Override
+                public T call() throws Exception {
+                    return (T) Convert.thriftToJava(client.aggregateKeyCcl(
+                            function.name(), key, ccl, creds, transaction,
+                            environment));
+                }
+
+            });
+        }
+
+        @Override
+        @Nullable
+        public <T> T aggregate(final Aggregation function, final String key,
+                final String ccl, final Timestamp timestamp) {
+            return execute(new Callable<T>() {
+
+                @SuppressWarnings("unchecked")
+                @Override
+                public T call() throws Exception {
+                    return (T) Convert.thriftToJava(client.aggregateKeyCclTime(
+                            function.name(), key, ccl, timestamp.getMicros(),
+                            creds, transaction, environment));
+                }
+
+            });
+        }
+
+        @Override
+        @Nullable
+        public <T> T aggregate(final Aggregation function, final String key,
+                final Timestamp timestamp) {
+            return execute(new Callable<T>() {
+
+                @SuppressWarnings("unchecked")
+                @Override
+                public T call() throws Exception {
+                    return (T) Convert.thriftToJava(client.aggregateKeyTime(
+                            function.name(), key, timestamp.getMicros(), creds,
+                            transaction, environment));
+                }
+
+            });
+        }
+
         @Override
         public Map<Timestamp, String> audit(final long record) {
             return execute(new Callable<Map<Timestamp, String>>() {
@@ -2272,6 +2664,11 @@ public abstract class Concourse implements AutoCloseable {
             });
         }
 
+        @Override
+        public Batch batch() {
+            return new Batch(this);
+        }
+
         @Override
         public Map<String, Map<Object, Set<Long>>> browse(
                 final Collection<String> keys) {
@@ -2342,6 +2739,30 @@ public abstract class Concourse implements AutoCloseable {
             });
         }
 
+        @Override
+        public Map<Object, Set<Long>> browse(final String key, final Page page) {
+            Preconditions.checkArgument(page.getOrder() == null,
+                    "Cannot specify an order key when browsing");
+            return execute(new Callable<Map<Object, Set<Long>>>() {
+
+                @Override
+                public Map<Object, Set<Long>> call() throws Exception {
+                    List<Map<TObject, Set<Long>>> raw = client.browseKeyPage(
+                            key, page.getOffset(), page.getLimit(), creds,
+                            transaction, environment);
+                    Map<Object, Set<Long>> pretty = PrettyLinkedHashMap
+                            .newPrettyLinkedHashMap(key, "Records");
+                    for (Map<TObject, Set<Long>> row : raw) {
+                        for (Entry<TObject, Set<Long>> entry : row.entrySet()) {
+                            pretty.put(Convert.thriftToJava(entry.getKey()),
+                                    entry.getValue());
+                        }
+                    }
+                    return pretty;
+                }
+            });
+        }
+
         @Override
         public Map<Object, Set<Long>> browse(final String key,
                 final Timestamp timestamp) {
@@ -2363,6 +2784,39 @@ public abstract class Concourse implements AutoCloseable {
             });
         }
 
+        @Override
+        public Iterator<Entry<Object, Set<Long>>> browseCursor(
+                final String key) {
+            long cursor = execute(new Callable<Long>() {
+
+                @Override
+                public Long call() throws Exception {
+                    return client.openCursorKey(key, creds, transaction,
+                            environment);
+                }
+
+            });
+            return new CursorIterator<Entry<Object, Set<Long>>>(cursor) {
+
+                @Override
+                protected List<Entry<Object, Set<Long>>> fetch(long cursor,
+                        int count) throws TException {
+                    List<Entry<Object, Set<Long>>> rows = Lists.newArrayList();
+                    for (Map<TObject, Set<Long>> row : client
+                            .fetchCursorValues(cursor, count, creds,
+                                    environment)) {
+                        for (Entry<TObject, Set<Long>> entry : row.entrySet()) {
+                            rows.add(Maps.immutableEntry(
+                                    Convert.thriftToJava(entry.getKey()),
+                                    entry.getValue()));
+                        }
+                    }
+                    return rows;
+                }
+
+            };
+        }
+
         @Override
         public Map<Timestamp, Set<Object>> chronologize(final String key,
                 final long record) {
@@ -2732,6 +3186,21 @@ public abstract class Concourse implements AutoCloseable {
             });
         }
 
+        @Override
+        public Set<Long> find(final Criteria criteria, final Page page) {
+            return execute(new Callable<Set<Long>>() {
+
+                @Override
+                public Set<Long> call() throws Exception {
+                    return Sets.newLinkedHashSet(client.findCriteriaPage(
+                            Language.translateToThriftCriteria(criteria),
+                            page.getOrder(), page.getOffset(), page.getLimit(),
+                            creds, transaction, environment));
+                }
+
+            });
+        }
+
         @Override
         public Set<Long> find(Object object) {
             if(object instanceof BuildableState) {
@@ -2755,6 +3224,20 @@ public abstract class Concourse implements AutoCloseable {
             });
         }
 
+        @Override
+        public Set<Long> find(final String ccl, final Page page) {
+            return execute(new Callable<Set<Long>>() {
+
+                @Override
+                public Set<Long> call() throws Exception {
+                    return Sets.newLinkedHashSet(client.findCclPage(ccl,
+                            page.getOrder(), page.getOffset(), page.getLimit(),
+                            creds, transaction, environment));
+                }
+
+            });
+        }
+
         @Override
         public Set<Long> find(String key, Object value) {
             return find0(key, Operator.EQUALS, value);
@@ -2806,6 +3289,35 @@ public abstract class Concourse implements AutoCloseable {
             return find0(timestamp, key, operator, value);
         }
 
+        @Override
+        public Iterator<Long> findCursor(final Criteria criteria) {
+            long cursor = execute(new Callable<Long>() {
+
+                @Override
+                public Long call() throws Exception {
+                    return client.openCursorCriteria(
+                            Language.translateToThriftCriteria(criteria),
+                            creds, transaction, environment);
+                }
+
+            });
+            return new RecordCursorIterator(cursor);
+        }
+
+        @Override
+        public Iterator<Long> findCursor(final String ccl) {
+            long cursor = execute(new Callable<Long>() {
+
+                @Override
+                public Long call() throws Exception {
+                    return client.openCursorCcl(ccl, creds, transaction,
+                            environment);
+                }
+
+            });
+            return new RecordCursorIterator(cursor);
+        }
+
         @Override
         public <T> long findOrAdd(final String key, final T value) {
             return execute(new Callable<Long>() {
@@ -3578,6 +4090,19 @@ public abstract class Concourse implements AutoCloseable {
             return add(key, Link.to(destination), source);
         }
 
+        @Override
+        List<Boolean> mutate(final List<TMutation> mutations) {
+            return execute(new Callable<List<Boolean>>() {
+
+                @Override
+                public List<Boolean> call() throws Exception {
+                    return client.mutate(mutations, creds, transaction,
+                            environment);
+                }
+
+            });
+        }
+
         @Override
         public Map<Long, Boolean> ping(final Collection<Long> records) {
             return execute(new Callable<Map<Long, Boolean>>() {
@@ -3723,6 +4248,39 @@ public abstract class Concourse implements AutoCloseable {
             });
         }
 
+        @Override
+        public Map<Long, Double> searchRanked(final String key,
+                final String query, final int limit) {
+            return execute(new Callable<Map<Long, Double>>() {
+
+                @Override
+                public Map<Long, Double> call() throws Exception {
+                    Map<Long, Double> scores = client.searchRanked(key, query,
+                            limit, creds, transaction, environment);
+                    // Thrift does not preserve the order of a map, so the
+                    // records must be sorted by score again
+                    List<Entry<Long, Double>> entries = new Ordering<Entry<Long, Double>>() {
+
+                        @Override
+                        public int compare(Entry<Long, Double> o1,
+                                Entry<Long, Double> o2) {
+                            int comparison = Double.compare(o2.getValue(),
+                                    o1.getValue());
+                            return comparison != 0 ? comparison : Long
+                                    .compare(o1.getKey(), o2.getKey());
+                        }
+
+                    }.sortedCopy(scores.entrySet());
+                    Map<Long, Double> ranked = Maps.newLinkedHashMap();
+                    for (Entry<Long, Double> entry : entries) {
+                        ranked.put(entry.getKey(), entry.getValue());
+                    }
+                    return ranked;
+                }
+
+            });
+        }
+
         @Override
         public Map<Long, Map<String, Set<Object>>> select(
                 final Collection<Long> records) {
@@ -3855,6 +4413,37 @@ public abstract class Concourse implements AutoCloseable {
             });
         }
 
+        @Override
+        public <T> Map<Long, Map<String, Set<T>>> select(
+                final Collection<String> keys, final Criteria criteria,
+                final Page page) {
+            return execute(new Callable<Map<Long, Map<String, Set<T>>>>() {
+
+                @Override
+                public Map<Long, Map<String, Set<T>>> call() throws Exception {
+                    List<Map<Long, Map<String, Set<TObject>>>> raw = client
+                            .selectKeysCriteriaPage(Collections.toList(keys),
+                                    Language.translateToThriftCriteria(criteria),
+                                    page.getOrder(), page.getOffset(),
+                                    page.getLimit(), creds, transaction,
+                                    environment);
+                    Map<Long, Map<String, Set<T>>> pretty = PrettyLinkedTableMap
+                            .newPrettyLinkedTableMap("Record");
+                    for (Map<Long, Map<String, Set<TObject>>> row : raw) {
+                        for (Entry<Long, Map<String, Set<TObject>>> entry : row
+                                .entrySet()) {
+                            pretty.put(entry.getKey(), Transformers
+                                    .transformMapSet(entry.getValue(),
+                                            Conversions.<String> none(),
+                                            Conversions.<T> thriftToJavaCasted()));
+                        }
+                    }
+                    return pretty;
+                }
+
+            });
+        }
+
         @Override
         public <T> Map<Long, Map<String, Set<T>>> select(
                 final Collection<String> keys, final Criteria criteria,
@@ -3981,6 +4570,36 @@ public abstract class Concourse implements AutoCloseable {
             });
         }
 
+        @Override
+        public <T> Map<Long, Map<String, Set<T>>> select(
+                final Collection<String> keys, final String ccl,
+                final Page page) {
+            return execute(new Callable<Map<Long, Map<String, Set<T>>>>() {
+
+                @Override
+                public Map<Long, Map<String, Set<T>>> call() throws Exception {
+                    List<Map<Long, Map<String, Set<TObject>>>> raw = client
+                            .selectKeysCclPage(Collections.toList(keys), ccl,
+                                    page.getOrder(), page.getOffset(),
+                                    page.getLimit(), creds, transaction,
+                                    environment);
+                    Map<Long, Map<String, Set<T>>> pretty = PrettyLinkedTableMap
+                            .newPrettyLinkedTableMap("Record");
+                    for (Map<Long, Map<String, Set<TObject>>> row : raw) {
+                        for (Entry<Long, Map<String, Set<TObject>>> entry : row
+                                .entrySet()) {
+                            pretty.put(entry.getKey(), Transformers
+                                    .transformMapSet(entry.getValue(),
+                                            Conversions.<String> none(),
+                                            Conversions.<T> thriftToJavaCasted()));
+                        }
+                    }
+                    return pretty;
+                }
+
+            });
+        }
+
         @Override
         public <T> Map<Long, Map<String, Set<T>>> select(
                 final Collection<String> keys, final String ccl,
@@ -4033,6 +4652,36 @@ public abstract class Concourse implements AutoCloseable {
             });
         }
 
+        @Override
+        public <T> Map<Long, Map<String, Set<T>>> select(final Criteria criteria,
+                final Page page) {
+            return execute(new Callable<Map<Long, Map<String, Set<T>>>>() {
+
+                @Override
+                public Map<Long, Map<String, Set<T>>> call() throws Exception {
+                    List<Map<Long, Map<String, Set<TObject>>>> raw = client
+                            .selectCriteriaPage(
+                                    Language.translateToThriftCriteria(criteria),
+                                    page.getOrder(), page.getOffset(),
+                                    page.getLimit(), creds, transaction,
+                                    environment);
+                    Map<Long, Map<String, Set<T>>> pretty = PrettyLinkedTableMap
+                            .newPrettyLinkedTableMap("Record");
+                    for (Map<Long, Map<String, Set<TObject>>> row : raw) {
+                        for (Entry<Long, Map<String, Set<TObject>>> entry : row
+                                .entrySet()) {
+                            pretty.put(entry.getKey(), Transformers
+                                    .transformMapSet(entry.getValue(),
+                                            Conversions.<String> none(),
+                                            Conversions.<T> thriftToJavaCasted()));
+                        }
+                    }
+                    return pretty;
+                }
+
+            });
+        }
+
         @Override
         public <T> Map<Long, Map<String, Set<T>>> select(
                 final Criteria criteria, final Timestamp timestamp) {
@@ -4146,6 +4795,34 @@ public abstract class Concourse implements AutoCloseable {
             });
         }
 
+        @Override
+        public <T> Map<Long, Map<String, Set<T>>> select(final String ccl,
+                final Page page) {
+            return execute(new Callable<Map<Long, Map<String, Set<T>>>>() {
+
+                @Override
+                public Map<Long, Map<String, Set<T>>> call() throws Exception {
+                    List<Map<Long, Map<String, Set<TObject>>>> raw = client
+                            .selectCclPage(ccl, page.getOrder(),
+                                    page.getOffset(), page.getLimit(), creds,
+                                    transaction, environment);
+                    Map<Long, Map<String, Set<T>>> pretty = PrettyLinkedTableMap
+                            .newPrettyLinkedTableMap("Record");
+                    for (Map<Long, Map<String, Set<TObject>>> row : raw) {
+                        for (Entry<Long, Map<String, Set<TObject>>> entry : row
+                                .entrySet()) {
+                            pretty.put(entry.getKey(), Transformers
+                                    .transformMapSet(entry.getValue(),
+                                            Conversions.<String> none(),
+                                            Conversions.<T> thriftToJavaCasted()));
+                        }
+                    }
+                    return pretty;
+                }
+
+            });
+        }
+
         @Override
         public <T> Map<Long, Set<T>> select(final String key,
                 final Collection<Long> records) {
@@ -4616,5 +5293,102 @@ public abstract class Concourse implements AutoCloseable {
             });
         }
 
+        /**
+         * An {@link Iterator} that walks a cursor on the server by fetching
+         * {@link #CURSOR_FETCH_SIZE} rows at a time. The server releases the
+         * cursor once all of its rows have been fetched.
+         * 
+         * @author Jeff Nelson
+         */
+        private abstract class CursorIterator<T> extends AbstractIterator<T> {
+
+            /**
+             * The id of the cursor on the server.
+             */
+            private final long cursor;
+
+            /**
+             * A flag that indicates whether the server has run out of rows.
+             */
+            private boolean exhausted = false;
+
+            /**
+             * The rows from the most recent fetch that haven't been returned.
+             */
+            private Iterator<T> rows = Iterators.emptyIterator();
+
+            /**
+             * Construct a new instance.
+             * 
+             * @param cursor
+             */
+            protected CursorIterator(long cursor) {
+                this.cursor = cursor;
+            }
+
+            @Override
+            protected T computeNext() {
+                while (!rows.hasNext()) {
+                    if(exhausted) {
+                        return endOfData();
+                    }
+                    List<T> fetched = execute(new Callable<List<T>>() {
+
+                        @Override
+                        public List<T> call() throws Exception {
+                            try {
+                                return fetch(cursor, CURSOR_FETCH_SIZE);
+                            }
+                            catch (TInvalidCursorException e) {
+                                throw new InvalidCursorException(e);
+                            }
+                        }
+
+                    });
+                    exhausted = fetched.size() < CURSOR_FETCH_SIZE;
+                    rows = fetched.iterator();
+                }
+                return rows.next();
+            }
+
+            /**
+             * Fetch and return the next {@code count} rows from the
+             * {@code cursor} on the server.
+             * 
+             * @param cursor
+             * @param count
+             * @return the next rows
+             * @throws TException
+             */
+            protected abstract List<T> fetch(long cursor, int count)
+                    throws TException;
+
+        }
+
+        /**
+         * A {@link CursorIterator} over the records in a find result.
+         * 
+         * @author Jeff Nelson
+         */
+        private class RecordCursorIterator extends CursorIterator<Long> {
+
+            /**
+             * Construct a new instance.
+             * 
+             * @param cursor
+             */
+            protected RecordCursorIterator(long cursor) {
+                super(cursor);
+            }
+
+            @Override
+            protected List<Long> fetch(long cursor, int count)
+                    throws TException {
+                return client.fetchCursorRecords(cursor, count, creds,
+                        environment);
+            }
+
+        }
+
     }
 }
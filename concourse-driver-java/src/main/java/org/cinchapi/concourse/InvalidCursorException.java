@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) 2013-2015 Cinchapi Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.cinchapi.concourse;
+
+import org.cinchapi.concourse.thrift.TInvalidCursorException;
+
+/**
+ * An exception that is thrown when an iterator over a cursor on the server
+ * can no longer fetch rows because the cursor does not exist anymore. This
+ * happens if the iterator is left idle for too long, in which case the server
+ * releases the cursor.
+ * 
+ * @author Jeff Nelson
+ */
+public class InvalidCursorException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Construct a new instance.
+     * 
+     * @param thrift
+     */
+    public InvalidCursorException(TInvalidCursorException thrift) {
+        super(thrift.getMessage());
+    }
+
+}
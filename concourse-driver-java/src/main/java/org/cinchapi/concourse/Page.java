@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2013-2015 Cinchapi Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.cinchapi.concourse;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+
+import com.google.common.base.Objects;
+import com.google.common.base.Preconditions;
+
+/**
+ * A {@link Page} describes the slice of a result set that should be returned
+ * from a query: the records are sorted (by the value of an {@code order} key
+ * or by record id) and then at most {@code limit} records are returned,
+ * starting at {@code offset}.
+ * <p>
+ * The paging is done by the server, so only the records in the page are
+ * materialized and sent over the wire. Use {@link #next()} to get the
+ * {@link Page} that immediately follows this one.
+ * </p>
+ *
+ * @author Jeff Nelson
+ */
+@Immutable
+public final class Page {
+
+    /**
+     * Return a {@link Page} that contains at most {@code limit} records,
+     * starting at {@code offset}, when the results are sorted by record id.
+     *
+     * @param offset
+     * @param limit
+     * @return the Page
+     */
+    public static Page create(int offset, int limit) {
+        return create(null, offset, limit);
+    }
+
+    /**
+     * Return a {@link Page} that contains at most {@code limit} records,
+     * starting at {@code offset}, when the results are sorted by the value of
+     * the {@code order} key. Records that don't have a value for the
+     * {@code order} key are sorted after the ones that do.
+     *
+     * @param order
+     * @param offset
+     * @param limit
+     * @return the Page
+     */
+    public static Page create(@Nullable String order, int offset, int limit) {
+        Preconditions.checkArgument(offset >= 0,
+                "The offset cannot be negative");
+        Preconditions.checkArgument(limit > 0, "The limit must be positive");
+        return new Page(order, offset, limit);
+    }
+
+    /**
+     * The key whose values are used to sort the results, or {@code null} if
+     * the results are sorted by record id.
+     */
+    @Nullable
+    private final String order;
+
+    /**
+     * The number of sorted results to skip.
+     */
+    private final int offset;
+
+    /**
+     * The maximum number of results in the page.
+     */
+    private final int limit;
+
+    /**
+     * Construct a new instance.
+     *
+     * @param order
+     * @param offset
+     * @param limit
+     */
+    private Page(@Nullable String order, int offset, int limit) {
+        this.order = order;
+        this.offset = offset;
+        this.limit = limit;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if(obj instanceof Page) {
+            Page other = (Page) obj;
+            return Objects.equal(order, other.order) && offset == other.offset
+                    && limit == other.limit;
+        }
+        return false;
+    }
+
+    /**
+     * Return the maximum number of results in this {@link Page}.
+     *
+     * @return the limit
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Return the number of sorted results that are skipped before this
+     * {@link Page} begins.
+     *
+     * @return the offset
+     */
+    public int getOffset() {
+        return offset;
+    }
+
+    /**
+     * Return the key whose values are used to sort the results or
+     * {@code null} if the results are sorted by record id.
+     *
+     * @return the order key
+     */
+    @Nullable
+    public String getOrder() {
+        return order;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(order, offset, limit);
+    }
+
+    /**
+     * Return the {@link Page} that immediately follows this one.
+     *
+     * @return the next Page
+     */
+    public Page next() {
+        return new Page(order, offset + limit, limit);
+    }
+
+    @Override
+    public String toString() {
+        return Objects.toStringHelper(this).add("order", order)
+                .add("offset", offset).add("limit", limit).toString();
+    }
+
+}
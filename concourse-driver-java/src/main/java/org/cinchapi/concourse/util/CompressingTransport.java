@@ -0,0 +1,477 @@
+/*
+ * Copyright (c) 2013-2015 Cinchapi Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.cinchapi.concourse.util;
+
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import org.apache.thrift.TByteArrayOutputStream;
+import org.apache.thrift.transport.TTransport;
+import org.apache.thrift.transport.TTransportException;
+
+/**
+ * A {@link TTransport} that can wrap each outgoing message in an
+ * <em>envelope</em> whose payload is compressed if it is large enough and
+ * that transparently opens enveloped incoming messages.
+ * <p>
+ * An envelope starts with a marker byte that can never begin a plain Thrift
+ * message, so peers that do not use envelopes are still understood. The
+ * marker is followed by the 4 byte length of the payload and, if the payload
+ * is compressed, the 4 byte length of the original message. Envelopes whose
+ * lengths are not positive or exceed the maximum frame size are rejected
+ * before anything is allocated for them.
+ * </p>
+ * <p>
+ * A reader must call {@link #beginMessage()} before reading each incoming
+ * message.
+ * </p>
+ * 
+ * @author Jeff Nelson
+ */
+@NotThreadSafe
+public class CompressingTransport extends TTransport {
+
+    /**
+     * The default minimum number of bytes in a message that is compressed.
+     */
+    public static final int DEFAULT_THRESHOLD = 4096;
+
+    /**
+     * The default maximum number of bytes in an incoming message, which
+     * matches the default limit of Thrift's framed transport.
+     */
+    public static final int DEFAULT_MAX_FRAME_SIZE = 16384000;
+
+    /**
+     * The marker for an envelope whose payload is the original message.
+     */
+    private static final byte RAW = (byte) 0xC0;
+
+    /**
+     * The marker for an envelope whose payload is the deflated message.
+     */
+    private static final byte DEFLATED = (byte) 0xC1;
+
+    /**
+     * Encode {@code value} into {@code dest} at {@code offset}.
+     * 
+     * @param value
+     * @param dest
+     * @param offset
+     */
+    private static void encodeInt(int value, byte[] dest, int offset) {
+        dest[offset] = (byte) (value >>> 24);
+        dest[offset + 1] = (byte) (value >>> 16);
+        dest[offset + 2] = (byte) (value >>> 8);
+        dest[offset + 3] = (byte) value;
+    }
+
+    /**
+     * Decode the int that is encoded in {@code src} at {@code offset}.
+     * 
+     * @param src
+     * @param offset
+     * @return the int
+     */
+    private static int decodeInt(byte[] src, int offset) {
+        return ((src[offset] & 0xFF) << 24) | ((src[offset + 1] & 0xFF) << 16)
+                | ((src[offset + 2] & 0xFF) << 8) | (src[offset + 3] & 0xFF);
+    }
+
+    /**
+     * The underlying transport.
+     */
+    private final TTransport transport;
+
+    /**
+     * The minimum number of bytes in an enveloped message that is compressed
+     * or {@code 0} if messages should never be compressed.
+     */
+    private final int threshold;
+
+    /**
+     * The maximum number of bytes that are allocated for the payload or the
+     * original length of an incoming envelope. The lengths are read from the
+     * wire before the peer is authenticated, so they must be bounded.
+     */
+    private final int maxFrameSize;
+
+    /**
+     * A flag that indicates whether outgoing messages are enveloped.
+     */
+    private boolean envelope;
+
+    /**
+     * A flag that indicates whether the last incoming message was enveloped.
+     */
+    private boolean enveloped = false;
+
+    /**
+     * The buffer that holds an outgoing message until it is flushed, if it is
+     * enveloped.
+     */
+    private final TByteArrayOutputStream out = new TByteArrayOutputStream();
+
+    /**
+     * The opened payload of the current incoming message, if it was
+     * enveloped.
+     */
+    private byte[] in = null;
+
+    /**
+     * The position of the next byte to read from {@link #in}.
+     */
+    private int inPosition = 0;
+
+    /**
+     * The byte that was read from the underlying transport by
+     * {@link #beginMessage()} but has not been consumed or {@code -1} if there
+     * is no such byte.
+     */
+    private int pushback = -1;
+
+    /**
+     * The lazily created compressor for outgoing messages.
+     */
+    private Deflater deflater = null;
+
+    /**
+     * The lazily created decompressor for incoming messages.
+     */
+    private Inflater inflater = null;
+
+    /**
+     * Construct a new instance that accepts incoming messages of up to
+     * {@link #DEFAULT_MAX_FRAME_SIZE} bytes.
+     * 
+     * @param transport
+     * @param envelope
+     * @param threshold
+     */
+    public CompressingTransport(TTransport transport, boolean envelope,
+            int threshold) {
+        this(transport, envelope, threshold, DEFAULT_MAX_FRAME_SIZE);
+    }
+
+    /**
+     * Construct a new instance.
+     * 
+     * @param transport
+     * @param envelope
+     * @param threshold
+     * @param maxFrameSize the maximum number of bytes in an incoming message
+     */
+    public CompressingTransport(TTransport transport, boolean envelope,
+            int threshold, int maxFrameSize) {
+        this.transport = transport;
+        this.envelope = envelope;
+        this.threshold = threshold;
+        this.maxFrameSize = maxFrameSize;
+    }
+
+    /**
+     * Read the beginning of the next incoming message, opening the envelope if
+     * there is one, and return the first byte of the message without
+     * consuming it.
+     * 
+     * @return the first byte of the message
+     * @throws TTransportException
+     */
+    public byte beginMessage() throws TTransportException {
+        byte[] header = new byte[4];
+        transport.readAll(header, 0, 1);
+        byte marker = header[0];
+        if(marker == RAW || marker == DEFLATED) {
+            transport.readAll(header, 0, 4);
+            byte[] payload = new byte[readLength(header)];
+            if(marker == DEFLATED) {
+                transport.readAll(header, 0, 4);
+                byte[] message = new byte[readLength(header)];
+                transport.readAll(payload, 0, payload.length);
+                inflate(payload, message);
+                payload = message;
+            }
+            else {
+                transport.readAll(payload, 0, payload.length);
+            }
+            in = payload;
+            inPosition = 0;
+            pushback = -1;
+            enveloped = true;
+            return in[0];
+        }
+        else {
+            in = null;
+            pushback = marker & 0xFF;
+            enveloped = false;
+            return marker;
+        }
+    }
+
+    @Override
+    public void close() {
+        transport.close();
+        if(deflater != null) {
+            deflater.end();
+        }
+        if(inflater != null) {
+            inflater.end();
+        }
+    }
+
+    @Override
+    public void consumeBuffer(int len) {
+        if(in != null) {
+            inPosition += len;
+        }
+        else {
+            transport.consumeBuffer(len);
+        }
+    }
+
+    @Override
+    public void flush() throws TTransportException {
+        if(envelope) {
+            int length = out.len();
+            if(threshold > 0 && length >= threshold) {
+                byte[] compressed = deflate(out.get(), length);
+                byte[] header = new byte[9];
+                header[0] = DEFLATED;
+                encodeInt(compressed.length, header, 1);
+                encodeInt(length, header, 5);
+                transport.write(header, 0, header.length);
+                transport.write(compressed, 0, compressed.length);
+            }
+            else {
+                byte[] header = new byte[5];
+                header[0] = RAW;
+                encodeInt(length, header, 1);
+                transport.write(header, 0, header.length);
+                transport.write(out.get(), 0, length);
+            }
+            out.reset();
+        }
+        transport.flush();
+    }
+
+    @Override
+    public byte[] getBuffer() {
+        if(in != null) {
+            return in;
+        }
+        else {
+            return pushback < 0 ? transport.getBuffer() : null;
+        }
+    }
+
+    @Override
+    public int getBufferPosition() {
+        if(in != null) {
+            return inPosition;
+        }
+        else {
+            return pushback < 0 ? transport.getBufferPosition() : 0;
+        }
+    }
+
+    @Override
+    public int getBytesRemainingInBuffer() {
+        if(in != null) {
+            return in.length - inPosition;
+        }
+        else {
+            return pushback < 0 ? transport.getBytesRemainingInBuffer() : -1;
+        }
+    }
+
+    /**
+     * Return {@code true} if outgoing messages are enveloped.
+     * 
+     * @return {@code true} if messages are enveloped
+     */
+    public boolean isEnveloping() {
+        return envelope;
+    }
+
+    /**
+     * Return {@code true} if the last incoming message was enveloped, which
+     * means that the peer understands envelopes.
+     * 
+     * @return {@code true} if the last message was enveloped
+     */
+    public boolean isEnveloped() {
+        return enveloped;
+    }
+
+    @Override
+    public boolean isOpen() {
+        return transport.isOpen();
+    }
+
+    @Override
+    public void open() throws TTransportException {
+        transport.open();
+    }
+
+    @Override
+    public int read(byte[] buf, int off, int len) throws TTransportException {
+        if(in != null) {
+            int read = Math.min(len, in.length - inPosition);
+            if(read <= 0) {
+                throw new TTransportException(TTransportException.END_OF_FILE,
+                        "Read past the end of an envelope");
+            }
+            System.arraycopy(in, inPosition, buf, off, read);
+            inPosition += read;
+            return read;
+        }
+        else if(pushback >= 0 && len > 0) {
+            buf[off] = (byte) pushback;
+            pushback = -1;
+            return 1;
+        }
+        else {
+            return transport.read(buf, off, len);
+        }
+    }
+
+    /**
+     * Set whether outgoing messages are enveloped. This must not be changed
+     * in the middle of a message.
+     * 
+     * @param envelope
+     */
+    public void setEnveloping(boolean envelope) {
+        this.envelope = envelope;
+    }
+
+    @Override
+    public void write(byte[] buf, int off, int len) throws TTransportException {
+        if(envelope) {
+            out.write(buf, off, len);
+        }
+        else {
+            transport.write(buf, off, len);
+        }
+    }
+
+    /**
+     * Return the first {@code length} bytes of {@code message}, deflated.
+     * 
+     * @param message
+     * @param length
+     * @return the compressed bytes
+     */
+    private byte[] deflate(byte[] message, int length) {
+        if(deflater == null) {
+            deflater = new Deflater(Deflater.BEST_SPEED);
+        }
+        else {
+            deflater.reset();
+        }
+        deflater.setInput(message, 0, length);
+        deflater.finish();
+        TByteArrayOutputStream compressed = new TByteArrayOutputStream(
+                length / 2);
+        byte[] chunk = new byte[Math.min(length, 8192)];
+        while (!deflater.finished()) {
+            int count = deflater.deflate(chunk);
+            compressed.write(chunk, 0, count);
+        }
+        byte[] bytes = new byte[compressed.len()];
+        System.arraycopy(compressed.get(), 0, bytes, 0, bytes.length);
+        return bytes;
+    }
+
+    /**
+     * Inflate the {@code payload} into {@code message}, which must be exactly
+     * as long as the original message.
+     * 
+     * @param payload
+     * @param message
+     * @throws TTransportException
+     */
+    private void inflate(byte[] payload, byte[] message)
+            throws TTransportException {
+        if(inflater == null) {
+            inflater = new Inflater();
+        }
+        else {
+            inflater.reset();
+        }
+        inflater.setInput(payload);
+        try {
+            int length = 0;
+            while (length < message.length) {
+                int count = inflater.inflate(message, length, message.length
+                        - length);
+                if(count == 0) {
+                    // The inflater makes no progress if the stream is
+                    // finished, needs more input or needs a preset
+                    // dictionary, so looping again would spin forever.
+                    if(inflater.needsDictionary()) {
+                        throw new TTransportException(
+                                TTransportException.UNKNOWN,
+                                "Received an envelope that requires a "
+                                        + "preset dictionary");
+                    }
+                    break;
+                }
+                length += count;
+            }
+            if(length != message.length) {
+                throw new TTransportException(
+                        TTransportException.UNKNOWN,
+                        "Received a truncated envelope");
+            }
+        }
+        catch (DataFormatException e) {
+            throw new TTransportException(TTransportException.UNKNOWN,
+                    e);
+        }
+    }
+
+    /**
+     * Decode the length at the beginning of {@code header} and make sure that
+     * it is positive and no larger than the {@link #maxFrameSize} before it
+     * is used to allocate a buffer.
+     * 
+     * @param header
+     * @return the length
+     * @throws TTransportException
+     */
+    private int readLength(byte[] header) throws TTransportException {
+        int length = decodeInt(header, 0);
+        if(length <= 0) {
+            throw new TTransportException(TTransportException.UNKNOWN,
+                    "Received an envelope with an invalid length of "
+                            + length);
+        }
+        else if(length > maxFrameSize) {
+            throw new TTransportException(TTransportException.UNKNOWN,
+                    "Received an envelope of " + length
+                            + " bytes, which is larger than the maximum of "
+                            + maxFrameSize);
+        }
+        else {
+            return length;
+        }
+    }
+
+}
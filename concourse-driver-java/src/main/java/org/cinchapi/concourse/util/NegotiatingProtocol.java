@@ -0,0 +1,381 @@
+/*
+ * Copyright (c) 2013-2015 Cinchapi Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.cinchapi.concourse.util;
+
+import java.nio.ByteBuffer;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import org.apache.thrift.TException;
+import org.apache.thrift.protocol.TBinaryProtocol;
+import org.apache.thrift.protocol.TCompactProtocol;
+import org.apache.thrift.protocol.TField;
+import org.apache.thrift.protocol.TList;
+import org.apache.thrift.protocol.TMap;
+import org.apache.thrift.protocol.TMessage;
+import org.apache.thrift.protocol.TProtocol;
+import org.apache.thrift.protocol.TProtocolFactory;
+import org.apache.thrift.protocol.TSet;
+import org.apache.thrift.protocol.TStruct;
+import org.apache.thrift.transport.TTransport;
+
+/**
+ * A {@link TProtocol} that speaks either the binary or the compact protocol
+ * over a {@link CompressingTransport}. The protocol of each incoming message is
+ * determined by peeking at its first byte, so a peer may use whichever one it
+ * prefers, and outgoing messages use the protocol that was chosen when this
+ * instance was created or {@link #mirror(NegotiatingProtocol) mirrored} from
+ * the peer.
+ * 
+ * @author Jeff Nelson
+ */
+@NotThreadSafe
+public class NegotiatingProtocol extends TProtocol {
+
+    /**
+     * Return a {@link TProtocolFactory} for instances that write the binary
+     * protocol without envelopes until they are
+     * {@link #mirror(NegotiatingProtocol) told} otherwise and compress
+     * enveloped messages that are at least {@code threshold} bytes.
+     * 
+     * @param threshold
+     * @return the factory
+     */
+    public static TProtocolFactory factory(int threshold) {
+        return factory(threshold, CompressingTransport.DEFAULT_MAX_FRAME_SIZE);
+    }
+
+    /**
+     * Return a {@link TProtocolFactory} for instances that write the binary
+     * protocol without envelopes until they are
+     * {@link #mirror(NegotiatingProtocol) told} otherwise, compress enveloped
+     * messages that are at least {@code threshold} bytes and reject incoming
+     * envelopes that are larger than {@code maxFrameSize} bytes.
+     * 
+     * @param threshold
+     * @param maxFrameSize
+     * @return the factory
+     */
+    public static TProtocolFactory factory(final int threshold,
+            final int maxFrameSize) {
+        return new TProtocolFactory() {
+
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            public TProtocol getProtocol(TTransport trans) {
+                return new NegotiatingProtocol(new CompressingTransport(trans,
+                        false, threshold, maxFrameSize), false);
+            }
+
+        };
+    }
+
+    /**
+     * The first byte of every message that is written with the compact
+     * protocol. The first byte of a message that is written with the (strict)
+     * binary protocol is {@code 0x80}.
+     */
+    private static final byte COMPACT_PROTOCOL_ID = (byte) 0x82;
+
+    /**
+     * The transport that is shared by the protocols.
+     */
+    private final CompressingTransport transport;
+
+    /**
+     * The binary protocol.
+     */
+    private final TProtocol binary;
+
+    /**
+     * The compact protocol.
+     */
+    private final TProtocol compact;
+
+    /**
+     * The protocol that is used for the current incoming message.
+     */
+    private TProtocol reader;
+
+    /**
+     * The protocol that is used for outgoing messages.
+     */
+    private TProtocol writer;
+
+    /**
+     * A flag that indicates whether the protocol of the next incoming message
+     * has already been determined.
+     */
+    private boolean negotiated = false;
+
+    /**
+     * Construct a new instance.
+     * 
+     * @param transport
+     * @param compact {@code true} if outgoing messages should use the compact
+     *            protocol
+     */
+    public NegotiatingProtocol(CompressingTransport transport, boolean compact) {
+        super(transport);
+        this.transport = transport;
+        this.binary = new TBinaryProtocol(transport);
+        this.compact = new TCompactProtocol(transport);
+        this.reader = this.binary;
+        this.writer = compact ? this.compact : this.binary;
+    }
+
+    /**
+     * Respond to the peer that sent the last message that was negotiated by
+     * {@code protocol} in the same way that it was sent: using the same
+     * protocol and wrapping each message in an envelope if the peer did so.
+     * 
+     * @param protocol
+     */
+    public void mirror(NegotiatingProtocol protocol) {
+        writer = protocol.reader == protocol.compact ? compact : binary;
+        transport.setEnveloping(protocol.transport.isEnveloped());
+    }
+
+    /**
+     * Determine the protocol of the next incoming message, if that has not
+     * already been done, by peeking at its first byte.
+     * 
+     * @throws TException
+     */
+    public void negotiate() throws TException {
+        if(!negotiated) {
+            reader = transport.beginMessage() == COMPACT_PROTOCOL_ID ? compact
+                    : binary;
+            negotiated = true;
+        }
+    }
+
+    @Override
+    public ByteBuffer readBinary() throws TException {
+        return reader.readBinary();
+    }
+
+    @Override
+    public boolean readBool() throws TException {
+        return reader.readBool();
+    }
+
+    @Override
+    public byte readByte() throws TException {
+        return reader.readByte();
+    }
+
+    @Override
+    public double readDouble() throws TException {
+        return reader.readDouble();
+    }
+
+    @Override
+    public TField readFieldBegin() throws TException {
+        return reader.readFieldBegin();
+    }
+
+    @Override
+    public void readFieldEnd() throws TException {
+        reader.readFieldEnd();
+    }
+
+    @Override
+    public short readI16() throws TException {
+        return reader.readI16();
+    }
+
+    @Override
+    public int readI32() throws TException {
+        return reader.readI32();
+    }
+
+    @Override
+    public long readI64() throws TException {
+        return reader.readI64();
+    }
+
+    @Override
+    public TList readListBegin() throws TException {
+        return reader.readListBegin();
+    }
+
+    @Override
+    public void readListEnd() throws TException {
+        reader.readListEnd();
+    }
+
+    @Override
+    public TMap readMapBegin() throws TException {
+        return reader.readMapBegin();
+    }
+
+    @Override
+    public void readMapEnd() throws TException {
+        reader.readMapEnd();
+    }
+
+    @Override
+    public TMessage readMessageBegin() throws TException {
+        negotiate();
+        negotiated = false;
+        return reader.readMessageBegin();
+    }
+
+    @Override
+    public void readMessageEnd() throws TException {
+        reader.readMessageEnd();
+    }
+
+    @Override
+    public TSet readSetBegin() throws TException {
+        return reader.readSetBegin();
+    }
+
+    @Override
+    public void readSetEnd() throws TException {
+        reader.readSetEnd();
+    }
+
+    @Override
+    public String readString() throws TException {
+        return reader.readString();
+    }
+
+    @Override
+    public TStruct readStructBegin() throws TException {
+        return reader.readStructBegin();
+    }
+
+    @Override
+    public void readStructEnd() throws TException {
+        reader.readStructEnd();
+    }
+
+    @Override
+    public void reset() {
+        binary.reset();
+        compact.reset();
+        negotiated = false;
+    }
+
+    @Override
+    public void writeBinary(ByteBuffer buf) throws TException {
+        writer.writeBinary(buf);
+    }
+
+    @Override
+    public void writeBool(boolean b) throws TException {
+        writer.writeBool(b);
+    }
+
+    @Override
+    public void writeByte(byte b) throws TException {
+        writer.writeByte(b);
+    }
+
+    @Override
+    public void writeDouble(double dub) throws TException {
+        writer.writeDouble(dub);
+    }
+
+    @Override
+    public void writeFieldBegin(TField field) throws TException {
+        writer.writeFieldBegin(field);
+    }
+
+    @Override
+    public void writeFieldEnd() throws TException {
+        writer.writeFieldEnd();
+    }
+
+    @Override
+    public void writeFieldStop() throws TException {
+        writer.writeFieldStop();
+    }
+
+    @Override
+    public void writeI16(short i16) throws TException {
+        writer.writeI16(i16);
+    }
+
+    @Override
+    public void writeI32(int i32) throws TException {
+        writer.writeI32(i32);
+    }
+
+    @Override
+    public void writeI64(long i64) throws TException {
+        writer.writeI64(i64);
+    }
+
+    @Override
+    public void writeListBegin(TList list) throws TException {
+        writer.writeListBegin(list);
+    }
+
+    @Override
+    public void writeListEnd() throws TException {
+        writer.writeListEnd();
+    }
+
+    @Override
+    public void writeMapBegin(TMap map) throws TException {
+        writer.writeMapBegin(map);
+    }
+
+    @Override
+    public void writeMapEnd() throws TException {
+        writer.writeMapEnd();
+    }
+
+    @Override
+    public void writeMessageBegin(TMessage message) throws TException {
+        writer.writeMessageBegin(message);
+    }
+
+    @Override
+    public void writeMessageEnd() throws TException {
+        writer.writeMessageEnd();
+    }
+
+    @Override
+    public void writeSetBegin(TSet set) throws TException {
+        writer.writeSetBegin(set);
+    }
+
+    @Override
+    public void writeSetEnd() throws TException {
+        writer.writeSetEnd();
+    }
+
+    @Override
+    public void writeString(String str) throws TException {
+        writer.writeString(str);
+    }
+
+    @Override
+    public void writeStructBegin(TStruct struct) throws TException {
+        writer.writeStructBegin(struct);
+    }
+
+    @Override
+    public void writeStructEnd() throws TException {
+        writer.writeStructEnd();
+    }
+
+}
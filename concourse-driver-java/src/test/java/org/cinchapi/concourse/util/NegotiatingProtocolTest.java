@@ -0,0 +1,239 @@
+/*
+ * Copyright (c) 2013-2015 Cinchapi Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.cinchapi.concourse.util;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.Deflater;
+
+import org.apache.thrift.TException;
+import org.apache.thrift.protocol.TBinaryProtocol;
+import org.apache.thrift.protocol.TMessage;
+import org.apache.thrift.protocol.TMessageType;
+import org.apache.thrift.protocol.TProtocol;
+import org.apache.thrift.protocol.TProtocolFactory;
+import org.apache.thrift.transport.TMemoryBuffer;
+import org.apache.thrift.transport.TTransportException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.common.base.Strings;
+
+/**
+ * Unit tests for {@link NegotiatingProtocol} and the
+ * {@link CompressingTransport} that it uses.
+ * 
+ * @author Jeff Nelson
+ */
+public class NegotiatingProtocolTest {
+
+    /**
+     * The factory for server side protocols.
+     */
+    private final TProtocolFactory factory = NegotiatingProtocol
+            .factory(CompressingTransport.DEFAULT_THRESHOLD);
+
+    @Test
+    public void testPlainBinaryClientIsUnderstood() throws TException {
+        TMemoryBuffer requests = new TMemoryBuffer(64);
+        TMemoryBuffer responses = new TMemoryBuffer(64);
+        String request = Random.getString();
+        send(new TBinaryProtocol(requests), request);
+        Assert.assertEquals(request, echo(requests, responses));
+        Assert.assertEquals(request, receive(new TBinaryProtocol(responses)));
+    }
+
+    @Test
+    public void testCompactClientIsAnsweredInKind() throws TException {
+        TMemoryBuffer requests = new TMemoryBuffer(64);
+        TMemoryBuffer responses = new TMemoryBuffer(64);
+        String request = Random.getString();
+        send(client(requests, false, true), request);
+        Assert.assertEquals((byte) 0x82, requests.getArray()[0]);
+        echo(requests, responses);
+        Assert.assertEquals((byte) 0x82, responses.getArray()[0]);
+        Assert.assertEquals(request, receive(client(responses, false, true)));
+    }
+
+    @Test
+    public void testLargeMessagesAreCompressed() throws TException {
+        TMemoryBuffer requests = new TMemoryBuffer(64);
+        TMemoryBuffer responses = new TMemoryBuffer(64);
+        String request = Strings.repeat(Random.getSimpleString(),
+                CompressingTransport.DEFAULT_THRESHOLD);
+        send(client(requests, true, false), request);
+        Assert.assertEquals((byte) 0xC1, requests.getArray()[0]);
+        Assert.assertTrue(requests.length() < request.length());
+        echo(requests, responses);
+        Assert.assertEquals((byte) 0xC1, responses.getArray()[0]);
+        Assert.assertTrue(responses.length() < request.length());
+        Assert.assertEquals(request, receive(client(responses, true, false)));
+    }
+
+    @Test
+    public void testSmallMessagesAreNotCompressed() throws TException {
+        TMemoryBuffer requests = new TMemoryBuffer(64);
+        TMemoryBuffer responses = new TMemoryBuffer(64);
+        String request = "a";
+        send(client(requests, true, false), request);
+        Assert.assertEquals((byte) 0xC0, requests.getArray()[0]);
+        echo(requests, responses);
+        Assert.assertEquals((byte) 0xC0, responses.getArray()[0]);
+        Assert.assertEquals(request, receive(client(responses, true, false)));
+    }
+
+    @Test
+    public void testEnvelopeLargerThanMaxFrameSizeIsRejected() {
+        assertRejected((byte) 0xC0, Integer.MAX_VALUE);
+        assertRejected((byte) 0xC1, 8, Integer.MAX_VALUE);
+        assertRejected((byte) 0xC0,
+                CompressingTransport.DEFAULT_MAX_FRAME_SIZE + 1);
+    }
+
+    @Test
+    public void testEnvelopeWithNegativeLengthIsRejected() {
+        assertRejected((byte) 0xC0, -1);
+        assertRejected((byte) 0xC1, -1);
+        assertRejected((byte) 0xC1, 8, Integer.MIN_VALUE);
+    }
+
+    @Test
+    public void testEnvelopeWithZeroLengthIsRejected() {
+        assertRejected((byte) 0xC0, 0);
+        assertRejected((byte) 0xC1, 0);
+        assertRejected((byte) 0xC1, 8, 0);
+    }
+
+    @Test(timeout = 5000)
+    public void testEnvelopeThatNeedsPresetDictionaryIsRejected()
+            throws TException {
+        byte[] message = Strings.repeat("dictionary", 100).getBytes(
+                StandardCharsets.UTF_8);
+        Deflater deflater = new Deflater();
+        deflater.setDictionary("dictionary".getBytes(StandardCharsets.UTF_8));
+        deflater.setInput(message);
+        deflater.finish();
+        byte[] compressed = new byte[message.length];
+        int length = deflater.deflate(compressed);
+        deflater.end();
+        TMemoryBuffer wire = new TMemoryBuffer(64);
+        wire.write(new byte[] { (byte) 0xC1 });
+        wire.write(ByteBuffer.allocate(8).putInt(length)
+                .putInt(message.length).array());
+        wire.write(compressed, 0, length);
+        try {
+            new CompressingTransport(wire, true,
+                    CompressingTransport.DEFAULT_THRESHOLD).beginMessage();
+            Assert.fail();
+        }
+        catch (TTransportException e) {
+            Assert.assertTrue(e.getMessage().contains("dictionary"));
+        }
+    }
+
+    /**
+     * Assert that a {@link CompressingTransport} rejects an incoming envelope
+     * that starts with {@code marker} followed by the {@code lengths}, without
+     * trying to read a payload.
+     * 
+     * @param marker
+     * @param lengths
+     */
+    private static void assertRejected(byte marker, int... lengths) {
+        ByteBuffer header = ByteBuffer.allocate(1 + 4 * lengths.length);
+        header.put(marker);
+        for (int length : lengths) {
+            header.putInt(length);
+        }
+        TMemoryBuffer wire = new TMemoryBuffer(64);
+        try {
+            wire.write(header.array());
+            new CompressingTransport(wire, true,
+                    CompressingTransport.DEFAULT_THRESHOLD).beginMessage();
+            Assert.fail();
+        }
+        catch (TTransportException e) {
+            Assert.assertTrue(e.getMessage().contains("length")
+                    || e.getMessage().contains("maximum"));
+        }
+    }
+
+    /**
+     * Return a client side protocol over the {@code wire}.
+     * 
+     * @param wire
+     * @param compression
+     * @param compact
+     * @return the protocol
+     */
+    private static TProtocol client(TMemoryBuffer wire, boolean compression,
+            boolean compact) {
+        return new NegotiatingProtocol(new CompressingTransport(wire,
+                compression, CompressingTransport.DEFAULT_THRESHOLD), compact);
+    }
+
+    /**
+     * Read a request from the {@code requests} using a server side protocol
+     * and send it back to the {@code responses}.
+     * 
+     * @param requests
+     * @param responses
+     * @return the request
+     * @throws TException
+     */
+    private String echo(TMemoryBuffer requests, TMemoryBuffer responses)
+            throws TException {
+        NegotiatingProtocol in = (NegotiatingProtocol) factory
+                .getProtocol(requests);
+        NegotiatingProtocol out = (NegotiatingProtocol) factory
+                .getProtocol(responses);
+        in.negotiate();
+        out.mirror(in);
+        String request = receive(in);
+        send(out, request);
+        return request;
+    }
+
+    /**
+     * Read a string message using the {@code protocol}.
+     * 
+     * @param protocol
+     * @return the string
+     * @throws TException
+     */
+    private static String receive(TProtocol protocol) throws TException {
+        protocol.readMessageBegin();
+        String string = protocol.readString();
+        protocol.readMessageEnd();
+        return string;
+    }
+
+    /**
+     * Write {@code string} as a message using the {@code protocol}.
+     * 
+     * @param protocol
+     * @param string
+     * @throws TException
+     */
+    private static void send(TProtocol protocol, String string)
+            throws TException {
+        protocol.writeMessageBegin(new TMessage("echo", TMessageType.CALL, 1));
+        protocol.writeString(string);
+        protocol.writeMessageEnd();
+        protocol.getTransport().flush();
+    }
+
+}
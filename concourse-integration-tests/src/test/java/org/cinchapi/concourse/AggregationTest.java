@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2013-2015 Cinchapi Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.cinchapi.concourse;
+
+import org.cinchapi.concourse.lang.Criteria;
+import org.cinchapi.concourse.test.ConcourseIntegrationTest;
+import org.cinchapi.concourse.thrift.Operator;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit tests for the aggregation methods in {@link Concourse}.
+ * 
+ * @author Jeff Nelson
+ */
+public class AggregationTest extends ConcourseIntegrationTest {
+
+    @Test
+    public void testAggregateKey() {
+        for (long i = 1; i <= 10; ++i) {
+            client.add("foo", i, i);
+        }
+        Assert.assertEquals(Long.valueOf(10),
+                client.aggregate(Aggregation.COUNT, "foo"));
+        Assert.assertEquals(Long.valueOf(55),
+                client.aggregate(Aggregation.SUM, "foo"));
+        Assert.assertEquals(Double.valueOf(5.5),
+                client.aggregate(Aggregation.AVERAGE, "foo"));
+        Assert.assertEquals(Long.valueOf(1),
+                client.aggregate(Aggregation.MIN, "foo"));
+        Assert.assertEquals(Long.valueOf(10),
+                client.aggregate(Aggregation.MAX, "foo"));
+    }
+
+    @Test
+    public void testAggregateCriteria() {
+        for (long i = 1; i <= 10; ++i) {
+            client.add("foo", i, i);
+            client.add("bar", i % 2 == 0, i);
+        }
+        Criteria criteria = Criteria.where().key("bar")
+                .operator(Operator.EQUALS).value(true).build();
+        Assert.assertEquals(Long.valueOf(30),
+                client.aggregate(Aggregation.SUM, "foo", criteria));
+        Assert.assertEquals(Long.valueOf(25),
+                client.aggregate(Aggregation.SUM, "foo", "bar = false"));
+    }
+
+    @Test
+    public void testAggregateTimestamp() {
+        client.add("foo", 1, 1);
+        Timestamp timestamp = Timestamp.now();
+        client.add("foo", 2, 2);
+        Assert.assertEquals(Long.valueOf(1),
+                client.aggregate(Aggregation.COUNT, "foo", timestamp));
+        Assert.assertEquals(Long.valueOf(2),
+                client.aggregate(Aggregation.COUNT, "foo"));
+    }
+
+    @Test
+    public void testAggregateNoValues() {
+        Assert.assertNull(client.aggregate(Aggregation.MAX, "foo"));
+    }
+
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2013-2015 Cinchapi Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.cinchapi.concourse;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+
+import org.cinchapi.concourse.test.ConcourseIntegrationTest;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.common.base.Function;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+
+/**
+ * Unit tests for {@link AsyncConcourse}.
+ * 
+ * @author Jeff Nelson
+ */
+public class AsyncConcourseTest extends ConcourseIntegrationTest {
+
+    /**
+     * The {@link AsyncConcourse} handler that is created before and closed
+     * after each test.
+     */
+    private AsyncConcourse async = null;
+
+    @Override
+    protected void afterEachTest() {
+        async.close();
+        async = null;
+    }
+
+    @Override
+    protected void beforeEachTest() {
+        async = AsyncConcourse.connect(SERVER_HOST, SERVER_PORT, "admin",
+                "admin", 2);
+    }
+
+    @Test
+    public void testManyOutstandingRequests() throws InterruptedException,
+            ExecutionException {
+        int count = 500;
+        List<ListenableFuture<Boolean>> adds = Lists.newArrayList();
+        for (long i = 0; i < count; ++i) {
+            adds.add(async.add("foo", i, i));
+        }
+        for (boolean added : Futures.allAsList(adds).get()) {
+            Assert.assertTrue(added);
+        }
+        List<ListenableFuture<Object>> gets = Lists.newArrayList();
+        for (long i = 0; i < count; ++i) {
+            gets.add(async.get("foo", i));
+        }
+        List<Object> values = Futures.allAsList(gets).get();
+        for (int i = 0; i < count; ++i) {
+            Assert.assertEquals((long) i, ((Number) values.get(i)).longValue());
+        }
+        Assert.assertEquals(count, async.find("foo >= 0").get().size());
+    }
+
+    @Test
+    public void testConcurrentFuturesShareOneConnection()
+            throws InterruptedException, ExecutionException {
+        final AsyncConcourse single = AsyncConcourse.connect(SERVER_HOST,
+                SERVER_PORT, "admin", "admin", 1);
+        try {
+            final Set<Integer> connections = Collections
+                    .synchronizedSet(Sets.<Integer> newHashSet());
+            final List<ListenableFuture<Boolean>> futures = Collections
+                    .synchronizedList(Lists
+                            .<ListenableFuture<Boolean>> newArrayList());
+            Thread[] callers = new Thread[4];
+            for (int i = 0; i < callers.length; ++i) {
+                final long offset = i * 100;
+                callers[i] = new Thread(new Runnable() {
+
+                    @Override
+                    public void run() {
+                        for (long j = 0; j < 100; ++j) {
+                            futures.add(single.submit(addAndTrack(offset + j,
+                                    connections)));
+                        }
+                    }
+
+                });
+                callers[i].start();
+            }
+            for (Thread caller : callers) {
+                caller.join();
+            }
+            for (boolean added : Futures.allAsList(futures).get()) {
+                Assert.assertTrue(added);
+            }
+            Assert.assertEquals(1, connections.size());
+            Assert.assertEquals(400, client.find("foo >= 0").size());
+        }
+        finally {
+            single.close();
+        }
+    }
+
+    @Test
+    public void testWritesAreVisibleToOtherConnections()
+            throws InterruptedException, ExecutionException {
+        async.set("name", "Jeff", 1).get();
+        async.add("name", "Jeffery", 1).get();
+        async.remove("name", "Jeff", 1).get();
+        Assert.assertEquals(Sets.<Object> newHashSet("Jeffery"),
+                client.select("name", 1));
+        Set<Object> values = async.<Object> select("name", 1).get();
+        Assert.assertEquals(Sets.<Object> newHashSet("Jeffery"), values);
+    }
+
+    @Test
+    public void testSubmitTransaction() throws InterruptedException,
+            ExecutionException {
+        boolean committed = async.submit(new Function<Concourse, Boolean>() {
+
+            @Override
+            public Boolean apply(Concourse concourse) {
+                concourse.stage();
+                concourse.add("foo", "bar", 1);
+                concourse.add("foo", "baz", 1);
+                return concourse.commit();
+            }
+
+        }).get();
+        Assert.assertTrue(committed);
+        Assert.assertEquals(2, client.select("foo", 1).size());
+    }
+
+    /**
+     * Return a function that adds {@code record} as the value of "foo" in
+     * {@code record} and places the identity of the connection that it uses
+     * in {@code connections}.
+     * 
+     * @param record
+     * @param connections
+     * @return the function
+     */
+    private static Function<Concourse, Boolean> addAndTrack(
+            final long record, final Set<Integer> connections) {
+        return new Function<Concourse, Boolean>() {
+
+            @Override
+            public Boolean apply(Concourse concourse) {
+                connections.add(System.identityHashCode(concourse));
+                return concourse.add("foo", record, record);
+            }
+
+        };
+    }
+
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2013-2015 Cinchapi Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.cinchapi.concourse;
+
+import java.util.List;
+
+import org.cinchapi.concourse.test.ConcourseIntegrationTest;
+import org.cinchapi.concourse.thrift.TParseException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.common.base.Throwables;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+
+/**
+ * Unit tests for the {@link Batch} writes in {@link Concourse}.
+ * 
+ * @author Jeff Nelson
+ */
+public class BatchTest extends ConcourseIntegrationTest {
+
+    @Test
+    public void testBatchAppliesWritesInOrder() {
+        client.add("name", "John", 2);
+        client.add("foo", "bar", 3);
+        client.add("baz", "bang", 3);
+        List<Boolean> results = client.batch().add("name", "Jeff", 1)
+                .add("name", "Jeff", 1).set("age", 30, 1).set("age", 31, 1)
+                .remove("name", "John", 2).remove("name", "John", 2)
+                .clear("foo", 3).submit();
+        Assert.assertEquals(
+                Lists.newArrayList(true, false, true, true, true, false, true),
+                results);
+        Assert.assertEquals("Jeff", client.get("name", 1));
+        Assert.assertEquals(Sets.newHashSet(31), client.select("age", 1));
+        Assert.assertTrue(client.select("name", 2).isEmpty());
+        Assert.assertTrue(client.select("foo", 3).isEmpty());
+        Assert.assertEquals("bang", client.get("baz", 3));
+    }
+
+    @Test
+    public void testBatchClearRecord() {
+        client.add("foo", "bar", 1);
+        client.add("baz", "bang", 1);
+        client.batch().clear(1).add("foo", "bang", 1).submit();
+        Assert.assertEquals(Sets.newHashSet("foo"), client.describe(1));
+        Assert.assertEquals("bang", client.get("foo", 1));
+    }
+
+    @Test
+    public void testBatchIsEmptyAfterSubmit() {
+        Batch batch = client.batch();
+        for (long i = 0; i < 1000; ++i) {
+            batch.add("foo", i, i);
+        }
+        Assert.assertEquals(1000, batch.size());
+        batch.submit();
+        Assert.assertEquals(0, batch.size());
+        Assert.assertEquals(1000, client.find("foo >= 0").size());
+        Assert.assertTrue(batch.submit().isEmpty());
+    }
+
+    @Test
+    public void testBatchCannotAddSelfLink() {
+        Assert.assertEquals(Lists.newArrayList(false, true), client.batch()
+                .add("friend", Link.to(1), 1).add("friend", Link.to(2), 1)
+                .submit());
+    }
+
+    @Test
+    public void testIncompleteBatchIsRejectedWithoutApplyingAnyWrites() {
+        try {
+            client.batch().add("foo", "bar", 1).add(null, "baz", 1).submit();
+            Assert.fail();
+        }
+        catch (RuntimeException e) {
+            Assert.assertTrue(Throwables.getRootCause(e)
+                    instanceof TParseException);
+        }
+        Assert.assertTrue(client.select("foo", 1).isEmpty());
+    }
+
+    @Test
+    public void testBatchInTransaction() {
+        client.stage();
+        client.batch().add("foo", "bar", 1).submit();
+        client.abort();
+        Assert.assertTrue(client.select("foo", 1).isEmpty());
+    }
+
+}
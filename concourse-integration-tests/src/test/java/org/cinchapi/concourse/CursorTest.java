@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2013-2015 Cinchapi Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.cinchapi.concourse;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import org.cinchapi.concourse.lang.Criteria;
+import org.cinchapi.concourse.test.ConcourseIntegrationTest;
+import org.cinchapi.concourse.thrift.Operator;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Unit tests for the cursor methods in {@link Concourse}.
+ * 
+ * @author Jeff Nelson
+ */
+public class CursorTest extends ConcourseIntegrationTest {
+
+    @Test
+    public void testFindCursorSpansMultipleFetches() {
+        int count = 2500;
+        for (long i = count; i > 0; --i) {
+            client.add("foo", i, i);
+        }
+        Criteria criteria = Criteria.where().key("foo")
+                .operator(Operator.GREATER_THAN).value(0).build();
+        Iterator<Long> it = client.findCursor(criteria);
+        long expected = 1;
+        while (it.hasNext()) {
+            Assert.assertEquals(expected, (long) it.next());
+            ++expected;
+        }
+        Assert.assertEquals(count + 1, expected);
+    }
+
+    @Test
+    public void testFindCursorIsSnapshot() {
+        for (long i = 1; i <= 5; ++i) {
+            client.add("foo", i, i);
+        }
+        Iterator<Long> it = client.findCursor("foo > 0");
+        client.add("foo", 6, 6);
+        client.clear("foo", 1);
+        Assert.assertEquals(Lists.newArrayList(1L, 2L, 3L, 4L, 5L),
+                Lists.newArrayList(it));
+    }
+
+    @Test
+    public void testBrowseCursor() {
+        for (long i = 1; i <= 10; ++i) {
+            client.add("foo", i % 3, i);
+        }
+        List<Object> values = Lists.newArrayList();
+        Iterator<Entry<Object, Set<Long>>> it = client.browseCursor("foo");
+        while (it.hasNext()) {
+            Entry<Object, Set<Long>> entry = it.next();
+            values.add(entry.getKey());
+            Assert.assertEquals(client.find("foo", Operator.EQUALS,
+                    entry.getKey()), entry.getValue());
+        }
+        Assert.assertEquals(Lists.<Object> newArrayList(0, 1, 2), values);
+    }
+
+    @Test
+    public void testEmptyCursor() {
+        Assert.assertFalse(client.findCursor("foo = 1").hasNext());
+    }
+
+}
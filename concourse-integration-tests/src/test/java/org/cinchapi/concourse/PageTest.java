@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2013-2015 Cinchapi Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.cinchapi.concourse;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.cinchapi.concourse.lang.Criteria;
+import org.cinchapi.concourse.test.ConcourseIntegrationTest;
+import org.cinchapi.concourse.thrift.Operator;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Unit tests for the paged find, select and browse methods in
+ * {@link Concourse}.
+ * 
+ * @author Jeff Nelson
+ */
+public class PageTest extends ConcourseIntegrationTest {
+
+    @Test
+    public void testFindPageSortedByRecord() {
+        for (long i = 1; i <= 10; ++i) {
+            client.add("foo", i, 11 - i);
+        }
+        Criteria criteria = Criteria.where().key("foo")
+                .operator(Operator.GREATER_THAN).value(0).build();
+        Assert.assertEquals(Lists.newArrayList(3L, 4L, 5L),
+                Lists.newArrayList(client.find(criteria, Page.create(2, 3))));
+        Assert.assertEquals(Lists.newArrayList(9L, 10L),
+                Lists.newArrayList(client.find("foo > 0", Page.create(8, 5))));
+        Assert.assertTrue(client.find(criteria, Page.create(10, 5)).isEmpty());
+    }
+
+    @Test
+    public void testFindPageSortedByKey() {
+        for (long i = 1; i <= 10; ++i) {
+            client.add("foo", true, i);
+            if(i % 5 != 0) {
+                client.add("bar", 100 - i, i);
+            }
+        }
+        Page page = Page.create("bar", 0, 4);
+        List<Long> records = Lists.newArrayList();
+        Set<Long> results;
+        while (!(results = client.find("foo = true", page)).isEmpty()) {
+            records.addAll(results);
+            page = page.next();
+        }
+        Assert.assertEquals(
+                Lists.newArrayList(9L, 8L, 7L, 6L, 4L, 3L, 2L, 1L, 5L, 10L),
+                records);
+    }
+
+    @Test
+    public void testSelectPage() {
+        for (long i = 1; i <= 10; ++i) {
+            client.add("foo", i, i);
+            client.add("bar", "bar" + i, i);
+        }
+        Map<Long, Map<String, Set<Object>>> data = client.select("foo > 2",
+                Page.create("foo", 1, 2));
+        Assert.assertEquals(Lists.newArrayList(4L, 5L),
+                Lists.newArrayList(data.keySet()));
+        Assert.assertEquals(client.select(4), data.get(4L));
+        Map<Long, Map<String, Set<Object>>> keys = client.select(
+                Lists.newArrayList("bar"), Criteria.where().key("foo")
+                        .operator(Operator.LESS_THAN).value(5).build(),
+                Page.create(3, 10));
+        Assert.assertEquals(Lists.newArrayList(4L),
+                Lists.newArrayList(keys.keySet()));
+        Assert.assertEquals(1, keys.get(4L).size());
+    }
+
+    @Test
+    public void testBrowsePage() {
+        for (long i = 1; i <= 10; ++i) {
+            client.add("foo", i, i);
+        }
+        Map<Object, Set<Long>> data = client.browse("foo", Page.create(5, 2));
+        Assert.assertEquals(Lists.<Object> newArrayList(6L, 7L),
+                Lists.newArrayList(data.keySet()));
+    }
+
+    @Test
+    public void testBrowsePageSkipsSeveralBatches() {
+        for (long i = 1; i <= 2500; ++i) {
+            client.add("foo", i, i);
+        }
+        Map<Object, Set<Long>> data = client.browse("foo",
+                Page.create(2497, 5));
+        Assert.assertEquals(Lists.<Object> newArrayList(2498L, 2499L, 2500L),
+                Lists.newArrayList(data.keySet()));
+        Assert.assertTrue(client.browse("foo", Page.create(2500, 5))
+                .isEmpty());
+    }
+
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2013-2015 Cinchapi Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.cinchapi.concourse;
+
+import java.util.Map;
+
+import org.cinchapi.concourse.test.ConcourseIntegrationTest;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Unit tests for the {@link Concourse#searchRanked(String, String, int)}
+ * method.
+ * 
+ * @author Jeff Nelson
+ */
+public class SearchRankedTest extends ConcourseIntegrationTest {
+
+    @Test
+    public void testSearchRanked() {
+        client.add("name", "jeff nelson", 1);
+        client.add("name", "jeff jeff nelson", 2);
+        client.add("name", "ashleah gibson", 3);
+        client.add("name", "jefferson davis and a long list of other names", 4);
+        Map<Long, Double> ranked = client.searchRanked("name", "jeff", 10);
+        Assert.assertEquals(Lists.newArrayList(2L, 1L, 4L),
+                Lists.newArrayList(ranked.keySet()));
+        Assert.assertEquals(Lists.newArrayList(2L),
+                Lists.newArrayList(client.searchRanked("name", "jeff", 1)
+                        .keySet()));
+    }
+
+    @Test
+    public void testSearchRankedAfterRemove() {
+        client.add("name", "jeff nelson", 1);
+        client.add("name", "jeff jeff nelson", 2);
+        client.remove("name", "jeff jeff nelson", 2);
+        Assert.assertEquals(Lists.newArrayList(1L), Lists
+                .newArrayList(client.searchRanked("name", "jeff", 10).keySet()));
+    }
+
+}
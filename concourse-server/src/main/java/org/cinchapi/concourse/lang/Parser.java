@@ -89,6 +89,36 @@ public final class Parser {
         return operandStack.pop();
     }
 
+    /**
+     * Convert a {@link Queue} of symbols in postfix notation (i.e. the output
+     * of {@link #toPostfixNotation(List)} or {@link #toPostfixNotation(String)})
+     * into an {@link AST}.
+     * 
+     * @param queue
+     * @return the symbols in an AST
+     */
+    public static AST toAbstractSyntaxTree(Queue<PostfixNotationSymbol> queue) {
+        Deque<AST> stack = new ArrayDeque<AST>();
+        for (PostfixNotationSymbol symbol : queue) {
+            if(symbol instanceof Expression) {
+                stack.push(ExpressionTree.create((Expression) symbol));
+            }
+            else if(symbol instanceof ConjunctionSymbol && stack.size() > 1) {
+                addASTNode(stack, symbol);
+            }
+            else {
+                throw new SyntaxException(MessageFormat.format(
+                        "Syntax error in {0}: Unexpected symbol {1}", queue,
+                        symbol));
+            }
+        }
+        if(stack.size() != 1) {
+            throw new SyntaxException(MessageFormat.format(
+                    "Syntax error in {0}: Unbalanced expressions", queue));
+        }
+        return stack.pop();
+    }
+
     /**
      * Convert a valid and well-formed list of {@link Symbol} objects into a
      * Queue in postfix notation.
@@ -21,14 +21,25 @@ import java.lang.management.MemoryUsage;
 import java.net.ServerSocket;
 import java.nio.ByteBuffer;
 import java.util.ArrayDeque;
+import java.util.Collections;
 import java.util.Deque;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Queue;
 import java.util.Set;
+import java.util.Timer;
+import java.util.TimerTask;
 import java.util.Map.Entry;
-import java.util.concurrent.Executors;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.annotation.Nullable;
 import javax.annotation.concurrent.Immutable;
@@ -41,9 +52,14 @@ import javax.management.ObjectName;
 
 import org.cinchapi.concourse.thrift.Diff;
 import org.apache.thrift.TException;
+import org.apache.thrift.TProcessor;
+import org.apache.thrift.protocol.TProtocol;
+import org.apache.thrift.protocol.TProtocolFactory;
 import org.apache.thrift.server.TServer;
 import org.apache.thrift.server.TThreadPoolServer;
 import org.apache.thrift.server.TThreadPoolServer.Args;
+import org.apache.thrift.server.TThreadedSelectorServer;
+import org.apache.thrift.transport.TNonblockingServerSocket;
 import org.apache.thrift.transport.TServerSocket;
 import org.apache.thrift.transport.TTransportException;
 import org.cinchapi.concourse.annotate.Alias;
@@ -52,8 +68,6 @@ import org.cinchapi.concourse.annotate.AutoRetry;
 import org.cinchapi.concourse.annotate.Batch;
 import org.cinchapi.concourse.annotate.HistoricalRead;
 import org.cinchapi.concourse.annotate.VersionControl;
-import org.cinchapi.concourse.lang.ConjunctionSymbol;
-import org.cinchapi.concourse.lang.Expression;
 import org.cinchapi.concourse.lang.NaturalLanguage;
 import org.cinchapi.concourse.lang.Parser;
 import org.cinchapi.concourse.lang.PostfixNotationSymbol;
@@ -66,11 +80,15 @@ import org.cinchapi.concourse.server.http.HttpServer;
 import org.cinchapi.concourse.server.io.FileSystem;
 import org.cinchapi.concourse.server.jmx.ConcourseServerMXBean;
 import org.cinchapi.concourse.server.jmx.ManagedOperation;
+import org.cinchapi.concourse.server.query.Aggregator;
+import org.cinchapi.concourse.server.query.Cursor;
+import org.cinchapi.concourse.server.query.QueryPlanner;
 import org.cinchapi.concourse.server.storage.AtomicOperation;
 import org.cinchapi.concourse.server.storage.AtomicStateException;
 import org.cinchapi.concourse.server.storage.BufferedStore;
 import org.cinchapi.concourse.server.storage.Compoundable;
 import org.cinchapi.concourse.server.storage.Engine;
+import org.cinchapi.concourse.server.storage.SearchStatistics;
 import org.cinchapi.concourse.server.storage.Store;
 import org.cinchapi.concourse.server.storage.Transaction;
 import org.cinchapi.concourse.server.storage.TransactionStateException;
@@ -79,6 +97,9 @@ import org.cinchapi.concourse.thrift.AccessToken;
 import org.cinchapi.concourse.thrift.ConcourseService;
 import org.cinchapi.concourse.thrift.TCriteria;
 import org.cinchapi.concourse.thrift.TDuplicateEntryException;
+import org.cinchapi.concourse.thrift.TInvalidCursorException;
+import org.cinchapi.concourse.thrift.TMutation;
+import org.cinchapi.concourse.thrift.TMutationType;
 import org.cinchapi.concourse.thrift.TObject;
 import org.cinchapi.concourse.thrift.ConcourseService.Iface;
 import org.cinchapi.concourse.thrift.Operator;
@@ -93,16 +114,19 @@ import org.cinchapi.concourse.util.Convert.ResolvableLink;
 import org.cinchapi.concourse.util.DataServices;
 import org.cinchapi.concourse.util.Environments;
 import org.cinchapi.concourse.util.Logger;
+import org.cinchapi.concourse.util.NegotiatingProtocol;
 import org.cinchapi.concourse.util.TCollections;
 import org.cinchapi.concourse.util.TSets;
 import org.cinchapi.concourse.util.Timestamps;
 import org.cinchapi.concourse.util.Version;
+import org.cinchapi.concourse.Aggregation;
 import org.cinchapi.concourse.Constants;
 import org.cinchapi.concourse.Link;
 import org.cinchapi.concourse.Timestamp;
 import org.cinchapi.concourse.thrift.Type;
 import org.cliffc.high_scale_lib.NonBlockingHashMap;
 
+import com.google.common.base.Joiner;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
 import com.google.common.base.Throwables;
@@ -253,33 +277,118 @@ public class ConcourseServer implements ConcourseRuntime, ConcourseServerMXBean
     }
 
     /**
-     * Do the work to chronologize (generate a chronology of values) for
-     * {@code key} in {@code record}. If {@code history} and {@code result} are
-     * not {@code null}, then this method will only update the chronology with
-     * the latest changes since the history/result were calculated.
+     * Find the records that match the criteria in {@code queue} and apply the
+     * aggregation {@code function} to the values for {@code key} in those
+     * records (at {@code timestamp} if it is not {@code null}) within the
+     * {@code atomic} operation.
+     * <p>
+     * If the {@code atomic} operation cannot be completed, an
+     * {@link AtomicStateException} is thrown.
+     * </p>
      * 
+     * @param function
      * @param key
-     * @param record
-     * @param result
-     * @param history
+     * @param queue
+     * @param timestamp
      * @param atomic
+     * @return the aggregate value
+     * @throws AtomicStateException
      */
-    private static void chronologizeAtomic(String key, long record,
-            Map<Long, Set<TObject>> result, Map<Long, String> history,
-            AtomicOperation atomic) {
-        Map<Long, String> latest = atomic.audit(key, record);
-        if(latest.size() > history.size()) {
-            for (int i = history.size(); i < latest.size(); ++i) {
-                long timestamp = Iterables.get(
-                        (Iterable<Long>) latest.keySet(), i);
-                Set<TObject> values = atomic.select(key, record, timestamp);
-                if(!values.isEmpty()) {
-                    result.put(timestamp, values);
+    private static TObject aggregateAtomic(Aggregation function, String key,
+            Queue<PostfixNotationSymbol> queue, @Nullable Long timestamp,
+            AtomicOperation atomic) throws AtomicStateException {
+        Deque<Set<Long>> stack = new ArrayDeque<Set<Long>>();
+        findAtomic(queue, stack, atomic);
+        Set<Long> records = stack.pop();
+        return timestamp == null ? Aggregator.aggregate(function, key,
+                records, atomic) : Aggregator.aggregate(function, key,
+                records, timestamp, atomic);
+    }
+
+    /**
+     * Return the page of the values in {@code key} that starts after the first
+     * {@code offset} values, along with the records that contain each one.
+     * <p>
+     * The values are read from {@code store} in bounded batches, so that
+     * neither the skipped values nor the ones after the page are ever held in
+     * memory all at once.
+     * </p>
+     * 
+     * @param key
+     * @param offset
+     * @param limit
+     * @param store
+     * @return the rows in the page
+     */
+    private static List<Map<TObject, Set<Long>>> browsePage(String key,
+            int offset, int limit, Store store) {
+        List<Map<TObject, Set<Long>>> page = Lists.newArrayList();
+        int skip = offset;
+        TObject after = null;
+        while (page.size() < limit) {
+            int batch = skip > 0 ? Math.min(skip, BROWSE_SKIP_BATCH_SIZE)
+                    : limit - page.size();
+            Map<TObject, Set<Long>> data = store.browse(key, after, batch);
+            if(data.isEmpty()) {
+                break;
+            }
+            for (Entry<TObject, Set<Long>> entry : data.entrySet()) {
+                if(skip > 0) {
+                    --skip;
+                }
+                else if(page.size() < limit) {
+                    page.add(Collections.singletonMap(entry.getKey(),
+                            entry.getValue()));
+                }
+                after = entry.getKey();
+            }
+        }
+        return page;
+    }
+
+    /**
+     * Check to make sure that each of the {@code mutations} has the type, key
+     * and value that it needs to be applied.
+     * 
+     * @param mutations
+     * @throws TParseException if any of the mutations is incomplete
+     */
+    private static void checkMutations(List<TMutation> mutations)
+            throws TParseException {
+        for (TMutation mutation : mutations) {
+            if(mutation.getType() == null) {
+                throw new TParseException(mutation + " requires a type");
+            }
+            else if(mutation.getType() != TMutationType.CLEAR) {
+                if(mutation.getKey() == null) {
+                    throw new TParseException(mutation + " requires a key");
+                }
+                else if(mutation.getValue() == null) {
+                    throw new TParseException(mutation + " requires a value");
                 }
             }
         }
     }
 
+    /**
+     * Check to make sure that {@code offset} and {@code limit} describe a valid
+     * page of results.
+     * 
+     * @param offset
+     * @param limit
+     * @throws TParseException if the offset is negative or the limit is not
+     *             positive
+     */
+    private static void checkPage(int offset, int limit)
+            throws TParseException {
+        if(offset < 0) {
+            throw new TParseException("The offset cannot be negative");
+        }
+        else if(limit <= 0) {
+            throw new TParseException("The limit must be positive");
+        }
+    }
+
     /**
      * Remove all the values mapped from the {@code key} in {@code record} using
      * the specified {@code atomic} operation.
@@ -375,7 +484,8 @@ public class ConcourseServer implements ConcourseRuntime, ConcourseServerMXBean
 
     /**
      * Do the work necessary to complete a complex find operation based on the
-     * {@code queue} of symbols.
+     * {@code queue} of symbols. The queue is converted into an abstract syntax
+     * tree and evaluated by the {@link QueryPlanner}.
      * <p>
      * This method does not return a value. If you need to perform a complex
      * find using an {@link AtomicOperation} and immediately get the results,
@@ -403,31 +513,9 @@ public class ConcourseServer implements ConcourseRuntime, ConcourseServerMXBean
      */
     private static void findAtomic(Queue<PostfixNotationSymbol> queue,
             Deque<Set<Long>> stack, AtomicOperation atomic) {
-        // NOTE: there is room to do some query planning/optimization by going
-        // through the pfn and plotting an Abstract Syntax Tree and looking for
-        // the optimal routes to start with
         Preconditions.checkArgument(stack.isEmpty());
-        for (PostfixNotationSymbol symbol : queue) {
-            if(symbol == ConjunctionSymbol.AND) {
-                stack.push(TSets.intersection(stack.pop(), stack.pop()));
-            }
-            else if(symbol == ConjunctionSymbol.OR) {
-                stack.push(TSets.union(stack.pop(), stack.pop()));
-            }
-            else if(symbol instanceof Expression) {
-                Expression exp = (Expression) symbol;
-                stack.push(exp.getTimestampRaw() == 0 ? atomic.find(
-                        exp.getKeyRaw(), exp.getOperatorRaw(),
-                        exp.getValuesRaw()) : atomic.find(
-                        exp.getTimestampRaw(), exp.getKeyRaw(),
-                        exp.getOperatorRaw(), exp.getValuesRaw()));
-            }
-            else {
-                // If we reach here, then the conversion to postfix notation
-                // failed :-/
-                throw new IllegalStateException();
-            }
-        }
+        stack.push(QueryPlanner.find(Parser.toAbstractSyntaxTree(queue),
+                atomic, atomic.getStatistics()));
     }
 
     /**
@@ -471,6 +559,30 @@ public class ConcourseServer implements ConcourseRuntime, ConcourseServerMXBean
         }
     }
 
+    /**
+     * Do the work necessary to complete a paged find operation based on the
+     * {@code queue} of symbols and return the records in the page that starts
+     * at {@code offset} and contains at most {@code limit} records, sorted by
+     * the {@code order} key, if one is specified. See
+     * {@link QueryPlanner#page(Set, String, int, int, Store)} for details on
+     * how the records are sorted.
+     * 
+     * @param queue - The criteria/ccl represented as a queue in postfix
+     *            notation.
+     * @param order - the key to sort by or {@code null} to sort by record id
+     * @param offset - the number of records to skip
+     * @param limit - the maximum number of records in the page
+     * @param atomic - The atomic operation
+     * @return the records in the page
+     */
+    private static List<Long> findPageAtomic(
+            Queue<PostfixNotationSymbol> queue, @Nullable String order,
+            int offset, int limit, AtomicOperation atomic) {
+        Deque<Set<Long>> stack = new ArrayDeque<Set<Long>>();
+        findAtomic(queue, stack, atomic);
+        return QueryPlanner.page(stack.pop(), order, offset, limit, atomic);
+    }
+
     /**
      * Do the work to atomically insert all of the {@code data} into
      * {@code record} and return {@code true} if the operation is successful.
@@ -557,6 +669,61 @@ public class ConcourseServer implements ConcourseRuntime, ConcourseServerMXBean
         return link.longValue() != record;
     }
 
+    /**
+     * Apply the {@code mutation} using the specified {@code atomic} operation
+     * and return {@code true} if it changed any data. A SET or CLEAR always
+     * returns {@code true}. The {@code mutation} must have already passed
+     * {@link #checkMutations(List)}.
+     * 
+     * @param mutation
+     * @param atomic
+     * @return {@code true} if the mutation is applied
+     * @throws AtomicStateException
+     */
+    private static boolean mutateAtomic(TMutation mutation,
+            AtomicOperation atomic) throws AtomicStateException {
+        long record = mutation.getRecord();
+        String key = mutation.getKey();
+        TObject value = mutation.getValue();
+        switch (mutation.getType()) {
+        case ADD:
+            return (value.getType() != Type.LINK || isValidLink(
+                    (Link) Convert.thriftToJava(value), record))
+                    && atomic.add(key, value, record);
+        case REMOVE:
+            return atomic.remove(key, value, record);
+        case SET:
+            atomic.set(key, value, record);
+            return true;
+        case CLEAR:
+            if(key == null) {
+                clearRecordAtomic(record, atomic);
+            }
+            else {
+                clearKeyRecordAtomic(key, record, atomic);
+            }
+            return true;
+        default:
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    /**
+     * Remove the {@link Cursor cursors} that have been idle for longer than
+     * {@link #CURSOR_TIMEOUT_IN_MINUTES} from {@code cursors}.
+     * 
+     * @param cursors
+     */
+    private static void releaseIdleCursors(
+            Map<Long, ? extends Cursor<?>> cursors) {
+        Iterator<? extends Cursor<?>> it = cursors.values().iterator();
+        while (it.hasNext()) {
+            if(it.next().isIdle(CURSOR_TIMEOUT_IN_MINUTES, TimeUnit.MINUTES)) {
+                it.remove();
+            }
+        }
+    }
+
     /**
      * Revert {@code key} in {@code record} to its state {@code timestamp} using
      * the provided atomic {@code operation}.
@@ -582,18 +749,51 @@ public class ConcourseServer implements ConcourseRuntime, ConcourseServerMXBean
         }
     }
 
+    /**
+     * Return the {@link Aggregation} that is named by {@code function}.
+     * 
+     * @param function
+     * @return the Aggregation
+     * @throws TParseException if {@code function} does not name an
+     *             Aggregation
+     */
+    private static Aggregation toAggregation(String function)
+            throws TParseException {
+        try {
+            return Aggregation.valueOf(function);
+        }
+        catch (IllegalArgumentException | NullPointerException e) {
+            throw new TParseException(function
+                    + " is not a valid aggregation function");
+        }
+    }
+
     /**
      * Contains the credentials used by the {@link #accessManager}. This file is
      * typically located in the root of the server installation.
      */
     private static final String ACCESS_FILE = ".access";
 
-    private static final int MIN_HEAP_SIZE = 268435456; // 256 MB
+    /**
+     * The maximum number of values that are read at once to skip to the start
+     * of a page in {@link #browseKeyPage(String, int, int, AccessToken,
+     * TransactionToken, String)}.
+     */
+    private static final int BROWSE_SKIP_BATCH_SIZE = 1000;
 
-    private static final int NUM_WORKER_THREADS = 100; // This may become
-                                                       // configurable in a
-                                                       // prefs file in a
-                                                       // future release.
+    /**
+     * The number of minutes that a {@link Cursor} can go unused before it is
+     * released so that abandoned cursors don't hold server resources forever.
+     */
+    private static final int CURSOR_TIMEOUT_IN_MINUTES = 10;
+
+    /**
+     * The number of milliseconds between the checks for idle {@link Cursor
+     * cursors} that should be released.
+     */
+    private static final long CURSOR_RELEASE_FREQUENCY_IN_MILLISECONDS = 60000;
+
+    private static final int MIN_HEAP_SIZE = 268435456; // 256 MB
 
     /**
      * The base location where the indexed buffer pages are stored.
@@ -626,6 +826,20 @@ public class ConcourseServer implements ConcourseRuntime, ConcourseServerMXBean
      */
     private final TServer server;
 
+    /**
+     * The pool of threads that process client requests. The pool is bounded
+     * by {@link GlobalState#CLIENT_WORKER_THREADS}, so a flood of clients
+     * cannot exhaust the resources of the server.
+     */
+    private final ThreadPoolExecutor workers;
+
+    /**
+     * The number of times that the {@link #workers} rejected a client request
+     * (or connection in the THREAD_POOL model) because all the workers were
+     * busy and no more work could be queued.
+     */
+    private final AtomicLong rejections = new AtomicLong();
+
     /**
      * The server maintains a collection of {@link Transaction} objects to
      * ensure that client requests are properly routed. When the client makes a
@@ -635,6 +849,26 @@ public class ConcourseServer implements ConcourseRuntime, ConcourseServerMXBean
      */
     private final Map<TransactionToken, Transaction> transactions = new NonBlockingHashMap<TransactionToken, Transaction>();
 
+    /**
+     * The server maintains a collection of {@link Cursor} objects over record
+     * sets. When the client opens a cursor, the result set is captured and the
+     * client uses the returned id to fetch chunks of it in future calls.
+     */
+    private final Map<Long, Cursor<Long>> recordCursors = new NonBlockingHashMap<Long, Cursor<Long>>();
+
+    /**
+     * The server maintains a collection of {@link Cursor} objects over the
+     * values that are browsed for a key. Each fetch reads the next chunk of
+     * values as of the time that the cursor was opened.
+     */
+    private final Map<Long, Cursor<Map<TObject, Set<Long>>>> valueCursors = new NonBlockingHashMap<Long, Cursor<Map<TObject, Set<Long>>>>();
+
+    /**
+     * A {@link Timer} that periodically releases the {@link Cursor cursors}
+     * that have been idle for too long, even if no more cursors are opened.
+     */
+    private final Timer scheduler = new Timer(true);
+
     /**
      * Construct a ConcourseServer that listens on {@link #SERVER_PORT} and
      * stores data in {@link Properties#DATA_HOME}.
@@ -666,20 +900,76 @@ public class ConcourseServer implements ConcourseRuntime, ConcourseServerMXBean
                         + "'%s'. Please use a default environment name that "
                         + "contains only alphanumeric characters.",
                         DEFAULT_ENVIRONMENT);
+        Preconditions.checkState(
+                CLIENT_WORKER_MODEL.equalsIgnoreCase("SELECTOR")
+                        || CLIENT_WORKER_MODEL.equalsIgnoreCase("THREAD_POOL"),
+                "Cannot initialize Concourse Server with a client worker "
+                        + "model of '%s'. Please use SELECTOR or THREAD_POOL.",
+                CLIENT_WORKER_MODEL);
         FileSystem.mkdirs(bufferStore);
         FileSystem.mkdirs(dbStore);
         FileSystem.lock(bufferStore);
         FileSystem.lock(dbStore);
-        TServerSocket socket = new TServerSocket(port);
-        ConcourseService.Processor<Iface> processor = new ConcourseService.Processor<Iface>(
+        final ConcourseService.Processor<Iface> service = new ConcourseService.Processor<Iface>(
                 this);
-        Args args = new TThreadPoolServer.Args(socket);
-        args.processor(processor);
-        args.maxWorkerThreads(NUM_WORKER_THREADS);
-        args.executorService(Executors
-                .newCachedThreadPool(new ThreadFactoryBuilder().setNameFormat(
-                        "Client Worker" + " %d").build()));
-        this.server = new TThreadPoolServer(args);
+        // Each request is read with the protocol that the client chose and
+        // answered in kind, and only clients that wrap their requests in
+        // envelopes receive compressed responses, so older drivers that only
+        // speak the plain binary protocol are still understood.
+        TProcessor processor = new TProcessor() {
+
+            @Override
+            public boolean process(TProtocol in, TProtocol out)
+                    throws TException {
+                ((NegotiatingProtocol) in).negotiate();
+                ((NegotiatingProtocol) out).mirror((NegotiatingProtocol) in);
+                return service.process(in, out);
+            }
+
+        };
+        TProtocolFactory protocolFactory = NegotiatingProtocol
+                .factory(CLIENT_COMPRESSION_THRESHOLD, CLIENT_MAX_FRAME_SIZE);
+        ThreadFactory threadFactory = new ThreadFactoryBuilder().setNameFormat(
+                "Client Worker" + " %d").build();
+        RejectedExecutionHandler admission = new RejectedExecutionHandler() {
+
+            @Override
+            public void rejectedExecution(Runnable r,
+                    ThreadPoolExecutor executor) {
+                rejections.incrementAndGet();
+                throw new RejectedExecutionException();
+            }
+
+        };
+        if(CLIENT_WORKER_MODEL.equalsIgnoreCase("SELECTOR")) {
+            // Each worker only handles one request at a time, so requests wait
+            // in a bounded queue and are rejected (which causes the selector to
+            // close the connection) once it is full.
+            this.workers = new ThreadPoolExecutor(CLIENT_WORKER_THREADS,
+                    CLIENT_WORKER_THREADS, 0, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<Runnable>(CLIENT_MAX_QUEUED_REQUESTS),
+                    threadFactory, admission);
+            TThreadedSelectorServer.Args args = new TThreadedSelectorServer.Args(
+                    new TNonblockingServerSocket(port));
+            args.processor(processor);
+            args.protocolFactory(protocolFactory);
+            args.selectorThreads(CLIENT_SELECTOR_THREADS);
+            args.executorService(workers);
+            this.server = new TThreadedSelectorServer(args);
+        }
+        else {
+            // Each worker is pinned to a connection, so there is no queue. When
+            // all the workers are busy, the server backs off and retries a new
+            // connection until it times out and closes it.
+            this.workers = new ThreadPoolExecutor(0, CLIENT_WORKER_THREADS, 60,
+                    TimeUnit.SECONDS, new SynchronousQueue<Runnable>(),
+                    threadFactory, admission);
+            Args args = new TThreadPoolServer.Args(new TServerSocket(port));
+            args.processor(processor);
+            args.protocolFactory(protocolFactory);
+            args.executorService(workers);
+            this.server = new TThreadPoolServer(args);
+        }
         this.bufferStore = bufferStore;
         this.dbStore = dbStore;
         this.engines = Maps.newConcurrentMap();
@@ -772,6 +1062,163 @@ public class ConcourseServer implements ConcourseRuntime, ConcourseServerMXBean
         }
     }
 
+    @Override
+    public TObject aggregateKey(String function, String key, AccessToken creds,
+            TransactionToken transaction, String environment) throws TException {
+        checkAccess(creds, transaction);
+        Aggregation aggregation = toAggregation(function);
+        try {
+            return Aggregator.aggregate(aggregation, key,
+                    getStore(transaction, environment));
+        }
+        catch (TransactionStateException e) {
+            throw new TTransactionException();
+        }
+    }
+
+    @Override
+    @Atomic
+    public TObject aggregateKeyCcl(String function, String key, String ccl,
+            AccessToken creds, TransactionToken transaction, String environment)
+            throws TException {
+        checkAccess(creds, transaction);
+        Aggregation aggregation = toAggregation(function);
+        try {
+            Queue<PostfixNotationSymbol> queue = Parser.toPostfixNotation(ccl);
+            Compoundable store = getStore(transaction, environment);
+            TObject result = null;
+            AtomicOperation atomic = null;
+            while (atomic == null || !atomic.commit()) {
+                atomic = store.startAtomicOperation();
+                try {
+                    result = aggregateAtomic(aggregation, key, queue,
+                            null, atomic);
+                }
+                catch (AtomicStateException e) {
+                    atomic = null;
+                }
+            }
+            return result;
+        }
+        catch (TransactionStateException e) {
+            throw new TTransactionException();
+        }
+        catch (Exception e) {
+            throw new TParseException(e.getMessage());
+        }
+    }
+
+    @Override
+    @Atomic
+    @HistoricalRead
+    public TObject aggregateKeyCclTime(String function, String key,
+            String ccl, long timestamp, AccessToken creds,
+            TransactionToken transaction, String environment)
+            throws TException {
+        checkAccess(creds, transaction);
+        Aggregation aggregation = toAggregation(function);
+        try {
+            Queue<PostfixNotationSymbol> queue = Parser.toPostfixNotation(ccl);
+            Compoundable store = getStore(transaction, environment);
+            TObject result = null;
+            AtomicOperation atomic = null;
+            while (atomic == null || !atomic.commit()) {
+                atomic = store.startAtomicOperation();
+                try {
+                    result = aggregateAtomic(aggregation, key, queue,
+                            timestamp, atomic);
+                }
+                catch (AtomicStateException e) {
+                    atomic = null;
+                }
+            }
+            return result;
+        }
+        catch (TransactionStateException e) {
+            throw new TTransactionException();
+        }
+        catch (Exception e) {
+            throw new TParseException(e.getMessage());
+        }
+    }
+
+    @Override
+    @Atomic
+    public TObject aggregateKeyCriteria(String function, String key,
+            TCriteria criteria, AccessToken creds,
+            TransactionToken transaction, String environment)
+            throws TException {
+        checkAccess(creds, transaction);
+        Aggregation aggregation = toAggregation(function);
+        try {
+            Queue<PostfixNotationSymbol> queue = convertCriteriaToQueue(criteria);
+            Compoundable store = getStore(transaction, environment);
+            TObject result = null;
+            AtomicOperation atomic = null;
+            while (atomic == null || !atomic.commit()) {
+                atomic = store.startAtomicOperation();
+                try {
+                    result = aggregateAtomic(aggregation, key, queue,
+                            null, atomic);
+                }
+                catch (AtomicStateException e) {
+                    atomic = null;
+                }
+            }
+            return result;
+        }
+        catch (TransactionStateException e) {
+            throw new TTransactionException();
+        }
+    }
+
+    @Override
+    @Atomic
+    @HistoricalRead
+    public TObject aggregateKeyCriteriaTime(String function, String key,
+            TCriteria criteria, long timestamp, AccessToken creds,
+            TransactionToken transaction, String environment)
+            throws TException {
+        checkAccess(creds, transaction);
+        Aggregation aggregation = toAggregation(function);
+        try {
+            Queue<PostfixNotationSymbol> queue = convertCriteriaToQueue(criteria);
+            Compoundable store = getStore(transaction, environment);
+            TObject result = null;
+            AtomicOperation atomic = null;
+            while (atomic == null || !atomic.commit()) {
+                atomic = store.startAtomicOperation();
+                try {
+                    result = aggregateAtomic(aggregation, key, queue,
+                            timestamp, atomic);
+                }
+                catch (AtomicStateException e) {
+                    atomic = null;
+                }
+            }
+            return result;
+        }
+        catch (TransactionStateException e) {
+            throw new TTransactionException();
+        }
+    }
+
+    @Override
+    @HistoricalRead
+    public TObject aggregateKeyTime(String function, String key,
+            long timestamp, AccessToken creds, TransactionToken transaction,
+            String environment) throws TException {
+        checkAccess(creds, transaction);
+        Aggregation aggregation = toAggregation(function);
+        try {
+            return Aggregator.aggregate(aggregation, key,
+                    timestamp, getStore(transaction, environment));
+        }
+        catch (TransactionStateException e) {
+            throw new TTransactionException();
+        }
+    }
+
     @Override
     @VersionControl
     public Map<Long, String> auditKeyRecord(String key, long record,
@@ -926,6 +1373,21 @@ public class ConcourseServer implements ConcourseRuntime, ConcourseServerMXBean
         }
     }
 
+    @Override
+    public List<Map<TObject, Set<Long>>> browseKeyPage(String key, int offset,
+            int limit, AccessToken creds, TransactionToken transaction,
+            String environment) throws TException {
+        checkAccess(creds, transaction);
+        checkPage(offset, limit);
+        try {
+            return browsePage(key, offset, limit,
+                    getStore(transaction, environment));
+        }
+        catch (TransactionStateException e) {
+            throw new TTransactionException();
+        }
+    }
+
     @Override
     @Atomic
     @Batch
@@ -1010,31 +1472,13 @@ public class ConcourseServer implements ConcourseRuntime, ConcourseServerMXBean
     }
 
     @Override
-    @Atomic
+    @Alias
     @AutoRetry
     public Map<Long, Set<TObject>> chronologizeKeyRecord(String key,
             long record, AccessToken creds, TransactionToken transaction,
             String environment) throws TException {
-        checkAccess(creds, transaction);
-        try {
-            Compoundable store = getStore(transaction, environment);
-            Map<Long, Set<TObject>> result = Maps.newLinkedHashMap();
-            Map<Long, String> history = Maps.newLinkedHashMap();
-            AtomicOperation atomic = null;
-            while (atomic == null || !atomic.commit()) {
-                atomic = store.startAtomicOperation();
-                try {
-                    chronologizeAtomic(key, record, result, history, atomic);
-                }
-                catch (AtomicStateException e) {
-                    atomic = null;
-                }
-            }
-            return result;
-        }
-        catch (TransactionStateException e) {
-            throw new TTransactionException();
-        }
+        return chronologizeKeyRecordStartEnd(key, record, 0, Time.NONE, creds,
+                transaction, environment);
     }
 
     @Override
@@ -1052,22 +1496,10 @@ public class ConcourseServer implements ConcourseRuntime, ConcourseServerMXBean
     public Map<Long, Set<TObject>> chronologizeKeyRecordStartEnd(String key,
             long record, long start, long end, AccessToken creds,
             TransactionToken transaction, String environment) throws TException {
-        // TODO review this implementation
+        checkAccess(creds, transaction);
         try {
-            Map<Long, Set<TObject>> result = Maps.newLinkedHashMap();
-            Map<Long, Set<TObject>> base = chronologizeKeyRecord(key, record,
-                    creds, transaction, environment);
-            int index = Timestamps.findNearestSuccessorForTimestamp(
-                    base.keySet(), start);
-            Entry<Long, Set<TObject>> entry = null;
-            for (int i = index; i < base.size(); ++i) {
-                entry = Iterables.get(base.entrySet(), i);
-                if(entry.getKey() >= end) {
-                    break;
-                }
-                result.put(entry.getKey(), entry.getValue());
-            }
-            return result;
+            return getStore(transaction, environment).chronologize(key, record,
+                    start, end);
         }
         catch (TransactionStateException e) {
             throw new TTransactionException();
@@ -1257,6 +1689,18 @@ public class ConcourseServer implements ConcourseRuntime, ConcourseServerMXBean
         }
     }
 
+    @Override
+    public void closeCursor(long cursor, AccessToken creds, String environment)
+            throws TException {
+        checkAccess(creds, null);
+        if(getCursor(recordCursors, cursor, creds) != null) {
+            recordCursors.remove(cursor);
+        }
+        else if(getCursor(valueCursors, cursor, creds) != null) {
+            valueCursors.remove(cursor);
+        }
+    }
+
     @Override
     public boolean commit(AccessToken creds, TransactionToken transaction,
             String env) throws TException {
@@ -1654,6 +2098,26 @@ public class ConcourseServer implements ConcourseRuntime, ConcourseServerMXBean
         return getEngine(env).dump(id);
     }
 
+    @Override
+    public List<Long> fetchCursorRecords(long cursor, int count,
+            AccessToken creds, String environment) throws TException {
+        checkAccess(creds, null);
+        return fetchCursor(recordCursors, cursor, count, creds);
+    }
+
+    @Override
+    public List<Map<TObject, Set<Long>>> fetchCursorValues(long cursor,
+            int count, AccessToken creds, String environment)
+            throws TException {
+        checkAccess(creds, null);
+        try {
+            return fetchCursor(valueCursors, cursor, count, creds);
+        }
+        catch (TransactionStateException e) {
+            throw new TTransactionException();
+        }
+    }
+
     @Override
     public Set<Long> findCcl(String ccl, AccessToken creds,
             TransactionToken transaction, String environment) throws TException {
@@ -1682,6 +2146,37 @@ public class ConcourseServer implements ConcourseRuntime, ConcourseServerMXBean
         }
     }
 
+    @Override
+    @Atomic
+    public List<Long> findCclPage(String ccl, String order,
+            int offset, int limit, AccessToken creds,
+            TransactionToken transaction, String environment) throws TException {
+        checkAccess(creds, transaction);
+        checkPage(offset, limit);
+        try {
+            Queue<PostfixNotationSymbol> queue = Parser.toPostfixNotation(ccl);
+            Compoundable store = getStore(transaction, environment);
+            List<Long> page = null;
+            AtomicOperation atomic = null;
+            while (atomic == null || !atomic.commit()) {
+                atomic = store.startAtomicOperation();
+                try {
+                    page = findPageAtomic(queue, order, offset, limit, atomic);
+                }
+                catch (AtomicStateException e) {
+                    atomic = null;
+                }
+            }
+            return page;
+        }
+        catch (TransactionStateException e) {
+            throw new TTransactionException();
+        }
+        catch (Exception e) {
+            throw new TParseException(e.getMessage());
+        }
+    }
+
     @Override
     @Atomic
     @Batch
@@ -1709,6 +2204,34 @@ public class ConcourseServer implements ConcourseRuntime, ConcourseServerMXBean
         }
     }
 
+    @Override
+    @Atomic
+    public List<Long> findCriteriaPage(TCriteria criteria, String order,
+            int offset, int limit, AccessToken creds,
+            TransactionToken transaction, String environment) throws TException {
+        checkAccess(creds, transaction);
+        checkPage(offset, limit);
+        try {
+            Queue<PostfixNotationSymbol> queue = convertCriteriaToQueue(criteria);
+            Compoundable store = getStore(transaction, environment);
+            List<Long> page = null;
+            AtomicOperation atomic = null;
+            while (atomic == null || !atomic.commit()) {
+                atomic = store.startAtomicOperation();
+                try {
+                    page = findPageAtomic(queue, order, offset, limit, atomic);
+                }
+                catch (AtomicStateException e) {
+                    atomic = null;
+                }
+            }
+            return page;
+        }
+        catch (TransactionStateException e) {
+            throw new TTransactionException();
+        }
+    }
+
     @Override
     @Alias
     public Set<Long> findKeyOperatorstrValues(String key, String operator,
@@ -2404,6 +2927,11 @@ public class ConcourseServer implements ConcourseRuntime, ConcourseServerMXBean
                 environment);
     }
 
+    @Override
+    public String getKeyStatistics(String key, String env) {
+        return getEngine(env).getStatistics(key).toString();
+    }
+
     @Override
     public Map<Long, Map<String, TObject>> getKeysCcl(List<String> keys,
             String ccl, AccessToken creds, TransactionToken transaction,
@@ -2764,6 +3292,24 @@ public class ConcourseServer implements ConcourseRuntime, ConcourseServerMXBean
                 environment);
     }
 
+    @Override
+    public String getClientWorkerStats() {
+        return Joiner.on("").join(CLIENT_WORKER_MODEL.toUpperCase(),
+                ": {activeWorkers: ", workers.getActiveCount(), ", workers: ",
+                workers.getPoolSize(), ", maxWorkers: ",
+                workers.getMaximumPoolSize(), ", queuedRequests: ", workers
+                        .getQueue().size(), ", maxQueuedRequests: ", workers
+                        .getQueue().size()
+                        + workers.getQueue().remainingCapacity(),
+                ", completedTasks: ", workers.getCompletedTaskCount(),
+                ", rejections: ", rejections.get(), "}");
+    }
+
+    @Override
+    public String getRecordCacheStats(String env) {
+        return getEngine(env).getRecordCacheStats();
+    }
+
     @Override
     public String getServerEnvironment(AccessToken creds,
             TransactionToken transaction, String env)
@@ -3016,6 +3562,108 @@ public class ConcourseServer implements ConcourseRuntime, ConcourseServerMXBean
         accessManager.expireAccessToken(creds);
     }
 
+    @Override
+    @Atomic
+    @Batch
+    public List<Boolean> mutate(List<TMutation> mutations, AccessToken creds,
+            TransactionToken transaction, String environment) throws TException {
+        checkAccess(creds, transaction);
+        checkMutations(mutations);
+        try {
+            Compoundable store = getStore(transaction, environment);
+            List<Boolean> result = Lists.newArrayListWithCapacity(mutations
+                    .size());
+            AtomicOperation atomic = null;
+            while (atomic == null || !atomic.commit()) {
+                atomic = store.startAtomicOperation();
+                result.clear();
+                try {
+                    for (TMutation mutation : mutations) {
+                        result.add(mutateAtomic(mutation, atomic));
+                    }
+                }
+                catch (AtomicStateException e) {
+                    atomic = null;
+                }
+            }
+            return result;
+        }
+        catch (TransactionStateException e) {
+            throw new TTransactionException();
+        }
+    }
+
+    @Override
+    @Atomic
+    public long openCursorCcl(String ccl, AccessToken creds,
+            TransactionToken transaction, String environment) throws TException {
+        checkAccess(creds, transaction);
+        try {
+            Queue<PostfixNotationSymbol> queue = Parser.toPostfixNotation(ccl);
+            Deque<Set<Long>> stack = new ArrayDeque<Set<Long>>();
+            Compoundable store = getStore(transaction, environment);
+            AtomicOperation atomic = null;
+            while (atomic == null || !atomic.commit()) {
+                atomic = store.startAtomicOperation();
+                try {
+                    findAtomic(queue, stack, atomic);
+                }
+                catch (AtomicStateException e) {
+                    atomic = null;
+                }
+            }
+            return openCursor(recordCursors,
+                    Cursor.records(stack.pop(), creds));
+        }
+        catch (TransactionStateException e) {
+            throw new TTransactionException();
+        }
+        catch (Exception e) {
+            throw new TParseException(e.getMessage());
+        }
+    }
+
+    @Override
+    @Atomic
+    public long openCursorCriteria(TCriteria criteria, AccessToken creds,
+            TransactionToken transaction, String environment) throws TException {
+        checkAccess(creds, transaction);
+        try {
+            Queue<PostfixNotationSymbol> queue = convertCriteriaToQueue(criteria);
+            Deque<Set<Long>> stack = new ArrayDeque<Set<Long>>();
+            Compoundable store = getStore(transaction, environment);
+            AtomicOperation atomic = null;
+            while (atomic == null || !atomic.commit()) {
+                atomic = store.startAtomicOperation();
+                try {
+                    findAtomic(queue, stack, atomic);
+                }
+                catch (AtomicStateException e) {
+                    atomic = null;
+                }
+            }
+            return openCursor(recordCursors,
+                    Cursor.records(stack.pop(), creds));
+        }
+        catch (TransactionStateException e) {
+            throw new TTransactionException();
+        }
+    }
+
+    @Override
+    public long openCursorKey(String key, AccessToken creds,
+            TransactionToken transaction, String environment) throws TException {
+        checkAccess(creds, transaction);
+        try {
+            return openCursor(valueCursors, Cursor.values(
+                    getStore(transaction, environment), key, Time.now(),
+                    creds));
+        }
+        catch (TransactionStateException e) {
+            throw new TTransactionException();
+        }
+    }
+
     @Override
     public boolean pingRecord(long record, AccessToken creds,
             TransactionToken transaction, String environment) throws TException {
@@ -3284,6 +3932,21 @@ public class ConcourseServer implements ConcourseRuntime, ConcourseServerMXBean
         }
     }
 
+    @Override
+    public Map<Long, Double> searchRanked(String key, String query, int limit,
+            AccessToken creds, TransactionToken transaction, String env)
+            throws TException {
+        checkAccess(creds, transaction);
+        try {
+            SearchStatistics statistics = new SearchStatistics(query);
+            getStore(transaction, env).gatherSearchStatistics(key, statistics);
+            return statistics.getTopRecords(limit);
+        }
+        catch (TransactionStateException e) {
+            throw new TTransactionException();
+        }
+    }
+
     @Override
     public Map<Long, Map<String, Set<TObject>>> selectCcl(String ccl,
             AccessToken creds, TransactionToken transaction, String environment)
@@ -3324,6 +3987,47 @@ public class ConcourseServer implements ConcourseRuntime, ConcourseServerMXBean
         }
     }
 
+    @Override
+    @Atomic
+    public List<Map<Long, Map<String, Set<TObject>>>> selectCclPage(
+            String ccl, String order, int offset, int limit,
+            AccessToken creds, TransactionToken transaction, String environment)
+            throws TException {
+        checkAccess(creds, transaction);
+        checkPage(offset, limit);
+        try {
+            Queue<PostfixNotationSymbol> queue = Parser.toPostfixNotation(ccl);
+            Compoundable store = getStore(transaction, environment);
+            List<Map<Long, Map<String, Set<TObject>>>> result = Lists
+                    .newArrayList();
+            AtomicOperation atomic = null;
+            while (atomic == null || !atomic.commit()) {
+                atomic = store.startAtomicOperation();
+                try {
+                    for (long record : findPageAtomic(queue, order, offset,
+                            limit, atomic)) {
+                        Map<String, Set<TObject>> entry = Maps.newHashMap();
+                        for (String key : atomic.describe(record)) {
+                            entry.put(key, atomic.select(key, record));
+                        }
+                        result.add(Collections.singletonMap(record, entry));
+                    }
+                }
+                catch (AtomicStateException e) {
+                    result.clear();
+                    atomic = null;
+                }
+            }
+            return result;
+        }
+        catch (TransactionStateException e) {
+            throw new TTransactionException();
+        }
+        catch (Exception e) {
+            throw new TParseException(e.getMessage());
+        }
+    }
+
     @Override
     public Map<Long, Map<String, Set<TObject>>> selectCclTime(String ccl,
             long timestamp, AccessToken creds, TransactionToken transaction,
@@ -3411,6 +4115,44 @@ public class ConcourseServer implements ConcourseRuntime, ConcourseServerMXBean
         }
     }
 
+    @Override
+    @Atomic
+    public List<Map<Long, Map<String, Set<TObject>>>> selectCriteriaPage(
+            TCriteria criteria, String order, int offset, int limit,
+            AccessToken creds, TransactionToken transaction, String environment)
+            throws TException {
+        checkAccess(creds, transaction);
+        checkPage(offset, limit);
+        try {
+            Queue<PostfixNotationSymbol> queue = convertCriteriaToQueue(criteria);
+            Compoundable store = getStore(transaction, environment);
+            List<Map<Long, Map<String, Set<TObject>>>> result = Lists
+                    .newArrayList();
+            AtomicOperation atomic = null;
+            while (atomic == null || !atomic.commit()) {
+                atomic = store.startAtomicOperation();
+                try {
+                    for (long record : findPageAtomic(queue, order, offset,
+                            limit, atomic)) {
+                        Map<String, Set<TObject>> entry = Maps.newHashMap();
+                        for (String key : atomic.describe(record)) {
+                            entry.put(key, atomic.select(key, record));
+                        }
+                        result.add(Collections.singletonMap(record, entry));
+                    }
+                }
+                catch (AtomicStateException e) {
+                    result.clear();
+                    atomic = null;
+                }
+            }
+            return result;
+        }
+        catch (TransactionStateException e) {
+            throw new TTransactionException();
+        }
+    }
+
     @Override
     public Map<Long, Map<String, Set<TObject>>> selectCriteriaTime(
             TCriteria criteria, long timestamp, AccessToken creds,
@@ -3755,6 +4497,47 @@ public class ConcourseServer implements ConcourseRuntime, ConcourseServerMXBean
         }
     }
 
+    @Override
+    @Atomic
+    public List<Map<Long, Map<String, Set<TObject>>>> selectKeysCclPage(
+            List<String> keys, String ccl, String order, int offset, int limit,
+            AccessToken creds, TransactionToken transaction, String environment)
+            throws TException {
+        checkAccess(creds, transaction);
+        checkPage(offset, limit);
+        try {
+            Queue<PostfixNotationSymbol> queue = Parser.toPostfixNotation(ccl);
+            Compoundable store = getStore(transaction, environment);
+            List<Map<Long, Map<String, Set<TObject>>>> result = Lists
+                    .newArrayList();
+            AtomicOperation atomic = null;
+            while (atomic == null || !atomic.commit()) {
+                atomic = store.startAtomicOperation();
+                try {
+                    for (long record : findPageAtomic(queue, order, offset,
+                            limit, atomic)) {
+                        Map<String, Set<TObject>> entry = Maps.newHashMap();
+                        for (String key : keys) {
+                            entry.put(key, atomic.select(key, record));
+                        }
+                        result.add(Collections.singletonMap(record, entry));
+                    }
+                }
+                catch (AtomicStateException e) {
+                    result.clear();
+                    atomic = null;
+                }
+            }
+            return result;
+        }
+        catch (TransactionStateException e) {
+            throw new TTransactionException();
+        }
+        catch (Exception e) {
+            throw new TParseException(e.getMessage());
+        }
+    }
+
     @Override
     public Map<Long, Map<String, Set<TObject>>> selectKeysCclTime(
             List<String> keys, String ccl, long timestamp, AccessToken creds,
@@ -3843,6 +4626,44 @@ public class ConcourseServer implements ConcourseRuntime, ConcourseServerMXBean
         }
     }
 
+    @Override
+    @Atomic
+    public List<Map<Long, Map<String, Set<TObject>>>> selectKeysCriteriaPage(
+            List<String> keys, TCriteria criteria, String order, int offset, int limit,
+            AccessToken creds, TransactionToken transaction, String environment)
+            throws TException {
+        checkAccess(creds, transaction);
+        checkPage(offset, limit);
+        try {
+            Queue<PostfixNotationSymbol> queue = convertCriteriaToQueue(criteria);
+            Compoundable store = getStore(transaction, environment);
+            List<Map<Long, Map<String, Set<TObject>>>> result = Lists
+                    .newArrayList();
+            AtomicOperation atomic = null;
+            while (atomic == null || !atomic.commit()) {
+                atomic = store.startAtomicOperation();
+                try {
+                    for (long record : findPageAtomic(queue, order, offset,
+                            limit, atomic)) {
+                        Map<String, Set<TObject>> entry = Maps.newHashMap();
+                        for (String key : keys) {
+                            entry.put(key, atomic.select(key, record));
+                        }
+                        result.add(Collections.singletonMap(record, entry));
+                    }
+                }
+                catch (AtomicStateException e) {
+                    result.clear();
+                    atomic = null;
+                }
+            }
+            return result;
+        }
+        catch (TransactionStateException e) {
+            throw new TTransactionException();
+        }
+    }
+
     @Override
     public Map<Long, Map<String, Set<TObject>>> selectKeysCriteriaTime(
             List<String> keys, TCriteria criteria, long timestamp,
@@ -4195,6 +5016,16 @@ public class ConcourseServer implements ConcourseRuntime, ConcourseServerMXBean
         for (Engine engine : engines.values()) {
             engine.start();
         }
+        scheduler.scheduleAtFixedRate(new TimerTask() {
+
+            @Override
+            public void run() {
+                releaseIdleCursors(recordCursors);
+                releaseIdleCursors(valueCursors);
+            }
+
+        }, CURSOR_RELEASE_FREQUENCY_IN_MILLISECONDS,
+                CURSOR_RELEASE_FREQUENCY_IN_MILLISECONDS);
         httpServer.start();
         System.out.println("The Concourse server has started");
         server.serve();
@@ -4206,6 +5037,7 @@ public class ConcourseServer implements ConcourseRuntime, ConcourseServerMXBean
     public void stop() {
         if(server.isServing()) {
             server.stop();
+            scheduler.cancel();
             httpServer.stop();
             for (Engine engine : engines.values()) {
                 engine.stop();
@@ -4344,6 +5176,54 @@ public class ConcourseServer implements ConcourseRuntime, ConcourseServerMXBean
                     .containsKey(transaction)) || transaction == null);
     }
 
+    /**
+     * Return the next {@code count} rows from the {@link Cursor} with
+     * {@code id} in {@code cursors} and release the cursor once it is
+     * exhausted.
+     * 
+     * @param cursors
+     * @param id
+     * @param count
+     * @param creds
+     * @return the next rows
+     * @throws TSecurityException
+     * @throws TInvalidCursorException if the cursor does not exist
+     */
+    private <T> List<T> fetchCursor(Map<Long, Cursor<T>> cursors, long id,
+            int count, AccessToken creds) throws TSecurityException,
+            TInvalidCursorException {
+        Cursor<T> cursor = getCursor(cursors, id, creds);
+        if(cursor == null) {
+            throw new TInvalidCursorException("Cursor " + id
+                    + " does not exist or has been released");
+        }
+        List<T> rows = cursor.next(count);
+        if(rows.size() < count) {
+            cursors.remove(id);
+        }
+        return rows;
+    }
+
+    /**
+     * Return the {@link Cursor} with {@code id} in {@code cursors} or
+     * {@code null} if it does not exist.
+     * 
+     * @param cursors
+     * @param id
+     * @param creds
+     * @return the Cursor
+     * @throws TSecurityException if the cursor is not owned by {@code creds}
+     */
+    @Nullable
+    private <T> Cursor<T> getCursor(Map<Long, Cursor<T>> cursors, long id,
+            AccessToken creds) throws TSecurityException {
+        Cursor<T> cursor = cursors.get(id);
+        if(cursor != null && !cursor.isOwnedBy(creds)) {
+            throw new TSecurityException("Invalid cursor");
+        }
+        return cursor;
+    }
+
     /**
      * Return the {@link Engine} that is associated with the
      * {@link Default#ENVIRONMENT}.
@@ -4400,6 +5280,20 @@ public class ConcourseServer implements ConcourseRuntime, ConcourseServerMXBean
                 : getEngine(env);
     }
 
+    /**
+     * Add {@code cursor} to {@code cursors} and return the id that the client
+     * should use to reference it.
+     * 
+     * @param cursors
+     * @param cursor
+     * @return the cursor id
+     */
+    private <T> long openCursor(Map<Long, Cursor<T>> cursors, Cursor<T> cursor) {
+        long id = Time.now();
+        cursors.put(id, cursor);
+        return id;
+    }
+
     /**
      * A version of the login routine that handles the case when no environment
      * has been specified. The is most common when authenticating a user for
@@ -4492,4 +5386,4 @@ public class ConcourseServer implements ConcourseRuntime, ConcourseServerMXBean
 
     }
 
-}
\ No newline at end of file
+}
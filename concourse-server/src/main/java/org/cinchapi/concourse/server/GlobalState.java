@@ -72,6 +72,46 @@ public final class GlobalState extends Constants {
     public static String DATABASE_DIRECTORY = System.getProperty("user.home")
             + File.separator + "concourse" + File.separator + "db";
 
+    /**
+     * The size that the Database lets its current blocks reach before it syncs
+     * them to disk and starts new ones. The Buffer keeps the pages that have
+     * been transported to the current blocks until they are synced, so larger
+     * blocks mean fewer blocks to look at during reads in exchange for more
+     * memory and a longer replay after a crash.
+     */
+    public static long DATABASE_BLOCK_SIZE = 4 * 1024 * 1024;
+
+    /**
+     * The maximum number of bytes that the Database in each environment may
+     * use to cache records in memory. The budget is divided evenly among the
+     * record caches and each cached record is weighed by its estimated size,
+     * so a large record counts for more than a small one. A value of 0
+     * disables record caching.
+     */
+    public static long DATABASE_CACHE_SIZE = 128 * 1024 * 1024;
+
+    /**
+     * The number of seconds that the Database waits between attempts to
+     * compact its blocks in the background. Compaction merges runs of adjacent
+     * blocks into larger ones so that reads don't need to look at as many
+     * blocks. A value of 0 disables background compaction.
+     */
+    public static int DATABASE_COMPACTION_FREQUENCY = 60;
+
+    /**
+     * The maximum size of a block that is created by merging smaller blocks
+     * during compaction. Larger blocks mean fewer blocks to look at during
+     * reads, but more data must be rewritten whenever blocks are merged.
+     */
+    public static long DATABASE_COMPACTION_MAX_BLOCK_SIZE = 64 * 1024 * 1024;
+
+    /**
+     * The maximum number of bytes per second that compaction is allowed to
+     * write to disk, so that background merges do not starve foreground reads
+     * and writes of I/O. A value of 0 means that compaction is not throttled.
+     */
+    public static long DATABASE_COMPACTION_THROUGHPUT = 8 * 1024 * 1024;
+
     /**
      * The absolute path to the directory where the Buffer data is stored.
      * For optimal write performance, the Buffer should be placed on a
@@ -86,10 +126,35 @@ public final class GlobalState extends Constants {
      * are individually locked, so it is desirable to have several smaller
      * pages as opposed to few larger ones. Nevertheless, be sure to balance
      * the desire to maximize lock granularity with the risks of having too
-     * many open buffer files simultaneously.
+     * many open buffer files simultaneously. This is also the smallest size
+     * of a page when the Buffer adapts its page size to the load.
      */
     public static int BUFFER_PAGE_SIZE = 8192;
 
+    /**
+     * The largest size that a page in the Buffer can grow to. The Buffer
+     * starts with pages of {@link #BUFFER_PAGE_SIZE} and doubles the size of
+     * each new page while pages fill up quickly, so that heavy ingest does not
+     * create a flood of tiny pages. Pages shrink back towards
+     * {@link #BUFFER_PAGE_SIZE} when the load subsides.
+     */
+    public static int BUFFER_MAX_PAGE_SIZE = 1024 * 1024;
+
+    /**
+     * The maximum number of milliseconds that the Buffer will wait for other
+     * concurrent writers to join a group commit before forcing the current
+     * page to disk. A value of 0 means that a group commit is performed
+     * immediately, so only writers that arrive while a previous fsync is in
+     * progress are batched together.
+     */
+    public static int BUFFER_GROUP_COMMIT_MAX_DELAY = 0;
+
+    /**
+     * The number of pending writes that will cause a group commit to happen
+     * immediately, regardless of the {@link #BUFFER_GROUP_COMMIT_MAX_DELAY}.
+     */
+    public static int BUFFER_GROUP_COMMIT_MAX_BATCH_SIZE = 128;
+
     /**
      * The listener port (1-65535) for client connections. Choose a port between
      * 49152 and 65535 to minimize the possibility of conflicts with other
@@ -97,6 +162,54 @@ public final class GlobalState extends Constants {
      */
     public static int CLIENT_PORT = 1717;
 
+    /**
+     * The model that the server uses to handle client connections. In the
+     * THREAD_POOL model, each client connection is pinned to a worker thread
+     * for as long as it is open. In the SELECTOR model, a few selector threads
+     * use non-blocking I/O to multiplex all the client connections and only
+     * hand complete requests to the worker threads, so idle connections don't
+     * tie up a worker. The SELECTOR model requires clients to use framed
+     * transport.
+     */
+    public static String CLIENT_WORKER_MODEL = "THREAD_POOL";
+
+    /**
+     * The maximum number of worker threads that process client requests. In
+     * the THREAD_POOL model, this is also the maximum number of client
+     * connections that can be served at the same time.
+     */
+    public static int CLIENT_WORKER_THREADS = 100;
+
+    /**
+     * The number of threads that accept and multiplex client connections in
+     * the SELECTOR model.
+     */
+    public static int CLIENT_SELECTOR_THREADS = 2;
+
+    /**
+     * The maximum number of client requests that can wait for a worker thread
+     * in the SELECTOR model. Once the queue is full, new requests are rejected
+     * and their connections are closed so that an overloaded server sheds load
+     * instead of queueing an unbounded amount of work.
+     */
+    public static int CLIENT_MAX_QUEUED_REQUESTS = 1024;
+
+    /**
+     * The minimum size of a response that is compressed before it is sent to
+     * a client that has enabled compression. Compression trades CPU time for
+     * network bandwidth, so small responses are always sent as is. A value of
+     * 0 disables compression.
+     */
+    public static int CLIENT_COMPRESSION_THRESHOLD = 4096;
+
+    /**
+     * The maximum size of a request that a client can send in a compression
+     * envelope. The size of an envelope is read before the client is
+     * authenticated, so larger envelopes are rejected before any memory is
+     * allocated for them.
+     */
+    public static int CLIENT_MAX_FRAME_SIZE = 16384000;
+
     /**
      * The port on which the ShutdownRunner listens. Choose a port between
      * 49152 and 65535 to minimize the possibility of conflicts with other
@@ -192,14 +305,60 @@ public final class GlobalState extends Constants {
             DATABASE_DIRECTORY = config.getString("database_directory",
                     DATABASE_DIRECTORY);
 
+            DATABASE_BLOCK_SIZE = config.getSize("database_block_size",
+                    DATABASE_BLOCK_SIZE);
+
+            DATABASE_CACHE_SIZE = config.getSize("database_cache_size",
+                    DATABASE_CACHE_SIZE);
+
+            DATABASE_COMPACTION_FREQUENCY = config.getInt(
+                    "database_compaction_frequency",
+                    DATABASE_COMPACTION_FREQUENCY);
+
+            DATABASE_COMPACTION_MAX_BLOCK_SIZE = config.getSize(
+                    "database_compaction_max_block_size",
+                    DATABASE_COMPACTION_MAX_BLOCK_SIZE);
+
+            DATABASE_COMPACTION_THROUGHPUT = config.getSize(
+                    "database_compaction_throughput",
+                    DATABASE_COMPACTION_THROUGHPUT);
+
             BUFFER_DIRECTORY = config.getString("buffer_directory",
                     BUFFER_DIRECTORY);
 
             BUFFER_PAGE_SIZE = (int) config.getSize("buffer_page_size",
                     BUFFER_PAGE_SIZE);
 
+            BUFFER_MAX_PAGE_SIZE = (int) config.getSize(
+                    "buffer_max_page_size", BUFFER_MAX_PAGE_SIZE);
+
+            BUFFER_GROUP_COMMIT_MAX_DELAY = config.getInt(
+                    "buffer_group_commit_max_delay",
+                    BUFFER_GROUP_COMMIT_MAX_DELAY);
+
+            BUFFER_GROUP_COMMIT_MAX_BATCH_SIZE = config.getInt(
+                    "buffer_group_commit_max_batch_size",
+                    BUFFER_GROUP_COMMIT_MAX_BATCH_SIZE);
+
             CLIENT_PORT = config.getInt("client_port", CLIENT_PORT);
 
+            CLIENT_WORKER_MODEL = config.getString("client_worker_model",
+                    CLIENT_WORKER_MODEL);
+
+            CLIENT_WORKER_THREADS = config.getInt("client_worker_threads",
+                    CLIENT_WORKER_THREADS);
+
+            CLIENT_SELECTOR_THREADS = config.getInt("client_selector_threads",
+                    CLIENT_SELECTOR_THREADS);
+
+            CLIENT_MAX_QUEUED_REQUESTS = config.getInt(
+                    "client_max_queued_requests", CLIENT_MAX_QUEUED_REQUESTS);
+            CLIENT_COMPRESSION_THRESHOLD = (int) config.getSize(
+                    "client_compression_threshold",
+                    CLIENT_COMPRESSION_THRESHOLD);
+            CLIENT_MAX_FRAME_SIZE = (int) config.getSize(
+                    "client_max_frame_size", CLIENT_MAX_FRAME_SIZE);
+
             SHUTDOWN_PORT = config.getInt("shutdown_port",
                     Networking.getCompanionPort(CLIENT_PORT, 2));
 
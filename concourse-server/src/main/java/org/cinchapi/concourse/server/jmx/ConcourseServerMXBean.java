@@ -80,6 +80,38 @@ public interface ConcourseServerMXBean {
     @ManagedOperation
     public String getDumpList(String environment);
 
+    /**
+     * Return a string that describes the running statistics (i.e. count, sum,
+     * bounds and magnitude histogram) about the values that are stored for
+     * {@code key} in {@code environment}.
+     * 
+     * @param key
+     * @param environment
+     * @return the key statistics
+     */
+    @ManagedOperation
+    public String getKeyStatistics(String key, String environment);
+
+    /**
+     * Return a string that describes the state of the pool of worker threads
+     * that process client requests (i.e. the number of busy workers, the
+     * depth of the request queue and the number of rejections).
+     * 
+     * @return the client worker statistics
+     */
+    @ManagedOperation
+    public String getClientWorkerStats();
+
+    /**
+     * Return a string that describes the hit, miss, eviction and load
+     * statistics for each of the record caches in {@code environment}.
+     * 
+     * @param environment
+     * @return the record cache statistics
+     */
+    @ManagedOperation
+    public String getRecordCacheStats(String environment);
+
     /**
      * Return the release version of the server.
      * 
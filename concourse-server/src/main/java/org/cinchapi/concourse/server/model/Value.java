@@ -15,18 +15,22 @@
  */
 package org.cinchapi.concourse.server.model;
 
+import java.math.BigDecimal;
 import java.nio.ByteBuffer;
 import java.util.Comparator;
 
 import javax.annotation.Nullable;
 import javax.annotation.concurrent.Immutable;
 
+import org.cinchapi.concourse.Link;
 import org.cinchapi.concourse.server.io.Byteable;
 import org.cinchapi.concourse.thrift.TObject;
 import org.cinchapi.concourse.thrift.Type;
 import org.cinchapi.concourse.util.ByteBuffers;
 import org.cinchapi.concourse.util.Convert;
-import org.cinchapi.concourse.util.Numbers;
+
+import com.google.common.primitives.UnsignedBytes;
+import com.google.common.primitives.UnsignedLongs;
 
 /**
  * A Value is an abstraction for a {@link TObject} that records type information
@@ -137,6 +141,110 @@ public final class Value implements Byteable, Comparable<Value> {
      */
     private static final int CONSTANT_SIZE = 1; // type(1)
 
+    /**
+     * The first byte of the {@link #getSortKey() sort key} for a numeric
+     * Value, which sorts before every other kind of Value.
+     */
+    private static final byte SORT_KEY_NUMBER = 0;
+
+    /**
+     * The first byte of the {@link #getSortKey() sort key} for a
+     * non-numeric Value.
+     */
+    private static final byte SORT_KEY_OTHER = 1;
+
+    /**
+     * The bytes that follow {@link #SORT_KEY_NUMBER} in the sort key of a
+     * numeric Value to indicate its sign (or that it is not finite).
+     */
+    private static final byte NEGATIVE_INFINITE = 0, NEGATIVE = 1, ZERO = 2,
+            POSITIVE = 3, POSITIVE_INFINITE = 4, NOT_A_NUMBER = 5;
+
+    /**
+     * Return the order preserving binary encoding of the numeric
+     * {@code number}. Every kind of number is converted to the exact decimal
+     * value of its string representation (which is how mixed numeric types
+     * are compared) and encoded as a sign, an exponent and the significant
+     * decimal digits. The bytes of a negative number are inverted and
+     * terminated so that shorter (i.e. closer to zero) encodings sort after
+     * longer ones.
+     * 
+     * @param number
+     * @return the sort key
+     */
+    private static byte[] encodeNumber(Number number) {
+        if(number instanceof Double || number instanceof Float) {
+            double d = number.doubleValue();
+            if(Double.isNaN(d)) {
+                return new byte[] { SORT_KEY_NUMBER, NOT_A_NUMBER };
+            }
+            else if(Double.isInfinite(d)) {
+                return new byte[] { SORT_KEY_NUMBER,
+                        d > 0 ? POSITIVE_INFINITE : NEGATIVE_INFINITE };
+            }
+        }
+        BigDecimal decimal;
+        if(number instanceof Integer || number instanceof Long) {
+            decimal = BigDecimal.valueOf(number.longValue());
+        }
+        else if(number instanceof Link) {
+            decimal = new BigDecimal(UnsignedLongs.toString(number.longValue()));
+        }
+        else {
+            decimal = new BigDecimal(number.toString());
+        }
+        if(decimal.signum() == 0) {
+            return new byte[] { SORT_KEY_NUMBER, ZERO };
+        }
+        decimal = decimal.stripTrailingZeros();
+        boolean negative = decimal.signum() < 0;
+        String digits = decimal.unscaledValue().abs().toString();
+        int exponent = digits.length() - decimal.scale() - 1;
+        byte[] key = new byte[6 + digits.length() + (negative ? 1 : 0)];
+        key[0] = SORT_KEY_NUMBER;
+        key[1] = negative ? NEGATIVE : POSITIVE;
+        exponent ^= Integer.MIN_VALUE; // sort signed exponents as unsigned
+        if(negative) {
+            exponent = ~exponent;
+        }
+        key[2] = (byte) (exponent >>> 24);
+        key[3] = (byte) (exponent >>> 16);
+        key[4] = (byte) (exponent >>> 8);
+        key[5] = (byte) exponent;
+        for (int i = 0; i < digits.length(); ++i) {
+            // Shift the digits so that none is encoded as 0 and none is
+            // encoded as the negative terminator when it is inverted
+            byte digit = (byte) (digits.charAt(i) - '0' + 1);
+            key[6 + i] = negative ? (byte) ~digit : digit;
+        }
+        if(negative) {
+            key[key.length - 1] = (byte) 0xFF;
+        }
+        return key;
+    }
+
+    /**
+     * Return the order preserving binary encoding of the non-numeric
+     * {@code object}, which is the big-endian representation of each
+     * character in its string form after case folding.
+     * 
+     * @param object
+     * @return the sort key
+     */
+    private static byte[] encodeOther(Object object) {
+        String string = object.toString();
+        byte[] key = new byte[1 + 2 * string.length()];
+        key[0] = SORT_KEY_OTHER;
+        for (int i = 0; i < string.length(); ++i) {
+            // Fold the case the same way as String#compareToIgnoreCase
+            char c = Character.toLowerCase(Character.toUpperCase(string
+                    .charAt(i)));
+            key[1 + 2 * i] = (byte) (c >>> 8);
+            key[2 + 2 * i] = (byte) c;
+        }
+        return key;
+    }
+
     /**
      * A cached copy of the binary representation that is returned from
      * {@link #getBytes()}.
@@ -158,6 +266,13 @@ public final class Value implements Byteable, Comparable<Value> {
     @Nullable
     private transient Object object = null;
 
+    /**
+     * A cached copy of the order preserving binary encoding of this Value
+     * that is returned from {@link #getSortKey()}.
+     */
+    @Nullable
+    private transient byte[] sortKey = null;
+
     /**
      * Construct a new instance.
      * 
@@ -247,6 +362,30 @@ public final class Value implements Byteable, Comparable<Value> {
         return data.hashCode();
     }
 
+    /**
+     * Return an order preserving binary encoding of this Value. The unsigned
+     * lexicographical order of the sort keys for any two Values is the same
+     * as the order that the {@link Sorter} defines, so comparisons never need
+     * to convert or materialize the underlying objects once the keys are
+     * cached.
+     * <p>
+     * All numbers sort before every other kind of Value and are normalized so
+     * that those of different types (i.e. an integer and a double) are ordered
+     * by their numeric value. Everything else is ordered by its case folded
+     * string form.
+     * </p>
+     * 
+     * @return the sort key
+     */
+    public byte[] getSortKey() {
+        if(sortKey == null) {
+            Object object = getObject();
+            sortKey = object instanceof Number ? encodeNumber((Number) object)
+                    : encodeOther(object);
+        }
+        return sortKey;
+    }
+
     @Override
     public int size() {
         return CONSTANT_SIZE + data.data.capacity();
@@ -264,7 +403,9 @@ public final class Value implements Byteable, Comparable<Value> {
     }
 
     /**
-     * A {@link Comparator} that is used to sort Values using weak typing.
+     * A {@link Comparator} that is used to sort Values using weak typing. The
+     * comparison is done on the {@link Value#getSortKey() sort keys} of the
+     * Values.
      * 
      * @author Jeff Nelson
      */
@@ -290,20 +431,8 @@ public final class Value implements Byteable, Comparable<Value> {
                 return 1;
             }
             else {
-                Object o1 = v1.getObject();
-                Object o2 = v2.getObject();
-                if(o1 instanceof Number && o2 instanceof Number) {
-                    return Numbers.compare((Number) o1, (Number) o2);
-                }
-                else if(o1 instanceof Number) {
-                    return -1;
-                }
-                else if(o2 instanceof Number) {
-                    return 1;
-                }
-                else {
-                    return o1.toString().compareToIgnoreCase(o2.toString());
-                }
+                return UnsignedBytes.lexicographicalComparator().compare(
+                        v1.getSortKey(), v2.getSortKey());
             }
 
         }
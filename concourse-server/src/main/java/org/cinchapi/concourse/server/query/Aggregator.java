@@ -0,0 +1,265 @@
+/*
+ * Copyright (c) 2013-2015 Cinchapi Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.cinchapi.concourse.server.query;
+
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.SortedMap;
+
+import javax.annotation.Nullable;
+
+import org.cinchapi.concourse.Aggregation;
+import org.cinchapi.concourse.server.model.TObjectSorter;
+import org.cinchapi.concourse.server.storage.Engine;
+import org.cinchapi.concourse.server.storage.KeyStatistics;
+import org.cinchapi.concourse.server.storage.Store;
+import org.cinchapi.concourse.thrift.TObject;
+import org.cinchapi.concourse.thrift.Type;
+import org.cinchapi.concourse.util.Convert;
+
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.google.common.math.LongMath;
+
+/**
+ * The {@link Aggregator} reduces all the values that are stored for a key
+ * (optionally within a set of records and/or at a timestamp) to a single
+ * {@link TObject} using an {@link Aggregation} function.
+ * <p>
+ * The aggregation is evaluated entirely on the server so that only the result
+ * is sent over the wire. The values are gathered from the secondary index of
+ * the {@link Store} (which overlays any unflushed writes) unless there are few
+ * enough records that it is cheaper to probe each one directly. A
+ * {@link Aggregation#COUNT}, {@link Aggregation#SUM} or
+ * {@link Aggregation#AVERAGE} of the present values across all the records in
+ * an {@link Engine} is answered in constant time from the
+ * {@link KeyStatistics} that the Engine maintains.
+ * </p>
+ * 
+ * @author Jeff Nelson
+ */
+public final class Aggregator {
+
+    /**
+     * Return the result of applying {@code function} to all the values that
+     * are stored for {@code key} in {@code store}.
+     * 
+     * @param function
+     * @param key
+     * @param store
+     * @return the aggregate value
+     */
+    public static TObject aggregate(Aggregation function, String key,
+            Store store) {
+        return aggregate(function, key, null, null, store);
+    }
+
+    /**
+     * Return the result of applying {@code function} to all the values that
+     * are stored for {@code key} in {@code store} at {@code timestamp}.
+     * 
+     * @param function
+     * @param key
+     * @param timestamp
+     * @param store
+     * @return the aggregate value
+     */
+    public static TObject aggregate(Aggregation function, String key,
+            long timestamp, Store store) {
+        return aggregate(function, key, null, timestamp, store);
+    }
+
+    /**
+     * Return the result of applying {@code function} to the values that are
+     * stored for {@code key} in each of the {@code records}.
+     * 
+     * @param function
+     * @param key
+     * @param records
+     * @param store
+     * @return the aggregate value
+     */
+    public static TObject aggregate(Aggregation function, String key,
+            Set<Long> records, Store store) {
+        return aggregate(function, key, records, null, store);
+    }
+
+    /**
+     * Return the result of applying {@code function} to the values that were
+     * stored for {@code key} in each of the {@code records} at
+     * {@code timestamp}.
+     * 
+     * @param function
+     * @param key
+     * @param records
+     * @param timestamp
+     * @param store
+     * @return the aggregate value
+     */
+    public static TObject aggregate(Aggregation function, String key,
+            Set<Long> records, long timestamp, Store store) {
+        return aggregate(function, key, records, (Long) timestamp, store);
+    }
+
+    /**
+     * Apply {@code function} to the running {@code stats} for a key. This
+     * only works for the functions that can be derived from the count and sum
+     * of the values.
+     * 
+     * @param function
+     * @param stats
+     * @return the aggregate value
+     */
+    private static TObject aggregate(Aggregation function, KeyStatistics stats) {
+        if(function == Aggregation.COUNT) {
+            return Convert.javaToThrift(stats.getCount());
+        }
+        else if(stats.getNumericCount() == 0) {
+            return TObject.NULL;
+        }
+        else if(function == Aggregation.SUM) {
+            return Convert.javaToThrift(stats.getSum());
+        }
+        else {
+            return Convert.javaToThrift(stats.getSum().doubleValue()
+                    / stats.getNumericCount());
+        }
+    }
+
+    /**
+     * Apply {@code function} to the sorted mapping from each value to the
+     * number of times it is stored. The sum of integral values is exact, but
+     * it is returned as a double if it doesn't fit in a long.
+     * 
+     * @param function
+     * @param counts
+     * @return the aggregate value
+     */
+    private static TObject aggregate(Aggregation function,
+            SortedMap<TObject, Integer> counts) {
+        if(function == Aggregation.COUNT) {
+            long count = 0;
+            for (int occurrences : counts.values()) {
+                count += occurrences;
+            }
+            return Convert.javaToThrift(count);
+        }
+        else if(counts.isEmpty()) {
+            return TObject.NULL;
+        }
+        else if(function == Aggregation.MIN) {
+            return counts.firstKey();
+        }
+        else if(function == Aggregation.MAX) {
+            return counts.lastKey();
+        }
+        else {
+            long count = 0;
+            long integralSum = 0;
+            double decimalSum = 0;
+            boolean integral = true;
+            for (Entry<TObject, Integer> entry : counts.entrySet()) {
+                Type type = entry.getKey().getType();
+                if(type == Type.INTEGER || type == Type.LONG) {
+                    long value = ((Number) Convert.thriftToJava(entry
+                            .getKey())).longValue();
+                    try {
+                        integralSum = LongMath.checkedAdd(integralSum,
+                                LongMath.checkedMultiply(value,
+                                        entry.getValue()));
+                    }
+                    catch (ArithmeticException e) {
+                        // The sum no longer fits in a long, so the rest of
+                        // it is approximated using doubles
+                        decimalSum += (double) value * entry.getValue();
+                        integral = false;
+                    }
+                }
+                else if(type == Type.FLOAT || type == Type.DOUBLE) {
+                    decimalSum += ((Number) Convert.thriftToJava(entry
+                            .getKey())).doubleValue() * entry.getValue();
+                    integral = false;
+                }
+                else {
+                    continue;
+                }
+                count += entry.getValue();
+            }
+            if(count == 0) {
+                return TObject.NULL;
+            }
+            else if(function == Aggregation.SUM) {
+                return integral ? Convert.javaToThrift(integralSum) : Convert
+                        .javaToThrift(integralSum + decimalSum);
+            }
+            else {
+                return Convert.javaToThrift((integralSum + decimalSum) / count);
+            }
+        }
+    }
+
+    /**
+     * Gather the values for {@code key} (in {@code records} if they are
+     * specified and at {@code timestamp} if it is specified) and apply
+     * {@code function} to them.
+     * 
+     * @param function
+     * @param key
+     * @param records
+     * @param timestamp
+     * @param store
+     * @return the aggregate value
+     */
+    private static TObject aggregate(Aggregation function, String key,
+            @Nullable Set<Long> records, @Nullable Long timestamp, Store store) {
+        if(records == null && timestamp == null && store instanceof Engine
+                && function != Aggregation.MIN && function != Aggregation.MAX) {
+            // The statistics only track bounds for the min and max since they
+            // cannot be narrowed when values are removed
+            KeyStatistics stats = ((Engine) store).getStatistics(key);
+            if(function == Aggregation.COUNT || stats.isSumExact()) {
+                return aggregate(function, stats);
+            }
+        }
+        SortedMap<TObject, Integer> counts = Maps
+                .newTreeMap(TObjectSorter.INSTANCE);
+        if(records != null && records.size() <= QueryPlanner.PROBE_THRESHOLD) {
+            for (long record : records) {
+                for (TObject value : timestamp == null ? store.select(key,
+                        record) : store.select(key, record, timestamp)) {
+                    Integer count = counts.get(value);
+                    counts.put(value, count == null ? 1 : count + 1);
+                }
+            }
+        }
+        else {
+            Map<TObject, Set<Long>> index = timestamp == null ? store
+                    .browse(key) : store.browse(key, timestamp);
+            for (Entry<TObject, Set<Long>> entry : index.entrySet()) {
+                int count = records == null ? entry.getValue().size() : Sets
+                        .intersection(entry.getValue(), records).size();
+                if(count > 0) {
+                    counts.put(entry.getKey(), count);
+                }
+            }
+        }
+        return aggregate(function, counts);
+    }
+
+    private Aggregator() {/* noop */}
+
+}
@@ -0,0 +1,225 @@
+/*
+ * Copyright (c) 2013-2015 Cinchapi Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.cinchapi.concourse.server.query;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Map.Entry;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+
+import org.cinchapi.concourse.server.storage.Store;
+import org.cinchapi.concourse.thrift.AccessToken;
+import org.cinchapi.concourse.thrift.TObject;
+import org.cinchapi.concourse.time.Time;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Lists;
+import com.google.common.primitives.Longs;
+
+/**
+ * A {@link Cursor} walks a result set on the server so that a client can
+ * receive it in chunks instead of all of it in a single response.
+ * <p>
+ * A record cursor holds the (compact) result of a find. A value cursor only
+ * remembers the timestamp at which it was opened and the last value that it
+ * handed out, and reads each chunk from the {@link Store} at that timestamp.
+ * Either way the rows are consistent with each other regardless of the
+ * writes that happen between fetches, and no locks are held while the client
+ * works through them. A cursor can only be used by the {@link AccessToken}
+ * that opened it.
+ * </p>
+ * 
+ * @author Jeff Nelson
+ */
+@ThreadSafe
+public final class Cursor<T> {
+
+    /**
+     * Return a {@link Cursor} over the (sorted) {@code records}.
+     * 
+     * @param records
+     * @param owner
+     * @return the Cursor
+     */
+    public static Cursor<Long> records(Set<Long> records, AccessToken owner) {
+        final long[] snapshot = Longs.toArray(records);
+        Arrays.sort(snapshot);
+        return new Cursor<Long>(new Reader<Long>() {
+
+            private int position = 0;
+
+            @Override
+            public List<Long> read(int count) {
+                int end = Math.min(snapshot.length, position + count);
+                List<Long> rows = Longs.asList(Arrays.copyOfRange(snapshot,
+                        position, end));
+                position = end;
+                return rows;
+            }
+
+        }, owner);
+    }
+
+    /**
+     * Return a {@link Cursor} over the values that are stored for {@code key}
+     * in {@code store} at {@code timestamp}, along with the records that
+     * contain each value.
+     * 
+     * @param store
+     * @param key
+     * @param timestamp
+     * @param owner
+     * @return the Cursor
+     */
+    public static Cursor<Map<TObject, Set<Long>>> values(final Store store,
+            final String key, final long timestamp, AccessToken owner) {
+        return new Cursor<Map<TObject, Set<Long>>>(
+                new Reader<Map<TObject, Set<Long>>>() {
+
+                    @Nullable
+                    private TObject last = null;
+
+                    @Override
+                    public List<Map<TObject, Set<Long>>> read(int count) {
+                        List<Map<TObject, Set<Long>>> rows = Lists
+                                .newArrayList();
+                        for (Entry<TObject, Set<Long>> entry : store.browse(
+                                key, last, count, timestamp).entrySet()) {
+                            rows.add(Collections.singletonMap(entry.getKey(),
+                                    entry.getValue()));
+                            last = entry.getKey();
+                        }
+                        return rows;
+                    }
+
+                }, owner);
+    }
+
+    /**
+     * The source of the rows in the cursor.
+     */
+    private final Reader<T> reader;
+
+    /**
+     * A flag that indicates whether the {@link #reader} has no more rows.
+     */
+    private boolean exhausted = false;
+
+    /**
+     * The credentials of the client that opened the cursor.
+     */
+    private final AccessToken owner;
+
+    /**
+     * The timestamp (in microseconds) of the last time this cursor was used.
+     */
+    private volatile long lastUsed;
+
+    /**
+     * Construct a new instance.
+     * 
+     * @param reader
+     * @param owner
+     */
+    private Cursor(Reader<T> reader, AccessToken owner) {
+        this.reader = reader;
+        this.owner = owner;
+        this.lastUsed = Time.now();
+    }
+
+    /**
+     * Return {@code true} if a fetch from this cursor has found that there
+     * are no more rows.
+     * 
+     * @return {@code true} if the cursor is exhausted
+     */
+    public synchronized boolean isExhausted() {
+        return exhausted;
+    }
+
+    /**
+     * Return {@code true} if this cursor has not been used in more than
+     * {@code timeout} {@code units}.
+     * 
+     * @param timeout
+     * @param unit
+     * @return {@code true} if the cursor is idle
+     */
+    public boolean isIdle(long timeout, TimeUnit unit) {
+        return Time.now() - lastUsed > unit.toMicros(timeout);
+    }
+
+    /**
+     * Return {@code true} if {@code creds} are the ones that opened this
+     * cursor.
+     * 
+     * @param creds
+     * @return {@code true} if {@code creds} own this cursor
+     */
+    public boolean isOwnedBy(AccessToken creds) {
+        return owner.equals(creds);
+    }
+
+    /**
+     * Return the next {@code count} rows from the cursor. If there are fewer
+     * rows left, all of them are returned and an empty list means that the
+     * cursor is exhausted.
+     * 
+     * @param count
+     * @return the next rows
+     */
+    public synchronized List<T> next(int count) {
+        Preconditions.checkArgument(count > 0, "The count must be positive");
+        lastUsed = Time.now();
+        List<T> rows = Lists.newArrayList();
+        while (rows.size() < count && !exhausted) {
+            List<T> batch = reader.read(count - rows.size());
+            if(batch.isEmpty()) {
+                exhausted = true;
+            }
+            else {
+                rows.addAll(batch);
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * The source that a {@link Cursor} reads its rows from, in order.
+     * 
+     * @author Jeff Nelson
+     */
+    private interface Reader<T> {
+
+        /**
+         * Return at most {@code count} of the rows that come after the ones
+         * that were previously read. An empty list means that there are no
+         * more rows.
+         * 
+         * @param count
+         * @return the next rows
+         */
+        public List<T> read(int count);
+
+    }
+
+}
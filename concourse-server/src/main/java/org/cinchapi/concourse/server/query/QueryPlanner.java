@@ -0,0 +1,446 @@
+/*
+ * Copyright (c) 2013-2015 Cinchapi Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.cinchapi.concourse.server.query;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import javax.annotation.Nullable;
+
+import org.cinchapi.concourse.annotate.PackagePrivate;
+import org.cinchapi.concourse.lang.Expression;
+import org.cinchapi.concourse.lang.ast.AST;
+import org.cinchapi.concourse.lang.ast.AndTree;
+import org.cinchapi.concourse.lang.ast.ConjunctionTree;
+import org.cinchapi.concourse.lang.ast.OrTree;
+import org.cinchapi.concourse.server.model.Value;
+import org.cinchapi.concourse.server.storage.KeyStatistics;
+import org.cinchapi.concourse.server.storage.Statistics;
+import org.cinchapi.concourse.server.storage.Store;
+import org.cinchapi.concourse.server.storage.Stores;
+import org.cinchapi.concourse.thrift.Operator;
+import org.cinchapi.concourse.thrift.TObject;
+import org.cinchapi.concourse.util.RecordSet;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Strings;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Ordering;
+import com.google.common.collect.Sets;
+
+/**
+ * The {@link QueryPlanner} evaluates the {@link AST} for a find query against
+ * a {@link Store}.
+ * <p>
+ * Instead of evaluating each expression in the order that it appears, the
+ * planner flattens chains of conjunctions and evaluates the conjuncts from the
+ * cheapest/most selective to the most expensive. When the running
+ * {@link Statistics} for the store are available, the selectivity of each
+ * expression is estimated from the values that are actually stored for its
+ * key. Once the set of candidate
+ * records is empty, the remaining conjuncts are skipped entirely. And once the
+ * set of candidates is small enough, the remaining expressions are checked by
+ * probing the key in each of the candidate records instead of looking up every
+ * record in the store that matches the expression.
+ * </p>
+ * <p>
+ * The planner also pushes the ordering and limits of paged queries down so
+ * that only the records in the requested {@link #page(Set, String, int, int, Store)
+ * page} are materialized.
+ * </p>
+ * 
+ * @author Jeff Nelson
+ */
+public final class QueryPlanner {
+
+    /**
+     * The number of candidates (per unit of {@link #weight(Expression)
+     * weight}) below which it is cheaper to probe each candidate record than
+     * it is to lookup every record that matches an expression.
+     */
+    @PackagePrivate
+    static final int PROBE_THRESHOLD = 100;
+
+    /**
+     * The smallest number of values that are read from the index at a time
+     * when an ordered page is collected, so that a small page over sparse
+     * matches doesn't need a separate read for every value.
+     */
+    private static final int MIN_BROWSE_BATCH_SIZE = 1000;
+
+    /**
+     * The amount that is added to the estimated cost of an expression that
+     * reads historical data.
+     */
+    private static final int HISTORICAL_COST_PENALTY = 5;
+
+    /**
+     * Return the records in {@code store} that match the query represented by
+     * {@code ast}.
+     * 
+     * @param ast
+     * @param store
+     * @return the matching records
+     */
+    public static Set<Long> find(AST ast, Store store) {
+        return find(ast, store, null);
+    }
+
+    /**
+     * Return the records in {@code store} that match the query represented by
+     * {@code ast} and use the {@code statistics} to estimate the selectivity
+     * of each expression.
+     * 
+     * @param ast
+     * @param store
+     * @param statistics
+     * @return the matching records
+     */
+    public static Set<Long> find(AST ast, Store store,
+            @Nullable Statistics statistics) {
+        return evaluate(ast, store, null, statistics);
+    }
+
+    /**
+     * Return the page of {@code records} that starts at {@code offset} and
+     * contains at most {@code limit} records.
+     * <p>
+     * If an {@code order} key is specified, the records are sorted by their
+     * smallest value for that key (records that don't contain the key come
+     * last) and then by id. Otherwise, the records are sorted by id. Either
+     * way, only the records that fall within the page are materialized: an
+     * unordered page only keeps the smallest {@code offset + limit} ids and an
+     * ordered page {@link Store#browse(String, TObject, int) browses} the
+     * values of the {@code order} key in bounded batches from smallest to
+     * largest and stops as soon as the page is full.
+     * </p>
+     * 
+     * @param records
+     * @param order
+     * @param offset
+     * @param limit
+     * @param store
+     * @return the records in the page
+     */
+    public static List<Long> page(Set<Long> records, @Nullable String order,
+            int offset, int limit, Store store) {
+        Preconditions.checkArgument(offset >= 0,
+                "The offset cannot be negative");
+        Preconditions.checkArgument(limit > 0, "The limit must be positive");
+        int bound = (int) Math.min((long) offset + limit, Integer.MAX_VALUE);
+        List<Long> page;
+        if(Strings.isNullOrEmpty(order)) {
+            // A RecordSet is already sorted, so the smallest ids are the
+            // first ones that it returns
+            page = records instanceof RecordSet ? Lists.newArrayList(Iterables
+                    .limit(records, bound)) : Ordering.natural().leastOf(
+                    records, bound);
+        }
+        else {
+            page = Lists.newArrayList();
+            Set<Long> seen = Sets.newHashSet();
+            int batch = Math.max(bound, MIN_BROWSE_BATCH_SIZE);
+            TObject after = null;
+            Map<TObject, Set<Long>> data;
+            while (page.size() < bound
+                    && !(data = store.browse(order, after, batch)).isEmpty()) {
+                for (Entry<TObject, Set<Long>> entry : data.entrySet()) {
+                    for (long record : Sets.newTreeSet(Sets.intersection(
+                            entry.getValue(), records))) {
+                        if(page.size() < bound && seen.add(record)) {
+                            page.add(record);
+                        }
+                    }
+                    after = entry.getKey();
+                    if(page.size() == bound) {
+                        break;
+                    }
+                }
+            }
+            if(page.size() < bound) {
+                page.addAll(Ordering.natural().leastOf(
+                        Sets.difference(records, seen), bound - page.size()));
+            }
+        }
+        return offset < page.size() ? Lists.newArrayList(page.subList(offset,
+                page.size())) : Lists.<Long> newArrayList();
+    }
+
+    /**
+     * Return the estimated cost of evaluating {@code ast}. A lower cost
+     * implies that the tree is likely to match fewer records and should
+     * therefore be evaluated earlier.
+     * 
+     * @param ast
+     * @return the estimated cost
+     */
+    @PackagePrivate
+    static long cost(AST ast) {
+        return cost(ast, null);
+    }
+
+    /**
+     * Return the estimated cost of evaluating {@code ast} given the
+     * {@code statistics} about the data in the store.
+     * 
+     * @param ast
+     * @param statistics
+     * @return the estimated cost
+     */
+    @PackagePrivate
+    static long cost(AST ast, @Nullable Statistics statistics) {
+        if(ast instanceof AndTree) {
+            long cost = Long.MAX_VALUE;
+            for (AST conjunct : flatten(ast, AndTree.class)) {
+                cost = Math.min(cost, cost(conjunct, statistics));
+            }
+            return cost;
+        }
+        else if(ast instanceof OrTree) {
+            long cost = 0;
+            for (AST disjunct : flatten(ast, OrTree.class)) {
+                cost += cost(disjunct, statistics);
+            }
+            return cost;
+        }
+        else {
+            return cost((Expression) ast.getSymbol(), statistics);
+        }
+    }
+
+    /**
+     * Return the estimated cost of evaluating {@code expression}.
+     * <p>
+     * Without {@code statistics}, the cost is the {@link #weight(Expression)
+     * weight} of the expression. Otherwise, the weight is scaled by the
+     * estimated number of values that match the expression, so an expensive
+     * operator on a sparse key is evaluated before a cheap operator that
+     * matches most of the values of a dense key. Historical reads are
+     * estimated from all of the values that are currently stored for the key.
+     * </p>
+     * 
+     * @param expression
+     * @param statistics
+     * @return the estimated cost
+     */
+    @PackagePrivate
+    static long cost(Expression expression, @Nullable Statistics statistics) {
+        int weight = weight(expression);
+        if(statistics == null) {
+            return weight;
+        }
+        else {
+            KeyStatistics stats = statistics.get(expression.getKeyRaw());
+            long matches = expression.getTimestampRaw() == 0 ? stats.estimate(
+                    expression.getOperatorRaw(), expression.getValuesRaw())
+                    : stats.getCount();
+            return weight * (Math.max(matches, 0) + 1);
+        }
+    }
+
+    /**
+     * Return the relative weight of evaluating {@code expression} without
+     * regard to the data that it matches.
+     * <p>
+     * Equality lookups go directly to a single value in the index, bounded
+     * ranges touch a slice of the index and the negated and regex operators
+     * must examine every value that is stored for the key. Historical reads
+     * are penalized because they must replay the history of the index.
+     * </p>
+     * 
+     * @param expression
+     * @return the weight
+     */
+    @PackagePrivate
+    static int weight(Expression expression) {
+        int weight;
+        switch (expression.getOperatorRaw()) {
+        case EQUALS:
+        case LINKS_TO:
+            weight = 1;
+            break;
+        case BETWEEN:
+            weight = 2;
+            break;
+        case GREATER_THAN:
+        case GREATER_THAN_OR_EQUALS:
+        case LESS_THAN:
+        case LESS_THAN_OR_EQUALS:
+            weight = 3;
+            break;
+        case REGEX:
+        case LIKE:
+            weight = 4;
+            break;
+        default:
+            weight = 5;
+            break;
+        }
+        return expression.getTimestampRaw() == 0 ? weight : weight
+                + HISTORICAL_COST_PENALTY;
+    }
+
+    /**
+     * Evaluate {@code ast} against the {@code store}. If {@code candidates} is
+     * not {@code null}, the result is limited to the records it contains.
+     * 
+     * @param ast
+     * @param store
+     * @param candidates
+     * @param statistics
+     * @return the matching records
+     */
+    private static Set<Long> evaluate(AST ast, Store store,
+            @Nullable Set<Long> candidates,
+            @Nullable final Statistics statistics) {
+        if(ast instanceof AndTree) {
+            List<AST> conjuncts = flatten(ast, AndTree.class);
+            Collections.sort(conjuncts, new Comparator<AST>() {
+
+                @Override
+                public int compare(AST o1, AST o2) {
+                    return Long.compare(cost(o1, statistics),
+                            cost(o2, statistics));
+                }
+
+            });
+            Set<Long> matches = candidates;
+            for (AST conjunct : conjuncts) {
+                if(matches != null && matches.isEmpty()) {
+                    break;
+                }
+                matches = evaluate(conjunct, store, matches, statistics);
+            }
+            return matches;
+        }
+        else if(ast instanceof OrTree) {
+            Set<Long> matches = RecordSet.create();
+            for (AST disjunct : flatten(ast, OrTree.class)) {
+                matches = RecordSet.union(matches,
+                        evaluate(disjunct, store, candidates, statistics));
+                if(candidates != null && matches.size() == candidates.size()) {
+                    break;
+                }
+            }
+            return matches;
+        }
+        else {
+            Expression expression = (Expression) ast.getSymbol();
+            if(candidates == null) {
+                return lookup(expression, store);
+            }
+            else if(candidates.size() <= PROBE_THRESHOLD
+                    * weight(expression)) {
+                return probe(expression, store, candidates);
+            }
+            else {
+                return RecordSet.intersection(candidates,
+                        lookup(expression, store));
+            }
+        }
+    }
+
+    /**
+     * Return a list that contains the children of each consecutive node in
+     * {@code ast} that is an instance of {@code type}.
+     * 
+     * @param ast
+     * @param type
+     * @return the flattened list of children
+     */
+    private static List<AST> flatten(AST ast,
+            Class<? extends ConjunctionTree> type) {
+        List<AST> children = Lists.newArrayList();
+        flatten(ast, type, children);
+        return children;
+    }
+
+    /**
+     * Do the work to {@link #flatten(AST, Class)} {@code ast} into the
+     * {@code children} list.
+     * 
+     * @param ast
+     * @param type
+     * @param children
+     */
+    private static void flatten(AST ast,
+            Class<? extends ConjunctionTree> type, List<AST> children) {
+        if(type.isInstance(ast)) {
+            flatten(((ConjunctionTree) ast).getLeftChild(), type, children);
+            flatten(((ConjunctionTree) ast).getRightChild(), type, children);
+        }
+        else {
+            children.add(ast);
+        }
+    }
+
+    /**
+     * Return all the records in {@code store} that match {@code expression}.
+     * 
+     * @param expression
+     * @param store
+     * @return the matching records
+     */
+    private static Set<Long> lookup(Expression expression, Store store) {
+        return expression.getTimestampRaw() == 0 ? store.find(
+                expression.getKeyRaw(), expression.getOperatorRaw(),
+                expression.getValuesRaw()) : store.find(
+                expression.getTimestampRaw(), expression.getKeyRaw(),
+                expression.getOperatorRaw(), expression.getValuesRaw());
+    }
+
+    /**
+     * Return the {@code candidates} that match {@code expression} by selecting
+     * the expression's key from each candidate record.
+     * 
+     * @param expression
+     * @param store
+     * @param candidates
+     * @return the matching records
+     */
+    private static Set<Long> probe(Expression expression, Store store,
+            Set<Long> candidates) {
+        String key = expression.getKeyRaw();
+        long timestamp = expression.getTimestampRaw();
+        TObject[] values = expression.getValuesRaw();
+        for (int i = 0; i < values.length; ++i) {
+            values[i] = Stores.normalizeValue(expression.getOperatorRaw(),
+                    values[i]);
+        }
+        Operator operator = Stores.normalizeOperator(expression
+                .getOperatorRaw());
+        RecordSet matches = RecordSet.create();
+        for (long record : candidates) {
+            Set<TObject> stored = timestamp == 0 ? store.select(key, record)
+                    : store.select(key, record, timestamp);
+            for (TObject value : stored) {
+                if(Stores.matches(Value.wrap(value), operator, values)) {
+                    matches.add(record);
+                    break;
+                }
+            }
+        }
+        return matches;
+    }
+
+    private QueryPlanner() {/* noop */}
+
+}
@@ -220,6 +220,16 @@ public class AtomicOperation extends BufferedStore implements
         return super.audit(key, record, true);
     }
 
+    @Override
+    public Map<Long, Set<TObject>> chronologize(String key, long record,
+            long start, long end) throws AtomicStateException {
+        checkState();
+        Token token = Token.wrap(key, record);
+        source.addVersionChangeListener(token, this);
+        reads2Lock.add(token);
+        return super.chronologize(key, record, start, end);
+    }
+
     @Override
     public boolean contains(long record) {
         checkState();
@@ -280,6 +290,33 @@ public class AtomicOperation extends BufferedStore implements
         }
     }
 
+    @Override
+    public Map<TObject, Set<Long>> browse(String key, @Nullable TObject after,
+            int limit) throws AtomicStateException {
+        checkState();
+        Text key0 = Text.wrapCached(key);
+        RangeToken rangeToken = RangeToken.forReading(key0, Operator.BETWEEN,
+                Value.NEGATIVE_INFINITY, Value.POSITIVE_INFINITY);
+        source.addVersionChangeListener(rangeToken, this);
+        Iterable<Range<Value>> ranges = RangeTokens.convertToRange(rangeToken);
+        for (Range<Value> range : ranges) {
+            rangeReads2Lock.put(key0, range);
+        }
+        return super.browse(key, after, limit, true);
+    }
+
+    @Override
+    public Map<TObject, Set<Long>> browse(String key, @Nullable TObject after,
+            int limit, long timestamp) throws AtomicStateException {
+        if(timestamp > Time.now()) {
+            return browse(key, after, limit);
+        }
+        else {
+            checkState();
+            return super.browse(key, after, limit, timestamp);
+        }
+    }
+
     /**
      * Commit the atomic operation to the destination store. The commit is only
      * successful if all the grouped operations can be successfully applied to
@@ -369,6 +406,24 @@ public class AtomicOperation extends BufferedStore implements
         return super.remove(key, value, record, true, true, false);
     }
 
+    @Override
+    public void gatherSearchStatistics(String key, SearchStatistics statistics)
+            throws AtomicStateException {
+        checkState();
+        super.gatherSearchStatistics(key, statistics);
+    }
+
+    /**
+     * Return the running {@link Statistics} of the store that this operation
+     * is applied to. The statistics don't account for the writes in this
+     * operation.
+     * 
+     * @return the Statistics
+     */
+    public Statistics getStatistics() {
+        return source.getStatistics();
+    }
+
     @Override
     public Set<Long> search(String key, String query)
             throws AtomicStateException {
@@ -20,6 +20,7 @@ import java.util.Set;
 
 import org.cinchapi.concourse.thrift.Operator;
 import org.cinchapi.concourse.thrift.TObject;
+import org.cinchapi.concourse.util.RecordSet;
 
 /**
  * The {@link Store} that provides basic functionality to all of its children.
@@ -61,13 +62,14 @@ public abstract class BaseStore implements Store {
     @Override
     public final Set<Long> find(long timestamp, String key, Operator operator,
             TObject... values) {
-        return explore(timestamp, key, operator, values).keySet();
+        return RecordSet.copyOf(explore(timestamp, key, operator, values)
+                .keySet());
     }
 
     @Override
     public final Set<Long> find(String key, Operator operator,
             TObject... values) {
-        return explore(key, operator, values).keySet();
+        return RecordSet.copyOf(explore(key, operator, values).keySet());
     }
 
     /**
@@ -16,8 +16,11 @@
 package org.cinchapi.concourse.server.storage;
 
 import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Set;
 
+import javax.annotation.Nullable;
+
 import org.cinchapi.concourse.server.concurrent.LockService;
 import org.cinchapi.concourse.server.concurrent.RangeLockService;
 import org.cinchapi.concourse.server.storage.temp.Limbo;
@@ -26,6 +29,7 @@ import org.cinchapi.concourse.thrift.Operator;
 import org.cinchapi.concourse.thrift.TObject;
 import org.cinchapi.concourse.time.Time;
 
+import com.google.common.collect.Iterables;
 import com.google.common.collect.Sets;
 
 /**
@@ -136,17 +140,47 @@ public abstract class BufferedStore extends BaseStore {
         return browse(key, false);
     }
 
+    @Override
+    public Map<Long, Set<TObject>> chronologize(String key, long record,
+            long start, long end) {
+        // NOTE: The buffered writes for the field always come after the ones
+        // in the destination, so the buffer continues the chronology from
+        // the latest values in the destination.
+        Map<Long, Set<TObject>> context = destination.chronologize(key,
+                record, start, end);
+        Set<TObject> values = destination.select(key, record, end - 1);
+        return buffer.chronologize(key, record, start, end, values, context);
+    }
+
     @Override
     public Map<TObject, Set<Long>> browse(String key, long timestamp) {
         Map<TObject, Set<Long>> context = destination.browse(key, timestamp);
         return buffer.browse(key, timestamp, context);
     }
 
+    @Override
+    public Map<TObject, Set<Long>> browse(String key, @Nullable TObject after,
+            int limit) {
+        return browse(key, after, limit, false);
+    }
+
+    @Override
+    public Map<TObject, Set<Long>> browse(String key, @Nullable TObject after,
+            int limit, long timestamp) {
+        return browse(key, after, limit, timestamp, false);
+    }
+
     @Override
     public boolean contains(long record) {
         return destination.contains(record) || buffer.contains(record);
     }
 
+    @Override
+    public void gatherSearchStatistics(String key, SearchStatistics statistics) {
+        buffer.gatherSearchStatistics(key, statistics);
+        destination.gatherSearchStatistics(key, statistics);
+    }
+
     /**
      * Remove {@code key} as {@code value} from {@code record}.
      * <p>
@@ -370,6 +404,25 @@ public abstract class BufferedStore extends BaseStore {
         return buffer.browse(key, Time.now(), context);
     }
 
+    /**
+     * Browse the values in {@code key} that come after {@code after} either
+     * using safe or unsafe methods.
+     * <p>
+     * This method returns the same bounded mapping as
+     * {@link #browse(String, TObject, int)}.
+     * </p>
+     * 
+     * @param key
+     * @param after
+     * @param limit
+     * @param unsafe
+     * @return a possibly empty Map of data
+     */
+    protected Map<TObject, Set<Long>> browse(String key,
+            @Nullable TObject after, int limit, boolean unsafe) {
+        return browse(key, after, limit, Time.NONE, unsafe);
+    }
+
     @Override
     protected Map<Long, Set<TObject>> doExplore(long timestamp, String key,
             Operator operator, TObject... values) {
@@ -546,4 +599,52 @@ public abstract class BufferedStore extends BaseStore {
         return buffer.verify(write, fromDest);
     }
 
+    /**
+     * Do the work to browse the values in {@code key} that come after
+     * {@code after} at {@code timestamp} (or in the present if the timestamp
+     * is {@link Time#NONE}).
+     * 
+     * @param key
+     * @param after
+     * @param limit
+     * @param timestamp
+     * @param unsafe
+     * @return a possibly empty Map of data
+     */
+    private Map<TObject, Set<Long>> browse(String key, @Nullable TObject after,
+            int limit, long timestamp, boolean unsafe) {
+        // The destination returns its smallest values after the starting
+        // point, so the buffered writes can only be merged for the values up
+        // to the last one that it returns. If the buffered removals empty an
+        // entire page, the next one is read because an empty result must mean
+        // that there is nothing left to browse.
+        TObject start = after;
+        while (true) {
+            Map<TObject, Set<Long>> context;
+            if(timestamp != Time.NONE) {
+                context = destination.browse(key, start, limit, timestamp);
+            }
+            else if(unsafe && destination instanceof Compoundable) {
+                context = ((Compoundable) (destination)).browseUnsafe(key,
+                        start, limit);
+            }
+            else {
+                context = destination.browse(key, start, limit);
+            }
+            TObject last = context.isEmpty() ? null : Iterables
+                    .getLast(context.keySet());
+            NavigableMap<TObject, Set<Long>> data = (NavigableMap<TObject, Set<Long>>) buffer
+                    .browse(key, timestamp != Time.NONE ? timestamp
+                            : Time.now(), context);
+            if(last != null) {
+                data = data.headMap(last, true);
+            }
+            Map<TObject, Set<Long>> page = Stores.slice(data, start, limit);
+            if(!page.isEmpty() || last == null) {
+                return page;
+            }
+            start = last;
+        }
+    }
+
 }
@@ -18,6 +18,8 @@ package org.cinchapi.concourse.server.storage;
 import java.util.Map;
 import java.util.Set;
 
+import javax.annotation.Nullable;
+
 import org.cinchapi.concourse.thrift.Operator;
 import org.cinchapi.concourse.thrift.TObject;
 
@@ -77,6 +79,21 @@ public interface Compoundable extends PermanentStore, VersionChangeNotifier {
      */
     public Map<TObject, Set<Long>> browseUnsafe(String key);
 
+    /**
+     * Browse the values in {@code key} that come after {@code after}.
+     * This method returns the same bounded mapping as
+     * {@link Store#browse(String, TObject, int)}. This method is ONLY
+     * appropriate to call from the methods of {@link #AtomicOperation} class
+     * because in this case intermediate read {@link #Lock} is not required.
+     * 
+     * @param key
+     * @param after
+     * @param limit
+     * @return {@code Map}
+     */
+    public Map<TObject, Set<Long>> browseUnsafe(String key,
+            @Nullable TObject after, int limit);
+
     /**
      * Do the work to explore {@code key} {@code operator} {@code values}
      * without worry about normalizing the {@code operator} or {@code values}.
@@ -92,6 +109,15 @@ public interface Compoundable extends PermanentStore, VersionChangeNotifier {
     public Map<Long, Set<TObject>> doExploreUnsafe(String key,
             Operator operator, TObject... values);
 
+    /**
+     * Return the running {@link Statistics} about the values that are stored
+     * for each key. The statistics are read without grabbing any locks, so
+     * they are only appropriate for estimates (i.e. query planning).
+     * 
+     * @return the Statistics
+     */
+    public Statistics getStatistics();
+
     /**
      * Fetch {@code key} from {@code record}.
      * This method returns the values currently mapped from {@code key} in
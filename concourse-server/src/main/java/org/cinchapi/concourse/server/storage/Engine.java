@@ -32,6 +32,7 @@ import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.ThreadSafe;
 
 import jsr166e.ConcurrentHashMapV8;
@@ -244,6 +245,14 @@ public final class Engine extends BufferedStore implements
      */
     private final Timer scheduler = new Timer(true);
 
+    /**
+     * Running statistics about the values that are stored for each key across
+     * the Buffer and the Database. The Buffer updates the statistics whenever
+     * a write is inserted, so they always reflect the current state of the
+     * Engine.
+     */
+    private final Statistics statistics = new Statistics();
+
     /**
      * A lock that prevents the Engine from causing the Buffer to transport
      * Writes to the Database while a buffered read is occurring. Even though
@@ -314,6 +323,7 @@ public final class Engine extends BufferedStore implements
         this.inventory = Inventory.create(buffer.getBackingStore()
                 + File.separator + "meta" + File.separator + "inventory");
         buffer.setInventory(inventory);
+        buffer.setStatistics(statistics);
         buffer.setThreadNamePrefix(environment + "-buffer");
     }
 
@@ -454,6 +464,21 @@ public final class Engine extends BufferedStore implements
         }
     }
 
+    @Override
+    public Map<Long, Set<TObject>> chronologize(String key, long record,
+            long start, long end) {
+        transportLock.readLock().lock();
+        Lock read = lockService.getReadLock(key, record);
+        read.lock();
+        try {
+            return super.chronologize(key, record, start, end);
+        }
+        finally {
+            read.unlock();
+            transportLock.readLock().unlock();
+        }
+    }
+
     @Override
     public Map<Long, String> auditUnsafe(long record) {
         transportLock.readLock().lock();
@@ -512,6 +537,35 @@ public final class Engine extends BufferedStore implements
         }
     }
 
+    @Override
+    public Map<TObject, Set<Long>> browse(String key, @Nullable TObject after,
+            int limit) {
+        transportLock.readLock().lock();
+        Lock range = rangeLockService.getReadLock(Text.wrapCached(key),
+                Operator.BETWEEN, Value.NEGATIVE_INFINITY,
+                Value.POSITIVE_INFINITY);
+        range.lock();
+        try {
+            return super.browse(key, after, limit);
+        }
+        finally {
+            range.unlock();
+            transportLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Map<TObject, Set<Long>> browse(String key, @Nullable TObject after,
+            int limit, long timestamp) {
+        transportLock.readLock().lock();
+        try {
+            return super.browse(key, after, limit, timestamp);
+        }
+        finally {
+            transportLock.readLock().unlock();
+        }
+    }
+
     @Override
     public Map<String, Set<TObject>> browseUnsafe(long record) {
         transportLock.readLock().lock();
@@ -534,6 +588,18 @@ public final class Engine extends BufferedStore implements
         }
     }
 
+    @Override
+    public Map<TObject, Set<Long>> browseUnsafe(String key,
+            @Nullable TObject after, int limit) {
+        transportLock.readLock().lock();
+        try {
+            return super.browse(key, after, limit);
+        }
+        finally {
+            transportLock.readLock().unlock();
+        }
+    }
+
     @Override
     public boolean contains(long record) {
         return inventory.contains(record);
@@ -585,6 +651,32 @@ public final class Engine extends BufferedStore implements
         return sb.toString();
     }
 
+    /**
+     * Public interface for the {@link Database#getRecordCacheStats()} method.
+     * 
+     * @return the record cache statistics
+     */
+    @ManagedOperation
+    public String getRecordCacheStats() {
+        return ((Database) destination).getRecordCacheStats();
+    }
+
+    @Override
+    public Statistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Return the running {@link KeyStatistics} about the values that are
+     * currently stored for {@code key}.
+     * 
+     * @param key
+     * @return the KeyStatistics
+     */
+    public KeyStatistics getStatistics(String key) {
+        return statistics.get(key);
+    }
+
     @Override
     @Restricted
     public void notifyVersionChange(Token token) {
@@ -651,6 +743,19 @@ public final class Engine extends BufferedStore implements
         // manual cleanup because the GC will take care of it.
     }
 
+    @Override
+    public void gatherSearchStatistics(String key, SearchStatistics statistics) {
+        // NOTE: Like a search, gathering search statistics does not grab any
+        // range locks.
+        transportLock.readLock().lock();
+        try {
+            super.gatherSearchStatistics(key, statistics);
+        }
+        finally {
+            transportLock.readLock().unlock();
+        }
+    }
+
     @Override
     public Set<Long> search(String key, String query) {
         // NOTE: Range locking for a search query requires too much overhead, so
@@ -759,6 +864,7 @@ public final class Engine extends BufferedStore implements
             running = true;
             destination.start();
             buffer.start();
+            loadStatistics();
             doTransactionRecovery();
             scheduler.scheduleAtFixedRate(
                     new TimerTask() {
@@ -956,6 +1062,23 @@ public final class Engine extends BufferedStore implements
                 TimeUnit.MICROSECONDS);
     }
 
+    /**
+     * Seed the {@link #statistics} with those that are synced in the
+     * {@link Database} and account for any writes in the {@link Buffer} that
+     * the Database has not yet accepted.
+     */
+    private void loadStatistics() {
+        Statistics synced = ((Database) destination).getStatistics();
+        statistics.putAll(synced);
+        Iterator<Write> it = buffer.iterator();
+        while (it.hasNext()) {
+            Write write = it.next();
+            if(write.getVersion() > synced.getVersion()) {
+                statistics.apply(write);
+            }
+        }
+    }
+
     /**
      * Remove {@code key} as {@code value} from {@code record} WITHOUT grabbing
      * any locks. This method is ONLY appropriate to call from the
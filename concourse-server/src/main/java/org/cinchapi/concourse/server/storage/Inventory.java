@@ -27,7 +27,7 @@ import jsr166e.StampedLock;
 
 import org.cinchapi.concourse.server.io.FileSystem;
 import org.cinchapi.concourse.util.Integers;
-import org.cinchapi.concourse.util.LongBitSet;
+import org.cinchapi.concourse.util.RecordSet;
 
 import com.google.common.collect.Lists;
 
@@ -65,10 +65,10 @@ public class Inventory {
     private final String backingStore;
 
     /**
-     * The bitset that contains the read-efficient version of the data in the
-     * inventory.
+     * The compressed set that contains the read-efficient version of the data
+     * in the inventory.
      */
-    private final LongBitSet bitSet;
+    private final RecordSet records;
 
     /**
      * A memory mapped buffer that is used to handle writes to the backing
@@ -95,7 +95,7 @@ public class Inventory {
      */
     private Inventory(String backingStore) {
         this.backingStore = backingStore;
-        this.bitSet = LongBitSet.create();
+        this.records = RecordSet.create();
         this.content = FileSystem.map(backingStore, MapMode.READ_ONLY, 0,
                 FileSystem.getFileSize(backingStore));
         while (content.position() < content.capacity()) {
@@ -110,7 +110,7 @@ public class Inventory {
                 break;
             }
             else {
-                bitSet.set(record);
+                records.add(record);
             }
         }
         map0(content.position(), MEMORY_MAPPING_SIZE);
@@ -124,7 +124,7 @@ public class Inventory {
     public void add(long record) {
         long stamp = lock.writeLock();
         try {
-            if(bitSet.set(record)) {
+            if(records.add(record)) {
                 dirty.add(record);
             }
         }
@@ -141,14 +141,24 @@ public class Inventory {
      */
     public boolean contains(long record) {
         long stamp = lock.tryOptimisticRead();
-        boolean result = bitSet.get(record);
-        if(lock.validate(stamp)) {
+        boolean result;
+        boolean consistent = true;
+        try {
+            result = records.contains(record);
+        }
+        catch (RuntimeException e) {
+            // A concurrent add may have been observed in an inconsistent
+            // state, so fall back to a read lock
+            result = false;
+            consistent = false;
+        }
+        if(consistent && lock.validate(stamp)) {
             return result;
         }
         else {
             stamp = lock.readLock();
             try {
-                return bitSet.get(record);
+                return records.contains(record);
             }
             finally {
                 lock.unlockRead(stamp);
@@ -157,12 +167,19 @@ public class Inventory {
     }
 
     /**
-     * Return {@code Set<Long>} if records that ever had data exist.
+     * Return a snapshot of all the records that have ever had data, in
+     * ascending order.
      * 
      * @return {@code Set<Long>}
      */
     public Set<Long> getAll() {
-        return (Set<Long>) bitSet.toIterable();
+        long stamp = lock.readLock();
+        try {
+            return records.copy();
+        }
+        finally {
+            lock.unlockRead(stamp);
+        }
     }
 
     /**
@@ -0,0 +1,460 @@
+/*
+ * Copyright (c) 2013-2015 Cinchapi Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.cinchapi.concourse.server.storage;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+
+import org.cinchapi.concourse.server.io.Byteable;
+import org.cinchapi.concourse.server.model.Value;
+import org.cinchapi.concourse.thrift.Operator;
+import org.cinchapi.concourse.thrift.TObject;
+import org.cinchapi.concourse.thrift.Type;
+import org.cinchapi.concourse.util.Convert;
+
+/**
+ * Running statistics about the values that are stored for a single key. The
+ * statistics are maintained incrementally as each write is applied, so they
+ * can be read in constant time instead of scanning the index for the key.
+ * <p>
+ * The count, sums and histogram are exact because each of them can be undone
+ * when a value is removed. The {@link #getMinimum() minimum} and
+ * {@link #getMaximum() maximum} on the other hand are only bounds: they
+ * include every numeric value that has ever been stored for the key, even if
+ * the value has since been removed.
+ * </p>
+ * <p>
+ * The {@link #getDocumentCount() document} and {@link #getTermCount() term}
+ * counts describe the size of the search corpus for the key, which is needed
+ * to rank search results without reading the index entry of every document.
+ * </p>
+ * 
+ * @author Jeff Nelson
+ */
+@ThreadSafe
+public final class KeyStatistics implements Byteable {
+
+    /**
+     * The number of buckets in the {@link #getHistogram() histogram}. Each
+     * numeric value is placed in the bucket that corresponds to the sign and
+     * the bit length of its integral magnitude, so bucket {@code 64} holds the
+     * values in (-1, 1), bucket {@code 64 + n} holds the positive values in
+     * [2<sup>n-1</sup>, 2<sup>n</sup>) and bucket {@code 64 - n} holds the
+     * negative values in (-2<sup>n</sup>, -2<sup>n-1</sup>].
+     */
+    public static final int HISTOGRAM_BUCKETS = 129;
+
+    /**
+     * Return the {@link KeyStatistics} that are encoded in {@code bytes}.
+     * 
+     * @param bytes
+     * @return the KeyStatistics
+     */
+    static KeyStatistics fromByteBuffer(ByteBuffer bytes) {
+        KeyStatistics stats = new KeyStatistics();
+        stats.count = bytes.getLong();
+        stats.integralCount = bytes.getLong();
+        stats.decimalCount = bytes.getLong();
+        stats.integralSum = bytes.getLong();
+        stats.decimalSum = bytes.getDouble();
+        stats.minimum = bytes.getDouble();
+        stats.maximum = bytes.getDouble();
+        stats.documents = bytes.getLong();
+        stats.terms = bytes.getLong();
+        int buckets = bytes.getInt();
+        for (int i = 0; i < buckets; ++i) {
+            stats.histogram[bytes.get() & 0xFF] = bytes.getLong();
+        }
+        return stats;
+    }
+
+    /**
+     * Return the histogram bucket for {@code number}.
+     * 
+     * @param number
+     * @return the bucket
+     */
+    private static int bucket(Number number) {
+        double value = number.doubleValue();
+        int length = 64 - Long.numberOfLeadingZeros((long) Math.abs(value));
+        return value < 0 ? 64 - length : 64 + length;
+    }
+
+    /**
+     * Return the {@link Number} that is represented by {@code value} or
+     * {@code null} if the value is not numeric.
+     * 
+     * @param value
+     * @return the Number
+     */
+    @Nullable
+    private static Number getNumber(TObject value) {
+        Object object = Convert.thriftToJava(value);
+        return object instanceof Number ? (Number) object : null;
+    }
+
+    /**
+     * The number of values that are stored.
+     */
+    private long count = 0;
+
+    /**
+     * The number of integer and long values that are stored.
+     */
+    private long integralCount = 0;
+
+    /**
+     * The number of float and double values that are stored.
+     */
+    private long decimalCount = 0;
+
+    /**
+     * The sum of the integer and long values that are stored.
+     */
+    private long integralSum = 0;
+
+    /**
+     * The sum of the float and double values that are stored.
+     */
+    private double decimalSum = 0;
+
+    /**
+     * The smallest numeric value that has ever been stored.
+     */
+    private double minimum = Double.POSITIVE_INFINITY;
+
+    /**
+     * The largest numeric value that has ever been stored.
+     */
+    private double maximum = Double.NEGATIVE_INFINITY;
+
+    /**
+     * The number of string values that contain at least one searchable term.
+     */
+    private long documents = 0;
+
+    /**
+     * The total number of searchable terms in all the string values.
+     */
+    private long terms = 0;
+
+    /**
+     * The number of numeric values that are stored in each bucket.
+     */
+    private final long[] histogram = new long[HISTOGRAM_BUCKETS];
+
+    /**
+     * Construct a new instance.
+     */
+    KeyStatistics() {/* noop */}
+
+    @Override
+    public synchronized void copyTo(ByteBuffer buffer) {
+        buffer.putLong(count);
+        buffer.putLong(integralCount);
+        buffer.putLong(decimalCount);
+        buffer.putLong(integralSum);
+        buffer.putDouble(decimalSum);
+        buffer.putDouble(minimum);
+        buffer.putDouble(maximum);
+        buffer.putLong(documents);
+        buffer.putLong(terms);
+        int position = buffer.position();
+        int buckets = 0;
+        buffer.putInt(buckets);
+        for (int i = 0; i < histogram.length; ++i) {
+            if(histogram[i] != 0) {
+                buffer.put((byte) i);
+                buffer.putLong(histogram[i]);
+                ++buckets;
+            }
+        }
+        buffer.putInt(position, buckets);
+    }
+
+    /**
+     * Return an estimate of the number of stored values that satisfy
+     * {@code operator} with respect to the {@code values}.
+     * <p>
+     * Numeric comparisons are estimated from the {@link #getHistogram()
+     * histogram} by counting the values in each bucket that overlaps the
+     * range of the comparison. Equality with a non-numeric value or a link
+     * can only match the non-numeric values and every other operator may
+     * match any of the values. Each estimate is an upper bound.
+     * </p>
+     * 
+     * @param operator
+     * @param values
+     * @return the estimated number of matches
+     */
+    public synchronized long estimate(Operator operator, TObject... values) {
+        Number lower = null;
+        Number upper = null;
+        switch (operator) {
+        case EQUALS:
+            lower = upper = getNumber(values[0]);
+            break;
+        case LINKS_TO:
+            break;
+        case GREATER_THAN:
+        case GREATER_THAN_OR_EQUALS:
+            lower = getNumber(values[0]);
+            if(lower == null) {
+                return count;
+            }
+            break;
+        case LESS_THAN:
+        case LESS_THAN_OR_EQUALS:
+            upper = getNumber(values[0]);
+            if(upper == null) {
+                return count;
+            }
+            break;
+        case BETWEEN:
+            lower = getNumber(values[0]);
+            upper = getNumber(values[1]);
+            if(lower == null || upper == null) {
+                return count;
+            }
+            break;
+        default:
+            return count;
+        }
+        if(lower == null && upper == null) {
+            return count - integralCount - decimalCount;
+        }
+        long matches = 0;
+        int end = upper != null ? bucket(upper) : HISTOGRAM_BUCKETS - 1;
+        for (int i = lower != null ? bucket(lower) : 0; i <= end; ++i) {
+            matches += histogram[i];
+        }
+        return matches;
+    }
+
+    @Override
+    public synchronized ByteBuffer getBytes() {
+        ByteBuffer bytes = ByteBuffer.allocate(size());
+        copyTo(bytes);
+        bytes.flip();
+        return bytes;
+    }
+
+    /**
+     * Return the number of values that are stored.
+     * 
+     * @return the count
+     */
+    public synchronized long getCount() {
+        return count;
+    }
+
+    /**
+     * Return the number of string values that contain at least one searchable
+     * term. Each of them is a document in the search corpus for the key.
+     * 
+     * @return the document count
+     */
+    public synchronized long getDocumentCount() {
+        return documents;
+    }
+
+    /**
+     * Return the number of stored values that fall in each of the
+     * {@link #HISTOGRAM_BUCKETS}.
+     * 
+     * @return the histogram
+     */
+    public synchronized long[] getHistogram() {
+        return Arrays.copyOf(histogram, histogram.length);
+    }
+
+    /**
+     * Return an upper bound for the numeric values that are stored or
+     * {@link Double#NEGATIVE_INFINITY} if no numeric value has ever been
+     * stored.
+     * 
+     * @return the maximum
+     */
+    public synchronized double getMaximum() {
+        return maximum;
+    }
+
+    /**
+     * Return a lower bound for the numeric values that are stored or
+     * {@link Double#POSITIVE_INFINITY} if no numeric value has ever been
+     * stored.
+     * 
+     * @return the minimum
+     */
+    public synchronized double getMinimum() {
+        return minimum;
+    }
+
+    /**
+     * Return the number of numeric values that are stored.
+     * 
+     * @return the numeric count
+     */
+    public synchronized long getNumericCount() {
+        return integralCount + decimalCount;
+    }
+
+    /**
+     * Return the sum of the numeric values that are stored. The sum is a
+     * {@link Long} if all of the values are integral and a {@link Double}
+     * otherwise.
+     * 
+     * @return the sum
+     */
+    public synchronized Number getSum() {
+        return decimalCount == 0 ? (Number) integralSum
+                : (Number) (integralSum + decimalSum);
+    }
+
+    /**
+     * Return the total number of searchable terms in all the string values,
+     * which is the combined length of the documents in the search corpus for
+     * the key.
+     * 
+     * @return the term count
+     */
+    public synchronized long getTermCount() {
+        return terms;
+    }
+
+    /**
+     * Return {@code true} if the {@link #getSum() sum} is exact. The sum of
+     * the integer and long values is kept in a long, which wraps around if the
+     * sum is too large, so it is only trusted if the number of those values
+     * times the largest magnitude that has ever been stored fits in a long.
+     * 
+     * @return {@code true} if the sum can't have overflowed
+     */
+    public synchronized boolean isSumExact() {
+        double magnitude = Math.max(Math.abs(minimum), Math.abs(maximum));
+        return integralCount == 0
+                || magnitude * integralCount < Long.MAX_VALUE;
+    }
+
+    @Override
+    public synchronized int size() {
+        int size = 9 * 8 + 4;
+        for (long bucket : histogram) {
+            if(bucket != 0) {
+                size += 9;
+            }
+        }
+        return size;
+    }
+
+    @Override
+    public synchronized String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{count: ").append(count);
+        sb.append(", numericCount: ").append(integralCount + decimalCount);
+        sb.append(", sum: ").append(getSum());
+        if(integralCount + decimalCount > 0) {
+            sb.append(", min: ").append(minimum);
+            sb.append(", max: ").append(maximum);
+        }
+        sb.append(", documents: ").append(documents);
+        sb.append(", terms: ").append(terms);
+        sb.append(", histogram: {");
+        boolean first = true;
+        for (int i = 0; i < histogram.length; ++i) {
+            if(histogram[i] != 0) {
+                sb.append(first ? "" : ", ").append(i - 64).append(": ")
+                        .append(histogram[i]);
+                first = false;
+            }
+        }
+        sb.append("}}");
+        return sb.toString();
+    }
+
+    /**
+     * Account for an {@link Action#ADD} or {@link Action#REMOVE} of
+     * {@code value}.
+     * 
+     * @param value
+     * @param type
+     */
+    synchronized void apply(Value value, Action type) {
+        int delta = type == Action.ADD ? 1 : -1;
+        count += delta;
+        Type valueType = value.getType();
+        if(valueType == Type.INTEGER || valueType == Type.LONG) {
+            Number number = (Number) value.getObject();
+            integralCount += delta;
+            integralSum += delta * number.longValue();
+            record(number, delta);
+        }
+        else if(valueType == Type.FLOAT || valueType == Type.DOUBLE) {
+            Number number = (Number) value.getObject();
+            decimalCount += delta;
+            decimalSum += delta * number.doubleValue();
+            record(number, delta);
+        }
+        else if(valueType == Type.STRING) {
+            int length = SearchStatistics.countTerms((String) value
+                    .getObject());
+            if(length > 0) {
+                documents += delta;
+                terms += delta * length;
+            }
+        }
+    }
+
+    /**
+     * Merge {@code other} into these statistics.
+     * 
+     * @param other
+     */
+    synchronized void merge(KeyStatistics other) {
+        synchronized (other) {
+            count += other.count;
+            integralCount += other.integralCount;
+            decimalCount += other.decimalCount;
+            integralSum += other.integralSum;
+            decimalSum += other.decimalSum;
+            minimum = Math.min(minimum, other.minimum);
+            maximum = Math.max(maximum, other.maximum);
+            documents += other.documents;
+            terms += other.terms;
+            for (int i = 0; i < histogram.length; ++i) {
+                histogram[i] += other.histogram[i];
+            }
+        }
+    }
+
+    /**
+     * Record that {@code delta} instances of the {@code number} were stored.
+     * 
+     * @param number
+     * @param delta
+     */
+    private void record(Number number, int delta) {
+        histogram[bucket(number)] += delta;
+        if(delta > 0) {
+            minimum = Math.min(minimum, number.doubleValue());
+            maximum = Math.max(maximum, number.doubleValue());
+        }
+    }
+
+}
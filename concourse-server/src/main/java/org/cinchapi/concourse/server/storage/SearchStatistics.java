@@ -0,0 +1,395 @@
+/*
+ * Copyright (c) 2013-2015 Cinchapi Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.cinchapi.concourse.server.storage;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import org.cinchapi.concourse.util.TStrings;
+
+import com.google.common.base.Strings;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+/**
+ * The statistics that are needed to rank the results of a fulltext search for
+ * a query using the Okapi BM25 relevance function.
+ * <p>
+ * Each value that is searched is a document whose length is the number of
+ * terms that it contains. The statistics track the number and total length of
+ * all the documents for a key along with the length, the frequency of each
+ * query term and the number of phrase matches for each record that contains
+ * one of the query terms. Every component is additive, so each layer of a
+ * {@link BufferedStore} contributes the changes that its own data makes (i.e.
+ * a buffered removal subtracts what the removed value adds) and the merged
+ * statistics are the same as if all the data were stored in a single place.
+ * </p>
+ * <p>
+ * Only the records that contain a query term (or have buffered changes) are
+ * tracked, so ranking never requires the values of every record to be
+ * materialized.
+ * </p>
+ * 
+ * @author Jeff Nelson
+ */
+@NotThreadSafe
+public final class SearchStatistics {
+
+    /**
+     * Return the length of {@code value} as a document, which is the number
+     * of terms that it contains once stopwords are removed.
+     * 
+     * @param value
+     * @return the number of terms
+     */
+    public static int countTerms(String value) {
+        return countTerms(TStrings.stripStopWordsAndTokenize(value
+                .toLowerCase()));
+    }
+
+    /**
+     * Return the number of non-empty terms in {@code haystack}.
+     * 
+     * @param haystack
+     * @return the number of terms
+     */
+    private static int countTerms(String[] haystack) {
+        int size = 0;
+        for (String tok : haystack) {
+            if(!Strings.isNullOrEmpty(tok)) {
+                ++size;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * The BM25 parameter that controls how quickly the score saturates as the
+     * frequency of a term in a document increases.
+     */
+    private static final double K1 = 1.2;
+
+    /**
+     * The BM25 parameter that controls how much the score is normalized by
+     * the length of a document.
+     */
+    private static final double B = 0.75;
+
+    /**
+     * The offset in each {@link #records} entry where the length is stored.
+     */
+    private static final int LENGTH = 0;
+
+    /**
+     * The offset in each {@link #records} entry where the number of phrase
+     * matches is stored.
+     */
+    private static final int MATCHES = 1;
+
+    /**
+     * The offset in each {@link #records} entry where the frequency of the
+     * first term is stored.
+     */
+    private static final int FREQUENCIES = 2;
+
+    /**
+     * The query whose results are ranked.
+     */
+    private final String query;
+
+    /**
+     * The terms in the {@link #query}, with stopwords removed.
+     */
+    private final String[] terms;
+
+    /**
+     * The number of documents in the corpus.
+     */
+    private long documents = 0;
+
+    /**
+     * The total length of all the documents in the corpus.
+     */
+    private long length = 0;
+
+    /**
+     * The length, number of phrase matches and frequency of each term for
+     * every tracked record.
+     */
+    private final Map<Long, long[]> records = Maps.newHashMap();
+
+    /**
+     * Construct a new instance.
+     * 
+     * @param query
+     */
+    public SearchStatistics(String query) {
+        this.query = query;
+        this.terms = TStrings.stripStopWordsAndTokenize(query.toLowerCase());
+    }
+
+    /**
+     * Account for {@code documents} with a total of {@code length} terms that
+     * are added to (or removed from if the arguments are negative) the corpus.
+     * 
+     * @param documents
+     * @param length
+     */
+    public void addDocuments(long documents, long length) {
+        this.documents += documents;
+        this.length += length;
+    }
+
+    /**
+     * Account for {@code frequency} more occurrences of the term at
+     * {@code index} in {@link #getTerms()} in {@code record}.
+     * 
+     * @param record
+     * @param index
+     * @param frequency
+     */
+    public void addFrequency(long record, int index, long frequency) {
+        track(record)[FREQUENCIES + index] += frequency;
+    }
+
+    /**
+     * Add {@code length} to the length of {@code record} if it is
+     * {@link #isTracked(long) tracked}.
+     * 
+     * @param record
+     * @param length
+     */
+    public void addLength(long record, long length) {
+        long[] stats = records.get(record);
+        if(stats != null) {
+            stats[LENGTH] += length;
+        }
+    }
+
+    /**
+     * Account for {@code matches} more occurrences of the entire query in
+     * {@code record}.
+     * 
+     * @param record
+     * @param matches
+     */
+    public void addMatches(long record, long matches) {
+        track(record)[MATCHES] += matches;
+    }
+
+    /**
+     * Account for all the statistics of {@code value} being added to (or
+     * removed from if {@code added} is {@code false}) {@code record}. This is
+     * used by stores that don't index their values and must tokenize each one
+     * on the fly.
+     * 
+     * @param record
+     * @param value
+     * @param added
+     */
+    public void addValue(long record, String value, boolean added) {
+        String[] haystack = TStrings.stripStopWordsAndTokenize(value
+                .toLowerCase());
+        int size = countTerms(haystack);
+        if(size > 0) {
+            int sign = added ? 1 : -1;
+            long[] stats = track(record);
+            addDocuments(sign, sign * size);
+            stats[LENGTH] += sign * size;
+            stats[MATCHES] += sign * countMatches(haystack);
+            for (int i = 0; i < terms.length; ++i) {
+                long frequency = 0;
+                for (String tok : haystack) {
+                    if(!tok.isEmpty() && TStrings.isSubString(terms[i], tok)) {
+                        ++frequency;
+                    }
+                }
+                stats[FREQUENCIES + i] += sign * frequency;
+            }
+        }
+    }
+
+    /**
+     * Return the query whose results are ranked.
+     * 
+     * @return the query
+     */
+    public String getQuery() {
+        return query;
+    }
+
+    /**
+     * Return the terms in the query, with stopwords removed. The index of each
+     * term is used to {@link #addFrequency(long, int, long) add frequencies}.
+     * 
+     * @return the terms
+     */
+    public String[] getTerms() {
+        return terms;
+    }
+
+    /**
+     * Return a mapping from each of the (at most) {@code limit} records with
+     * the highest BM25 score for the query to that score, in descending order
+     * of score. Only the records that match the entire query are ranked.
+     * 
+     * @param limit
+     * @return the top records
+     */
+    public Map<Long, Double> getTopRecords(int limit) {
+        long[] frequencies = new long[terms.length];
+        for (long[] stats : records.values()) {
+            for (int i = 0; i < terms.length; ++i) {
+                if(stats[FREQUENCIES + i] > 0) {
+                    ++frequencies[i];
+                }
+            }
+        }
+        double[] idf = new double[terms.length];
+        for (int i = 0; i < terms.length; ++i) {
+            double n = Math.max(documents, frequencies[i]);
+            idf[i] = Math.log(1 + (n - frequencies[i] + 0.5)
+                    / (frequencies[i] + 0.5));
+        }
+        double average = documents > 0 ? (double) length / documents : 1;
+        PriorityQueue<Entry<Long, Double>> top = new PriorityQueue<Entry<Long, Double>>(
+                Math.max(limit, 1), ScoreComparator.INSTANCE);
+        for (Entry<Long, long[]> entry : records.entrySet()) {
+            long[] stats = entry.getValue();
+            if(limit > 0 && stats[MATCHES] > 0) {
+                double norm = K1
+                        * (1 - B + B * Math.max(stats[LENGTH], 0) / average);
+                double score = 0;
+                for (int i = 0; i < terms.length; ++i) {
+                    long tf = stats[FREQUENCIES + i];
+                    if(tf > 0) {
+                        score += idf[i] * tf * (K1 + 1) / (tf + norm);
+                    }
+                }
+                top.offer(Maps.immutableEntry(entry.getKey(), score));
+                if(top.size() > limit) {
+                    top.poll();
+                }
+            }
+        }
+        List<Entry<Long, Double>> sorted = Lists.newArrayList(top);
+        Collections.sort(sorted,
+                Collections.reverseOrder(ScoreComparator.INSTANCE));
+        Map<Long, Double> ranked = Maps.newLinkedHashMap();
+        for (Entry<Long, Double> entry : sorted) {
+            ranked.put(entry.getKey(), entry.getValue());
+        }
+        return ranked;
+    }
+
+    /**
+     * Return the records for which statistics are being
+     * {@link #isTracked(long) tracked}. The caller must
+     * {@link #addLength(long, long) add the length} of each of these records
+     * unless the length is already accounted for.
+     * 
+     * @return the tracked records
+     */
+    public Set<Long> getTrackedRecords() {
+        return Collections.unmodifiableSet(records.keySet());
+    }
+
+    /**
+     * Return {@code true} if statistics are being tracked for {@code record}
+     * because it contains (or contained in a lower layer) one of the query
+     * terms.
+     * 
+     * @param record
+     * @return {@code true} if the record is tracked
+     */
+    public boolean isTracked(long record) {
+        return records.containsKey(record);
+    }
+
+    @Override
+    public String toString() {
+        return "SearchStatistics for '" + query + "' {documents: " + documents
+                + ", length: " + length + ", records: " + records.size()
+                + "}";
+    }
+
+    /**
+     * Return the number of places in {@code haystack} where each of the
+     * query {@link #terms} is a substring of the term in the same relative
+     * position.
+     * 
+     * @param haystack
+     * @return the number of matches
+     */
+    private long countMatches(String[] haystack) {
+        long matches = 0;
+        if(terms.length > 0) {
+            for (int i = 0; i + terms.length <= haystack.length; ++i) {
+                boolean match = true;
+                for (int j = 0; j < terms.length && match; ++j) {
+                    match = TStrings.isSubString(terms[j], haystack[i + j]);
+                }
+                if(match) {
+                    ++matches;
+                }
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Return the statistics for {@code record}, starting to track them if
+     * necessary.
+     * 
+     * @param record
+     * @return the statistics
+     */
+    private long[] track(long record) {
+        long[] stats = records.get(record);
+        if(stats == null) {
+            stats = new long[FREQUENCIES + terms.length];
+            records.put(record, stats);
+        }
+        return stats;
+    }
+
+    /**
+     * A {@link Comparator} that sorts scored records in ascending order of
+     * score and then in descending order of record so that ties are broken
+     * in favor of the smaller record.
+     * 
+     * @author Jeff Nelson
+     */
+    private enum ScoreComparator implements Comparator<Entry<Long, Double>> {
+        INSTANCE;
+
+        @Override
+        public int compare(Entry<Long, Double> o1, Entry<Long, Double> o2) {
+            int comparison = Double.compare(o1.getValue(), o2.getValue());
+            return comparison != 0 ? comparison : Long.compare(o2.getKey(),
+                    o1.getKey());
+        }
+
+    }
+
+}
@@ -0,0 +1,265 @@
+/*
+ * Copyright (c) 2013-2015 Cinchapi Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.cinchapi.concourse.server.storage;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+
+import org.cinchapi.concourse.server.io.FileSystem;
+import org.cinchapi.concourse.server.model.Text;
+import org.cinchapi.concourse.server.model.Value;
+import org.cinchapi.concourse.server.storage.db.Revision;
+import org.cinchapi.concourse.server.storage.temp.Write;
+import org.cinchapi.concourse.util.ByteBuffers;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+/**
+ * A collection of {@link KeyStatistics} for every key that has been written
+ * to a store. The statistics are updated incrementally as each {@link Write}
+ * is applied so they never require a scan of the data.
+ * <p>
+ * The statistics track the largest version that has been applied so a caller
+ * can tell which writes are already accounted for. When the statistics are
+ * {@link #sync(String, String) synced} to disk, they are tagged with a
+ * checkpoint (i.e. the id of the last block whose data they include) so that
+ * stale statistics can be detected and rebuilt on startup.
+ * </p>
+ * 
+ * @author Jeff Nelson
+ */
+@ThreadSafe
+public final class Statistics {
+
+    /**
+     * Return the {@link Statistics} that were {@link #sync(String, String)
+     * synced} to {@code file} or {@code null} if the file does not exist.
+     * 
+     * @param file
+     * @return the Statistics
+     */
+    @Nullable
+    public static Statistics load(String file) {
+        if(!FileSystem.hasFile(file)) {
+            return null;
+        }
+        ByteBuffer bytes = FileSystem.readBytes(file);
+        Statistics statistics = new Statistics();
+        statistics.version.set(bytes.getLong());
+        statistics.checkpoint = getString(bytes);
+        int keys = bytes.getInt();
+        for (int i = 0; i < keys; ++i) {
+            statistics.keys.put(getString(bytes),
+                    KeyStatistics.fromByteBuffer(bytes));
+        }
+        return statistics;
+    }
+
+    /**
+     * Read a length prefixed string from {@code bytes}.
+     * 
+     * @param bytes
+     * @return the string
+     */
+    private static String getString(ByteBuffer bytes) {
+        int length = bytes.getInt();
+        String string = ByteBuffers.getString(ByteBuffers
+                .slice(bytes, length));
+        bytes.position(bytes.position() + length);
+        return string;
+    }
+
+    /**
+     * The statistics for each key.
+     */
+    private final ConcurrentMap<String, KeyStatistics> keys = Maps
+            .newConcurrentMap();
+
+    /**
+     * The largest version of any write that has been applied.
+     */
+    private final AtomicLong version = new AtomicLong(0);
+
+    /**
+     * The id of the last block whose data is included in these statistics.
+     */
+    private String checkpoint = "";
+
+    /**
+     * Account for {@code revision}.
+     * 
+     * @param revision
+     */
+    public void apply(Revision<?, Text, Value> revision) {
+        apply(revision.getKey().toString(), revision.getValue(),
+                revision.getType(), revision.getVersion());
+    }
+
+    /**
+     * Account for {@code write} if it is an {@link Action#ADD} or
+     * {@link Action#REMOVE}.
+     * 
+     * @param write
+     */
+    public void apply(Write write) {
+        if(write.getType() == Action.ADD || write.getType() == Action.REMOVE) {
+            apply(write.getKey().toString(), write.getValue(),
+                    write.getType(), write.getVersion());
+        }
+    }
+
+    /**
+     * Return the {@link KeyStatistics} for {@code key}. If nothing has been
+     * written to {@code key}, the returned statistics are empty.
+     * 
+     * @param key
+     * @return the KeyStatistics
+     */
+    public KeyStatistics get(String key) {
+        KeyStatistics stats = keys.get(key);
+        return stats != null ? stats : new KeyStatistics();
+    }
+
+    /**
+     * Return the checkpoint that was recorded when these statistics were
+     * {@link #sync(String, String) synced}.
+     * 
+     * @return the checkpoint
+     */
+    public String getCheckpoint() {
+        return checkpoint;
+    }
+
+    /**
+     * Return the largest version of any write that has been applied.
+     * 
+     * @return the version
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * Add all of the {@code other} statistics to these ones.
+     * 
+     * @param other
+     */
+    public void putAll(Statistics other) {
+        for (Entry<String, KeyStatistics> entry : other.keys.entrySet()) {
+            getOrCreate(entry.getKey()).merge(entry.getValue());
+        }
+        updateVersion(other.getVersion());
+    }
+
+    /**
+     * Durably write these statistics to {@code file} and tag them with the
+     * {@code checkpoint}. The file is replaced atomically, so a crash never
+     * leaves behind partially written statistics.
+     * 
+     * @param file
+     * @param checkpoint
+     */
+    public synchronized void sync(String file, String checkpoint) {
+        this.checkpoint = checkpoint;
+        byte[] checkpointBytes = checkpoint.getBytes(StandardCharsets.UTF_8);
+        List<byte[]> names = Lists.newArrayList();
+        List<ByteBuffer> stats = Lists.newArrayList();
+        int size = 8 + 4 + checkpointBytes.length + 4;
+        for (Entry<String, KeyStatistics> entry : keys.entrySet()) {
+            byte[] name = entry.getKey().getBytes(StandardCharsets.UTF_8);
+            ByteBuffer bytes = entry.getValue().getBytes();
+            names.add(name);
+            stats.add(bytes);
+            size += 4 + name.length + bytes.remaining();
+        }
+        ByteBuffer bytes = ByteBuffer.allocate(size);
+        bytes.putLong(version.get());
+        bytes.putInt(checkpointBytes.length);
+        bytes.put(checkpointBytes);
+        bytes.putInt(names.size());
+        for (int i = 0; i < names.size(); ++i) {
+            bytes.putInt(names.get(i).length);
+            bytes.put(names.get(i));
+            bytes.put(stats.get(i));
+        }
+        bytes.flip();
+        String tmp = file + ".tmp";
+        if(FileSystem.hasFile(tmp)) {
+            FileSystem.deleteFile(tmp);
+        }
+        FileSystem.writeBytes(bytes, tmp);
+        FileSystem.replaceFile(file, tmp);
+    }
+
+    @Override
+    public String toString() {
+        return keys.toString();
+    }
+
+    /**
+     * Account for the {@code type} of change to {@code value} in {@code key}
+     * at {@code version}.
+     * 
+     * @param key
+     * @param value
+     * @param type
+     * @param version
+     */
+    private void apply(String key, Value value, Action type, long version) {
+        getOrCreate(key).apply(value, type);
+        updateVersion(version);
+    }
+
+    /**
+     * Return the {@link KeyStatistics} for {@code key}, creating them if
+     * necessary.
+     * 
+     * @param key
+     * @return the KeyStatistics
+     */
+    private KeyStatistics getOrCreate(String key) {
+        KeyStatistics stats = keys.get(key);
+        if(stats == null) {
+            stats = new KeyStatistics();
+            KeyStatistics existing = keys.putIfAbsent(key, stats);
+            stats = existing != null ? existing : stats;
+        }
+        return stats;
+    }
+
+    /**
+     * Atomically set the {@link #version} to {@code version} if it is larger.
+     * 
+     * @param version
+     */
+    private void updateVersion(long version) {
+        long current;
+        while ((current = this.version.get()) < version) {
+            if(this.version.compareAndSet(current, version)) {
+                break;
+            }
+        }
+    }
+
+}
@@ -18,6 +18,8 @@ package org.cinchapi.concourse.server.storage;
 import java.util.Map;
 import java.util.Set;
 
+import javax.annotation.Nullable;
+
 import org.cinchapi.concourse.thrift.Operator;
 import org.cinchapi.concourse.thrift.TObject;
 
@@ -110,6 +112,62 @@ public interface Store {
      */
     public Map<TObject, Set<Long>> browse(String key, long timestamp);
 
+    /**
+     * Browse the values in {@code key} that come after {@code after}.
+     * <p>
+     * This method returns the same mapping as {@link #browse(String)}, but
+     * only for the (at most) {@code limit} smallest values that sort after
+     * {@code after} (or the smallest values overall if {@code after} is
+     * {@code null}). The result may contain fewer values even if there are
+     * more to browse, but it is only empty if there are no values left, so
+     * the entire index can be walked in order by passing the last value of
+     * each result as the {@code after} value of the next call.
+     * </p>
+     * 
+     * @param key
+     * @param after
+     * @param limit
+     * @return a possibly empty Map of data
+     */
+    public Map<TObject, Set<Long>> browse(String key, @Nullable TObject after,
+            int limit);
+
+    /**
+     * Browse the values in {@code key} that come after {@code after} at
+     * {@code timestamp}.
+     * <p>
+     * This method returns the same mapping as {@link #browse(String, long)},
+     * but is otherwise bounded like {@link #browse(String, TObject, int)}.
+     * </p>
+     * 
+     * @param key
+     * @param after
+     * @param limit
+     * @param timestamp
+     * @return a possibly empty Map of data
+     */
+    public Map<TObject, Set<Long>> browse(String key, @Nullable TObject after,
+            int limit, long timestamp);
+
+    /**
+     * Chronologize {@code key} in {@code record} between {@code start}
+     * (inclusive) and {@code end} (exclusive).
+     * <p>
+     * This method returns a mapping from the timestamp of each change to the
+     * field that occurred within the range to the Set of values that were
+     * contained in the field immediately afterwards. A change that left the
+     * field empty is not included. The mapping is sorted by timestamp.
+     * </p>
+     * 
+     * @param key
+     * @param record
+     * @param start
+     * @param end
+     * @return a possibly empty Map of data
+     */
+    public Map<Long, Set<TObject>> chronologize(String key, long record,
+            long start, long end);
+
     /**
      * Return {@code true} if the store contains any data, present or
      * historical, for {@code record}.
@@ -227,6 +285,22 @@ public interface Store {
      */
     public Set<Long> search(String key, String query);
 
+    /**
+     * Add the {@link SearchStatistics} that are needed to rank the results of
+     * a fulltext search for {@link SearchStatistics#getQuery() the query} in
+     * {@code key}.
+     * <p>
+     * This method only contributes the changes that the data in this store
+     * makes to the statistics so that the contributions of each layer of a
+     * {@link BufferedStore} can be added together. The contributions must be
+     * gathered from the most recent layer first.
+     * </p>
+     * 
+     * @param key
+     * @param statistics
+     */
+    public void gatherSearchStatistics(String key, SearchStatistics statistics);
+
     /**
      * Browse {@code record}.
      * <p>
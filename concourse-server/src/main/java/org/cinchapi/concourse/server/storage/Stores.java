@@ -15,15 +15,26 @@
  */
 package org.cinchapi.concourse.server.storage;
 
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.NavigableMap;
+import java.util.Set;
 import java.util.regex.Pattern;
 
+import javax.annotation.Nullable;
+
 import org.cinchapi.concourse.Link;
+import org.cinchapi.concourse.server.model.TObjectSorter;
+import org.cinchapi.concourse.server.model.Value;
 import org.cinchapi.concourse.thrift.Operator;
 import org.cinchapi.concourse.thrift.TObject;
 import org.cinchapi.concourse.util.Convert;
 import org.cinchapi.concourse.util.Strings;
 import org.cinchapi.concourse.util.TStrings;
 
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Maps;
+
 /**
  * {@link Store} based utility functions.
  * 
@@ -31,6 +42,48 @@ import org.cinchapi.concourse.util.TStrings;
  */
 public final class Stores {
 
+    /**
+     * Return {@code true} if {@code input} matches {@code operator} in relation
+     * to {@code values}. The {@code operator} and {@code values} are expected
+     * to have already been normalized using {@link #normalizeOperator(Operator)}
+     * and {@link #normalizeValue(Operator, TObject)}.
+     * 
+     * @param input
+     * @param operator
+     * @param values
+     * @return {@code true} if {@code input} matches
+     */
+    public static boolean matches(Value input, Operator operator,
+            TObject... values) {
+        Value v1 = Value.wrap(values[0]);
+        switch (operator) {
+        case EQUALS:
+            return v1.equals(input);
+        case NOT_EQUALS:
+            return !v1.equals(input);
+        case GREATER_THAN:
+            return v1.compareTo(input) < 0;
+        case GREATER_THAN_OR_EQUALS:
+            return v1.compareTo(input) <= 0;
+        case LESS_THAN:
+            return v1.compareTo(input) > 0;
+        case LESS_THAN_OR_EQUALS:
+            return v1.compareTo(input) >= 0;
+        case BETWEEN:
+            Preconditions.checkArgument(values.length > 1);
+            Value v2 = Value.wrap(values[1]);
+            return v1.compareTo(input) <= 0 && v2.compareTo(input) > 0;
+        case REGEX:
+            return input.getObject().toString()
+                    .matches(v1.getObject().toString());
+        case NOT_REGEX:
+            return !input.getObject().toString()
+                    .matches(v1.getObject().toString());
+        default:
+            throw new UnsupportedOperationException();
+        }
+    }
+
     /**
      * Perform any necessary normalization on {@code operator} so that it can be
      * properly utilized in {@link Store} methods (i.e. convert a utility
@@ -87,6 +140,32 @@ public final class Stores {
         }
     }
 
+    /**
+     * Return the (at most) {@code limit} entries of the sorted browse
+     * {@code data} whose values come after {@code after} (or the first entries
+     * if {@code after} is {@code null}). This is used to bound a browse in
+     * stores that materialize all the data for the key anyway.
+     * 
+     * @param data
+     * @param after
+     * @param limit
+     * @return the slice of the data
+     */
+    public static Map<TObject, Set<Long>> slice(
+            NavigableMap<TObject, Set<Long>> data, @Nullable TObject after,
+            int limit) {
+        Map<TObject, Set<Long>> slice = Maps
+                .newTreeMap(TObjectSorter.INSTANCE);
+        for (Entry<TObject, Set<Long>> entry : (after == null ? data : data
+                .tailMap(after, false)).entrySet()) {
+            if(slice.size() >= limit) {
+                break;
+            }
+            slice.put(entry.getKey(), entry.getValue());
+        }
+        return slice;
+    }
+
     /**
      * Perform validation on the {@code key} and {@code value} and throw an
      * exception if necessary.
@@ -26,6 +26,8 @@ import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
 
+import javax.annotation.Nullable;
+
 import org.cinchapi.concourse.annotate.Restricted;
 import org.cinchapi.concourse.server.concurrent.LockService;
 import org.cinchapi.concourse.server.concurrent.RangeLockService;
@@ -189,6 +191,12 @@ public final class Transaction extends AtomicOperation implements Compoundable {
         return browse(key);
     }
 
+    @Override
+    public Map<TObject, Set<Long>> browseUnsafe(String key,
+            @Nullable TObject after, int limit) {
+        return browse(key, after, limit);
+    }
+
     @Override
     public Map<Long, Set<TObject>> doExploreUnsafe(String key,
             Operator operator, TObject... values) {
@@ -15,15 +15,16 @@
  */
 package org.cinchapi.concourse.server.storage.cache;
 
-import java.io.BufferedInputStream;
-import java.io.FileInputStream;
+import java.io.EOFException;
 import java.io.IOException;
-import java.io.ObjectInput;
-import java.io.ObjectInputStream;
-import java.io.ObjectStreamClass;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.nio.channels.FileChannel.MapMode;
 
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.ThreadSafe;
 
 import jsr166e.StampedLock;
@@ -31,16 +32,28 @@ import jsr166e.StampedLock;
 import org.cinchapi.concourse.server.io.Byteable;
 import org.cinchapi.concourse.server.io.Composite;
 import org.cinchapi.concourse.server.io.FileSystem;
-import org.cinchapi.concourse.server.io.Serializables;
 import org.cinchapi.concourse.server.io.Syncable;
+import org.cinchapi.concourse.util.ByteBuffers;
 
 import com.google.common.base.Preconditions;
 import com.google.common.base.Throwables;
+import com.google.common.hash.Hashing;
 
 /**
- * A wrapper around a {@link com.google.common.hash.BloomFilter} with methods to
- * make it easier to add one or more {@link Byteable} objects to the filter at a
- * time while abstracting away the notion of funnels, etc.
+ * A bloom filter that makes it easy to add one or more {@link Byteable}
+ * objects to the filter at a time.
+ * <p>
+ * The bits of the filter are stored in a raw array of longs. When the filter
+ * is {@link #sync() synced}, the array is written to disk after a small header
+ * (i.e. a marker, the format version, the number of hash functions and the
+ * number of longs), so a filter that is {@link #open(String) opened} is
+ * memory mapped and queried in place instead of being deserialized onto the
+ * heap. An opened filter is read-only.
+ * </p>
+ * <p>
+ * The bits for each element are chosen the same way as a
+ * {@link com.google.common.hash.BloomFilter} (i.e. double hashing with
+ * 128-bit murmur3), so the filter has the same false positive probability.
  * </p>
  * 
  * @author Jeff Nelson
@@ -55,7 +68,7 @@ public class BloomFilter implements Syncable {
      * Note that overflowing a BloomFilter with significantly more elements than
      * specified, will result in its saturation, and a sharp deterioration of
      * its false positive probability (source:
-     * {@link BloomFilter#create(com.google.common.hash.Funnel, int)})
+     * {@link com.google.common.hash.BloomFilter#create(com.google.common.hash.Funnel, int)})
      * <p>
      * 
      * @param expectedInsertions
@@ -72,7 +85,7 @@ public class BloomFilter implements Syncable {
      * Note that overflowing a BloomFilter with significantly more elements than
      * specified, will result in its saturation, and a sharp deterioration of
      * its false positive probability (source:
-     * {@link BloomFilter#create(com.google.common.hash.Funnel, int)})
+     * {@link com.google.common.hash.BloomFilter#create(com.google.common.hash.Funnel, int)})
      * <p>
      * 
      * @param file
@@ -84,55 +97,102 @@ public class BloomFilter implements Syncable {
     }
 
     /**
-     * Return the BloomFilter that is stored on disk in {@code file}.
+     * Return the BloomFilter that is stored on disk in {@code file}. The
+     * returned filter is memory mapped and cannot be modified.
+     * <p>
+     * If the file is truncated or was not written in the current format (i.e.
+     * it was written by a version that used Java serialization), a
+     * {@link RuntimeException} that is caused by an {@link EOFException} or
+     * {@link StreamCorruptedException} is thrown so the caller can rebuild the
+     * filter.
+     * </p>
      * 
      * @param file
      * @return the BloomFilter
      */
-    @SuppressWarnings({ "unchecked" })
     public static BloomFilter open(String file) {
+        MappedByteBuffer bytes = FileSystem.map(file, MapMode.READ_ONLY, 0,
+                FileSystem.getFileSize(file));
         try {
-            final AtomicBoolean upgrade = new AtomicBoolean(false);
-            ObjectInput input = new ObjectInputStream(new BufferedInputStream(
-                    new FileInputStream(FileSystem.openFile(file)))) {
-
-                // In v0.3.0 the ByteableFunnel class was moved to a different
-                // package, so we must translate any old data that exists.
-                // TODO: remove this check if a post 0.3 version
-                @Override
-                protected ObjectStreamClass readClassDescriptor()
-                        throws IOException, ClassNotFoundException {
-                    ObjectStreamClass read = super.readClassDescriptor();
-                    if(read.getName()
-                            .equals("org.cinchapi.concourse.server.storage.ByteableFunnel")) {
-                        upgrade.set(true);
-                        return ObjectStreamClass.lookup(ByteableFunnel.class);
-                    }
-                    return read;
-                }
-
-            };
-            BloomFilter filter = new BloomFilter(file,
-                    (com.google.common.hash.BloomFilter<Composite>) input
-                            .readObject());
-            input.close();
-            if(upgrade.get()) {
-                filter.sync();
+            if(bytes.capacity() < HEADER_SIZE) {
+                throw new EOFException("The bloom filter in " + file
+                        + " is truncated");
             }
-            return filter;
+            if(bytes.getInt(0) != MAGIC || bytes.getInt(4) != VERSION) {
+                throw new StreamCorruptedException("The bloom filter in "
+                        + file + " is not in a supported format");
+            }
+            int numHashFunctions = bytes.getInt(8);
+            int numWords = bytes.getInt(12);
+            if(bytes.capacity() < HEADER_SIZE + (long) numWords * 8) {
+                throw new EOFException("The bloom filter in " + file
+                        + " is truncated");
+            }
+            bytes.position(HEADER_SIZE);
+            bytes.limit(HEADER_SIZE + numWords * 8);
+            return new BloomFilter(file, bytes, bytes.slice().asLongBuffer(),
+                    numHashFunctions);
         }
         catch (IOException e) {
+            FileSystem.unmap(bytes);
             throw Throwables.propagate(e);
         }
-        catch (ClassNotFoundException e) {
-            throw Throwables.propagate(e);
-        }
     }
 
+    /**
+     * Return the 64 bit hash of {@code composite} that is used to choose its
+     * bits.
+     * 
+     * @param composite
+     * @return the hash
+     */
+    private static long hash(Composite composite) {
+        return Hashing.murmur3_128()
+                .hashBytes(ByteBuffers.toByteArray(composite.getBytes()))
+                .asLong();
+    }
+
+    /**
+     * The marker at the beginning of a filter that is stored in the current
+     * format.
+     */
+    private static final int MAGIC = 0x62666c74;
+
+    /**
+     * The version of the on disk format.
+     */
+    private static final int VERSION = 1;
+
+    /**
+     * The number of bytes before the bits in the on disk format: the
+     * {@link #MAGIC} marker (4), the {@link #VERSION} (4), the number of hash
+     * functions (4) and the number of longs in the bit array (4).
+     */
+    private static final int HEADER_SIZE = 16;
+
+    /**
+     * The false positive probability that is used to size new filters.
+     */
+    private static final double FALSE_POSITIVE_PROBABILITY = 0.03;
+
+    /**
+     * The bits of the filter, which are either on the heap or memory mapped
+     * from the {@link #file}.
+     */
+    private final LongBuffer bits;
+
     /**
      * The file where the content is stored.
      */
-    private String file;
+    @Nullable
+    private final String file;
+
+    /**
+     * The memory mapping of the {@link #file} that backs the {@link #bits} or
+     * {@code null} if the bits are on the heap.
+     */
+    @Nullable
+    private MappedByteBuffer mapped;
 
     /**
      * Lock used to ensure the object is ThreadSafe. This lock provides access
@@ -141,9 +201,14 @@ public class BloomFilter implements Syncable {
     private final StampedLock lock = new StampedLock();
 
     /**
-     * The wrapped bloom filter. This is where the data is actually stored.
+     * The number of bits in the filter.
+     */
+    private final long numBits;
+
+    /**
+     * The number of bits that are set for each element.
      */
-    private final com.google.common.hash.BloomFilter<Composite> source;
+    private final int numHashFunctions;
 
     /**
      * A flag that indicates if this BloomFilter instance does locking and is
@@ -157,24 +222,34 @@ public class BloomFilter implements Syncable {
      * Construct a new instance.
      * 
      * @param file
-     * @param source
+     * @param expectedInsertions
      */
-    private BloomFilter(String file,
-            com.google.common.hash.BloomFilter<Composite> source) {
-        this.source = source;
+    private BloomFilter(@Nullable String file, int expectedInsertions) {
+        long n = Math.max(1, expectedInsertions);
+        long m = (long) (-n * Math.log(FALSE_POSITIVE_PROBABILITY) / (Math
+                .log(2) * Math.log(2)));
+        this.bits = LongBuffer.allocate((int) Math.max(1, (m + 63) / 64));
+        this.numBits = (long) bits.capacity() * 64;
+        this.numHashFunctions = Math.max(1,
+                (int) Math.round((double) m / n * Math.log(2)));
         this.file = file;
+        this.mapped = null;
     }
 
     /**
      * Construct a new instance.
      * 
-     * @param expectedInsertions
+     * @param file
+     * @param mapped
+     * @param bits
+     * @param numHashFunctions
      */
-    private BloomFilter(String file, int expectedInsertions) {
-        this.source = com.google.common.hash.BloomFilter.create(
-                ByteableFunnel.INSTANCE, expectedInsertions); // uses 3% false
-                                                              // positive
-                                                              // probability
+    private BloomFilter(String file, MappedByteBuffer mapped, LongBuffer bits,
+            int numHashFunctions) {
+        this.mapped = mapped;
+        this.bits = bits;
+        this.numBits = (long) bits.capacity() * 64;
+        this.numHashFunctions = numHashFunctions;
         this.file = file;
     }
 
@@ -226,9 +301,18 @@ public class BloomFilter implements Syncable {
     }
 
     /**
-     * <p>
-     * <strong>Copied from {@link BloomFilter#put(Object)}.</strong>
-     * </p>
+     * Release the memory mapping of the {@link #file} if this filter was
+     * {@link #open(String) opened} from disk. The filter must not be used
+     * after this method is called.
+     */
+    public void unmap() {
+        if(mapped != null) {
+            FileSystem.unmap(mapped);
+            mapped = null;
+        }
+    }
+
+    /**
      * Puts {@link byteables} into this BloomFilter as a single element.
      * Ensures that subsequent invocations of {@link #mightContain(Byteable...)}
      * with the same elements will always return true.
@@ -247,9 +331,6 @@ public class BloomFilter implements Syncable {
     }
 
     /**
-     * <p>
-     * <strong>Copied from {@link BloomFilter#put(Object)}.</strong>
-     * </p>
      * Puts {@link byteables} into this BloomFilter as a single element with
      * support for caching Ensures that subsequent invocations of
      * {@link #mightContainCached(Byteable...)} with the same elements will
@@ -276,40 +357,66 @@ public class BloomFilter implements Syncable {
     public void sync() {
         Preconditions.checkState(file != null, "Cannot sync a "
                 + "BloomFilter that does not have an associated file");
-        FileChannel channel = FileSystem.getFileChannel(file);
+        ByteBuffer bytes = ByteBuffer.allocate(HEADER_SIZE + bits.capacity()
+                * 8);
         long stamp = lock.tryOptimisticRead();
-        Serializables.write(source, channel); // CON-164
+        copyTo(bytes);
         if(!lock.validate(stamp)) {
             stamp = lock.readLock();
             try {
-                channel.position(0);
-                Serializables.write(source, channel); // CON-164
-            }
-            catch (IOException e) {
-                throw Throwables.propagate(e);
+                copyTo(bytes);
             }
             finally {
                 lock.unlockRead(stamp);
             }
         }
-        FileSystem.closeFileChannel(channel);
+        FileChannel channel = FileSystem.getFileChannel(file);
+        try {
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+        }
+        catch (IOException e) {
+            throw Throwables.propagate(e);
+        }
+        finally {
+            FileSystem.closeFileChannel(channel);
+        }
     }
 
     /**
-     * Check the backing bloom filter to see if the composite might have been
-     * added.
+     * Write the header and the bits of this filter to {@code bytes} and
+     * rewind it.
+     * 
+     * @param bytes
+     */
+    private void copyTo(ByteBuffer bytes) {
+        bytes.clear();
+        bytes.putInt(MAGIC);
+        bytes.putInt(VERSION);
+        bytes.putInt(numHashFunctions);
+        bytes.putInt(bits.capacity());
+        LongBuffer words = bits.duplicate();
+        words.clear();
+        bytes.asLongBuffer().put(words);
+        bytes.rewind();
+    }
+
+    /**
+     * Check the bits to see if the composite might have been added.
      * 
      * @param composite
      * @return {@code true} if the composite might exist
      */
     private boolean mightContain(Composite composite) {
+        long hash = hash(composite);
         if(threadSafe) {
             long stamp = lock.tryOptimisticRead();
-            boolean mightContain = source.mightContain(composite);
+            boolean mightContain = mightContain(hash);
             if(!lock.validate(stamp)) {
                 stamp = lock.readLock();
                 try {
-                    mightContain = source.mightContain(composite);
+                    mightContain = mightContain(hash);
                 }
                 finally {
                     lock.unlockRead(stamp);
@@ -318,30 +425,81 @@ public class BloomFilter implements Syncable {
             return mightContain;
         }
         else {
-            return source.mightContain(composite);
+            return mightContain(hash);
         }
     }
 
     /**
-     * Place the {@code composite} in the backing bloom filter.
+     * Return {@code true} if all the bits for the element with {@code hash}
+     * are set.
+     * 
+     * @param hash
+     * @return {@code true} if the element might exist
+     */
+    private boolean mightContain(long hash) {
+        int hash1 = (int) hash;
+        int hash2 = (int) (hash >>> 32);
+        for (int i = 1; i <= numHashFunctions; ++i) {
+            int combined = hash1 + (i * hash2);
+            if(combined < 0) {
+                combined = ~combined;
+            }
+            long index = combined % numBits;
+            if((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Set the bits for the {@code composite}.
      * 
      * @param composite
      * @return {@code true} if the bits have changed as a result of the addition
      *         of the {@code composite}
      */
     private boolean put(Composite composite) {
+        long hash = hash(composite);
         if(threadSafe) {
             long stamp = lock.writeLock();
             try {
-                return source.put(composite);
+                return put(hash);
             }
             finally {
                 lock.unlockWrite(stamp);
             }
         }
         else {
-            return source.put(composite);
+            return put(hash);
+        }
+    }
+
+    /**
+     * Set all the bits for the element with {@code hash}.
+     * 
+     * @param hash
+     * @return {@code true} if any of the bits changed
+     */
+    private boolean put(long hash) {
+        int hash1 = (int) hash;
+        int hash2 = (int) (hash >>> 32);
+        boolean changed = false;
+        for (int i = 1; i <= numHashFunctions; ++i) {
+            int combined = hash1 + (i * hash2);
+            if(combined < 0) {
+                combined = ~combined;
+            }
+            long index = combined % numBits;
+            int word = (int) (index >>> 6);
+            long value = bits.get(word);
+            long mask = 1L << index;
+            if((value & mask) == 0) {
+                bits.put(word, value | mask);
+                changed = true;
+            }
         }
+        return changed;
     }
 
 }
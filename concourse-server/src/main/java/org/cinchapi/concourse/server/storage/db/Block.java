@@ -26,6 +26,8 @@ import java.nio.channels.FileChannel;
 import java.nio.channels.FileChannel.MapMode;
 import java.util.Comparator;
 import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock.ReadLock;
@@ -50,8 +52,14 @@ import org.cinchapi.concourse.util.Logger;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Throwables;
 import com.google.common.collect.ComparisonChain;
+import com.google.common.collect.Iterators;
+import com.google.common.collect.Lists;
+import com.google.common.collect.PeekingIterator;
 import com.google.common.collect.SortedMultiset;
 import com.google.common.collect.TreeMultiset;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.util.concurrent.RateLimiter;
 
 /**
  * <p>
@@ -139,24 +147,37 @@ abstract class Block<L extends Byteable & Comparable<L>, K extends Byteable & Co
         return FileSystem.getSimpleName(filename);
     }
 
+    /**
+     * The approximate number of bytes in a block for each distinct insertion
+     * into its bloom filter. Revisions are usually larger, but they share
+     * most of their locators and locator/key pairs with other revisions.
+     */
+    private static final int BYTES_PER_INSERTION = 16; /* arbitrary */
+
     /**
      * The expected number of Block insertions. This number is used to size the
      * Block's internal data structures. This value should be large enough to
      * reflect the fact that, for each revision, we make 3 inserts into the
      * bloom filter, but no larger than necessary since we must keep all bloom
-     * filters in memory.
+     * filters in memory. The Database syncs its current blocks once they reach
+     * {@link GlobalState#DATABASE_BLOCK_SIZE} bytes, so the value is derived
+     * from that target instead of the size of a Buffer page.
      */
-    private static final int EXPECTED_INSERTIONS = GlobalState.BUFFER_PAGE_SIZE;
+    private static final int EXPECTED_INSERTIONS = (int) Math.min(
+            Integer.MAX_VALUE, Math.max(GlobalState.BUFFER_PAGE_SIZE,
+                    GlobalState.DATABASE_BLOCK_SIZE / BYTES_PER_INSERTION));
 
     /**
      * The extension for the {@link BloomFilter} file.
      */
-    private static final String FILTER_NAME_EXTENSION = ".fltr";
+    @PackagePrivate
+    static final String FILTER_NAME_EXTENSION = ".fltr";
 
     /**
      * The extension for the {@link BlockIndex} file.
      */
-    private static final String INDEX_NAME_EXTENSION = ".indx";
+    @PackagePrivate
+    static final String INDEX_NAME_EXTENSION = ".indx";
 
     /**
      * The extension for the block file.
@@ -169,11 +190,21 @@ abstract class Block<L extends Byteable & Comparable<L>, K extends Byteable & Co
      */
     private final String file;
 
+    /**
+     * The MD5 checksum of the block file, which is computed when the Block is
+     * synced or merged, or {@code null} if it is not known.
+     */
+    @Nullable
+    private volatile String checksum = null;
+
     /**
      * A fixed size filter that is used to test whether elements are contained
-     * in the Block without actually looking through the Block.
+     * in the Block without actually looking through the Block. The filter for
+     * a Block that is loaded from disk is not read until it is first needed
+     * (see {@link #filter()}), so it is {@code null} until then.
      */
-    private BloomFilter filter;
+    @Nullable
+    private volatile BloomFilter filter;
 
     /**
      * The unique id for the block. Each component of the block is named after
@@ -277,14 +308,7 @@ abstract class Block<L extends Byteable & Comparable<L>, K extends Byteable & Co
         if(diskLoad) {
             this.mutable = false;
             this.size = (int) FileSystem.getFileSize(this.file);
-            try {
-                this.filter = BloomFilter.open(directory + File.separator + id
-                        + FILTER_NAME_EXTENSION);
-                filter.disableThreadSafety();
-            }
-            catch (RuntimeException e) {
-                repair(e);
-            }
+            this.filter = null; // lazily loaded in #filter()
             this.index = BlockIndex.open(directory + File.separator + id
                     + INDEX_NAME_EXTENSION);
             this.revisions = null;
@@ -317,41 +341,7 @@ abstract class Block<L extends Byteable & Comparable<L>, K extends Byteable & Co
                 buffer.putInt(revision.size());
                 revision.copyTo(buffer);
                 position = buffer.position() - revision.size() - 4;
-                /*
-                 * States that trigger this condition to be true:
-                 * 1. This is the first locator we've seen
-                 * 2. This locator is different than the last one we've seen
-                 */
-                if(locator == null || !locator.equals(revision.getLocator())) {
-                    index.putStart(position, revision.getLocator());
-                    if(locator != null) {
-                        // There was a locator before us (we are not the first!)
-                        // and we need to record the end index.
-                        index.putEnd(position - 1, locator);
-                    }
-                }
-                /*
-                 * NOTE: IF key == null, then it must be the case that locator
-                 * == null since they are set at the same time. Therefore we do
-                 * not need to explicitly check for that condition below
-                 * 
-                 * States that trigger this condition to be true:
-                 * 1. This is the first key we've seen
-                 * 2. This key is different than the last one we've seen
-                 * (regardless of whether the locator is different or the same!)
-                 * 3. This key is the same as the last one we've seen, but the
-                 * locator is different.
-                 */
-                if(key == null || !key.equals(revision.getKey())
-                        || !locator.equals(revision.getLocator())) {
-                    index.putStart(position, revision.getLocator(),
-                            revision.getKey());
-                    if(key != null) {
-                        // There was a locator, key before us (we are not the
-                        // first!) and we need to record the end index.
-                        index.putEnd(position - 1, locator, key);
-                    }
-                }
+                index(revision, position, locator, key);
                 locator = revision.getLocator();
                 key = revision.getKey();
             }
@@ -392,6 +382,18 @@ abstract class Block<L extends Byteable & Comparable<L>, K extends Byteable & Co
         }
     }
 
+    /**
+     * Return the MD5 checksum of the block file if it was computed when this
+     * Block was {@link #sync() synced} or {@link #merge(List, RateLimiter)
+     * merged}, otherwise return {@code null}.
+     * 
+     * @return the checksum
+     */
+    @Nullable
+    public String getChecksum() {
+        return checksum;
+    }
+
     /**
      * Return the block id.
      * 
@@ -443,6 +445,16 @@ abstract class Block<L extends Byteable & Comparable<L>, K extends Byteable & Co
         }
     }
 
+    /**
+     * Return {@code true} if this Block is mutable and can accept new
+     * revisions. A Block is mutable until it is synced to disk.
+     *
+     * @return {@code true} if the Block is mutable
+     */
+    public boolean isMutable() {
+        return mutable;
+    }
+
     /**
      * {@inheritDoc}
      * <p>
@@ -482,6 +494,147 @@ abstract class Block<L extends Byteable & Comparable<L>, K extends Byteable & Co
         };
     }
 
+    /**
+     * Merge all the revisions from each of the immutable {@code blocks} into
+     * this Block and sync it to disk so that this Block becomes immutable.
+     * <p>
+     * The merge streams the revisions from each of the source blocks in sorted
+     * order and writes them directly to the block file (along with the filter
+     * and index) so its memory footprint does not depend on the number of
+     * revisions that are merged. If a {@code throttle} is provided, it is
+     * used to limit the rate (in bytes per second) at which data is written.
+     * </p>
+     * <p>
+     * This Block must be mutable and empty when this method is called and the
+     * source blocks are not modified, so it is the responsibility of the caller
+     * to remove them, if desired.
+     * </p>
+     *
+     * @param blocks
+     * @param throttle
+     */
+    public void merge(List<? extends Block<L, K, V>> blocks,
+            @Nullable RateLimiter throttle) {
+        write.lock();
+        try {
+            Preconditions.checkState(mutable && sizeImpl() == 0,
+                    "Cannot merge into a block that is not mutable and empty");
+            long expectedSize = 0;
+            List<MappedByteBuffer> sources = Lists.newArrayList();
+            PriorityQueue<PeekingIterator<Revision<L, K, V>>> heads = new PriorityQueue<PeekingIterator<Revision<L, K, V>>>(
+                    Math.max(1, blocks.size()), HeadSorter.INSTANCE);
+            for (Block<L, K, V> block : blocks) {
+                Preconditions.checkArgument(!block.mutable,
+                        "Cannot merge %s because it is mutable", block);
+                expectedSize += block.size();
+                MappedByteBuffer bytes = FileSystem.map(block.file,
+                        MapMode.READ_ONLY, 0, FileSystem.getFileSize(block.file));
+                sources.add(bytes);
+                final Class<? extends Revision<L, K, V>> clazz = block
+                        .xRevisionClass();
+                final Iterator<ByteBuffer> it = ByteableCollections
+                        .iterator(bytes);
+                PeekingIterator<Revision<L, K, V>> head = Iterators
+                        .peekingIterator(new Iterator<Revision<L, K, V>>() {
+
+                            @Override
+                            public boolean hasNext() {
+                                return it.hasNext();
+                            }
+
+                            @Override
+                            public Revision<L, K, V> next() {
+                                return Byteables.read(it.next(), clazz);
+                            }
+
+                            @Override
+                            public void remove() {
+                                throw new UnsupportedOperationException();
+                            }
+
+                        });
+                if(head.hasNext()) {
+                    heads.add(head);
+                }
+            }
+            Preconditions.checkArgument(expectedSize <= Integer.MAX_VALUE,
+                    "Cannot merge more than %s bytes into a single block",
+                    Integer.MAX_VALUE);
+            // The filter for a regular block is sized based on the number of
+            // bytes in a Buffer page, so we use the same heuristic here
+            // based on the number of bytes that are being merged.
+            filter = BloomFilter.create(
+                    file.replace(BLOCK_NAME_EXTENSION, FILTER_NAME_EXTENSION),
+                    (int) Math.max(EXPECTED_INSERTIONS, expectedSize));
+            FileChannel channel = FileSystem.getFileChannel(file);
+            Hasher hasher = Hashing.md5().newHasher();
+            try {
+                ByteBuffer chunk = ByteBuffer
+                        .allocate(GlobalState.BUFFER_PAGE_SIZE);
+                L locator = null;
+                K key = null;
+                int position = 0;
+                while (!heads.isEmpty()) {
+                    PeekingIterator<Revision<L, K, V>> head = heads.poll();
+                    Revision<L, K, V> revision = head.next();
+                    if(head.hasNext()) {
+                        heads.add(head);
+                    }
+                    int length = revision.size() + 4;
+                    if(chunk.remaining() < length) {
+                        chunk.flip();
+                        hasher.putBytes(chunk.array(), 0, chunk.limit());
+                        channel.write(chunk);
+                        chunk = chunk.capacity() < length ? ByteBuffer
+                                .allocate(length) : chunk;
+                        chunk.clear();
+                    }
+                    chunk.putInt(revision.size());
+                    revision.copyTo(chunk);
+                    index(revision, position, locator, key);
+                    filter.put(revision.getLocator());
+                    filter.put(revision.getLocator(), revision.getKey());
+                    filter.put(revision.getLocator(), revision.getKey(),
+                            revision.getValue());
+                    locator = revision.getLocator();
+                    key = revision.getKey();
+                    position += length;
+                    if(throttle != null) {
+                        throttle.acquire(length);
+                    }
+                }
+                chunk.flip();
+                hasher.putBytes(chunk.array(), 0, chunk.limit());
+                channel.write(chunk);
+                if(position > 0) {
+                    index.putEnd(position - 1, locator);
+                    index.putEnd(position - 1, locator, key);
+                }
+                channel.force(true);
+                checksum = hasher.hash().toString();
+                size = position;
+                atomicSize.set(position);
+                mutable = false;
+                filter.sync();
+                index.sync();
+                revisions = null;
+                filter.disableThreadSafety();
+            }
+            finally {
+                FileSystem.closeFileChannel(channel);
+                for (MappedByteBuffer bytes : sources) {
+                    FileSystem.unmap(bytes);
+                }
+            }
+        }
+        catch (IOException e) {
+            throw Throwables.propagate(e);
+        }
+        finally {
+            write.unlock();
+        }
+    }
+
     /**
      * Return {@code true} if this Block might contain revisions involving
      * {@code key} as {@code value} in {@code locator}. This method <em>may</em>
@@ -498,7 +651,7 @@ abstract class Block<L extends Byteable & Comparable<L>, K extends Byteable & Co
     public boolean mightContain(L locator, K key, V value) {
         Locks.lockIfCondition(read, mutable);
         try {
-            return filter.mightContain(locator, key, value);
+            return filter().mightContain(locator, key, value);
         }
         finally {
             Locks.unlockIfCondition(read, mutable);
@@ -554,7 +707,9 @@ abstract class Block<L extends Byteable & Comparable<L>, K extends Byteable & Co
             if(mutable && sizeImpl() > 0) {
                 mutable = false;
                 FileChannel channel = FileSystem.getFileChannel(file);
-                channel.write(getBytes());
+                ByteBuffer bytes = getBytes();
+                checksum = Hashing.md5().hashBytes(bytes.array()).toString();
+                channel.write(bytes);
                 channel.force(true);
                 filter.sync();
                 index.sync();
@@ -585,6 +740,100 @@ abstract class Block<L extends Byteable & Comparable<L>, K extends Byteable & Co
         return getClass().getSimpleName() + " " + id;
     }
 
+    /**
+     * Release the memory mappings of the {@link #filter} and {@link #index}.
+     * This should only be called once the Block has been removed from the
+     * {@link Database} and can no longer be reached by a read.
+     */
+    public void unmap() {
+        synchronized (this) {
+            BloomFilter filter = this.filter;
+            if(filter != null) {
+                filter.unmap();
+                this.filter = null;
+            }
+        }
+        index.unmap();
+    }
+
+    /**
+     * Return the {@link #filter}, loading it from disk if this is the first
+     * time it is needed since the Block was loaded. Deferring the load means
+     * that starting the Database doesn't require reading every filter and the
+     * filters for blocks that are never queried are never read.
+     * 
+     * @return the filter
+     */
+    private BloomFilter filter() {
+        BloomFilter filter = this.filter;
+        if(filter == null) {
+            synchronized (this) {
+                filter = this.filter;
+                if(filter == null) {
+                    try {
+                        filter = BloomFilter.open(file.replace(
+                                BLOCK_NAME_EXTENSION, FILTER_NAME_EXTENSION));
+                    }
+                    catch (RuntimeException e) {
+                        filter = repair(e);
+                    }
+                    filter.disableThreadSafety();
+                    this.filter = filter;
+                }
+            }
+        }
+        return filter;
+    }
+
+    /**
+     * Record the start position of {@code revision} in the {@link #index} if it
+     * is the first one for its locator and/or locator/key pair and record the
+     * end position for the previous {@code locator} and/or {@code key}, if
+     * necessary.
+     *
+     * @param revision
+     * @param position - the position of {@code revision} in the block file
+     * @param locator - the locator of the previously indexed revision
+     * @param key - the key of the previously indexed revision
+     */
+    private void index(Revision<L, K, V> revision, int position,
+            @Nullable L locator, @Nullable K key) {
+        /*
+         * States that trigger this condition to be true:
+         * 1. This is the first locator we've seen
+         * 2. This locator is different than the last one we've seen
+         */
+        if(locator == null || !locator.equals(revision.getLocator())) {
+            index.putStart(position, revision.getLocator());
+            if(locator != null) {
+                // There was a locator before us (we are not the first!)
+                // and we need to record the end index.
+                index.putEnd(position - 1, locator);
+            }
+        }
+        /*
+         * NOTE: IF key == null, then it must be the case that locator
+         * == null since they are set at the same time. Therefore we do
+         * not need to explicitly check for that condition below
+         *
+         * States that trigger this condition to be true:
+         * 1. This is the first key we've seen
+         * 2. This key is different than the last one we've seen
+         * (regardless of whether the locator is different or the same!)
+         * 3. This key is the same as the last one we've seen, but the
+         * locator is different.
+         */
+        if(key == null || !key.equals(revision.getKey())
+                || !locator.equals(revision.getLocator())) {
+            index.putStart(position, revision.getLocator(), revision.getKey());
+            if(key != null) {
+                // There was a locator, key before us (we are not the
+                // first!) and we need to record the end index.
+                index.putEnd(position - 1, locator, key);
+            }
+        }
+    }
+
     /**
      * Attempt to repair the Block from the symptoms of the specified exception.
      * Generally speaking, a repair is only possible if the exception pertains
@@ -595,8 +844,9 @@ abstract class Block<L extends Byteable & Comparable<L>, K extends Byteable & Co
      * 
      * @param e - the {@link RuntimeException} that was caught indicates what
      *            error needs to be repaired.
+     * @return the repaired filter
      */
-    private void repair(RuntimeException e) {
+    private BloomFilter repair(RuntimeException e) {
         if(e.getCause() != null
                 && (e.getCause() instanceof EOFException || e.getCause() instanceof StreamCorruptedException)) {
             String target = file.replace(BLOCK_NAME_EXTENSION,
@@ -604,7 +854,8 @@ abstract class Block<L extends Byteable & Comparable<L>, K extends Byteable & Co
             String backup = target + ".bak";
             FileSystem.copyBytes(target, backup);
             FileSystem.deleteFile(target);
-            filter = BloomFilter.create(target, EXPECTED_INSERTIONS);
+            BloomFilter filter = BloomFilter.create(target,
+                    Math.max(EXPECTED_INSERTIONS, sizeImpl()));
             MappedByteBuffer bytes = FileSystem.map(file, MapMode.READ_ONLY, 0,
                     FileSystem.getFileSize(file));
             Iterator<ByteBuffer> it = ByteableCollections.iterator(bytes);
@@ -618,9 +869,11 @@ abstract class Block<L extends Byteable & Comparable<L>, K extends Byteable & Co
             }
             filter.sync();
             FileSystem.deleteFile(backup);
-            Logger.warn("Found and repaired a corrupted bloom "
-                    + "filter for {} {}", this.getClass().getSimpleName(), id);
+            Logger.warn("Rebuilt the bloom filter for {} {} because it was "
+                    + "corrupted or written in an older format: {}", this
+                    .getClass().getSimpleName(), id, e.getCause().getMessage());
             FileSystem.unmap(bytes);
+            return filter;
         }
         else {
             throw e;
@@ -638,7 +891,7 @@ abstract class Block<L extends Byteable & Comparable<L>, K extends Byteable & Co
     private void seek(Record<L, K, V> record, Byteable... byteables) {
         Locks.lockIfCondition(read, mutable);
         try {
-            if(filter.mightContain(byteables)) {
+            if(filter().mightContain(byteables)) {
                 SortedMultiset<Revision<L, K, V>> revisions = softRevisions
                         .get();
                 if(revisions != null) {
@@ -672,12 +925,19 @@ abstract class Block<L extends Byteable & Comparable<L>, K extends Byteable & Co
                                 MapMode.READ_ONLY, start, length);
                         Iterator<ByteBuffer> it = ByteableCollections
                                 .iterator(bytes);
+                        boolean checkSecond = byteables.length > 1;
                         while (it.hasNext()) {
                             Revision<L, K, V> revision = Byteables.read(
                                     it.next(), xRevisionClass());
-                            Logger.debug("Attempting to append {} from {} to "
-                                    + "{}", revision, this, record);
-                            record.append(revision);
+                            // The index may share a range between keys whose
+                            // hashes collide, so skip unrelated revisions
+                            if(revision.getLocator().equals(byteables[0])
+                                    && (!checkSecond || revision.getKey()
+                                            .equals(byteables[1]))) {
+                                Logger.debug("Attempting to append {} from {} "
+                                        + "to {}", revision, this, record);
+                                record.append(revision);
+                            }
                         }
                     }
                 }
@@ -698,6 +958,15 @@ abstract class Block<L extends Byteable & Comparable<L>, K extends Byteable & Co
         return concurrent ? atomicSize.get() : size;
     }
 
+    /**
+     * Return {@code true} if the {@link #filter} for this Block is in memory.
+     * 
+     * @return {@code true} if the filter is loaded
+     */
+    protected boolean isFilterLoaded() { // visible for testing
+        return filter != null;
+    }
+
     /**
      * Return the backing store to hold revisions that are placed in this Block.
      * This is only relevant to use when the Block is {@link #mutable} and not
@@ -824,4 +1093,23 @@ abstract class Block<L extends Byteable & Comparable<L>, K extends Byteable & Co
         }
 
     }
+
+    /**
+     * A Comparator that sorts the heads of the iterators over each of the
+     * blocks that are being {@link Block#merge(List, RateLimiter) merged}
+     * using the {@link Sorter} order of the next Revision in each.
+     * 
+     * @author Jeff Nelson
+     */
+    @SuppressWarnings("rawtypes")
+    private enum HeadSorter implements Comparator<PeekingIterator<? extends Revision>> {
+        INSTANCE;
+
+        @Override
+        public int compare(PeekingIterator<? extends Revision> o1,
+                PeekingIterator<? extends Revision> o2) {
+            return Sorter.INSTANCE.compare(o1.peek(), o2.peek());
+        }
+
+    }
 }
@@ -16,24 +16,32 @@
 package org.cinchapi.concourse.server.storage.db;
 
 import java.io.IOException;
-import java.lang.ref.SoftReference;
 import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel;
 import java.nio.channels.FileChannel.MapMode;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
+import javax.annotation.Nullable;
+
 import org.cinchapi.concourse.server.io.Byteable;
 import org.cinchapi.concourse.server.io.ByteableCollections;
 import org.cinchapi.concourse.server.io.Composite;
 import org.cinchapi.concourse.server.io.FileSystem;
 import org.cinchapi.concourse.server.io.Syncable;
 import org.cinchapi.concourse.util.ByteBuffers;
+import org.cinchapi.concourse.util.Logger;
 
 import com.google.common.base.Preconditions;
 import com.google.common.base.Throwables;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.hash.Hashing;
 
 /**
  * A reference that stores the start and end position for sequences of bytes
@@ -41,6 +49,16 @@ import com.google.common.collect.Maps;
  * objects. A BlockIndex is associated with each {@link Block} to determine
  * where to look on disk for a particular {@code locator} or {@code locator}/
  * {@code key} pair.
+ * <p>
+ * On disk, the index is a small header (i.e. a marker, the format version and
+ * the number of entries) followed by a fixed size slot for each entry that
+ * holds the 64 bit hash of its key and its start and end positions. The slots
+ * are sorted by hash, so a synced index is memory mapped and binary searched
+ * in place instead of being read into a map on the heap. In the rare case
+ * that two keys have the same hash, they share a slot that spans both of
+ * their ranges, so callers must check that the bytes they read at the
+ * positions actually relate to the key they are looking for.
+ * </p>
  * 
  * @author Jeff Nelson
  */
@@ -67,13 +85,49 @@ public class BlockIndex implements Byteable, Syncable {
         return new BlockIndex(file);
     }
 
+    /**
+     * Return the 64 bit hash of {@code composite} that is stored in its slot.
+     * 
+     * @param composite
+     * @return the hash
+     */
+    private static long hash(Composite composite) {
+        return Hashing.murmur3_128()
+                .hashBytes(ByteBuffers.toByteArray(composite.getBytes()))
+                .asLong();
+    }
+
     /**
      * Represents an entry that has not been recorded.
      */
     public static final int NO_ENTRY = -1;
 
     /**
-     * The entries contained in the index.
+     * The marker at the beginning of an index that is stored in the current
+     * format.
+     */
+    private static final int MAGIC = 0x62696478;
+
+    /**
+     * The version of the on disk format.
+     */
+    private static final int VERSION = 1;
+
+    /**
+     * The number of bytes before the slots in the on disk format: the
+     * {@link #MAGIC} marker (4), the {@link #VERSION} (4), the number of slots
+     * (4) and 4 bytes of padding so that the slots are aligned.
+     */
+    private static final int HEADER_SIZE = 16;
+
+    /**
+     * The number of bytes in each slot: the hash (8), the start (4) and the
+     * end (4).
+     */
+    private static final int SLOT_SIZE = 16;
+
+    /**
+     * The entries contained in the index while it is mutable.
      */
     private Map<Composite, Entry> entries;
 
@@ -97,13 +151,14 @@ public class BlockIndex implements Byteable, Syncable {
     /**
      * The running size of the index in bytes.
      */
-    private transient int size = 0;
+    private transient int size = HEADER_SIZE;
 
     /**
-     * A {@link SoftReference} to the entries contained in the index that is
-     * used to reduce memory overhead.
+     * The memory mapped content of the {@link #file}, which is lazily mapped
+     * the first time an immutable index is queried.
      */
-    private SoftReference<Map<Composite, Entry>> softEntries;
+    @Nullable
+    private volatile MappedByteBuffer slots;
 
     /**
      * Lazily construct an existing instance from the data in {@code file}.
@@ -114,7 +169,7 @@ public class BlockIndex implements Byteable, Syncable {
         this.file = file;
         this.mutable = false;
         this.entries = null;
-        this.softEntries = null;
+        this.slots = null;
     }
 
     /**
@@ -125,7 +180,7 @@ public class BlockIndex implements Byteable, Syncable {
     private BlockIndex(String file, int expectedInsertions) {
         this.file = file;
         this.entries = Maps.newHashMapWithExpectedSize(expectedInsertions);
-        this.softEntries = null;
+        this.slots = null;
         this.mutable = true;
     }
 
@@ -136,7 +191,7 @@ public class BlockIndex implements Byteable, Syncable {
         try {
             ByteBuffer bytes = ByteBuffer.allocate(size());
             copyTo(bytes);
-            bytes.rewind();
+            bytes.flip();
             return bytes;
         }
         finally {
@@ -155,12 +210,14 @@ public class BlockIndex implements Byteable, Syncable {
         masterLock.readLock().lock();
         try {
             Composite composite = Composite.create(byteables);
-            Entry entry = entries().get(composite);
-            if(entry != null) {
-                return entry.getEnd();
+            if(mutable) {
+                Entry entry = entries.get(composite);
+                return entry != null ? entry.getEnd() : NO_ENTRY;
             }
             else {
-                return NO_ENTRY;
+                ByteBuffer slots = slots();
+                int slot = find(slots, hash(composite));
+                return slot >= 0 ? slots.getInt(slot + 12) : NO_ENTRY;
             }
         }
         finally {
@@ -179,12 +236,14 @@ public class BlockIndex implements Byteable, Syncable {
         masterLock.readLock().lock();
         try {
             Composite composite = Composite.create(byteables);
-            Entry entry = entries().get(composite);
-            if(entry != null) {
-                return entry.getStart();
+            if(mutable) {
+                Entry entry = entries.get(composite);
+                return entry != null ? entry.getStart() : NO_ENTRY;
             }
             else {
-                return NO_ENTRY;
+                ByteBuffer slots = slots();
+                int slot = find(slots, hash(composite));
+                return slot >= 0 ? slots.getInt(slot + 8) : NO_ENTRY;
             }
         }
         finally {
@@ -205,7 +264,7 @@ public class BlockIndex implements Byteable, Syncable {
         masterLock.writeLock().lock();
         try {
             Composite composite = Composite.create(byteables);
-            Entry entry = entries().get(composite);
+            Entry entry = entries.get(composite);
             Preconditions.checkState(entry != null,
                     "Cannot set the end position before setting "
                             + "the start position. Tried to put %s", end);
@@ -229,11 +288,11 @@ public class BlockIndex implements Byteable, Syncable {
         masterLock.writeLock().lock();
         try {
             Composite composite = Composite.create(byteables);
-            Entry entry = entries().get(composite);
+            Entry entry = entries.get(composite);
             if(entry == null) {
                 entry = new Entry(composite);
                 entries.put(composite, entry);
-                size += entry.size() + 4;
+                size += SLOT_SIZE;
             }
             entry.setStart(start);
         }
@@ -261,7 +320,6 @@ public class BlockIndex implements Byteable, Syncable {
         try {
             channel.write(getBytes());
             channel.force(true);
-            softEntries = new SoftReference<Map<Composite, Entry>>(entries);
             mutable = false;
             entries = null;
         }
@@ -274,15 +332,31 @@ public class BlockIndex implements Byteable, Syncable {
         }
     }
 
+    /**
+     * Release the memory mapping of the {@link #file}, if it is mapped. The
+     * file is mapped again if the index is queried afterwards.
+     */
+    public void unmap() {
+        masterLock.writeLock().lock();
+        try {
+            synchronized (this) {
+                if(slots != null) {
+                    FileSystem.unmap(slots);
+                    slots = null;
+                }
+            }
+        }
+        finally {
+            masterLock.writeLock().unlock();
+        }
+    }
+
     @Override
     public void copyTo(ByteBuffer buffer) {
         Preconditions.checkState(mutable);
         masterLock.readLock().lock();
         try {
-            for (Entry entry : entries.values()) {
-                buffer.putInt(entry.size());
-                entry.copyTo(buffer);
-            }
+            copyTo(entries.values(), buffer);
         }
         finally {
             masterLock.readLock().unlock();
@@ -298,8 +372,7 @@ public class BlockIndex implements Byteable, Syncable {
     protected boolean isLoaded() { // visible for testing
         masterLock.readLock().lock();
         try {
-            return mutable
-                    || (softEntries != null && softEntries.get() != null);
+            return mutable || slots != null;
         }
         finally {
             masterLock.readLock().unlock();
@@ -307,39 +380,114 @@ public class BlockIndex implements Byteable, Syncable {
     }
 
     /**
-     * Return the entries in this index. This method will lazily load the
-     * entries on demand if they do not currently exist in memory.
+     * Write the header and the sorted slots for the {@code entries} to the
+     * {@code buffer}.
      * 
-     * @return the entries
+     * @param entries
+     * @param buffer
      */
-    private synchronized Map<Composite, Entry> entries() {
-        if(mutable && entries != null) {
-            return entries;
-        }
-        else if(!mutable && (softEntries == null || softEntries.get() == null)) { // do
-                                                                                  // lazy
-                                                                                  // load
-            ByteBuffer bytes = FileSystem.map(file, MapMode.READ_ONLY, 0,
-                    FileSystem.getFileSize(file));
-            Iterator<ByteBuffer> it = ByteableCollections.iterator(bytes);
-            Map<Composite, Entry> entries = Maps
-                    .newHashMapWithExpectedSize(bytes.capacity()
-                            / Entry.CONSTANT_SIZE);
-            while (it.hasNext()) {
-                Entry entry = new Entry(it.next());
-                entries.put(entry.getKey(), entry);
+    private void copyTo(Iterable<Entry> entries, ByteBuffer buffer) {
+        List<Entry> sorted = Lists.newArrayList(entries);
+        Collections.sort(sorted, new Comparator<Entry>() {
+
+            @Override
+            public int compare(Entry o1, Entry o2) {
+                return Long.compare(o1.getHash(), o2.getHash());
+            }
+
+        });
+        int header = buffer.position();
+        buffer.position(header + HEADER_SIZE);
+        int count = 0;
+        for (Entry entry : sorted) {
+            int previous = buffer.position() - SLOT_SIZE;
+            if(count > 0 && buffer.getLong(previous) == entry.getHash()) {
+                // The keys collide, so widen the existing slot to span both
+                buffer.putInt(previous + 8,
+                        Math.min(buffer.getInt(previous + 8), entry.getStart()));
+                buffer.putInt(previous + 12,
+                        Math.max(buffer.getInt(previous + 12), entry.getEnd()));
+            }
+            else {
+                buffer.putLong(entry.getHash());
+                buffer.putInt(entry.getStart());
+                buffer.putInt(entry.getEnd());
+                ++count;
             }
-            softEntries = new SoftReference<Map<Composite, Entry>>(entries);
-            return softEntries.get();
         }
-        else if(!mutable && softEntries.get() != null) {
-            return softEntries.get();
+        buffer.putInt(header, MAGIC);
+        buffer.putInt(header + 4, VERSION);
+        buffer.putInt(header + 8, count);
+        buffer.putInt(header + 12, 0);
+    }
+
+    /**
+     * Return the position of the slot for {@code hash} in {@code slots} or
+     * {@code -1} if there is no such slot.
+     * 
+     * @param slots
+     * @param hash
+     * @return the position of the slot
+     */
+    private int find(ByteBuffer slots, long hash) {
+        int low = 0;
+        int high = slots.getInt(8) - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int position = HEADER_SIZE + mid * SLOT_SIZE;
+            long candidate = slots.getLong(position);
+            if(candidate < hash) {
+                low = mid + 1;
+            }
+            else if(candidate > hash) {
+                high = mid - 1;
+            }
+            else {
+                return position;
+            }
         }
-        else {
-            // "If i'm really an engineer thats worth a damn, we won't ever get
-            // to this point" -jnelson
-            throw new IllegalStateException();
+        return -1;
+    }
+
+    /**
+     * Return the memory mapped slots of this index. The {@link #file} is
+     * mapped the first time this method is called and, if it was written in
+     * the legacy format (i.e. a list of serialized entries), it is rewritten
+     * in the current format first.
+     * 
+     * @return the slots
+     */
+    private synchronized ByteBuffer slots() {
+        if(slots == null) {
+            MappedByteBuffer bytes = FileSystem.map(file, MapMode.READ_ONLY, 0,
+                    FileSystem.getFileSize(file));
+            if(bytes.capacity() < HEADER_SIZE || bytes.getInt(0) != MAGIC) {
+                List<Entry> legacy = Lists.newArrayList();
+                Iterator<ByteBuffer> it = ByteableCollections.iterator(bytes);
+                while (it.hasNext()) {
+                    legacy.add(new Entry(it.next()));
+                }
+                FileSystem.unmap(bytes);
+                ByteBuffer upgraded = ByteBuffer.allocate(HEADER_SIZE
+                        + legacy.size() * SLOT_SIZE);
+                copyTo(legacy, upgraded);
+                upgraded.flip();
+                String tmp = file + ".tmp";
+                if(FileSystem.hasFile(tmp)) {
+                    FileSystem.deleteFile(tmp);
+                }
+                FileSystem.writeBytes(upgraded, tmp);
+                FileSystem.replaceFile(file, tmp);
+                Logger.info("Upgraded the block index in {} to the current "
+                        + "format", file);
+                bytes = FileSystem.map(file, MapMode.READ_ONLY, 0,
+                        FileSystem.getFileSize(file));
+            }
+            Preconditions.checkState(bytes.getInt(4) == VERSION,
+                    "The block index in %s is not in a supported format", file);
+            slots = bytes;
         }
+        return slots;
     }
 
     /**
@@ -352,15 +500,17 @@ public class BlockIndex implements Byteable, Syncable {
         private static final int CONSTANT_SIZE = 8; // start(4), end(4)
 
         private int end = NO_ENTRY;
+        private final long hash;
         private final Composite key;
         private int start = NO_ENTRY;
 
         /**
          * Construct an instance that represents an existing Entry from a
-         * ByteBuffer. This constructor is public so as to comply with the
-         * {@link Byteable} interface. Calling this constructor directly is not
-         * recommend. Use {@link #fromByteBuffer(ByteBuffer)} instead to take
-         * advantage of reference caching.
+         * ByteBuffer that was written in the legacy format. This constructor
+         * is public so as to comply with the {@link Byteable} interface.
+         * Calling this constructor directly is not recommend. Use
+         * {@link #fromByteBuffer(ByteBuffer)} instead to take advantage of
+         * reference caching.
          * 
          * @param bytes
          */
@@ -369,6 +519,7 @@ public class BlockIndex implements Byteable, Syncable {
             this.end = bytes.getInt();
             this.key = Composite.fromByteBuffer(ByteBuffers.get(bytes,
                     bytes.remaining()));
+            this.hash = hash(key);
         }
 
         /**
@@ -378,6 +529,7 @@ public class BlockIndex implements Byteable, Syncable {
          */
         public Entry(Composite key) {
             this.key = key;
+            this.hash = hash(key);
         }
 
         @Override
@@ -397,6 +549,15 @@ public class BlockIndex implements Byteable, Syncable {
             return end;
         }
 
+        /**
+         * Return the hash of the entry key.
+         * 
+         * @return the hash
+         */
+        public long getHash() {
+            return hash;
+        }
+
         /**
          * Return the entry key
          * 
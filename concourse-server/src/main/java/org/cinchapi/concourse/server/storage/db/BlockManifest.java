@@ -0,0 +1,232 @@
+/*
+ * Copyright (c) 2013-2015 Cinchapi Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.cinchapi.concourse.server.storage.db;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+
+import org.cinchapi.concourse.annotate.PackagePrivate;
+import org.cinchapi.concourse.server.io.FileSystem;
+import org.cinchapi.concourse.util.ByteBuffers;
+import org.cinchapi.concourse.util.Logger;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+/**
+ * A record of the size and checksum of each {@link Block} that has been
+ * synced to a directory. The Database consults the manifest on startup so
+ * that it only needs to read the block files that it doesn't know about,
+ * instead of hashing every byte on disk to find duplicate blocks.
+ * <p>
+ * The manifest is only a cache of information that can be derived from the
+ * block files, so an entry is ignored if the size of the block file doesn't
+ * match and a missing or unreadable manifest is simply rebuilt.
+ * </p>
+ * 
+ * @author Jeff Nelson
+ */
+@ThreadSafe
+@PackagePrivate
+final class BlockManifest {
+
+    /**
+     * Return the BlockManifest that is stored in {@code file} or an empty one
+     * if the file does not exist or cannot be read.
+     * 
+     * @param file
+     * @return the BlockManifest
+     */
+    public static BlockManifest load(String file) {
+        BlockManifest manifest = new BlockManifest(file);
+        if(FileSystem.hasFile(file)) {
+            ByteBuffer bytes = FileSystem.readBytes(file);
+            try {
+                int count = bytes.getInt();
+                for (int i = 0; i < count; ++i) {
+                    String id = getString(bytes);
+                    long size = bytes.getLong();
+                    String checksum = getString(bytes);
+                    manifest.entries.put(id, new Summary(size, checksum));
+                }
+            }
+            catch (BufferUnderflowException | IllegalArgumentException e) {
+                Logger.warn("The block manifest in {} is corrupted, so it "
+                        + "will be rebuilt", file);
+                manifest.entries.clear();
+            }
+        }
+        return manifest;
+    }
+
+    /**
+     * Read a length prefixed string from {@code bytes}.
+     * 
+     * @param bytes
+     * @return the string
+     */
+    private static String getString(ByteBuffer bytes) {
+        int length = bytes.getInt();
+        String string = ByteBuffers.getString(ByteBuffers
+                .slice(bytes, length));
+        bytes.position(bytes.position() + length);
+        return string;
+    }
+
+    /**
+     * The {@link Summary} of each block, keyed by block id.
+     */
+    private final Map<String, Summary> entries = Maps.newHashMap();
+
+    /**
+     * The file where the manifest is stored.
+     */
+    private final String file;
+
+    /**
+     * Construct a new instance.
+     * 
+     * @param file
+     */
+    private BlockManifest(String file) {
+        this.file = file;
+    }
+
+    /**
+     * Return the checksum that was recorded for the block identified by
+     * {@code id} or {@code null} if there is no entry for the block or the
+     * recorded size doesn't match {@code size}, which means the block file has
+     * changed since it was recorded.
+     * 
+     * @param id
+     * @param size
+     * @return the checksum
+     */
+    @Nullable
+    public synchronized String getChecksum(String id, long size) {
+        Summary summary = entries.get(id);
+        return summary != null && summary.size == size ? summary.checksum
+                : null;
+    }
+
+    /**
+     * Record the {@code size} and {@code checksum} of the block identified by
+     * {@code id}.
+     * 
+     * @param id
+     * @param size
+     * @param checksum
+     */
+    public synchronized void put(String id, long size, String checksum) {
+        entries.put(id, new Summary(size, checksum));
+    }
+
+    /**
+     * Remove the entry for the block identified by {@code id}, if it exists.
+     * 
+     * @param id
+     */
+    public synchronized void remove(String id) {
+        entries.remove(id);
+    }
+
+    /**
+     * Remove the entries for every block that is not identified by one of the
+     * {@code ids}.
+     * 
+     * @param ids
+     */
+    public synchronized void retainAll(Collection<String> ids) {
+        entries.keySet().retainAll(ids);
+    }
+
+    /**
+     * Return the number of blocks in the manifest.
+     * 
+     * @return the size
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Durably write the manifest to its file. The file is replaced atomically,
+     * so a crash never leaves behind a partially written manifest.
+     */
+    public synchronized void sync() {
+        List<byte[]> ids = Lists.newArrayList();
+        List<byte[]> checksums = Lists.newArrayList();
+        List<Long> sizes = Lists.newArrayList();
+        int size = 4;
+        for (Entry<String, Summary> entry : entries.entrySet()) {
+            byte[] id = entry.getKey().getBytes(StandardCharsets.UTF_8);
+            byte[] checksum = entry.getValue().checksum
+                    .getBytes(StandardCharsets.UTF_8);
+            ids.add(id);
+            checksums.add(checksum);
+            sizes.add(entry.getValue().size);
+            size += 4 + id.length + 8 + 4 + checksum.length;
+        }
+        ByteBuffer bytes = ByteBuffer.allocate(size);
+        bytes.putInt(ids.size());
+        for (int i = 0; i < ids.size(); ++i) {
+            bytes.putInt(ids.get(i).length);
+            bytes.put(ids.get(i));
+            bytes.putLong(sizes.get(i));
+            bytes.putInt(checksums.get(i).length);
+            bytes.put(checksums.get(i));
+        }
+        bytes.flip();
+        String tmp = file + ".tmp";
+        if(FileSystem.hasFile(tmp)) {
+            FileSystem.deleteFile(tmp);
+        }
+        FileSystem.writeBytes(bytes, tmp);
+        FileSystem.replaceFile(file, tmp);
+    }
+
+    /**
+     * The size and checksum that were recorded for a block.
+     * 
+     * @author Jeff Nelson
+     */
+    private static final class Summary {
+
+        private final String checksum;
+        private final long size;
+
+        /**
+         * Construct a new instance.
+         * 
+         * @param size
+         * @param checksum
+         */
+        Summary(long size, String checksum) {
+            this.size = size;
+            this.checksum = checksum;
+        }
+
+    }
+
+}
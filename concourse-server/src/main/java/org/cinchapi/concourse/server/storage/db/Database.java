@@ -19,11 +19,15 @@ import java.io.File;
 import java.io.FilenameFilter;
 import java.io.IOException;
 import java.lang.reflect.Constructor;
+import java.nio.ByteBuffer;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.SortedMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import javax.annotation.Nullable;
@@ -33,6 +37,7 @@ import javax.annotation.concurrent.ThreadSafe;
 import org.cinchapi.concourse.annotate.Restricted;
 import org.cinchapi.concourse.server.GlobalState;
 import org.cinchapi.concourse.server.concurrent.ConcourseExecutors;
+import org.cinchapi.concourse.server.io.Byteable;
 import org.cinchapi.concourse.server.io.Composite;
 import org.cinchapi.concourse.server.io.FileSystem;
 import org.cinchapi.concourse.server.jmx.ManagedOperation;
@@ -43,28 +48,38 @@ import org.cinchapi.concourse.server.model.Value;
 import org.cinchapi.concourse.server.storage.Action;
 import org.cinchapi.concourse.server.storage.BaseStore;
 import org.cinchapi.concourse.server.storage.Functions;
+import org.cinchapi.concourse.server.storage.KeyStatistics;
 import org.cinchapi.concourse.server.storage.PermanentStore;
+import org.cinchapi.concourse.server.storage.SearchStatistics;
+import org.cinchapi.concourse.server.storage.Statistics;
 import org.cinchapi.concourse.server.storage.temp.Buffer;
 import org.cinchapi.concourse.server.storage.temp.Write;
 import org.cinchapi.concourse.thrift.Operator;
 import org.cinchapi.concourse.thrift.TObject;
+import org.cinchapi.concourse.thrift.Type;
 import org.cinchapi.concourse.time.Time;
 import org.cinchapi.concourse.util.Comparators;
 import org.cinchapi.concourse.util.Logger;
 import org.cinchapi.concourse.util.NaturalSorter;
+import org.cinchapi.concourse.util.Strings;
 import org.cinchapi.concourse.util.TLists;
 import org.cinchapi.concourse.util.TStrings;
 import org.cinchapi.concourse.util.Transformers;
 import org.cinchapi.concourse.util.ReadOnlyIterator;
 
+import com.google.common.base.Charsets;
+import com.google.common.base.Joiner;
 import com.google.common.base.Preconditions;
-import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
+import com.google.common.base.Splitter;
+import com.google.common.base.Throwables;
+import com.google.common.cache.CacheStats;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import com.google.common.hash.Hashing;
 import com.google.common.io.Files;
+import com.google.common.util.concurrent.RateLimiter;
 
 import static org.cinchapi.concourse.server.GlobalState.*;
 
@@ -148,13 +163,74 @@ public final class Database extends BaseStore implements PermanentStore {
     }
 
     /**
-     * Return a cache for records of type {@code T}.
+     * Rebuild every {@link SearchBlock} in {@code dbStore} from the
+     * {@link PrimaryRevision PrimaryRevisions} that are stored in the primary
+     * block with the same id. This is necessary whenever the format of the
+     * search index changes. Only one block of revisions is held in memory at a
+     * time.
+     * 
+     * @param dbStore
+     */
+    public static void rebuildSearchIndex(String dbStore) {
+        String primaryStore = FileSystem.makePath(dbStore,
+                PRIMARY_BLOCK_DIRECTORY);
+        String searchStore = FileSystem.makePath(dbStore,
+                SEARCH_BLOCK_DIRECTORY);
+        if(FileSystem.hasDir(searchStore)) {
+            Iterator<String> it = FileSystem.fileOnlyIterator(searchStore);
+            while (it.hasNext()) {
+                FileSystem.deleteFile(it.next());
+            }
+        }
+        if(FileSystem.hasDir(primaryStore)) {
+            Iterator<String> it = FileSystem.fileOnlyIterator(primaryStore);
+            while (it.hasNext()) {
+                String file = it.next();
+                if(file.endsWith(Block.BLOCK_NAME_EXTENSION)) {
+                    String id = Block.getId(file);
+                    SearchBlock block = Block.createSearchBlock(id,
+                            searchStore);
+                    Iterator<Revision<PrimaryKey, Text, Value>> revisions = new PrimaryBlock(
+                            id, primaryStore, true).iterator(); /* authorized */
+                    while (revisions.hasNext()) {
+                        Revision<PrimaryKey, Text, Value> revision = revisions
+                                .next();
+                        block.insert(revision.getKey(), revision.getValue(),
+                                revision.getLocator(), revision.getVersion(),
+                                revision.getType());
+                    }
+                    block.sync();
+                }
+            }
+        }
+    }
+
+    /**
+     * Return a cache for records of type {@code T} that holds at most
+     * {@link GlobalState#DATABASE_CACHE_SIZE} / {@link #RECORD_CACHE_COUNT}
+     * bytes worth of records based on the {@link Record#getFootprint()
+     * footprint} of each one.
      * 
      * @return the cache
      */
-    private static <T> Cache<Composite, T> buildCache() {
-        return CacheBuilder.newBuilder().maximumSize(100000).softValues()
-                .build();
+    private static <T extends Record<?, ?, ?>> RecordCache<T> buildCache() {
+        return new RecordCache<T>(DATABASE_CACHE_SIZE / RECORD_CACHE_COUNT);
+    }
+
+    /**
+     * Return a description of the {@link CacheStats} for {@code cache}.
+     * 
+     * @param name
+     * @param cache
+     * @return the description
+     */
+    private static String describe(String name, RecordCache<?> cache) {
+        CacheStats stats = cache.stats();
+        return Strings.joinSimple(name, ": {entries: ", cache.size(),
+                ", hits: ", stats.hitCount(), ", misses: ", stats.missCount(),
+                ", hitRate: ", stats.hitRate(), ", evictions: ",
+                stats.evictionCount(), ", loads: ", stats.loadCount(),
+                ", averageLoadTimeInNanos: ", stats.averageLoadPenalty(), "}");
     }
 
     /**
@@ -178,6 +254,25 @@ public final class Database extends BaseStore implements PermanentStore {
         return null;
     }
 
+    /**
+     * Remove each of the {@code compacted} blocks from {@code list} and put
+     * the {@code merged} block, if it is not {@code null}, in their place.
+     *
+     * @param list
+     * @param compacted
+     * @param merged
+     */
+    private static <T extends Block<?, ?, ?>> void swap(List<T> list,
+            List<T> compacted, @Nullable T merged) {
+        if(!compacted.isEmpty()) {
+            int index = list.indexOf(compacted.get(0));
+            list.removeAll(compacted);
+            if(merged != null) {
+                list.add(index, merged);
+            }
+        }
+    }
+
     private static final String threadNamePrefix = "database-write-thread";
 
     /*
@@ -195,6 +290,39 @@ public final class Database extends BaseStore implements PermanentStore {
     private static final String SEARCH_BLOCK_DIRECTORY = "ctb";
     private static final String SECONDARY_BLOCK_DIRECTORY = "csb";
 
+    /**
+     * The name of the file in the {@link #SECONDARY_BLOCK_DIRECTORY} where the
+     * per key {@link Statistics} are stored.
+     */
+    private static final String STATISTICS_FILE = "statistics";
+
+    /**
+     * The name of the file in each block directory where the
+     * {@link BlockManifest} is stored.
+     */
+    private static final String MANIFEST_FILE = "manifest";
+
+    /*
+     * COMPACTION
+     * ----------
+     * Blocks are merged in the background so that the number of blocks that
+     * must be consulted for each read doesn't grow with the uptime of the
+     * server. Adjacent blocks of a similar size (e.g. blocks in the same
+     * "tier") are merged COMPACTION_FANOUT at a time, so each block is only
+     * rewritten a logarithmic number of times. Merged blocks are staged in the
+     * COMPACTION_DIRECTORY and a marker file is used to finish swapping them
+     * into place if the server crashes in the middle of a compaction.
+     */
+    private static final String[] BLOCK_DIRECTORIES = {
+            PRIMARY_BLOCK_DIRECTORY, SECONDARY_BLOCK_DIRECTORY,
+            SEARCH_BLOCK_DIRECTORY };
+    private static final String COMPACTION_DIRECTORY = "compaction";
+    private static final String COMPACTION_MARKER_EXTENSION = ".merge";
+    private static final int COMPACTION_FANOUT = 4;
+    private static final String[] BLOCK_FILE_EXTENSIONS = {
+            Block.BLOCK_NAME_EXTENSION, Block.FILTER_NAME_EXTENSION,
+            Block.INDEX_NAME_EXTENSION };
+
     /**
      * A flag to indicate if the Database has verified the data it is seeing is
      * acceptable. We use this flag to handle the case where the server
@@ -232,17 +360,32 @@ public final class Database extends BaseStore implements PermanentStore {
     private transient SecondaryBlock csb0;
     private transient SearchBlock ctb0;
 
+    /**
+     * The {@link BlockManifest} for each block directory, which is loaded when
+     * the Database starts.
+     */
+    private final transient Map<String, BlockManifest> manifests = Maps
+            .newHashMap();
+
+    /**
+     * Running {@link Statistics} about the values that are stored for each
+     * key. The statistics are updated whenever writes are accepted and synced
+     * alongside the secondary blocks.
+     */
+    private final transient Statistics statistics = new Statistics();
+
     /*
      * RECORD CACHES
      * -------------
      * Records are cached in memory to reduce the number of seeks required. When
      * writing new revisions, we check the appropriate caches for relevant
      * records and append the new revision so that the cached data doesn't grow
-     * stale.
+     * stale (and let the cache re-weigh the record as it grows).
      */
-    private final Cache<Composite, PrimaryRecord> cpc = buildCache();
-    private final Cache<Composite, PrimaryRecord> cppc = buildCache();
-    private final Cache<Composite, SecondaryRecord> csc = buildCache();
+    private static final int RECORD_CACHE_COUNT = 3;
+    private final RecordCache<PrimaryRecord> cpc = buildCache();
+    private final RecordCache<PrimaryRecord> cppc = buildCache();
+    private final RecordCache<SecondaryRecord> csc = buildCache();
 
     /**
      * Lock used to ensure the object is ThreadSafe. This lock provides access
@@ -253,7 +396,28 @@ public final class Database extends BaseStore implements PermanentStore {
     /**
      * A flag to indicate if the Buffer is running or not.
      */
-    private transient boolean running = false;
+    private transient volatile boolean running = false;
+
+    /**
+     * A lock that ensures only one compaction happens at a time.
+     */
+    private final transient ReentrantLock compactionLock = new ReentrantLock();
+
+    /**
+     * The limiter that is used to throttle the number of bytes that are
+     * written each second during compaction, or {@code null} if compaction is
+     * not throttled.
+     */
+    @Nullable
+    private final transient RateLimiter compactionThrottle = DATABASE_COMPACTION_THROUGHPUT > 0 ? RateLimiter
+            .create(DATABASE_COMPACTION_THROUGHPUT) : null;
+
+    /**
+     * The thread that periodically compacts blocks in the background. This
+     * thread is only created if background compaction is enabled.
+     */
+    @Nullable
+    private transient BlockCompactor compactor;
 
     /**
      * Construct a Database that is backed by the default location which is in
@@ -277,29 +441,51 @@ public final class Database extends BaseStore implements PermanentStore {
 
     @Override
     public void accept(Write write) {
+        accept(Lists.newArrayList(write));
+    }
+
+    /**
+     * Process and store all of the {@code writes}, in order. This method is
+     * more efficient than accepting each Write individually because each type
+     * of Block is fed the entire batch by a single writer, so there is only one
+     * thread handoff (and wait) per batch instead of one per Write.
+     * 
+     * @param writes
+     */
+    public void accept(List<Write> writes) {
         // CON-83: Keeping manually verifying writes until we find one that is
         // acceptable, after which assume all subsequent writes are acceptable.
-        if(!acceptable
-                && ((write.getType() == Action.ADD && !verify(write.getKey()
-                        .toString(), write.getValue().getTObject(), write
-                        .getRecord().longValue())) || (write.getType() == Action.REMOVE && verify(
-                        write.getKey().toString(), write.getValue()
-                                .getTObject(), write.getRecord().longValue())))) {
-            acceptable = true;
-        }
-        if(acceptable) {
+        int start = 0;
+        while (!acceptable && start < writes.size()) {
+            Write write = writes.get(start);
+            if((write.getType() == Action.ADD && !verify(write.getKey()
+                    .toString(), write.getValue().getTObject(), write
+                    .getRecord().longValue()))
+                    || (write.getType() == Action.REMOVE && verify(write
+                            .getKey().toString(), write.getValue()
+                            .getTObject(), write.getRecord().longValue()))) {
+                acceptable = true;
+            }
+            else {
+                Logger.warn("The Engine refused to accept {} because "
+                        + "it appears that the data was already transported. "
+                        + "This indicates that the server shutdown "
+                        + "prematurely.", write);
+                ++start;
+            }
+        }
+        if(start < writes.size()) {
+            List<Write> batch = start > 0 ? writes.subList(start,
+                    writes.size()) : writes;
             // NOTE: Write locking happens in each individual Block, and
             // furthermore this method is only called from the Buffer, which
             // transports data serially.
             ConcourseExecutors.executeAndAwaitTermination(threadNamePrefix,
-                    new BlockWriter(cpb0, write), new BlockWriter(csb0, write),
-                    new BlockWriter(ctb0, write));
-        }
-        else {
-            Logger.warn("The Engine refused to accept {} because "
-                    + "it appears that the data was already transported. "
-                    + "This indicates that the server shutdown prematurely.",
-                    write);
+                    new BlockWriter(cpb0, batch), new BlockWriter(csb0, batch),
+                    new BlockWriter(ctb0, batch));
+            for (Write write : batch) {
+                statistics.apply(write);
+            }
         }
     }
 
@@ -341,6 +527,161 @@ public final class Database extends BaseStore implements PermanentStore {
                 TObjectSorter.INSTANCE);
     }
 
+    @Override
+    public Map<TObject, Set<Long>> browse(String key, @Nullable TObject after,
+            int limit) {
+        return Transformers.transformTreeMapSet(
+                getSecondaryRecord(Text.wrapCached(key)).browse(
+                        after == null ? null : Value.wrap(after), limit),
+                Functions.VALUE_TO_TOBJECT, Functions.PRIMARY_KEY_TO_LONG,
+                TObjectSorter.INSTANCE);
+    }
+
+    @Override
+    public Map<TObject, Set<Long>> browse(String key, @Nullable TObject after,
+            int limit, long timestamp) {
+        return Transformers.transformTreeMapSet(
+                getSecondaryRecord(Text.wrapCached(key)).browse(
+                        after == null ? null : Value.wrap(after), limit,
+                        timestamp), Functions.VALUE_TO_TOBJECT,
+                Functions.PRIMARY_KEY_TO_LONG, TObjectSorter.INSTANCE);
+    }
+
+    /**
+     * Look for a run of {@link #COMPACTION_FANOUT} adjacent blocks (excluding
+     * the current ones) that are in the same size tier and merge them into a
+     * single larger block. The blocks with the same ids are merged in each of
+     * the block collections so that they remain balanced.
+     * <p>
+     * The merge happens without holding the {@link #masterLock} since immutable
+     * blocks are never modified, so reads and writes may continue while data
+     * is rewritten. The master lock is only grabbed to atomically swap the
+     * merged blocks into place.
+     * </p>
+     *
+     * @return {@code true} if any blocks were compacted
+     */
+    @ManagedOperation
+    public boolean compact() {
+        compactionLock.lock();
+        try {
+            List<PrimaryBlock> primary;
+            List<SecondaryBlock> secondary = Lists.newArrayList();
+            List<SearchBlock> search = Lists.newArrayList();
+            masterLock.readLock().lock();
+            try {
+                primary = findCompactionRun();
+                for (PrimaryBlock block : primary) {
+                    SecondaryBlock _csb = findBlock(csb, block.getId());
+                    SearchBlock _ctb = findBlock(ctb, block.getId());
+                    if(_csb != null) {
+                        secondary.add(_csb);
+                    }
+                    if(_ctb != null) {
+                        search.add(_ctb);
+                    }
+                }
+            }
+            finally {
+                masterLock.readLock().unlock();
+            }
+            if(primary.isEmpty()) {
+                return false;
+            }
+            // The merged blocks take the id of the last block in the run so
+            // that the chronological order of the blocks is preserved.
+            String id = primary.get(primary.size() - 1).getId();
+            String staging = backingStore + File.separator
+                    + COMPACTION_DIRECTORY;
+            for (String directory : BLOCK_DIRECTORIES) {
+                String path = staging + File.separator + directory;
+                if(FileSystem.hasDir(path)) { // get rid of leftovers from a
+                                              // failed compaction
+                    FileSystem.deleteDirectory(path);
+                }
+            }
+            PrimaryBlock _cpb = Block.createPrimaryBlock(id, staging
+                    + File.separator + PRIMARY_BLOCK_DIRECTORY);
+            SecondaryBlock _csb = Block.createSecondaryBlock(id, staging
+                    + File.separator + SECONDARY_BLOCK_DIRECTORY);
+            SearchBlock _ctb = Block.createSearchBlock(id, staging
+                    + File.separator + SEARCH_BLOCK_DIRECTORY);
+            Block<?, ?, ?>[] merged = { _cpb, _csb, _ctb };
+            boolean[] staged = { stageMerge(_cpb, primary),
+                    stageMerge(_csb, secondary), stageMerge(_ctb, search) };
+            List<String> replaced = Lists.newArrayList();
+            for (PrimaryBlock block : primary) {
+                if(!block.getId().equals(id)) {
+                    replaced.add(block.getId());
+                }
+            }
+            FileSystem.writeBytes(
+                    ByteBuffer.wrap(Joiner.on('\n').join(replaced)
+                            .getBytes(Charsets.UTF_8)), staging
+                            + File.separator + id
+                            + COMPACTION_MARKER_EXTENSION);
+            masterLock.writeLock().lock();
+            try {
+                finishCompaction(id, replaced);
+                for (int i = 0; i < BLOCK_DIRECTORIES.length; ++i) {
+                    BlockManifest manifest = manifests
+                            .get(BLOCK_DIRECTORIES[i]);
+                    for (String other : replaced) {
+                        manifest.remove(other);
+                    }
+                    if(staged[i]) {
+                        manifest.put(id, merged[i].size(),
+                                merged[i].getChecksum());
+                    }
+                    else {
+                        manifest.remove(id);
+                    }
+                    manifest.sync();
+                }
+                swap(cpb, primary, staged[0] ? new PrimaryBlock(id,
+                        backingStore + File.separator
+                                + PRIMARY_BLOCK_DIRECTORY, true) : null); /* authorized */
+                swap(csb, secondary, staged[1] ? new SecondaryBlock(id,
+                        backingStore + File.separator
+                                + SECONDARY_BLOCK_DIRECTORY, true) : null); /* authorized */
+                swap(ctb, search, staged[2] ? new SearchBlock(id,
+                        backingStore + File.separator
+                                + SEARCH_BLOCK_DIRECTORY, true) : null); /* authorized */
+                // No read can reach the compacted blocks anymore, so release
+                // their memory mappings instead of waiting for the GC.
+                for (List<? extends Block<?, ?, ?>> blocks : ImmutableList.of(
+                        primary, secondary, search)) {
+                    for (Block<?, ?, ?> block : blocks) {
+                        block.unmap();
+                    }
+                }
+            }
+            finally {
+                masterLock.writeLock().unlock();
+            }
+            Logger.info("Compacted {} blocks into block {}", primary.size(),
+                    id);
+            return true;
+        }
+        finally {
+            compactionLock.unlock();
+        }
+    }
+
+    @Override
+    public Map<Long, Set<TObject>> chronologize(String key, long record,
+            long start, long end) {
+        Text key0 = Text.wrapCached(key);
+        Map<Long, Set<Value>> chronology = getPrimaryRecord(
+                PrimaryKey.wrap(record), key0).chronologize(key0, start, end);
+        Map<Long, Set<TObject>> result = Maps.newLinkedHashMap();
+        for (Map.Entry<Long, Set<Value>> entry : chronology.entrySet()) {
+            result.put(entry.getKey(), Transformers.transformSet(
+                    entry.getValue(), Functions.VALUE_TO_TOBJECT));
+        }
+        return result;
+    }
+
     @Override
     public boolean contains(long record) {
         return !getPrimaryRecord(PrimaryKey.wrap(record)).isEmpty();
@@ -417,11 +758,56 @@ public final class Database extends BaseStore implements PermanentStore {
         return ids;
     }
 
+    /**
+     * Return a description of the hit, miss, eviction and load statistics for
+     * each of the record caches.
+     * 
+     * @return the cache statistics
+     */
+    @ManagedOperation
+    public String getRecordCacheStats() {
+        return Strings.joinSimple(describe("cpc", cpc),
+                System.getProperty("line.separator"), describe("cppc", cppc),
+                System.getProperty("line.separator"), describe("csc", csc));
+    }
+
+    @Override
+    public void gatherSearchStatistics(String key, SearchStatistics search) {
+        // The size of the corpus comes from the running key statistics and
+        // the document lengths are only computed for the tracked records, so
+        // ranking never has to read an index entry for every document.
+        KeyStatistics stats = statistics.get(key);
+        search.addDocuments(stats.getDocumentCount(), stats.getTermCount());
+        Text key0 = Text.wrapCached(key);
+        getSearchRecord(key0, Text.wrap(search.getQuery())).gatherStatistics(
+                search);
+        for (long record : search.getTrackedRecords()) {
+            for (Value value : getPrimaryRecord(PrimaryKey.wrap(record), key0)
+                    .fetch(key0)) {
+                if(value.getType() == Type.STRING) {
+                    search.addLength(record, SearchStatistics
+                            .countTerms((String) value.getObject()));
+                }
+            }
+        }
+    }
+
+    /**
+     * Return the running {@link Statistics} about the values that are stored
+     * for each key in the Database.
+     * 
+     * @return the statistics
+     */
+    public Statistics getStatistics() {
+        return statistics;
+    }
+
     @Override
     public Set<Long> search(String key, String query) {
         return Transformers.transformSet(
-                getSearchRecord(Text.wrapCached(key), Text.wrap(query)).search(
-                        Text.wrap(query)), Functions.PRIMARY_KEY_TO_LONG);
+                getSearchRecord(Text.wrapCached(key), Text.wrap(query))
+                        .search(Text.wrap(query)),
+                Functions.PRIMARY_KEY_TO_LONG);
     }
 
     @Override
@@ -461,6 +847,12 @@ public final class Database extends BaseStore implements PermanentStore {
         if(!running) {
             running = true;
             Logger.info("Database configured to store data in {}", backingStore);
+            for (String directory : BLOCK_DIRECTORIES) {
+                manifests.put(directory, BlockManifest.load(backingStore
+                        + File.separator + directory + File.separator
+                        + MANIFEST_FILE));
+            }
+            recoverCompaction();
             ConcourseExecutors.executeAndAwaitTerminationAndShutdown(
                     "Storage Block Loader", new BlockLoader<PrimaryBlock>(
                             PrimaryBlock.class, PRIMARY_BLOCK_DIRECTORY, cpb),
@@ -482,7 +874,12 @@ public final class Database extends BaseStore implements PermanentStore {
             // missing to assume that the server crashed. :-/
             TLists.retainIntersection(cpb, csb);
             ctb.retainAll(cpb);
+            loadStatistics();
             triggerSync(false);
+            if(DATABASE_COMPACTION_FREQUENCY > 0) {
+                compactor = new BlockCompactor();
+                compactor.start();
+            }
         }
     }
 
@@ -490,6 +887,10 @@ public final class Database extends BaseStore implements PermanentStore {
     public void stop() {
         if(running) {
             running = false;
+            if(compactor != null) {
+                compactor.interrupt();
+                compactor = null;
+            }
         }
     }
 
@@ -506,6 +907,28 @@ public final class Database extends BaseStore implements PermanentStore {
         triggerSync(true);
     }
 
+    /**
+     * Return {@code true} if any of the current blocks has reached
+     * {@link GlobalState#DATABASE_BLOCK_SIZE}, which means that the Database
+     * should {@link #triggerSync() sync} them and start new ones. Blocks are
+     * cut based on their size instead of whenever the Buffer transports a
+     * page, so the Database ends up with fewer, larger blocks to look at
+     * during reads.
+     * 
+     * @return {@code true} if the current blocks should be synced
+     */
+    public boolean shouldSync() {
+        masterLock.readLock().lock();
+        try {
+            long size = Math.max(cpb0.size(),
+                    Math.max(csb0.size(), ctb0.size()));
+            return size >= DATABASE_BLOCK_SIZE;
+        }
+        finally {
+            masterLock.readLock().unlock();
+        }
+    }
+
     @Override
     public boolean verify(String key, TObject value, long record) {
         Text key0 = Text.wrapCached(key);
@@ -520,25 +943,115 @@ public final class Database extends BaseStore implements PermanentStore {
                 Value.wrap(value), timestamp);
     }
 
+    /**
+     * Return the run of adjacent primary blocks that should be compacted next
+     * or an empty list if there is nothing to compact. Each block is assigned
+     * to a tier based on the largest of its primary, secondary and search
+     * components and the first run of {@link #COMPACTION_FANOUT} adjacent
+     * blocks in the same tier is chosen as long as the merged block would not
+     * exceed {@link GlobalState#DATABASE_COMPACTION_MAX_BLOCK_SIZE}.
+     *
+     * @return the blocks to compact
+     */
+    @GuardedBy("masterLock.readLock()")
+    private List<PrimaryBlock> findCompactionRun() {
+        Map<String, Integer> sizes = Maps.newHashMapWithExpectedSize(cpb
+                .size());
+        for (SecondaryBlock block : csb) {
+            sizes.put(block.getId(), block.size());
+        }
+        for (SearchBlock block : ctb) {
+            Integer size = sizes.get(block.getId());
+            sizes.put(block.getId(),
+                    size == null ? block.size() : Math.max(size, block.size()));
+        }
+        List<PrimaryBlock> run = Lists.newArrayList();
+        int tier = -1;
+        long total = 0;
+        for (PrimaryBlock block : cpb) {
+            if(block == cpb0) {
+                break;
+            }
+            Integer size = sizes.get(block.getId());
+            long weight = size == null ? block.size() : Math.max(size,
+                    block.size());
+            int tier0 = 0;
+            for (long bound = DATABASE_BLOCK_SIZE * COMPACTION_FANOUT; weight >= bound; bound *= COMPACTION_FANOUT) {
+                ++tier0;
+            }
+            if(tier0 != tier
+                    || total + weight > DATABASE_COMPACTION_MAX_BLOCK_SIZE) {
+                run.clear();
+                tier = tier0;
+                total = 0;
+            }
+            run.add(block);
+            total += weight;
+            if(run.size() == COMPACTION_FANOUT) {
+                return run;
+            }
+        }
+        return Lists.newArrayList();
+    }
+
+    /**
+     * Move the merged blocks identified by {@code id} from the staging
+     * directory into place and delete the blocks that were {@code replaced}
+     * by the merge. This method is idempotent, so it can be used to finish a
+     * compaction that was interrupted by a server crash.
+     *
+     * @param id
+     * @param replaced
+     */
+    private void finishCompaction(String id, List<String> replaced) {
+        String staging = backingStore + File.separator + COMPACTION_DIRECTORY;
+        for (String directory : BLOCK_DIRECTORIES) {
+            for (String extension : BLOCK_FILE_EXTENSIONS) {
+                String source = staging + File.separator + directory
+                        + File.separator + id + extension;
+                if(FileSystem.hasFile(source)) {
+                    FileSystem.replaceFile(backingStore + File.separator
+                            + directory + File.separator + id + extension,
+                            source);
+                }
+                for (String other : replaced) {
+                    String file = backingStore + File.separator + directory
+                            + File.separator + other + extension;
+                    if(FileSystem.hasFile(file)) {
+                        FileSystem.deleteFile(file);
+                    }
+                }
+            }
+        }
+        // The marker is only deleted after everything else is done so that we
+        // know to try again if the server crashes in the interim
+        FileSystem.deleteFile(staging + File.separator + id
+                + COMPACTION_MARKER_EXTENSION);
+    }
+
     /**
      * Return the PrimaryRecord identifier by {@code primaryKey}.
      * 
      * @param pkey
      * @return the PrimaryRecord
      */
-    private PrimaryRecord getPrimaryRecord(PrimaryKey pkey) {
+    private PrimaryRecord getPrimaryRecord(final PrimaryKey pkey) {
         masterLock.readLock().lock();
         try {
-            Composite composite = Composite.create(pkey);
-            PrimaryRecord record = cpc.getIfPresent(composite);
-            if(record == null) {
-                record = Record.createPrimaryRecord(pkey);
-                for (PrimaryBlock block : cpb) {
-                    block.seek(pkey, record);
-                }
-                cpc.put(composite, record);
-            }
-            return record;
+            return cpc.get(Composite.create(pkey),
+                    new Callable<PrimaryRecord>() {
+
+                        @Override
+                        public PrimaryRecord call() {
+                            PrimaryRecord record = Record
+                                    .createPrimaryRecord(pkey);
+                            for (PrimaryBlock block : cpb) {
+                                block.seek(pkey, record);
+                            }
+                            return record;
+                        }
+
+                    });
         }
         finally {
             masterLock.readLock().unlock();
@@ -553,19 +1066,24 @@ public final class Database extends BaseStore implements PermanentStore {
      * @param key
      * @return the PrimaryRecord
      */
-    private PrimaryRecord getPrimaryRecord(PrimaryKey pkey, Text key) {
+    private PrimaryRecord getPrimaryRecord(final PrimaryKey pkey,
+            final Text key) {
         masterLock.readLock().lock();
         try {
-            Composite composite = Composite.create(pkey, key);
-            PrimaryRecord record = cppc.getIfPresent(composite);
-            if(record == null) {
-                record = Record.createPrimaryRecordPartial(pkey, key);
-                for (PrimaryBlock block : cpb) {
-                    block.seek(pkey, key, record);
-                }
-                cppc.put(composite, record);
-            }
-            return record;
+            return cppc.get(Composite.create(pkey, key),
+                    new Callable<PrimaryRecord>() {
+
+                        @Override
+                        public PrimaryRecord call() {
+                            PrimaryRecord record = Record
+                                    .createPrimaryRecordPartial(pkey, key);
+                            for (PrimaryBlock block : cpb) {
+                                block.seek(pkey, key, record);
+                            }
+                            return record;
+                        }
+
+                    });
         }
         finally {
             masterLock.readLock().unlock();
@@ -586,15 +1104,22 @@ public final class Database extends BaseStore implements PermanentStore {
         masterLock.readLock().lock();
         try {
             SearchRecord record = Record.createSearchRecordPartial(key, query);
+            // Seek each gram of each word in the query to make sure that multi
+            // word search works.
+            Set<Text> grams = Sets.newLinkedHashSet();
+            String[] toks = query
+                    .toString()
+                    .toLowerCase()
+                    .split(TStrings.REGEX_GROUP_OF_ONE_OR_MORE_WHITESPACE_CHARS);
+            for (String tok : toks) {
+                for (String gram : NGrams.getQueryGrams(tok)) {
+                    grams.add(Text.wrap(gram));
+                }
+                grams.add(Text.wrap(NGrams.getUnpackedGram(tok)));
+            }
             for (SearchBlock block : ctb) {
-                // Seek each word in the query to make sure that multi word
-                // search works.
-                String[] toks = query
-                        .toString()
-                        .toLowerCase()
-                        .split(TStrings.REGEX_GROUP_OF_ONE_OR_MORE_WHITESPACE_CHARS);
-                for (String tok : toks) {
-                    block.seek(key, Text.wrap(tok), record);
+                for (Text gram : grams) {
+                    block.seek(key, gram, record);
                 }
             }
             return record;
@@ -610,25 +1135,129 @@ public final class Database extends BaseStore implements PermanentStore {
      * @param key
      * @return the SecondaryRecord
      */
-    private SecondaryRecord getSecondaryRecord(Text key) {
+    private SecondaryRecord getSecondaryRecord(final Text key) {
         masterLock.readLock().lock();
         try {
-            Composite composite = Composite.create(key);
-            SecondaryRecord record = csc.getIfPresent(composite);
-            if(record == null) {
-                record = Record.createSecondaryRecord(key);
-                for (SecondaryBlock block : csb) {
-                    block.seek(key, record);
-                }
-                csc.put(composite, record);
-            }
-            return record;
+            return csc.get(Composite.create(key),
+                    new Callable<SecondaryRecord>() {
+
+                        @Override
+                        public SecondaryRecord call() {
+                            SecondaryRecord record = Record
+                                    .createSecondaryRecord(key);
+                            for (SecondaryBlock block : csb) {
+                                block.seek(key, record);
+                            }
+                            return record;
+                        }
+
+                    });
         }
         finally {
             masterLock.readLock().unlock();
         }
     }
 
+    /**
+     * Return the path to the file where the {@link #statistics} are synced.
+     * 
+     * @return the statistics file
+     */
+    private String getStatisticsFile() {
+        return backingStore + File.separator + SECONDARY_BLOCK_DIRECTORY
+                + File.separator + STATISTICS_FILE;
+    }
+
+    /**
+     * Load the {@link #statistics} that were synced alongside the secondary
+     * blocks. If the synced statistics do not include the data in the last
+     * block (i.e. the server crashed after syncing the blocks but before
+     * syncing the statistics, or the statistics were never created), they are
+     * rebuilt from all the revisions in the loaded blocks.
+     */
+    private void loadStatistics() {
+        String checkpoint = cpb.isEmpty() ? "" : cpb.get(cpb.size() - 1)
+                .getId();
+        Statistics synced = Statistics.load(getStatisticsFile());
+        if(synced != null && synced.getCheckpoint().equals(checkpoint)) {
+            statistics.putAll(synced);
+        }
+        else if(!cpb.isEmpty()) {
+            Logger.info("Rebuilding the key statistics from {} blocks",
+                    cpb.size());
+            for (PrimaryBlock block : cpb) {
+                for (Revision<PrimaryKey, Text, Value> revision : block) {
+                    statistics.apply(revision);
+                }
+            }
+            statistics.sync(getStatisticsFile(), checkpoint);
+        }
+    }
+
+    /**
+     * Finish any compactions that were interrupted by an unexpected server
+     * shutdown after the merged blocks were staged and get rid of any staged
+     * data that was never swapped into place.
+     */
+    private void recoverCompaction() {
+        String staging = backingStore + File.separator + COMPACTION_DIRECTORY;
+        if(FileSystem.hasDir(staging)) {
+            Iterator<String> it = FileSystem.fileOnlyIterator(staging);
+            while (it.hasNext()) {
+                String file = it.next();
+                if(file.endsWith(COMPACTION_MARKER_EXTENSION)) {
+                    String id = Block.getId(file);
+                    // The manifest entries for the block that was merged are
+                    // stale, so the block must be checked when it is loaded
+                    for (BlockManifest manifest : manifests.values()) {
+                        manifest.remove(id);
+                    }
+                    try {
+                        finishCompaction(id, Lists.newArrayList(Splitter
+                                .on('\n').omitEmptyStrings()
+                                .split(Files.toString(new File(file),
+                                        Charsets.UTF_8))));
+                        Logger.warn("Finished the compaction of block {}, "
+                                + "which was interrupted by an unexpected "
+                                + "server shutdown", id);
+                    }
+                    catch (IOException e) {
+                        throw Throwables.propagate(e);
+                    }
+                }
+            }
+            FileSystem.deleteDirectory(staging);
+        }
+    }
+
+    /**
+     * Merge the immutable blocks in {@code sources} into the new
+     * {@code block} that resides in the compaction staging directory.
+     *
+     * @param block
+     * @param sources
+     * @return {@code true} if there was data to merge and the {@code block}
+     *         was staged
+     */
+    private <L extends Byteable & Comparable<L>, K extends Byteable & Comparable<K>, V extends Byteable & Comparable<V>> boolean stageMerge(
+            Block<L, K, V> block, List<? extends Block<L, K, V>> sources) {
+        List<Block<L, K, V>> immutable = Lists.newArrayList();
+        for (Block<L, K, V> source : sources) {
+            // Any block that is still mutable (other than the current ones,
+            // which are never compacted) is empty because it was never synced
+            if(!source.isMutable()) {
+                immutable.add(source);
+            }
+        }
+        if(!immutable.isEmpty()) {
+            block.merge(immutable, compactionThrottle);
+            return true;
+        }
+        else {
+            return false;
+        }
+    }
+
     /**
      * Create new mutable blocks and sync the current blocks to disk if
      * {@code doSync} is {@code true}.
@@ -645,8 +1274,12 @@ public final class Database extends BaseStore implements PermanentStore {
                 // TODO we need a transactional file system to ensure that these
                 // blocks are written atomically (all or nothing)
                 ConcourseExecutors.executeAndAwaitTermination(threadNamePrefix,
-                        new BlockSyncer(cpb0), new BlockSyncer(csb0),
-                        new BlockSyncer(ctb0));
+                        new BlockSyncer(cpb0, PRIMARY_BLOCK_DIRECTORY),
+                        new BlockSyncer(csb0, SECONDARY_BLOCK_DIRECTORY),
+                        new BlockSyncer(ctb0, SEARCH_BLOCK_DIRECTORY));
+                if(cpb0.size() > 0) {
+                    statistics.sync(getStatisticsFile(), cpb0.getId());
+                }
             }
             String id = Long.toString(Time.now());
             cpb.add((cpb0 = Block.createPrimaryBlock(id, backingStore
@@ -661,6 +1294,56 @@ public final class Database extends BaseStore implements PermanentStore {
         }
     }
 
+    /**
+     * A thread that periodically {@link Database#compact() compacts} blocks
+     * in the background for as long as the Database is running.
+     * 
+     * @author Jeff Nelson
+     */
+    private final class BlockCompactor extends Thread {
+
+        /**
+         * Construct a new instance.
+         */
+        public BlockCompactor() {
+            super(Strings.joinSimple("BlockCompactor [", backingStore, "]"));
+            setDaemon(true);
+            setPriority(MIN_PRIORITY);
+            setUncaughtExceptionHandler(new UncaughtExceptionHandler() {
+
+                @Override
+                public void uncaughtException(Thread t, Throwable e) {
+                    Logger.error("Uncaught exception in {}:", t.getName(), e);
+                }
+
+            });
+        }
+
+        @Override
+        public void run() {
+            while (running) {
+                try {
+                    TimeUnit.SECONDS.sleep(DATABASE_COMPACTION_FREQUENCY);
+                }
+                catch (InterruptedException e) { // the thread has been
+                                                 // interrupted from the
+                                                 // Database stopping
+                    break;
+                }
+                try {
+                    while (running && compact()) {
+                        continue;
+                    }
+                }
+                catch (RuntimeException e) {
+                    Logger.error("An error occurred while compacting "
+                            + "blocks in {}", backingStore, e);
+                }
+            }
+        }
+
+    }
+
     /**
      * A runnable that traverses the appropriate directory for a block type
      * under {@link #backingStore} and loads the block metadata into memory.
@@ -697,6 +1380,9 @@ public final class Database extends BaseStore implements PermanentStore {
                 SortedMap<File, T> blockSorter = Maps
                         .newTreeMap(NaturalSorter.INSTANCE);
                 Set<String> checksums = Sets.newHashSet();
+                Set<String> ids = Sets.newHashSet();
+                BlockManifest manifest = manifests.get(directory);
+                int hashed = 0;
                 for (File file : new File(path).listFiles(new FilenameFilter() {
 
                     @Override
@@ -712,8 +1398,16 @@ public final class Database extends BaseStore implements PermanentStore {
                     Constructor<T> constructor = clazz.getDeclaredConstructor(
                             String.class, String.class, Boolean.TYPE);
                     constructor.setAccessible(true);
-                    String checksum = Files.hash(file, Hashing.md5())
-                            .toString();
+                    ids.add(id);
+                    String checksum = manifest.getChecksum(id, file.length());
+                    if(checksum == null) {
+                        // The block is not in the manifest (i.e. it was
+                        // written by an older version or the server crashed
+                        // before the manifest was synced) so it must be read
+                        checksum = Files.hash(file, Hashing.md5()).toString();
+                        manifest.put(id, file.length(), checksum);
+                        ++hashed;
+                    }
                     if(!checksums.contains(checksum)) {
                         blockSorter.put(file, constructor.newInstance(id,
                                 path.toString(), true));
@@ -730,6 +1424,12 @@ public final class Database extends BaseStore implements PermanentStore {
 
                 }
                 blocks.addAll(blockSorter.values());
+                manifest.retainAll(ids);
+                manifest.sync();
+                if(hashed > 0) {
+                    Logger.info("Added {} {} blocks to the manifest", hashed,
+                            clazz.getSimpleName());
+                }
             }
             catch (ReflectiveOperationException | IOException e) {
                 Logger.error(
@@ -750,75 +1450,107 @@ public final class Database extends BaseStore implements PermanentStore {
     private final class BlockSyncer implements Runnable {
 
         private final Block<?, ?, ?> block;
+        private final String directory;
 
         /**
          * Construct a new instance.
          * 
          * @param block
+         * @param directory
          */
-        public BlockSyncer(Block<?, ?, ?> block) {
+        public BlockSyncer(Block<?, ?, ?> block, String directory) {
             this.block = block;
+            this.directory = directory;
         }
 
         @Override
         public void run() {
             block.sync();
+            if(block.getChecksum() != null) {
+                BlockManifest manifest = manifests.get(directory);
+                manifest.put(block.getId(), block.size(),
+                        block.getChecksum());
+                manifest.sync();
+            }
             Logger.debug("Completed sync of {}", block);
         }
 
     }
 
     /**
-     * A runnable that will insert a Writer into a block.
+     * A runnable that will insert a batch of Writes into a block.
      * 
      * @author Jeff Nelson
      */
     private final class BlockWriter implements Runnable {
 
         private final Block<?, ?, ?> block;
-        private final Write write;
+        private final List<Write> writes;
 
         /**
          * Construct a new instance.
          * 
          * @param block
-         * @param write
+         * @param writes
          */
-        public BlockWriter(Block<?, ?, ?> block, Write write) {
+        public BlockWriter(Block<?, ?, ?> block, List<Write> writes) {
             this.block = block;
-            this.write = write;
+            this.writes = writes;
         }
 
         @Override
         public void run() {
+            for (Write write : writes) {
+                write(write);
+            }
+        }
+
+        /**
+         * Append {@code revision} to the record that is cached under
+         * {@code composite} in {@code cache}, if it exists, and let the cache
+         * {@link RecordCache#reweigh(Composite, Record, long) re-weigh} the
+         * record.
+         * 
+         * @param cache
+         * @param composite
+         * @param revision
+         */
+        private <L extends Byteable & Comparable<L>, K extends Byteable & Comparable<K>, V extends Byteable & Comparable<V>, T extends Record<L, K, V>> void appendToCachedRecord(
+                RecordCache<T> cache, Composite composite,
+                Revision<L, K, V> revision) {
+            T record = cache.peek(composite);
+            if(record != null) {
+                long footprint = record.getFootprint();
+                record.append(revision);
+                cache.reweigh(composite, record, footprint);
+            }
+        }
+
+        /**
+         * Insert {@code write} into the {@link #block} and append the
+         * resulting revision to any relevant cached records.
+         * 
+         * @param write
+         */
+        private void write(Write write) {
             Logger.debug("Writing {} to {}", write, block);
             if(block instanceof PrimaryBlock) {
                 PrimaryRevision revision = (PrimaryRevision) ((PrimaryBlock) block)
                         .insert(write.getRecord(), write.getKey(),
                                 write.getValue(), write.getVersion(),
                                 write.getType());
-                Record<PrimaryKey, Text, Value> record = cpc
-                        .getIfPresent(Composite.create(write.getRecord()));
-                Record<PrimaryKey, Text, Value> partialRecord = cppc
-                        .getIfPresent(Composite.create(write.getRecord(),
-                                write.getKey()));
-                if(record != null) {
-                    record.append(revision);
-                }
-                if(partialRecord != null) {
-                    partialRecord.append(revision);
-                }
+                appendToCachedRecord(cpc, Composite.create(write.getRecord()),
+                        revision);
+                appendToCachedRecord(cppc, Composite.create(write.getRecord(),
+                        write.getKey()), revision);
             }
             else if(block instanceof SecondaryBlock) {
                 SecondaryRevision revision = (SecondaryRevision) ((SecondaryBlock) block)
                         .insert(write.getKey(), write.getValue(),
                                 write.getRecord(), write.getVersion(),
                                 write.getType());
-                SecondaryRecord record = csc.getIfPresent(Composite
-                        .create(write.getKey()));
-                if(record != null) {
-                    record.append(revision);
-                }
+                appendToCachedRecord(csc, Composite.create(write.getKey()),
+                        revision);
             }
             else if(block instanceof SearchBlock) {
                 ((SearchBlock) block).insert(write.getKey(), write.getValue(),
@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2013-2015 Cinchapi Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.cinchapi.concourse.server.storage.db;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.cinchapi.concourse.annotate.PackagePrivate;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Utilities for the positional n-gram index that is stored in a
+ * {@link SearchBlock} and queried from a {@link SearchRecord}.
+ * <p>
+ * Each term is indexed under every distinct substring that is shorter than
+ * {@link #GRAM_LENGTH} and under the gram of exactly {@link #GRAM_LENGTH}
+ * characters that starts at each offset in the term. The index of each
+ * {@link org.cinchapi.concourse.server.model.Position Position} packs the
+ * position of the term in the value together with the offset of the gram in
+ * the term so that a longer query can be matched by verifying that all of its
+ * grams appear at consecutive offsets in the same term. This keeps the number
+ * of revisions per term linear in the length of the term instead of quadratic.
+ * </p>
+ * <p>
+ * A term whose position is larger than {@link #MAX_POSITION} or a gram whose
+ * offset is larger than {@link #MAX_OFFSET} cannot be packed into an index. In
+ * that case every substring of the term that could not otherwise be found is
+ * indexed under its {@link #getUnpackedGram(String) unpacked gram} with the
+ * plain position of the term, which is how all terms used to be indexed. This
+ * is expensive, but only happens for unusually long terms and values, and it
+ * keeps the search semantics the same for them.
+ * </p>
+ * 
+ * @author Jeff Nelson
+ */
+@PackagePrivate
+final class NGrams {
+
+    /**
+     * Return the position of a term that is encoded in the {@code index} of a
+     * Position.
+     * 
+     * @param index
+     * @return the term position
+     */
+    public static int decodePosition(int index) {
+        return index >>> OFFSET_BITS;
+    }
+
+    /**
+     * Return the offset of a gram that is encoded in the {@code index} of a
+     * Position.
+     * 
+     * @param index
+     * @return the gram offset
+     */
+    public static int decodeOffset(int index) {
+        return index & MAX_OFFSET;
+    }
+
+    /**
+     * Return the index of a Position for a gram at {@code offset} in the term
+     * at {@code position}.
+     * 
+     * @param position
+     * @param offset
+     * @return the encoded index
+     */
+    public static int encode(int position, int offset) {
+        return (position << OFFSET_BITS) | offset;
+    }
+
+    /**
+     * Return the gram under which {@code substring} is indexed (with the plain
+     * position of its term) if the term cannot be packed. The gram starts with
+     * a space, so it can never collide with a packed gram that is taken from
+     * a term.
+     * 
+     * @param substring
+     * @return the unpacked gram
+     */
+    public static String getUnpackedGram(String substring) {
+        return UNPACKED_PREFIX + substring;
+    }
+
+    /**
+     * Return the grams that must be looked up to find matches for the query
+     * {@code term}. If the term is no longer than {@link #GRAM_LENGTH} it is
+     * looked up directly, otherwise the gram at index {@code i} of the
+     * returned list starts at offset {@code i} in the term.
+     * 
+     * @param term
+     * @return the grams
+     */
+    public static List<String> getQueryGrams(String term) {
+        if(term.length() <= GRAM_LENGTH) {
+            return Collections.singletonList(term);
+        }
+        else {
+            List<String> grams = Lists.newArrayListWithCapacity(term.length()
+                    - GRAM_LENGTH + 1);
+            for (int i = 0; i + GRAM_LENGTH <= term.length(); ++i) {
+                grams.add(term.substring(i, i + GRAM_LENGTH));
+            }
+            return grams;
+        }
+    }
+
+    /**
+     * The length of the grams that are indexed with their offset.
+     */
+    public static final int GRAM_LENGTH = 3;
+
+    /**
+     * The number of low order bits in a Position index that hold the offset of
+     * a gram.
+     */
+    private static final int OFFSET_BITS = 10;
+
+    /**
+     * The largest gram offset that can be packed into an index. The substrings
+     * of an unusually long term that need grams after this offset are indexed
+     * under their {@link #getUnpackedGram(String) unpacked gram}.
+     */
+    public static final int MAX_OFFSET = (1 << OFFSET_BITS) - 1;
+
+    /**
+     * The largest term position that can be packed into an index. Every
+     * substring of a term after this position in an unusually long value is
+     * indexed under its {@link #getUnpackedGram(String) unpacked gram}.
+     */
+    public static final int MAX_POSITION = Integer.MAX_VALUE >>> OFFSET_BITS;
+
+    /**
+     * The prefix of each {@link #getUnpackedGram(String) unpacked gram}.
+     */
+    private static final String UNPACKED_PREFIX = " ";
+
+    private NGrams() {/* utility class */}
+
+}
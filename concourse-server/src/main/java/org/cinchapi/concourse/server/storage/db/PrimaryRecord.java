@@ -15,8 +15,6 @@
  */
 package org.cinchapi.concourse.server.storage.db;
 
-import java.util.Iterator;
-import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -88,13 +86,11 @@ final class PrimaryRecord extends BrowsableRecord<PrimaryKey, Text, Value> {
         read.lock();
         try {
             Map<Long, String> audit = Maps.newLinkedHashMap();
-            List<CompactRevision<Value>> revisions = history.get(key); /* Authorized */
+            RevisionLog<Value> revisions = history.get(key); /* Authorized */
             if(revisions != null) {
-                Iterator<CompactRevision<Value>> it = revisions.iterator();
-                while (it.hasNext()) {
-                    CompactRevision<Value> revision = it.next();
-                    audit.put(revision.getVersion(),
-                            revision.toString(locator, key));
+                for (int i = 0; i < revisions.size(); ++i) {
+                    audit.put(revisions.getVersion(i),
+                            revisions.toString(i, locator, key));
                 }
             }
             return audit;
@@ -104,6 +100,29 @@ final class PrimaryRecord extends BrowsableRecord<PrimaryKey, Text, Value> {
         }
     }
 
+    /**
+     * Return a mapping from the timestamp of each revision to the field mapped
+     * from {@code key} between {@code start} (inclusive) and {@code end}
+     * (exclusive) to the Set of values that were contained in the field
+     * afterwards.
+     * 
+     * @param key
+     * @param start
+     * @param end
+     * @return the chronology
+     */
+    public Map<Long, Set<Value>> chronologize(Text key, long start, long end) {
+        read.lock();
+        try {
+            RevisionLog<Value> revisions = history.get(key); /* Authorized */
+            return revisions != null ? revisions.chronologize(start, end)
+                    : Maps.<Long, Set<Value>> newLinkedHashMap();
+        }
+        finally {
+            read.unlock();
+        }
+    }
+
     /**
      * Return the Set of values <em>currently</em> contained in the field mapped
      * from {@code key}.
@@ -19,7 +19,6 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
-import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
@@ -38,7 +37,6 @@ import org.cinchapi.concourse.server.model.Value;
 import org.cinchapi.concourse.server.storage.Action;
 
 import com.google.common.base.Preconditions;
-import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 
@@ -122,6 +120,40 @@ abstract class Record<L extends Byteable & Comparable<L>, K extends Byteable & C
         return new SecondaryRecord(key, value);
     }
 
+    /**
+     * Return the number of bytes that a key or value adds to a Record in
+     * addition to any bookkeeping. This is its serialized size plus, for a
+     * {@link Value}, the size of the {@link Value#getSortKey() sort key} that
+     * it caches once it is compared (i.e. when it is a key in a sorted
+     * index).
+     * 
+     * @param object
+     * @return the size
+     */
+    private static int sizeOf(Byteable object) {
+        return object instanceof Value ? object.size()
+                + ((Value) object).getSortKey().length : object.size();
+    }
+
+    /**
+     * The approximate number of bytes of bookkeeping (i.e. object headers,
+     * references and index entries) that each key adds to a Record in
+     * addition to its {@link #sizeOf(Byteable) size}.
+     */
+    private static final int KEY_OVERHEAD = 128;
+
+    /**
+     * The approximate number of bytes of bookkeeping that each revision adds
+     * to a Record in addition to the serialized size of its value.
+     */
+    private static final int REVISION_OVERHEAD = 64;
+
+    /**
+     * The approximate number of bytes that each value in a checkpoint of the
+     * {@link #history} adds to a Record.
+     */
+    private static final int CHECKPOINT_OVERHEAD = 8;
+
     /**
      * The master lock for {@link #write} and {@link #read}. DO NOT use this
      * lock directly.
@@ -153,9 +185,14 @@ abstract class Record<L extends Byteable & Comparable<L>, K extends Byteable & C
      * This index is used to efficiently handle historical reads. Given a
      * revision (e.g key/value pair), and historical timestamp, we can count the
      * number of times that the value appears <em>beforehand</em> at determine
-     * if the mapping existed or not.
+     * if the mapping existed or not. The revisions for each key are kept in a
+     * flyweight {@link RevisionLog} instead of individual objects to reduce
+     * the memory footprint of large Records. Each log is checkpointed as the
+     * revisions are appended, so a historical read doesn't have to replay the
+     * entire history of the key (except in a {@link SearchRecord}, which only
+     * supports present reads).
      */
-    protected final transient HashMap<K, List<CompactRevision<V>>> history = Maps
+    protected final transient HashMap<K, RevisionLog<V>> history = Maps
             .newHashMap();
 
     /**
@@ -163,6 +200,11 @@ abstract class Record<L extends Byteable & Comparable<L>, K extends Byteable & C
      */
     private transient long version = 0;
 
+    /**
+     * An estimate of the number of bytes that the Record occupies in memory.
+     */
+    private transient volatile long footprint = 0;
+
     /**
      * The locator used to identify this Record.
      */
@@ -265,15 +307,24 @@ abstract class Record<L extends Byteable & Comparable<L>, K extends Byteable & C
             }
 
             // Update history index
-            List<CompactRevision<V>> revisions = history.get(revision.getKey());
+            RevisionLog<V> revisions = history.get(revision.getKey());
             if(revisions == null) {
-                revisions = Lists.newArrayList();
+                revisions = createRevisionLog();
                 history.put(revision.getKey(), revisions);
+                footprint += KEY_OVERHEAD + sizeOf(revision.getKey());
+            }
+            revisions.append(revision.getValue(), revision.getVersion(),
+                    revision.getType());
+            if(!(this instanceof SearchRecord)) {
+                // A SearchRecord is never read at a historical timestamp, so
+                // its logs aren't checkpointed
+                footprint += CHECKPOINT_OVERHEAD
+                        * revisions.checkpoint(values);
             }
-            revisions.add(revision.compact());
 
             // Update metadata
             version = Math.max(version, revision.getVersion());
+            footprint += REVISION_OVERHEAD + revision.getValue().size();
 
             // Make revision eligible for GC
             revision = null;
@@ -294,6 +345,17 @@ abstract class Record<L extends Byteable & Comparable<L>, K extends Byteable & C
         return false;
     }
 
+    /**
+     * Return an estimate of the number of bytes that the Record occupies in
+     * memory. The estimate grows as revisions are appended, so it can be used
+     * to weigh the Record in a cache.
+     * 
+     * @return the footprint
+     */
+    public long getFootprint() {
+        return footprint;
+    }
+
     /**
      * Return the Record's version, which is equal to the largest version of an
      * appended Revision.
@@ -410,33 +472,25 @@ abstract class Record<L extends Byteable & Comparable<L>, K extends Byteable & C
     protected Set<V> get(K key, long timestamp) {
         read.lock();
         try {
-            Set<V> values = emptyValues;
-            List<CompactRevision<V>> stored = history.get(key);
-            if(stored != null) {
-                values = Sets.newLinkedHashSet();
-                Iterator<CompactRevision<V>> it = stored.iterator();
-                while (it.hasNext()) {
-                    CompactRevision<V> revision = it.next();
-                    if(revision.getVersion() <= timestamp) {
-                        if(revision.getType() == Action.ADD) {
-                            values.add(revision.getValue());
-                        }
-                        else {
-                            values.remove(revision.getValue());
-                        }
-                    }
-                    else {
-                        break;
-                    }
-                }
-            }
-            return values;
+            RevisionLog<V> stored = history.get(key);
+            return stored != null ? stored.get(timestamp) : emptyValues;
         }
         finally {
             read.unlock();
         }
     }
 
+    /**
+     * Return a new {@link RevisionLog} to store the {@link #history} for a
+     * key. The subclass may override this method to use a log that is
+     * specialized for its value type.
+     * 
+     * @return the RevisionLog
+     */
+    protected RevisionLog<V> createRevisionLog() {
+        return RevisionLog.create();
+    }
+
     /**
      * Initialize the appropriate data structure for the {@link #present}.
      * 
@@ -0,0 +1,261 @@
+/*
+ * Copyright (c) 2013-2015 Cinchapi Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.cinchapi.concourse.server.storage.db;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+
+import org.cinchapi.concourse.annotate.PackagePrivate;
+import org.cinchapi.concourse.server.io.Composite;
+
+import com.google.common.base.Throwables;
+import com.google.common.cache.AbstractCache.SimpleStatsCounter;
+import com.google.common.cache.AbstractCache.StatsCounter;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.Weigher;
+
+/**
+ * A cache of {@link Record Records} that is bounded by the total
+ * {@link Record#getFootprint() footprint} of the records it holds.
+ * <p>
+ * Guava splits the maximum weight of a cache evenly across its segments and
+ * evicts the least recently used records of a segment until a new record
+ * fits, so a single large record that is read once can flush the hot records
+ * out of its segment. To prevent that, records are only admitted into the
+ * cache after they are loaded:
+ * <ul>
+ * <li>a record that weighs more than a quarter of a segment is never cached,
+ * and</li>
+ * <li>a record that weighs more than a small fraction of a segment is only
+ * cached if it was recently loaded before, so the cache only makes room for
+ * large records that are read repeatedly.</li>
+ * </ul>
+ * </p>
+ * <p>
+ * A cached record grows in place as revisions are appended to it, but it is
+ * only {@link #reweigh(Composite, Record, long) re-weighed} when its
+ * footprint crosses a power of two, so the cache never undercounts a record
+ * by more than half and most appends don't touch the cache at all.
+ * </p>
+ * 
+ * @author Jeff Nelson
+ */
+@ThreadSafe
+@PackagePrivate
+final class RecordCache<T extends Record<?, ?, ?>> {
+
+    /**
+     * The number of segments in the cache, which is Guava's default
+     * concurrency level.
+     */
+    private static final int CONCURRENCY_LEVEL = 4;
+
+    /**
+     * The number of recently loaded records that are remembered to decide
+     * whether a large record has been loaded before.
+     */
+    private static final int MAX_CANDIDATES = 10000;
+
+    /**
+     * The weight of a segment is divided by this number to get the maximum
+     * weight of any single record in the cache.
+     */
+    private static final int MAX_RECORD_WEIGHT_DIVISOR = 4;
+
+    /**
+     * The weight of a segment is divided by this number to get the maximum
+     * weight of a record that is cached the first time it is loaded.
+     */
+    private static final int UNCONDITIONAL_WEIGHT_DIVISOR = 64;
+
+    /**
+     * The cached records.
+     */
+    private final Cache<Composite, T> cache;
+
+    /**
+     * The records that were recently loaded, but not cached because they were
+     * too large to be admitted on their first load.
+     */
+    private final Set<Composite> candidates;
+
+    /**
+     * Counts the loads that happen on a cache miss, since the records are not
+     * loaded by the {@link #cache} itself.
+     */
+    private final StatsCounter loads = new SimpleStatsCounter();
+
+    /**
+     * The maximum weight of any record in the cache.
+     */
+    private final long maxRecordWeight;
+
+    /**
+     * The maximum weight of a record that is admitted on its first load.
+     */
+    private final long unconditionalWeight;
+
+    /**
+     * Construct a new instance.
+     * 
+     * @param maximumWeight
+     */
+    public RecordCache(long maximumWeight) {
+        this.cache = CacheBuilder.newBuilder()
+                .concurrencyLevel(CONCURRENCY_LEVEL)
+                .maximumWeight(maximumWeight)
+                .<Composite, T> weigher(RecordWeigher.INSTANCE).recordStats()
+                .build();
+        this.candidates = Collections.newSetFromMap(CacheBuilder.newBuilder()
+                .maximumSize(MAX_CANDIDATES).<Composite, Boolean> build()
+                .asMap());
+        long segmentWeight = maximumWeight / CONCURRENCY_LEVEL;
+        this.maxRecordWeight = segmentWeight / MAX_RECORD_WEIGHT_DIVISOR;
+        this.unconditionalWeight = segmentWeight
+                / UNCONDITIONAL_WEIGHT_DIVISOR;
+    }
+
+    /**
+     * Return the record that is cached under {@code composite} or use
+     * {@code loader} to load it, if necessary. A loaded record is only cached
+     * if it is admitted.
+     * 
+     * @param composite
+     * @param loader
+     * @return the record
+     */
+    public T get(Composite composite, Callable<T> loader) {
+        T record = cache.getIfPresent(composite);
+        if(record == null) {
+            long start = System.nanoTime();
+            try {
+                record = loader.call();
+            }
+            catch (Exception e) {
+                loads.recordLoadException(System.nanoTime() - start);
+                throw Throwables.propagate(e);
+            }
+            loads.recordLoadSuccess(System.nanoTime() - start);
+            if(admit(composite, record)) {
+                T cached = cache.asMap().putIfAbsent(composite, record);
+                if(cached != null) { // another reader loaded it first, so
+                                     // use theirs since it may have been
+                                     // appended to since
+                    record = cached;
+                }
+            }
+        }
+        return record;
+    }
+
+    /**
+     * Return the record that is cached under {@code composite} without
+     * counting a hit or miss, or {@code null} if it is not cached.
+     * 
+     * @param composite
+     * @return the cached record or {@code null}
+     */
+    @Nullable
+    public T peek(Composite composite) {
+        return cache.asMap().get(composite);
+    }
+
+    /**
+     * Make the cache account for the growth of the {@code record} that is
+     * cached under {@code composite} and weighed {@code footprint} bytes
+     * before it was appended to. A record that grows larger than the maximum
+     * record weight is removed from the cache.
+     * 
+     * @param composite
+     * @param record
+     * @param footprint
+     */
+    public void reweigh(Composite composite, T record, long footprint) {
+        long weight = record.getFootprint();
+        if(weight > maxRecordWeight) {
+            cache.asMap().remove(composite, record);
+        }
+        else if(Long.highestOneBit(weight) > Long.highestOneBit(footprint)) {
+            cache.asMap().replace(composite, record, record);
+        }
+    }
+
+    /**
+     * Return the number of records in the cache.
+     * 
+     * @return the size
+     */
+    public long size() {
+        return cache.size();
+    }
+
+    /**
+     * Return the {@link CacheStats} of the cache, including the loads of the
+     * records that were not admitted.
+     * 
+     * @return the stats
+     */
+    public CacheStats stats() {
+        return cache.stats().plus(loads.snapshot());
+    }
+
+    /**
+     * Return {@code true} if the {@code record} that was loaded for
+     * {@code composite} should be cached.
+     * 
+     * @param composite
+     * @param record
+     * @return {@code true} if the record is admitted
+     */
+    private boolean admit(Composite composite, T record) {
+        long weight = record.getFootprint();
+        if(weight > maxRecordWeight) {
+            return false;
+        }
+        else if(weight <= unconditionalWeight) {
+            return true;
+        }
+        else if(candidates.remove(composite)) {
+            return true;
+        }
+        else {
+            candidates.add(composite);
+            return false;
+        }
+    }
+
+    /**
+     * A {@link Weigher} that weighs each cached {@link Record} by its
+     * {@link Record#getFootprint() footprint}.
+     * 
+     * @author Jeff Nelson
+     */
+    private enum RecordWeigher implements Weigher<Composite, Record<?, ?, ?>> {
+        INSTANCE;
+
+        @Override
+        public int weigh(Composite key, Record<?, ?, ?> value) {
+            return (int) Math.min(Integer.MAX_VALUE, value.getFootprint());
+        }
+    }
+
+}
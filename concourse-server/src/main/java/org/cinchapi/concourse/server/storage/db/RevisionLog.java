@@ -0,0 +1,397 @@
+/*
+ * Copyright (c) 2013-2015 Cinchapi Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.cinchapi.concourse.server.storage.db;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import org.cinchapi.concourse.annotate.PackagePrivate;
+import org.cinchapi.concourse.server.model.PrimaryKey;
+import org.cinchapi.concourse.server.storage.Action;
+
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+/**
+ * A flyweight log of the revisions for a single key in a {@link Record}. The
+ * locator and key are implied by the housing Record, so the log only stores
+ * the value, version and type of each revision.
+ * <p>
+ * Instead of holding an object for every revision, the log packs the versions
+ * (and types) into a primitive array and the values into a parallel array, so
+ * each revision costs a few words of memory and creates no garbage. Since
+ * revisions are appended in version order, historical reads can use a binary
+ * search to find the revisions that occurred at or before a timestamp.
+ * </p>
+ * <p>
+ * The log also keeps periodic <em>checkpoints</em> of the values that were
+ * present after some of its revisions, so a historical read only needs to
+ * replay the revisions since the closest preceding checkpoint instead of every
+ * revision from the beginning of the log. The number of revisions between two
+ * checkpoints is at least the number of values in the later one, so the
+ * checkpoints never hold more references than there are revisions.
+ * </p>
+ * 
+ * @author Jeff Nelson
+ */
+@NotThreadSafe
+@PackagePrivate
+abstract class RevisionLog<V extends Comparable<V>> {
+
+    /**
+     * Return a new {@link RevisionLog} that stores references to each value.
+     * 
+     * @return the RevisionLog
+     */
+    public static <V extends Comparable<V>> RevisionLog<V> create() {
+        return new ObjectRevisionLog<V>();
+    }
+
+    /**
+     * Return a new {@link RevisionLog} for {@link PrimaryKey} values that
+     * stores each value as a primitive long.
+     * 
+     * @return the RevisionLog
+     */
+    public static RevisionLog<PrimaryKey> createForPrimaryKeys() {
+        return new PrimaryKeyRevisionLog();
+    }
+
+    /**
+     * The number of revisions that a new log can hold before it must grow.
+     */
+    private static final int INITIAL_CAPACITY = 2;
+
+    /**
+     * The minimum number of revisions between two checkpoints.
+     */
+    private static final int CHECKPOINT_INTERVAL = 64;
+
+    /**
+     * The version of each revision. The version of a revision whose type is
+     * {@link Action#REMOVE} is stored as its bitwise complement so that the
+     * type doesn't need to be stored separately.
+     */
+    private long[] versions = new long[INITIAL_CAPACITY];
+
+    /**
+     * The number of revisions in the log.
+     */
+    private int size = 0;
+
+    /**
+     * The number of revisions that precede each checkpoint, in ascending
+     * order.
+     */
+    private int[] checkpointIndexes = null;
+
+    /**
+     * The values that were present after the revisions that precede each
+     * checkpoint.
+     */
+    private Object[][] checkpointStates = null;
+
+    /**
+     * The number of checkpoints in the log.
+     */
+    private int checkpoints = 0;
+
+    /**
+     * Append a revision to the log. The {@code version} must be greater than
+     * or equal to that of each revision that is already in the log.
+     * 
+     * @param value
+     * @param version
+     * @param type
+     */
+    public void append(V value, long version, Action type) {
+        if(size == versions.length) {
+            int capacity = size + (size >> 1) + 1;
+            versions = Arrays.copyOf(versions, capacity);
+            resize(capacity);
+        }
+        versions[size] = type == Action.REMOVE ? ~version : version;
+        set(size, value);
+        ++size;
+    }
+
+    /**
+     * Record a checkpoint with the values in {@code state}, which must be the
+     * values that are present after all the revisions in the log, if enough
+     * revisions have been appended since the last checkpoint.
+     * 
+     * @param state
+     * @return the number of values in the new checkpoint, which is {@code 0}
+     *         if no checkpoint was recorded
+     */
+    public int checkpoint(Collection<V> state) {
+        int last = checkpoints > 0 ? checkpointIndexes[checkpoints - 1] : 0;
+        if(size - last >= Math.max(CHECKPOINT_INTERVAL, state.size())) {
+            if(checkpointIndexes == null) {
+                checkpointIndexes = new int[INITIAL_CAPACITY];
+                checkpointStates = new Object[INITIAL_CAPACITY][];
+            }
+            else if(checkpoints == checkpointIndexes.length) {
+                int capacity = checkpoints << 1;
+                checkpointIndexes = Arrays.copyOf(checkpointIndexes, capacity);
+                checkpointStates = Arrays.copyOf(checkpointStates, capacity);
+            }
+            checkpointIndexes[checkpoints] = size;
+            checkpointStates[checkpoints] = state.toArray();
+            ++checkpoints;
+            return state.size();
+        }
+        else {
+            return 0;
+        }
+    }
+
+    /**
+     * Return a mapping from the version of each revision between {@code start}
+     * (inclusive) and {@code end} (exclusive) to the values that were present
+     * immediately afterwards, omitting the revisions that left no values. The
+     * values at {@code start} are restored from the closest checkpoint and the
+     * revisions in the range are replayed exactly once.
+     * 
+     * @param start
+     * @param end
+     * @return the chronology
+     */
+    public Map<Long, Set<V>> chronologize(long start, long end) {
+        Map<Long, Set<V>> chronology = Maps.newLinkedHashMap();
+        if(start < end) {
+            Set<V> values = get(start - 1);
+            int last = count(end - 1);
+            for (int i = count(start - 1); i < last; ++i) {
+                long version = getVersion(i);
+                if(getType(i) == Action.ADD) {
+                    values.add(getValue(i));
+                }
+                else {
+                    values.remove(getValue(i));
+                }
+                if(values.isEmpty()) {
+                    chronology.remove(version);
+                }
+                else {
+                    chronology.put(version, Sets.newLinkedHashSet(values));
+                }
+            }
+        }
+        return chronology;
+    }
+
+    /**
+     * Return the number of revisions in the log that have a version that is
+     * less than or equal to {@code timestamp}. Since the log is sorted by
+     * version, those revisions are at the indexes in the range [0, count).
+     * 
+     * @param timestamp
+     * @return the number of revisions at or before {@code timestamp}
+     */
+    public int count(long timestamp) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if(getVersion(mid) <= timestamp) {
+                low = mid + 1;
+            }
+            else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Return the values that were present at {@code timestamp}, in the order
+     * that they were added. The values are computed by replaying the
+     * revisions since the closest checkpoint at or before {@code timestamp}.
+     * 
+     * @param timestamp
+     * @return the values at {@code timestamp}
+     */
+    @SuppressWarnings("unchecked")
+    public Set<V> get(long timestamp) {
+        int count = count(timestamp);
+        int low = 0;
+        int high = checkpoints - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if(checkpointIndexes[mid] <= count) {
+                low = mid + 1;
+            }
+            else {
+                high = mid - 1;
+            }
+        }
+        Set<V> values = Sets.newLinkedHashSet();
+        int start = 0;
+        if(low > 0) {
+            for (Object value : checkpointStates[low - 1]) {
+                values.add((V) value);
+            }
+            start = checkpointIndexes[low - 1];
+        }
+        for (int i = start; i < count; ++i) {
+            if(getType(i) == Action.ADD) {
+                values.add(getValue(i));
+            }
+            else {
+                values.remove(getValue(i));
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Return the type of the revision at {@code index}.
+     * 
+     * @param index
+     * @return the type
+     */
+    public Action getType(int index) {
+        return versions[index] < 0 ? Action.REMOVE : Action.ADD;
+    }
+
+    /**
+     * Return the value of the revision at {@code index}.
+     * 
+     * @param index
+     * @return the value
+     */
+    public abstract V getValue(int index);
+
+    /**
+     * Return the version of the revision at {@code index}.
+     * 
+     * @param index
+     * @return the version
+     */
+    public long getVersion(int index) {
+        long version = versions[index];
+        return version < 0 ? ~version : version;
+    }
+
+    /**
+     * Return the number of revisions in the log.
+     * 
+     * @return the size
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Return a string description of the revision at {@code index} that is
+     * compatible with a full {@link Revision} based on the {@code locator} and
+     * {@code key}.
+     * 
+     * @param index
+     * @param locator
+     * @param key
+     * @return toString output
+     */
+    public <L extends Comparable<L>, K extends Comparable<K>> String toString(
+            int index, L locator, K key) {
+        return getType(index) + " " + key + " AS " + getValue(index) + " IN "
+                + locator + " AT " + getVersion(index);
+    }
+
+    /**
+     * Grow the storage for values so that it can hold {@code capacity}
+     * revisions.
+     * 
+     * @param capacity
+     */
+    protected abstract void resize(int capacity);
+
+    /**
+     * Store {@code value} at {@code index}.
+     * 
+     * @param index
+     * @param value
+     */
+    protected abstract void set(int index, V value);
+
+    /**
+     * A {@link RevisionLog} that stores a reference to each value.
+     * 
+     * @author Jeff Nelson
+     */
+    private static final class ObjectRevisionLog<V extends Comparable<V>>
+            extends RevisionLog<V> {
+
+        /**
+         * The value of each revision.
+         */
+        private Object[] values = new Object[INITIAL_CAPACITY];
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public V getValue(int index) {
+            return (V) values[index];
+        }
+
+        @Override
+        protected void resize(int capacity) {
+            values = Arrays.copyOf(values, capacity);
+        }
+
+        @Override
+        protected void set(int index, V value) {
+            values[index] = value;
+        }
+
+    }
+
+    /**
+     * A {@link RevisionLog} that stores each {@link PrimaryKey} value as a
+     * primitive long and only wraps it in an object when it is read.
+     * 
+     * @author Jeff Nelson
+     */
+    private static final class PrimaryKeyRevisionLog extends
+            RevisionLog<PrimaryKey> {
+
+        /**
+         * The value of each revision.
+         */
+        private long[] values = new long[INITIAL_CAPACITY];
+
+        @Override
+        public PrimaryKey getValue(int index) {
+            return PrimaryKey.wrap(values[index]);
+        }
+
+        @Override
+        protected void resize(int capacity) {
+            values = Arrays.copyOf(values, capacity);
+        }
+
+        @Override
+        protected void set(int index, PrimaryKey value) {
+            values[index] = value.longValue();
+        }
+
+    }
+
+}
@@ -17,7 +17,6 @@ package org.cinchapi.concourse.server.storage.db;
 
 import static org.cinchapi.concourse.server.GlobalState.STOPWORDS;
 
-import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Set;
@@ -26,6 +25,7 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.ThreadSafe;
 
 import org.cinchapi.concourse.annotate.DoNotInvoke;
@@ -56,6 +56,9 @@ import com.google.common.util.concurrent.ThreadFactoryBuilder;
  * query is for 'fo ar' then value 'foo bar' will match, etc).
  * </p>
  * <p>
+ * Instead of storing every substring of every term, the block stores a
+ * positional n-gram index (see {@link NGrams}) so the number of revisions
+ * that are created for a term grows linearly with its length.
  * </p>
  * 
  * @author Jeff Nelson
@@ -129,7 +132,11 @@ final class SearchBlock extends Block<Text, Text, Position> {
             int pos = 0;
             List<Future<?>> futures = Lists.newArrayList();
             for (String tok : toks) {
-                futures.addAll(process(key, tok, pos, record, version, type));
+                Future<?> future = process(key, tok, pos, record, version,
+                        type);
+                if(future != null) {
+                    futures.add(future);
+                }
                 ++pos;
             }
             for (Future<?> future : futures) { // wait for completion
@@ -170,9 +177,18 @@ final class SearchBlock extends Block<Text, Text, Position> {
     }
 
     /**
-     * Calculate all possible substrings for {@code term} and submit a task to
-     * the {@link #indexer} that will store a revision for the {@code term} at
-     * {@code position} for {@code key} in {@code record} at {@code version}.
+     * Calculate the grams for {@code term} and submit a task to the
+     * {@link #indexer} that will store a revision for each gram of the
+     * {@code term} at {@code position} for {@code key} in {@code record} at
+     * {@code version}.
+     * <p>
+     * Every distinct gram that is shorter than {@link NGrams#GRAM_LENGTH} is
+     * stored once for the term. Each gram of exactly that length is stored with
+     * its offset in the term so that longer queries can be verified in a
+     * {@link SearchRecord} (see {@link NGrams}). The substrings that can't be
+     * found that way because the position or offsets are too large to pack are
+     * stored under their unpacked grams instead.
+     * </p>
      * 
      * @param key
      * @param term
@@ -180,49 +196,113 @@ final class SearchBlock extends Block<Text, Text, Position> {
      * @param record
      * @param version
      * @param type
-     * @return {@link Future Futures} that can be used to wait for all the
-     *         submitted tasks to complete
+     * @return a {@link Future} that can be used to wait for the submitted task
+     *         to complete or {@code null} if the term is not indexed
      */
-    private List<Future<?>> process(final Text key, final String term,
+    @Nullable
+    private Future<?> process(final Text key, final String term,
             final int position, final PrimaryKey record, final long version,
             final Action type) {
-        if(!STOPWORDS.contains(term)) {
-            int upperBound = (int) Math.pow(term.length(), 2);
-            List<Future<?>> futures = Lists
-                    .newArrayListWithCapacity(upperBound);
-
-            // The set of substrings that have been indexed from {@code term} at
-            // {@code position} for {@code key} in {@code record} at {@code
-            // version}. This is used to ensure that we do not add duplicate
-            // indexes (i.e. 'abrakadabra')
-            Set<String> indexed = Sets.newHashSetWithExpectedSize(upperBound);
-
-            for (int i = 0; i < term.length(); ++i) {
-                for (int j = i + 1; j < term.length() + 1; ++j) {
-                    final String substring = term.substring(i, j).trim();
-                    if(!Strings.isNullOrEmpty(substring)
-                            && !STOPWORDS.contains(substring)
-                            && !indexed.contains(substring)) {
-                        indexed.add(substring);
-                        futures.add(indexer.submit(new Runnable() {
-
-                            @Override
-                            public void run() {
-                                doInsert(key, Text.wrap(substring),
-                                        Position.wrap(record, position),
-                                        version, type);
-                            }
-
-                        }));
+        if(!Strings.isNullOrEmpty(term) && !STOPWORDS.contains(term)) {
+            return indexer.submit(new Runnable() {
+
+                @Override
+                public void run() {
+                    if(position > NGrams.MAX_POSITION) {
+                        indexUnpacked(key, term, position, record, version,
+                                type, 0);
                     }
+                    else {
+                        indexPacked(key, term, position, record, version,
+                                type);
+                        if(term.length() > NGrams.MAX_OFFSET
+                                + NGrams.GRAM_LENGTH) {
+                            // Only the substrings that end after the last
+                            // gram that can be packed need to be unpacked.
+                            indexUnpacked(key, term, position, record,
+                                    version, type, NGrams.MAX_OFFSET
+                                            + NGrams.GRAM_LENGTH + 1);
+                        }
+                    }
+                }
 
+            });
+        }
+        else {
+            return null;
+        }
+    }
+
+    /**
+     * Store a revision for each of the grams in {@code term}, packed together
+     * with the {@code position} and the offset of the gram in the term, for
+     * {@code key} in {@code record} at {@code version}. The grams of exactly
+     * {@link NGrams#GRAM_LENGTH} characters that start after
+     * {@link NGrams#MAX_OFFSET} are skipped.
+     * 
+     * @param key
+     * @param term
+     * @param position
+     * @param record
+     * @param version
+     * @param type
+     */
+    private void indexPacked(Text key, String term, int position,
+            PrimaryKey record, long version, Action type) {
+        // The set of short grams that have been indexed from {@code term}. This
+        // is used to ensure that we do not add duplicate indexes (i.e.
+        // 'abrakadabra')
+        Set<String> indexed = Sets.newHashSet();
+        int length = term.length();
+        for (int i = 0; i < length; ++i) {
+            int upperBound = Math.min(i + NGrams.GRAM_LENGTH, length);
+            for (int j = i + 1; j <= upperBound; ++j) {
+                String gram = term.substring(i, j);
+                if(j - i == NGrams.GRAM_LENGTH) {
+                    if(i <= NGrams.MAX_OFFSET) {
+                        doInsert(key, Text.wrap(gram), Position.wrap(record,
+                                NGrams.encode(position, i)), version, type);
+                    }
+                }
+                else if(!STOPWORDS.contains(gram) && indexed.add(gram)) {
+                    doInsert(key, Text.wrap(gram), Position.wrap(record,
+                            NGrams.encode(position, 0)), version, type);
                 }
             }
-            indexed = null; // make eligible for immediate GC
-            return futures;
         }
-        else {
-            return Collections.emptyList();
+    }
+
+    /**
+     * Store a revision for the unpacked gram of each distinct substring of
+     * {@code term} whose (exclusive) end index is at least {@code minEnd} at
+     * the plain
+     * {@code position} for {@code key} in {@code record} at {@code version}.
+     * If {@code minEnd} is positive, substrings that are no longer than
+     * {@link NGrams#GRAM_LENGTH} are skipped because the packed grams already
+     * cover them.
+     * 
+     * @param key
+     * @param term
+     * @param position
+     * @param record
+     * @param version
+     * @param type
+     * @param minEnd
+     */
+    private void indexUnpacked(Text key, String term, int position,
+            PrimaryKey record, long version, Action type, int minEnd) {
+        Set<String> indexed = Sets.newHashSet();
+        int length = term.length();
+        for (int i = 0; i < length; ++i) {
+            int lowerBound = minEnd > 0 ? Math.max(minEnd, i
+                    + NGrams.GRAM_LENGTH + 1) : i + 1;
+            for (int j = lowerBound; j <= length; ++j) {
+                String substring = term.substring(i, j);
+                if(!STOPWORDS.contains(substring) && indexed.add(substring)) {
+                    doInsert(key, Text.wrap(NGrams.getUnpackedGram(substring)),
+                            Position.wrap(record, position), version, type);
+                }
+            }
         }
     }
 
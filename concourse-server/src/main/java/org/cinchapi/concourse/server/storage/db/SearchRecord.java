@@ -19,6 +19,7 @@ import static org.cinchapi.concourse.server.GlobalState.STOPWORDS;
 
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
@@ -30,9 +31,11 @@ import org.cinchapi.concourse.annotate.PackagePrivate;
 import org.cinchapi.concourse.server.model.Position;
 import org.cinchapi.concourse.server.model.PrimaryKey;
 import org.cinchapi.concourse.server.model.Text;
+import org.cinchapi.concourse.server.storage.SearchStatistics;
 import org.cinchapi.concourse.util.TStrings;
 
 import com.google.common.collect.HashMultimap;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.Sets;
@@ -40,8 +43,9 @@ import com.google.common.collect.TreeMultimap;
 
 /**
  * A collection of n-gram indexes that enable fulltext infix searching. For
- * every word in a {@link Value}, each substring index is mapped to a
- * {@link Position}. The entire SearchIndex contains a collection of these
+ * every word in a {@link Value}, each gram is mapped to a {@link Position}
+ * that identifies the word and the offset of the gram within it (see
+ * {@link NGrams}). The entire SearchIndex contains a collection of these
  * mappings.
  * 
  * @author Jeff Nelson
@@ -63,6 +67,31 @@ final class SearchRecord extends Record<Text, Text, Position> {
         super(locator, key);
     }
 
+    /**
+     * Add the term frequencies and phrase matches for the data in this record
+     * to {@code statistics}. This record must contain the grams for every term
+     * in {@link SearchStatistics#getQuery() the query}. The lengths of the
+     * matching documents and the size of the corpus are not indexed here, so
+     * they must be added by the caller.
+     * 
+     * @param statistics
+     */
+    public void gatherStatistics(SearchStatistics statistics) {
+        read.lock();
+        try {
+            Multimap<PrimaryKey, Integer> reference = match(
+                    statistics.getQuery(), statistics);
+            for (Entry<PrimaryKey, Collection<Integer>> entry : reference
+                    .asMap().entrySet()) {
+                statistics.addMatches(entry.getKey().longValue(), entry
+                        .getValue().size());
+            }
+        }
+        finally {
+            read.unlock();
+        }
+    }
+
     /**
      * Return the Set of primary keys for records that match {@code query}.
      * 
@@ -72,41 +101,8 @@ final class SearchRecord extends Record<Text, Text, Position> {
     public Set<PrimaryKey> search(Text query) {
         read.lock();
         try {
-            Multimap<PrimaryKey, Integer> reference = HashMultimap.create();
-            String[] toks = query
-                    .toString()
-                    .toLowerCase()
-                    .split(TStrings.REGEX_GROUP_OF_ONE_OR_MORE_WHITESPACE_CHARS);
-            boolean initial = true;
-            int offset = 0;
-            for (String tok : toks) {
-                Multimap<PrimaryKey, Integer> temp = HashMultimap.create();
-                if(STOPWORDS.contains(tok)) {
-                    // When skipping a stop word, we must record an offset to
-                    // correctly determine if the next term match is in the
-                    // correct relative position to the previous term match
-                    ++offset;
-                    continue;
-                }
-                Set<Position> positions = get(Text.wrap(tok));
-                for (Position position : positions) {
-                    PrimaryKey key = position.getPrimaryKey();
-                    int pos = position.getIndex();
-                    if(initial) {
-                        temp.put(key, pos);
-                    }
-                    else {
-                        for (int current : reference.get(key)) {
-                            if(pos == current + 1 + offset) {
-                                temp.put(key, pos);
-                            }
-                        }
-                    }
-                }
-                initial = false;
-                reference = temp;
-                offset = 0;
-            }
+            Multimap<PrimaryKey, Integer> reference = match(query.toString(),
+                    null);
 
             // Result Scoring: Scoring is simply the number of times the query
             // appears in a document [e.g. the number of Positions mapped from
@@ -127,6 +123,122 @@ final class SearchRecord extends Record<Text, Text, Position> {
         }
     }
 
+    /**
+     * Return a mapping from each record that matches {@code query} to the
+     * position of the last term of each occurrence of the query in that
+     * record. If {@code statistics} are provided, the frequency of each term
+     * in the query is added to them along the way.
+     * 
+     * @param query
+     * @param statistics
+     * @return the positions of the matches
+     */
+    private Multimap<PrimaryKey, Integer> match(String query,
+            @Nullable SearchStatistics statistics) {
+        Multimap<PrimaryKey, Integer> reference = HashMultimap.create();
+        String[] toks = query.toLowerCase().split(
+                TStrings.REGEX_GROUP_OF_ONE_OR_MORE_WHITESPACE_CHARS);
+        boolean initial = true;
+        int offset = 0;
+        int index = 0;
+        for (String tok : toks) {
+            Multimap<PrimaryKey, Integer> temp = HashMultimap.create();
+            if(STOPWORDS.contains(tok)) {
+                // When skipping a stop word, we must record an offset to
+                // correctly determine if the next term match is in the
+                // correct relative position to the previous term match
+                ++offset;
+                continue;
+            }
+            Multimap<PrimaryKey, Integer> matches = matchTerm(tok);
+            if(statistics != null) {
+                for (Entry<PrimaryKey, Collection<Integer>> entry : matches
+                        .asMap().entrySet()) {
+                    statistics.addFrequency(entry.getKey().longValue(), index,
+                            entry.getValue().size());
+                }
+            }
+            for (Entry<PrimaryKey, Integer> match : matches.entries()) {
+                PrimaryKey key = match.getKey();
+                int pos = match.getValue();
+                if(initial) {
+                    temp.put(key, pos);
+                }
+                else {
+                    for (int current : reference.get(key)) {
+                        if(pos == current + 1 + offset) {
+                            temp.put(key, pos);
+                        }
+                    }
+                }
+            }
+            initial = false;
+            reference = temp;
+            offset = 0;
+            ++index;
+        }
+        return reference;
+    }
+
+    /**
+     * Return a mapping from each record to the positions of the terms in that
+     * record that contain {@code term} as a substring. If {@code term} is
+     * longer than {@link NGrams#GRAM_LENGTH}, the candidates for the first
+     * gram are verified by checking that every other gram of the {@code term}
+     * appears at the expected offset in the same term. The matches in terms
+     * that could not be packed are found under the unpacked gram for the
+     * entire {@code term}.
+     * 
+     * @param term
+     * @return the matching positions
+     */
+    private Multimap<PrimaryKey, Integer> matchTerm(String term) {
+        Multimap<PrimaryKey, Integer> matches = HashMultimap.create();
+        Text unpacked = Text.wrap(NGrams.getUnpackedGram(term));
+        for (Position position : get(unpacked)) {
+            matches.put(position.getPrimaryKey(), position.getIndex());
+        }
+        List<String> grams = NGrams.getQueryGrams(term);
+        if(grams.size() == 1) {
+            for (Position position : get(Text.wrap(grams.get(0)))) {
+                matches.put(position.getPrimaryKey(),
+                        NGrams.decodePosition(position.getIndex()));
+            }
+        }
+        else {
+            // Drive the verification from the gram with the fewest positions
+            List<Set<Position>> postings = Lists
+                    .newArrayListWithCapacity(grams.size());
+            int anchor = 0;
+            for (int i = 0; i < grams.size(); ++i) {
+                postings.add(get(Text.wrap(grams.get(i))));
+                if(postings.get(i).size() < postings.get(anchor).size()) {
+                    anchor = i;
+                }
+            }
+            int last = grams.size() - 1;
+            for (Position position : postings.get(anchor)) {
+                PrimaryKey record = position.getPrimaryKey();
+                int pos = NGrams.decodePosition(position.getIndex());
+                int start = NGrams.decodeOffset(position.getIndex()) - anchor;
+                if(start < 0 || start + last > NGrams.MAX_OFFSET) {
+                    continue;
+                }
+                boolean verified = true;
+                for (int i = 0; i <= last && verified; ++i) {
+                    verified = i == anchor
+                            || postings.get(i).contains(
+                                    Position.wrap(record,
+                                            NGrams.encode(pos, start + i)));
+                }
+                if(verified) {
+                    matches.put(record, pos);
+                }
+            }
+        }
+        return matches;
+    }
+
     @Override
     protected Map<Text, Set<Position>> mapType() {
         return Maps.newHashMap();
@@ -18,6 +18,7 @@ package org.cinchapi.concourse.server.storage.db;
 import java.util.Map;
 import java.util.NavigableSet;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -61,6 +62,74 @@ final class SecondaryRecord extends BrowsableRecord<Text, Value, PrimaryKey> {
         super(locator, key);
     }
 
+    /**
+     * Return a view of the (at most) {@code limit} smallest values that are
+     * presently contained in this record and sort after {@code after} (or the
+     * smallest values overall if {@code after} is {@code null}).
+     * 
+     * @param after
+     * @param limit
+     * @return the data
+     */
+    public Map<Value, Set<PrimaryKey>> browse(@Nullable Value after, int limit) {
+        read.lock();
+        try {
+            NavigableSet<Value> values = (NavigableSet<Value>) present.keySet();
+            Map<Value, Set<PrimaryKey>> data = Maps.newLinkedHashMap();
+            for (Value value : after == null ? values : values.tailSet(after,
+                    false)) {
+                if(data.size() >= limit) {
+                    break;
+                }
+                data.put(value, get(value));
+            }
+            return data;
+        }
+        finally {
+            read.unlock();
+        }
+    }
+
+    /**
+     * Return a view of the (at most) {@code limit} smallest values that were
+     * contained in this record at {@code timestamp} and sort after
+     * {@code after} (or the smallest values overall if {@code after} is
+     * {@code null}).
+     * 
+     * @param after
+     * @param limit
+     * @param timestamp
+     * @return the data
+     */
+    public Map<Value, Set<PrimaryKey>> browse(@Nullable Value after,
+            int limit, long timestamp) {
+        read.lock();
+        try {
+            // The history isn't sorted, so only the smallest values that have
+            // been seen so far are kept while it is scanned
+            TreeMap<Value, Set<PrimaryKey>> data = Maps
+                    .newTreeMap(Value.Sorter.INSTANCE);
+            for (Value value : history.keySet()) {
+                if((after == null || Value.Sorter.INSTANCE.compare(value,
+                        after) > 0)
+                        && (data.size() < limit || Value.Sorter.INSTANCE
+                                .compare(value, data.lastKey()) < 0)) {
+                    Set<PrimaryKey> records = get(value, timestamp);
+                    if(!records.isEmpty()) {
+                        data.put(value, records);
+                        if(data.size() > limit) {
+                            data.pollLastEntry();
+                        }
+                    }
+                }
+            }
+            return data;
+        }
+        finally {
+            read.unlock();
+        }
+    }
+
     /**
      * Return the PrimaryKeys that satisfied {@code operator} in relation to the
      * specified {@code values} at {@code timestamp}.
@@ -118,6 +187,11 @@ final class SecondaryRecord extends BrowsableRecord<Text, Value, PrimaryKey> {
         return explore(false, 0, operator, values);
     }
 
+    @Override
+    protected RevisionLog<PrimaryKey> createRevisionLog() {
+        return RevisionLog.createForPrimaryKeys();
+    }
+
     @Override
     protected Map<Value, Set<PrimaryKey>> mapType() {
         return Maps.newTreeMap(Value.Sorter.INSTANCE);
@@ -20,6 +20,7 @@ import java.nio.ByteBuffer;
 import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel.MapMode;
 import java.util.AbstractList;
+import java.util.Arrays;
 import java.util.ConcurrentModificationException;
 import java.util.Iterator;
 import java.util.List;
@@ -27,10 +28,12 @@ import java.util.ListIterator;
 import java.util.Map;
 import java.util.Set;
 import java.util.SortedMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.GuardedBy;
 import javax.annotation.concurrent.ThreadSafe;
 
@@ -51,6 +54,7 @@ import org.cinchapi.concourse.server.model.Value;
 import org.cinchapi.concourse.server.storage.Action;
 import org.cinchapi.concourse.server.storage.Inventory;
 import org.cinchapi.concourse.server.storage.PermanentStore;
+import org.cinchapi.concourse.server.storage.Statistics;
 import org.cinchapi.concourse.server.storage.cache.BloomFilter;
 import org.cinchapi.concourse.server.storage.db.Database;
 import org.cinchapi.concourse.thrift.Operator;
@@ -66,6 +70,7 @@ import org.cinchapi.concourse.util.ReadOnlyIterator;
 import org.cinchapi.concourse.util.TMaps;
 
 import com.google.common.base.Preconditions;
+import com.google.common.base.Throwables;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
@@ -226,6 +231,29 @@ public final class Buffer extends Limbo {
      */
     private Page currentPage;
 
+    /**
+     * The pages that have been completely transported to the Database, but
+     * whose writes are still in blocks that have not been synced. These pages
+     * are only deleted once the Database syncs its blocks, so that the writes
+     * can be transported again if the server crashes before then.
+     */
+    private final List<Page> retired = Lists.newArrayList();
+
+    /**
+     * The capacity of the next Page that is added to the Buffer. This is
+     * adapted to the load whenever a page is turned (see
+     * {@link #adaptPageSize()}).
+     */
+    @GuardedBy("structure")
+    private int pageSize = BUFFER_PAGE_SIZE;
+
+    /**
+     * The timestamp when the current page was added to the Buffer, which is
+     * used to measure how quickly pages are filled.
+     */
+    @GuardedBy("structure")
+    private long timeOfLastPageTurn = Time.now();
+
     /**
      * A flag to indicate if the Buffer is running or not.
      */
@@ -258,17 +286,39 @@ public final class Buffer extends Limbo {
     private Inventory inventory = null;
 
     /**
-     * A runnable instance that flushes the content the current buffer page to
-     * disk.
+     * A pointer to the key statistics that are maintained within the Engine.
      */
-    private Runnable pageSync = new Runnable() {
+    @Nullable
+    private Statistics statistics = null;
 
-        @Override
-        public void run() {
-            currentPage.content.force();
-        }
+    /**
+     * The monitor that coordinates group commits. Concurrent writers that need
+     * a sync wait on this monitor while a single leader forces the data to
+     * disk on behalf of the entire group.
+     */
+    private final Object groupCommit = new Object();
 
-    };
+    /**
+     * The total number of writes that have been appended to the Buffer. Each
+     * append is assigned the value of this counter as a ticket, which is used
+     * to determine whether the append has been covered by a group commit.
+     */
+    @GuardedBy("structure")
+    private volatile long appended = 0;
+
+    /**
+     * The ticket of the last append that is known to be durably stored on
+     * disk.
+     */
+    @GuardedBy("groupCommit")
+    private long durable = 0;
+
+    /**
+     * A flag that indicates whether a group commit leader is currently forcing
+     * data to disk.
+     */
+    @GuardedBy("groupCommit")
+    private boolean committing = false;
 
     /**
      * A runnable that flushes the inventory to disk.
@@ -321,11 +371,25 @@ public final class Buffer extends Limbo {
     private static int MAX_TRANSPORT_RATE = 8192;
 
     /**
-     * The number of slots to put in each Page's bloom filter. We want this
-     * small enough to have few hash functions, but large enough so that the
-     * bloom filter does not become saturated.
+     * The number of bytes of a Page's capacity for each slot in its bloom
+     * filter. We want the filter small enough to have few hash functions, but
+     * large enough so that it does not become saturated.
+     */
+    private static final int BYTES_PER_BLOOM_FILTER_SLOT = 10;
+
+    /**
+     * If a page is filled in less time than this, the next page is twice as
+     * large (up to {@link GlobalState#BUFFER_MAX_PAGE_SIZE}).
+     */
+    private static final long PAGE_GROWTH_THRESHOLD_IN_MICROS = TimeUnit.SECONDS
+            .toMicros(1);
+
+    /**
+     * If a page takes longer than this to fill, the next page is half as large
+     * (down to {@link GlobalState#BUFFER_PAGE_SIZE}).
      */
-    private static int PER_PAGE_BLOOM_FILTER_CAPACITY = GlobalState.BUFFER_PAGE_SIZE / 10;
+    private static final long PAGE_SHRINK_THRESHOLD_IN_MICROS = TimeUnit.SECONDS
+            .toMicros(10);
 
     /**
      * Construct a Buffer that is backed by the default location, which is
@@ -377,6 +441,17 @@ public final class Buffer extends Limbo {
         return audit;
     }
 
+    @Override
+    public Map<Long, Set<TObject>> chronologize(String key, long record,
+            long start, long end, Set<TObject> values,
+            Map<Long, Set<TObject>> context) {
+        for (Iterator<Write> it = iterator(key, record, end - 1); it
+                .hasNext();) {
+            chronologize(it.next(), start, values, context);
+        }
+        return context;
+    }
+
     @Override
     public Map<String, Set<TObject>> select(long record, long timestamp,
             Map<String, Set<TObject>> context) {
@@ -480,7 +555,8 @@ public final class Buffer extends Limbo {
     @Override
     public Map<Long, Set<TObject>> explore(Map<Long, Set<TObject>> context,
             long timestamp, String key, Operator operator, TObject... values) {
-        for (Iterator<Write> it = iterator(key, timestamp); it.hasNext();) {
+        for (Iterator<Write> it = new ExploreSeekingIterator(key, timestamp,
+                operator, values); it.hasNext();) {
             Write write = it.next();
             long record = write.getRecord().longValue();
             if(matches(write.getValue(), operator, values)) {
@@ -531,26 +607,51 @@ public final class Buffer extends Limbo {
         return timeOfLastTransport.get();
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * If {@code sync} is {@code true}, this method does not return until the
+     * {@code write} is durably stored. Concurrent writers that request a sync
+     * are grouped together so that a single fsync covers the entire batch (see
+     * {@link #sync(long)}).
+     * </p>
+     */
     @Override
     public boolean insert(Write write, boolean sync) {
+        long ticket;
         structure.lock();
         try {
-            boolean notify = pages.size() == 2 && currentPage.size == 0;
-            currentPage.append(write, sync);
-            if(notify) {
-                synchronized (transportable) {
-                    transportable.notify();
+            for (;;) {
+                try {
+                    boolean notify = pages.size() == 2
+                            && currentPage.size == 0;
+                    currentPage.append(write);
+                    ticket = ++appended;
+                    if(notify) {
+                        synchronized (transportable) {
+                            transportable.notify();
+                        }
+                    }
+                    break;
+                }
+                catch (CapacityException e) {
+                    addPage();
                 }
             }
-            return true;
-        }
-        catch (CapacityException e) {
-            addPage();
-            return insert(write, sync);
         }
         finally {
             structure.unlock();
         }
+        if(statistics != null) {
+            // The statistics are synchronized on their own and tokenize string
+            // values, so they are updated outside the structure lock that
+            // every writer contends on
+            statistics.apply(write);
+        }
+        if(sync) {
+            sync(ticket);
+        }
+        return true;
     }
 
     /**
@@ -631,6 +732,21 @@ public final class Buffer extends Limbo {
         this.inventory = inventory;
     }
 
+    /**
+     * <p>
+     * <strong>DO NOT CALL!!!</strong>
+     * </p>
+     * <p>
+     * Called by the parent {@link Engine} to set the key statistics that the
+     * Buffer updates whenever a write is inserted.
+     * </p>
+     * 
+     * @param statistics
+     */
+    public void setStatistics(Statistics statistics) {
+        this.statistics = statistics;
+    }
+
     /**
      * <p>
      * <strong>DO NOT CALL!!!</strong>
@@ -681,10 +797,24 @@ public final class Buffer extends Limbo {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The Buffer joins the current group commit, so this method returns once
+     * every write that was appended before the call is durably stored.
+     * </p>
+     */
     @Override
     public void sync() {
-        ConcourseExecutors.executeAndAwaitTermination(threadNamePrefix,
-                pageSync, inventorySync);
+        long ticket;
+        structure.lock();
+        try {
+            ticket = appended;
+        }
+        finally {
+            structure.unlock();
+        }
+        sync(ticket);
     }
 
     /**
@@ -700,16 +830,42 @@ public final class Buffer extends Limbo {
             if(!page.transportLock.writeLock().isHeldByCurrentThread()
                     && page.transportLock.writeLock().tryLock()) {
                 try {
-                    for (int i = 0; i < transportRate; ++i) {
-                        if(page.hasNext()) {
-                            destination.accept(page.next());
-                            page.remove();
+                    if(page.hasNext()) {
+                        // Hand the Database an entire run of Writes at once
+                        // so that it can feed each of its blocks in a single
+                        // pass instead of coordinating once per Write.
+                        List<Write> batch = page.next(transportRate);
+                        if(destination instanceof Database) {
+                            ((Database) destination).accept(batch);
                         }
                         else {
-                            ((Database) destination).triggerSync();
-                            removePage();
-                            break;
+                            for (Write write : batch) {
+                                destination.accept(write);
+                            }
                         }
+                        page.remove(batch.size());
+                    }
+                    else if(destination instanceof Database) {
+                        // The Database only cuts new blocks once the current
+                        // ones are large enough, so the exhausted page is
+                        // kept around until its writes are durably stored
+                        // in a synced block.
+                        Database database = (Database) destination;
+                        removePage();
+                        retired.add(page);
+                        if(database.shouldSync()) {
+                            database.triggerSync();
+                            for (Page retiree : retired) {
+                                retiree.delete();
+                            }
+                            retired.clear();
+                        }
+                    }
+                    else {
+                        // Any other store can't say when its writes are
+                        // durable, so the exhausted page is dropped from
+                        // memory but its file is left on disk.
+                        removePage();
                     }
                     timeOfLastTransport.set(Time.now());
                     transportRate = transportRate >= MAX_TRANSPORT_RATE ? MAX_TRANSPORT_RATE
@@ -751,8 +907,8 @@ public final class Buffer extends Limbo {
      * Return {@code true} if the Buffer has more than 1 page and the first page
      * has at least one element that can be transported. If this method returns
      * {@code false} it means that the first page is the only page or that the
-     * Buffer would need to trigger a Database sync and remove the first page in
-     * order to transport.
+     * Buffer would need to retire the first page (and possibly trigger a
+     * Database sync) in order to transport.
      * 
      * @return {@code true} if the Buffer can transport a Write.
      */
@@ -760,6 +916,15 @@ public final class Buffer extends Limbo {
         return pages.size() > 1 && pages.get(0).hasNext();
     }
 
+    /**
+     * Return the capacity of the next Page that will be added to the Buffer.
+     * 
+     * @return the page size
+     */
+    protected int getPageSize() { // visible for testing
+        return pageSize;
+    }
+
     @Override
     protected long getOldestWriteTimstamp() {
         return pages.get(0).getOldestWriteTimestamp();
@@ -770,6 +935,11 @@ public final class Buffer extends Limbo {
         return iterator(key, Time.NONE);
     }
 
+    @Override
+    protected Iterator<Write> getSearchIterator(String key, String[] needle) {
+        return new SearchSeekingIterator(key, needle);
+    }
+
     @Override
     protected boolean isPossibleSearchMatch(String key, Write write, Value value) {
         return value.getType() == Type.STRING;
@@ -792,9 +962,20 @@ public final class Buffer extends Limbo {
         structure.lock();
         try {
             if(sync) {
-                sync();
+                // Every write that has been appended so far lives on the
+                // current page, so flushing it makes all of them durable
+                // and there is no need for pending group commits to force
+                // the retired page again.
+                flush(currentPage);
+                synchronized (groupCommit) {
+                    durable = Math.max(durable, appended);
+                    groupCommit.notifyAll();
+                }
+            }
+            if(sync) {
+                adaptPageSize();
             }
-            currentPage = new Page(BUFFER_PAGE_SIZE);
+            currentPage = new Page(pageSize);
             pages.add(currentPage);
             Logger.debug("Added page {} to Buffer", currentPage);
         }
@@ -804,12 +985,53 @@ public final class Buffer extends Limbo {
     }
 
     /**
-     * Remove the first page in the Buffer.
+     * Force the content of {@code page} and the {@link #inventory} to disk.
+     *
+     * @param page
+     */
+    private void flush(final Page page) {
+        Runnable pageSync = new Runnable() {
+
+            @Override
+            public void run() {
+                page.content.force();
+            }
+
+        };
+        ConcourseExecutors.executeAndAwaitTermination(threadNamePrefix,
+                pageSync, inventorySync);
+    }
+
+    /**
+     * Double or halve the {@link #pageSize} depending on how quickly the
+     * current page was filled, so that the Buffer uses fewer, larger pages
+     * when it is under heavy load and smaller pages otherwise. The size is
+     * kept between {@link GlobalState#BUFFER_PAGE_SIZE} and
+     * {@link GlobalState#BUFFER_MAX_PAGE_SIZE}.
+     */
+    @GuardedBy("structure")
+    private void adaptPageSize() {
+        long now = Time.now();
+        long elapsed = now - timeOfLastPageTurn;
+        long size = pageSize;
+        if(elapsed < PAGE_GROWTH_THRESHOLD_IN_MICROS) {
+            size *= 2;
+        }
+        else if(elapsed > PAGE_SHRINK_THRESHOLD_IN_MICROS) {
+            size /= 2;
+        }
+        pageSize = (int) Math.max(BUFFER_PAGE_SIZE,
+                Math.min(size, BUFFER_MAX_PAGE_SIZE));
+        timeOfLastPageTurn = now;
+    }
+
+    /**
+     * Remove the first page in the Buffer. The page is not deleted.
      */
     private void removePage() {
         structure.lock();
         try {
-            pages.remove(0).delete();
+            pages.remove(0);
         }
         finally {
             structure.unlock();
@@ -824,6 +1046,113 @@ public final class Buffer extends Limbo {
         transportThreadSleepTimeInMs = MAX_TRANSPORT_THREAD_SLEEP_TIME_IN_MS;
     }
 
+    /**
+     * Block until the append with {@code ticket} is durably stored.
+     * <p>
+     * The first caller that finds no group commit in progress becomes the
+     * leader. The leader waits up to {@link GlobalState#BUFFER_GROUP_COMMIT_MAX_DELAY}
+     * milliseconds (or until {@link GlobalState#BUFFER_GROUP_COMMIT_MAX_BATCH_SIZE}
+     * writes are pending) for other writers to join, then performs a single
+     * fsync that covers every write that was appended up to that point. All
+     * other callers wait for a commit that covers their ticket.
+     * </p>
+     *
+     * @param ticket
+     */
+    private void sync(long ticket) {
+        synchronized (groupCommit) {
+            if(committing
+                    && getNumPendingWrites() >= BUFFER_GROUP_COMMIT_MAX_BATCH_SIZE) {
+                // Wake up the leader in case it is waiting for the batch to
+                // fill up
+                groupCommit.notifyAll();
+            }
+            while (durable < ticket) {
+                if(!committing) {
+                    committing = true;
+                    break;
+                }
+                else {
+                    waitForGroupCommit(0);
+                }
+            }
+            if(durable >= ticket) {
+                return;
+            }
+        }
+        // If we've made it here, the current thread is the leader
+        long covered = 0;
+        try {
+            if(BUFFER_GROUP_COMMIT_MAX_DELAY > 0) {
+                long deadline = System.currentTimeMillis()
+                        + BUFFER_GROUP_COMMIT_MAX_DELAY;
+                synchronized (groupCommit) {
+                    long remaining;
+                    while (getNumPendingWrites() < BUFFER_GROUP_COMMIT_MAX_BATCH_SIZE
+                            && (remaining = deadline
+                                    - System.currentTimeMillis()) > 0) {
+                        waitForGroupCommit(remaining);
+                    }
+                }
+            }
+            Page page;
+            long epoch;
+            structure.lock();
+            try {
+                page = currentPage;
+                epoch = appended;
+            }
+            finally {
+                structure.unlock();
+            }
+            // Any write with a ticket <= epoch is either on #page or on a
+            // retired page that was flushed in #addPage. The transportLock
+            // prevents #page from being unmapped while it is forced.
+            page.transportLock.readLock().lock();
+            try {
+                flush(page);
+            }
+            finally {
+                page.transportLock.readLock().unlock();
+            }
+            covered = epoch;
+        }
+        finally {
+            synchronized (groupCommit) {
+                committing = false;
+                durable = Math.max(durable, covered);
+                groupCommit.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Return the number of writes that have been appended, but are not yet
+     * known to be durable.
+     *
+     * @return the number of pending writes
+     */
+    @GuardedBy("groupCommit")
+    private long getNumPendingWrites() {
+        return appended - durable;
+    }
+
+    /**
+     * Wait on the {@link #groupCommit} monitor for at most {@code timeout}
+     * milliseconds (or indefinitely if {@code timeout} is 0).
+     *
+     * @param timeout
+     */
+    @GuardedBy("groupCommit")
+    private void waitForGroupCommit(long timeout) {
+        try {
+            groupCommit.wait(timeout);
+        }
+        catch (InterruptedException e) {
+            throw Throwables.propagate(e);
+        }
+    }
+
     /**
      * A {@link Page} represents a granular section of the {@link Buffer}. Pages
      * are an append-only iterator over a sequence of {@link Write} objects.
@@ -919,6 +1248,20 @@ public final class Buffer extends Limbo {
          */
         private final boolean[] keyCache;
 
+        /**
+         * An index of the n-grams in the string values on the page that is
+         * used to find the writes that might match a search query without
+         * scanning and tokenizing every write for the key.
+         */
+        private final SearchIndex searchIndex = new SearchIndex();
+
+        /**
+         * A sorted index of the values for each key on the page that is used
+         * to seek the writes that might satisfy a range operator without
+         * comparing the value of every write for the key.
+         */
+        private final ValueIndex valueIndex = new ValueIndex();
+
         /**
          * Construct an empty Page with {@code capacity} bytes.
          * 
@@ -959,8 +1302,8 @@ public final class Buffer extends Limbo {
             this.recordCache = new boolean[sizeUpperBound];
             this.keyCache = new boolean[sizeUpperBound];
             this.keyRecordCache = new boolean[sizeUpperBound];
-            this.writeCache = BloomFilter
-                    .create(PER_PAGE_BLOOM_FILTER_CAPACITY);
+            this.writeCache = BloomFilter.create((int) Math.max(1, capacity
+                    / BYTES_PER_BLOOM_FILTER_SLOT));
             writeCache.disableThreadSafety();
             Iterator<ByteBuffer> it = ByteableCollections.iterator(content);
             while (it.hasNext()) {
@@ -976,13 +1319,18 @@ public final class Buffer extends Limbo {
          * routed to this method, we grab a writeLock so that we don't have a
          * situation where the currentPage is ever changed in the middle of a
          * read.
-         * 
+         * <p>
+         * This method does not force the content to disk. The caller is
+         * responsible for making the append durable (i.e. by joining a group
+         * commit).
+         * </p>
+         *
          * @param write
          * @throws CapacityException
          *             - if the size of {@code write} is greater than the
          *             remaining capacity of {@link #content}
          */
-        public void append(Write write, boolean sync) throws CapacityException {
+        public void append(Write write) throws CapacityException {
             Preconditions.checkState(this == currentPage, "Illegal attempt to "
                     + "append a Write to an inactive Page");
             long stamp = accessLock.writeLock();
@@ -992,9 +1340,6 @@ public final class Buffer extends Limbo {
                     content.putInt(write.size());
                     write.copyTo(content);
                     inventory.add(write.getRecord().longValue());
-                    if(sync) {
-                        sync();
-                    }
                 }
                 else {
                     throw CapacityException.INSTANCE;
@@ -1119,6 +1464,34 @@ public final class Buffer extends Limbo {
             };
         }
 
+        /**
+         * Return an iterator over the writes for {@code key} on the Page whose
+         * value might satisfy the {@code operator} in relation to the
+         * {@code values}, based on the {@link #valueIndex}.
+         * 
+         * @param key
+         * @param operator
+         * @param values
+         * @return the iterator
+         */
+        public Iterator<Write> exploreIterator(Text key, Operator operator,
+                Value... values) {
+            return iterator(valueIndex.getCandidates(key, operator, values));
+        }
+
+        /**
+         * Return an iterator over the writes for {@code key} on the Page that
+         * might be search matches for the {@code needle}, based on the
+         * {@link #searchIndex}.
+         * 
+         * @param key
+         * @param needle
+         * @return the iterator
+         */
+        public Iterator<Write> searchIterator(Text key, String[] needle) {
+            return iterator(searchIndex.getCandidates(key, needle));
+        }
+
         /**
          * Return {@code true} if the Page <em>might</em> have a Write equal to
          * {@code write}. If this function returns true, the caller should check
@@ -1212,6 +1585,31 @@ public final class Buffer extends Limbo {
             }
         }
 
+        /**
+         * Returns a view of the (up to) {@code max} Writes starting at index
+         * {@link #head} in {@link #writes}.
+         * <p>
+         * <strong>NOTE:</strong>
+         * <em>This method will return the same elements on multiple
+         * invocations until {@link #remove(int)} is called.</em>
+         * </p>
+         * 
+         * @param max
+         * @return the next batch of Writes
+         */
+        public List<Write> next(int max) {
+            long stamp = Locks.stampLockReadIfCondition(accessLock,
+                    this == currentPage);
+            try {
+                return Arrays.asList(writes).subList(head,
+                        Math.min(size, head + max));
+            }
+            finally {
+                Locks.stampUnlockReadIfCondition(accessLock, stamp,
+                        this == currentPage);
+            }
+        }
+
         /**
          * Simulates the removal of the head Write from the Page. This method
          * only updates the {@link #head} and {@link #pos} metadata and does not
@@ -1230,6 +1628,24 @@ public final class Buffer extends Limbo {
             }
         }
 
+        /**
+         * Simulates the removal of the {@code count} Writes at the head of the
+         * Page (e.g. those that were returned from {@link #next(int)}).
+         * 
+         * @param count
+         */
+        public void remove(int count) {
+            long stamp = Locks.stampLockWriteIfCondition(accessLock,
+                    this == currentPage);
+            try {
+                head += count;
+            }
+            finally {
+                Locks.stampUnlockWriteIfCondition(accessLock, stamp,
+                        this == currentPage);
+            }
+        }
+
         @Override
         public String toString() {
             return filename;
@@ -1289,6 +1705,8 @@ public final class Buffer extends Limbo {
                 keyRecordCache[slotify(hashCodeRecord, hashCodeKey)] = true;
                 recordCache[slotify(hashCodeRecord)] = true;
                 keyCache[slotify(hashCodeKey)] = true;
+                searchIndex.index(write, size);
+                valueIndex.index(write, size);
                 ++size;
             }
             else {
@@ -1296,6 +1714,75 @@ public final class Buffer extends Limbo {
             }
         }
 
+        /**
+         * Return an iterator over the writes at the {@code candidates}
+         * positions, in ascending order, that have not been transported. If
+         * {@code candidates} is {@code null}, the returned iterator is the
+         * same as the one from {@link #iterator()}. Like that iterator, the
+         * returned one does not support removes and detects concurrent
+         * modification.
+         * 
+         * @param candidates
+         * @return the iterator
+         */
+        private Iterator<Write> iterator(@Nullable final int[] candidates) {
+            if(candidates == null) {
+                return iterator();
+            }
+            return new Iterator<Write>() {
+
+                /**
+                 * The {@link #head} when the iterator was created.
+                 */
+                private final int start = head;
+
+                /**
+                 * The index of the "next" element in {@code candidates}.
+                 */
+                private int index = skip(0);
+
+                @Override
+                public boolean hasNext() {
+                    if(head != start) {
+                        throw new ConcurrentModificationException(
+                                "A write has been removed from the Page");
+                    }
+                    return index < candidates.length;
+                }
+
+                @Override
+                public Write next() {
+                    if(head != start) {
+                        throw new ConcurrentModificationException(
+                                "A write has been removed from the Page");
+                    }
+                    Write next = writes[candidates[index]];
+                    index = skip(index + 1);
+                    return next;
+                }
+
+                @Override
+                public void remove() {
+                    throw new UnsupportedOperationException();
+                }
+
+                /**
+                 * Return the first index in {@code candidates}, starting at
+                 * {@code from}, whose write has not been transported.
+                 * 
+                 * @param from
+                 * @return the index
+                 */
+                private int skip(int from) {
+                    while (from < candidates.length && candidates[from] < start) {
+                        ++from;
+                    }
+                    return from;
+                }
+
+            };
+        }
+
         /**
          * Convenience function to return the appropriate slot in one of the
          * Page's filter's between 0 and {@code #sizeUpperBound} for an object
@@ -1473,7 +1960,7 @@ public final class Buffer extends Limbo {
                         break;
                     }
                     if(pageMightContainRelevantWrites(next)) {
-                        writeIterator = next.iterator();
+                        writeIterator = getPageIterator(next);
                         break;
                     }
                     else {
@@ -1514,6 +2001,18 @@ public final class Buffer extends Limbo {
             }
         }
 
+        /**
+         * Return the iterator to use for traversing the writes on {@code page}.
+         * A subclass may override this method to skip writes that are known to
+         * be irrelevant.
+         * 
+         * @param page
+         * @return the iterator over the writes on the page
+         */
+        protected Iterator<Write> getPageIterator(Page page) {
+            return page.iterator();
+        }
+
         /**
          * Call the appropriate function to determine if the {@code page} might
          * contain the kinds of writes that this iterator is seeking.
@@ -1649,6 +2148,117 @@ public final class Buffer extends Limbo {
 
     }
 
+    /**
+     * A {@link SeekingIterator} that looks for writes with a particular key
+     * component whose value might satisfy an operator. The iterator uses the
+     * value index on each page to seek the candidate writes when the operator
+     * describes a range of values.
+     * 
+     * @author Jeff Nelson
+     */
+    private class ExploreSeekingIterator extends SeekingIterator {
+
+        /**
+         * The relevant key.
+         */
+        private final Text key;
+
+        /**
+         * The operator.
+         */
+        private final Operator operator;
+
+        /**
+         * The values that are operated upon.
+         */
+        private final Value[] values;
+
+        /**
+         * Construct a new instance.
+         * 
+         * @param key
+         * @param timestamp
+         * @param operator
+         * @param values
+         */
+        protected ExploreSeekingIterator(String key, long timestamp,
+                Operator operator, TObject... values) {
+            super(timestamp);
+            this.key = Text.wrapCached(key);
+            this.operator = operator;
+            this.values = new Value[values.length];
+            for (int i = 0; i < values.length; ++i) {
+                this.values[i] = Value.wrap(values[i]);
+            }
+            init();
+        }
+
+        @Override
+        protected Iterator<Write> getPageIterator(Page page) {
+            return page.exploreIterator(key, operator, values);
+        }
+
+        @Override
+        protected boolean pageMightContainRelevantWrites(Page page) {
+            return page.mightContain(key);
+        }
+
+        @Override
+        protected boolean isRelevantWrite(Write write) {
+            return write.getKey().equals(key);
+        }
+
+    }
+
+    /**
+     * A {@link SeekingIterator} that looks for writes with a particular key
+     * component that might be search matches for a query. The iterator uses
+     * the search index on each page to only visit the candidate writes.
+     * 
+     * @author Jeff Nelson
+     */
+    private class SearchSeekingIterator extends SeekingIterator {
+
+        /**
+         * The relevant key.
+         */
+        private final Text key;
+
+        /**
+         * The lowercased and tokenized query, with stopwords removed.
+         */
+        private final String[] needle;
+
+        /**
+         * Construct a new instance.
+         * 
+         * @param key
+         * @param needle
+         */
+        protected SearchSeekingIterator(String key, String[] needle) {
+            super(Time.NONE);
+            this.key = Text.wrapCached(key);
+            this.needle = needle;
+            init();
+        }
+
+        @Override
+        protected Iterator<Write> getPageIterator(Page page) {
+            return page.searchIterator(key, needle);
+        }
+
+        @Override
+        protected boolean pageMightContainRelevantWrites(Page page) {
+            return page.mightContain(key);
+        }
+
+        @Override
+        protected boolean isRelevantWrite(Write write) {
+            return write.getKey().equals(key);
+        }
+
+    }
+
     /**
      * A {@link SeekingIterator} that looks for writes with a particular record
      * component.
@@ -18,6 +18,7 @@ package org.cinchapi.concourse.server.storage.temp;
 import java.util.Comparator;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Set;
 import java.util.SortedMap;
 
@@ -32,12 +33,13 @@ import org.cinchapi.concourse.server.model.Value;
 import org.cinchapi.concourse.server.storage.Action;
 import org.cinchapi.concourse.server.storage.BaseStore;
 import org.cinchapi.concourse.server.storage.PermanentStore;
+import org.cinchapi.concourse.server.storage.SearchStatistics;
+import org.cinchapi.concourse.server.storage.Stores;
 import org.cinchapi.concourse.server.storage.db.Database;
 import org.cinchapi.concourse.thrift.Operator;
 import org.cinchapi.concourse.thrift.TObject;
 import org.cinchapi.concourse.time.Time;
 
-import com.google.common.base.Preconditions;
 import com.google.common.base.Predicate;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
@@ -79,33 +81,7 @@ public abstract class Limbo extends BaseStore implements Iterable<Write> {
      */
     protected static boolean matches(Value input, Operator operator,
             TObject... values) {
-        Value v1 = Value.wrap(values[0]);
-        switch (operator) {
-        case EQUALS:
-            return v1.equals(input);
-        case NOT_EQUALS:
-            return !v1.equals(input);
-        case GREATER_THAN:
-            return v1.compareTo(input) < 0;
-        case GREATER_THAN_OR_EQUALS:
-            return v1.compareTo(input) <= 0;
-        case LESS_THAN:
-            return v1.compareTo(input) > 0;
-        case LESS_THAN_OR_EQUALS:
-            return v1.compareTo(input) >= 0;
-        case BETWEEN:
-            Preconditions.checkArgument(values.length > 1);
-            Value v2 = Value.wrap(values[1]);
-            return v1.compareTo(input) <= 0 && v2.compareTo(input) > 0;
-        case REGEX:
-            return input.getObject().toString()
-                    .matches(v1.getObject().toString());
-        case NOT_REGEX:
-            return !input.getObject().toString()
-                    .matches(v1.getObject().toString());
-        default:
-            throw new UnsupportedOperationException();
-        }
+        return Stores.matches(input, operator, values);
     }
 
     /**
@@ -159,6 +135,20 @@ public abstract class Limbo extends BaseStore implements Iterable<Write> {
         return browse(key, timestamp, context);
     }
 
+    @Override
+    public Map<TObject, Set<Long>> browse(String key, @Nullable TObject after,
+            int limit) {
+        return browse(key, after, limit, Time.NONE);
+    }
+
+    @Override
+    public Map<TObject, Set<Long>> browse(String key, @Nullable TObject after,
+            int limit, long timestamp) {
+        return Stores.slice(
+                (NavigableMap<TObject, Set<Long>>) browse(key, timestamp),
+                after, limit);
+    }
+
     /**
      * Calculate the browsable view of {@code key} at {@code timestamp} using
      * prior {@code context} as if it were also a part of the Buffer.
@@ -200,6 +190,44 @@ public abstract class Limbo extends BaseStore implements Iterable<Write> {
                 .filterValues(context, emptySetFilter));
     }
 
+    @Override
+    public Map<Long, Set<TObject>> chronologize(String key, long record,
+            long start, long end) {
+        return chronologize(key, record, start, end,
+                Sets.<TObject> newLinkedHashSet(),
+                Maps.<Long, Set<TObject>> newLinkedHashMap());
+    }
+
+    /**
+     * Chronologize {@code key} in {@code record} between {@code start}
+     * (inclusive) and {@code end} (exclusive) as if the prior {@code context}
+     * and the {@code values} that were in the field after it were also a part
+     * of the Buffer. The changes are folded into the {@code context}.
+     * 
+     * @param key
+     * @param record
+     * @param start
+     * @param end
+     * @param values
+     * @param context
+     * @return the chronology
+     */
+    public Map<Long, Set<TObject>> chronologize(String key, long record,
+            long start, long end, Set<TObject> values,
+            Map<Long, Set<TObject>> context) {
+        for (Iterator<Write> it = iterator(); it.hasNext();) {
+            Write write = it.next();
+            if(write.getVersion() >= end) {
+                break;
+            }
+            else if(key.equals(write.getKey().toString())
+                    && record == write.getRecord().longValue()) {
+                chronologize(write, start, values, context);
+            }
+        }
+        return context;
+    }
+
     @Override
     public boolean contains(long record) {
         for (Iterator<Write> it = iterator(); it.hasNext();) {
@@ -343,13 +371,27 @@ public abstract class Limbo extends BaseStore implements Iterable<Write> {
     @Override
     public abstract Iterator<Write> iterator();
 
+    @Override
+    public void gatherSearchStatistics(String key, SearchStatistics statistics) {
+        for (Iterator<Write> it = getSearchIterator(key); it.hasNext();) {
+            Write write = it.next();
+            Value value = write.getValue();
+            if(isPossibleSearchMatch(key, write, value)) {
+                statistics.addValue(write.getRecord().longValue(),
+                        (String) value.getObject(),
+                        write.getType() != Action.REMOVE);
+            }
+        }
+    }
+
     @Override
     public Set<Long> search(String key, String query) {
         Map<Long, Set<Value>> rtv = Maps.newHashMap();
         String[] needle = TStrings.stripStopWordsAndTokenize(query
                 .toLowerCase());
         if(needle.length > 0) {
-            for (Iterator<Write> it = getSearchIterator(key); it.hasNext();) {
+            for (Iterator<Write> it = getSearchIterator(key, needle); it
+                    .hasNext();) {
                 Write write = it.next();
                 Value value = write.getValue();
                 long record = write.getRecord().longValue();
@@ -602,6 +644,35 @@ public abstract class Limbo extends BaseStore implements Iterable<Write> {
         return exists;
     }
 
+    /**
+     * Apply {@code write} to the {@code values} in its field and, if it
+     * occurred at or after {@code start}, record the result in the
+     * chronology {@code context}.
+     * 
+     * @param write
+     * @param start
+     * @param values
+     * @param context
+     */
+    protected static void chronologize(Write write, long start,
+            Set<TObject> values, Map<Long, Set<TObject>> context) {
+        if(write.getType() == Action.ADD) {
+            values.add(write.getValue().getTObject());
+        }
+        else {
+            values.remove(write.getValue().getTObject());
+        }
+        if(write.getVersion() >= start) {
+            if(values.isEmpty()) {
+                context.remove(write.getVersion());
+            }
+            else {
+                context.put(write.getVersion(),
+                        Sets.newLinkedHashSet(values));
+            }
+        }
+    }
+
     /**
      * Wait (block) until the Buffer has enough data to complete a transport.
      * This method should be called from the external service to avoid busy
@@ -641,6 +712,25 @@ public abstract class Limbo extends BaseStore implements Iterable<Write> {
      */
     protected abstract Iterator<Write> getSearchIterator(String key);
 
+    /**
+     * Return the iterator to use in the {@link #search(String, String)} method
+     * when looking for matches for the {@code needle}, which is a query that
+     * has been lowercased and tokenized with stopwords removed. The iterator
+     * may skip writes that cannot possibly match, but each one that it returns
+     * is still verified.
+     * <p>
+     * By default, this method returns the same iterator as
+     * {@link #getSearchIterator(String)}.
+     * </p>
+     * 
+     * @param key
+     * @param needle
+     * @return the appropriate iterator to use for searching
+     */
+    protected Iterator<Write> getSearchIterator(String key, String[] needle) {
+        return getSearchIterator(key);
+    }
+
     /**
      * Allows the subclass to define some criteria for the search logic to
      * determine if {@code write} with {@code value} is a possible search match
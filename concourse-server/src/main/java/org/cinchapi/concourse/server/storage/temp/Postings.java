@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2013-2015 Cinchapi Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.cinchapi.concourse.server.storage.temp;
+
+import java.util.Arrays;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import org.cinchapi.concourse.annotate.PackagePrivate;
+
+/**
+ * A growable list of the positions of {@link Write writes} on a page, in
+ * ascending order and without duplicates. Postings are the building block of
+ * the in-memory indexes that the {@link Buffer} keeps for each page.
+ * 
+ * @author Jeff Nelson
+ */
+@NotThreadSafe
+@PackagePrivate
+final class Postings {
+
+    /**
+     * The positions in the list.
+     */
+    private int[] positions = new int[1];
+
+    /**
+     * The number of positions in the list.
+     */
+    private int size = 0;
+
+    /**
+     * Add {@code position} to the list if it is not already the last element.
+     * Each position that is added must be greater than or equal to the last
+     * one.
+     * 
+     * @param position
+     */
+    public void add(int position) {
+        if(size == 0 || positions[size - 1] != position) {
+            if(size == positions.length) {
+                positions = Arrays.copyOf(positions, size << 1);
+            }
+            positions[size] = position;
+            ++size;
+        }
+    }
+
+    /**
+     * Return {@code true} if {@code position} is in the list.
+     * 
+     * @param position
+     * @return {@code true} if the position is contained
+     */
+    public boolean contains(int position) {
+        return Arrays.binarySearch(positions, 0, size, position) >= 0;
+    }
+
+    /**
+     * Copy all the positions in the list into {@code dest}, starting at
+     * {@code offset}.
+     * 
+     * @param dest
+     * @param offset
+     */
+    public void copyTo(int[] dest, int offset) {
+        System.arraycopy(positions, 0, dest, offset, size);
+    }
+
+    /**
+     * Return the position at {@code index} in the list.
+     * 
+     * @param index
+     * @return the position
+     */
+    public int get(int index) {
+        return positions[index];
+    }
+
+    /**
+     * Return the number of positions in the list.
+     * 
+     * @return the size
+     */
+    public int size() {
+        return size;
+    }
+
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2013-2015 Cinchapi Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.cinchapi.concourse.server.storage.temp;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.NotThreadSafe;
+
+import org.cinchapi.concourse.annotate.PackagePrivate;
+import org.cinchapi.concourse.server.model.Text;
+import org.cinchapi.concourse.server.model.Value;
+import org.cinchapi.concourse.thrift.Type;
+import org.cinchapi.concourse.util.TStrings;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+/**
+ * An in-memory index that maps the n-grams of each term in the string values
+ * of a group of {@link Write writes} to the positions of the writes in which
+ * they appear. The index is used to find the writes that <em>might</em> be
+ * infix search matches for a query without re-tokenizing every stored value.
+ * <p>
+ * Each term is indexed under every distinct substring that is no longer than
+ * {@link #GRAM_LENGTH} characters. A query term that is no longer than
+ * {@link #GRAM_LENGTH} can only be a substring of a stored term that is indexed
+ * under the query term itself and a longer query term can only be a substring
+ * of a stored term that is indexed under all of its grams, so the intersection
+ * of the postings for every gram of every query term is a superset of the
+ * actual matches. The caller is responsible for verifying each candidate.
+ * </p>
+ * 
+ * @author Jeff Nelson
+ */
+@NotThreadSafe
+@PackagePrivate
+class SearchIndex {
+
+    /**
+     * The length of the longest gram that is indexed for each term.
+     */
+    private static final int GRAM_LENGTH = 3;
+
+    /**
+     * A mapping from each key to a mapping from each gram to the positions of
+     * the writes for the key whose value contains the gram.
+     */
+    private final Map<Text, Map<String, Postings>> index = Maps.newHashMap();
+
+    /**
+     * Return the positions, in ascending order, of the writes for {@code key}
+     * that might be infix search matches for the {@code needle}, which is a
+     * query that has been lowercased and tokenized with stopwords removed. If
+     * the needle has no terms that constrain the matches, this method returns
+     * {@code null} and the caller must consider every write for the key.
+     * 
+     * @param key
+     * @param needle
+     * @return the candidate positions or {@code null}
+     */
+    @Nullable
+    public int[] getCandidates(Text key, String[] needle) {
+        List<Postings> postings = Lists.newArrayList();
+        Map<String, Postings> grams = index.get(key);
+        for (String term : needle) {
+            if(term.isEmpty()) {
+                continue;
+            }
+            else if(grams == null) {
+                return new int[0];
+            }
+            int count = term.length() <= GRAM_LENGTH ? 1 : term.length()
+                    - GRAM_LENGTH + 1;
+            for (int i = 0; i < count; ++i) {
+                Postings posting = grams.get(term.substring(i,
+                        Math.min(term.length(), i + GRAM_LENGTH)));
+                if(posting == null) {
+                    return new int[0];
+                }
+                postings.add(posting);
+            }
+        }
+        if(postings.isEmpty()) {
+            return null;
+        }
+        Postings smallest = postings.get(0);
+        for (Postings posting : postings) {
+            if(posting.size() < smallest.size()) {
+                smallest = posting;
+            }
+        }
+        int[] candidates = new int[smallest.size()];
+        int size = 0;
+        for (int i = 0; i < smallest.size(); ++i) {
+            int position = smallest.get(i);
+            boolean candidate = true;
+            for (Postings posting : postings) {
+                if(posting != smallest && !posting.contains(position)) {
+                    candidate = false;
+                    break;
+                }
+            }
+            if(candidate) {
+                candidates[size] = position;
+                ++size;
+            }
+        }
+        return Arrays.copyOf(candidates, size);
+    }
+
+    /**
+     * Index the value of {@code write}, which is at {@code position} in the
+     * group of writes, if it is a string. The positions of the indexed writes
+     * must be increasing.
+     * 
+     * @param write
+     * @param position
+     */
+    public void index(Write write, int position) {
+        Value value = write.getValue();
+        if(value.getType() == Type.STRING) {
+            String[] toks = TStrings.stripStopWordsAndTokenize(((String) value
+                    .getObject()).toLowerCase());
+            Map<String, Postings> grams = null;
+            for (String tok : toks) {
+                for (int i = 0; i < tok.length(); ++i) {
+                    for (int j = i + 1; j <= Math.min(tok.length(), i
+                            + GRAM_LENGTH); ++j) {
+                        if(grams == null) {
+                            grams = index.get(write.getKey());
+                            if(grams == null) {
+                                grams = Maps.newHashMap();
+                                index.put(write.getKey(), grams);
+                            }
+                        }
+                        String gram = tok.substring(i, j);
+                        Postings postings = grams.get(gram);
+                        if(postings == null) {
+                            postings = new Postings();
+                            grams.put(gram, postings);
+                        }
+                        postings.add(position);
+                    }
+                }
+            }
+        }
+    }
+
+}
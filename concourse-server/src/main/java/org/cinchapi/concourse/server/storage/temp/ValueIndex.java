@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2013-2015 Cinchapi Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.cinchapi.concourse.server.storage.temp;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.NavigableMap;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.NotThreadSafe;
+
+import org.cinchapi.concourse.annotate.PackagePrivate;
+import org.cinchapi.concourse.server.model.Text;
+import org.cinchapi.concourse.server.model.Value;
+import org.cinchapi.concourse.thrift.Operator;
+
+import com.google.common.collect.Maps;
+
+/**
+ * An in-memory secondary index that maps each key to its values, in sorted
+ * order, and each value to the positions of the {@link Write writes} in which
+ * it appears. The index is used to seek the writes whose value
+ * <em>might</em> satisfy a range operator instead of comparing the value of
+ * every write for the key.
+ * <p>
+ * Values are sorted using the {@link Value.Sorter}, which considers some
+ * values that are not equal (i.e. strings that only differ by case or
+ * numbers of different types) to be equivalent, so those values share an
+ * entry. Therefore, the candidates for an operator are a superset of the
+ * actual matches and the caller is responsible for verifying each one.
+ * </p>
+ * 
+ * @author Jeff Nelson
+ */
+@NotThreadSafe
+@PackagePrivate
+class ValueIndex {
+
+    /**
+     * A mapping from each key to a sorted mapping from each value to the
+     * positions of the writes for the key with the value.
+     */
+    private final Map<Text, NavigableMap<Value, Postings>> index = Maps
+            .newHashMap();
+
+    /**
+     * Return the positions, in ascending order, of the writes for {@code key}
+     * whose value might satisfy the {@code operator} in relation to the
+     * {@code values}. If the operator does not describe a range of values,
+     * this method returns {@code null} and the caller must consider every
+     * write for the key.
+     * 
+     * @param key
+     * @param operator
+     * @param values
+     * @return the candidate positions or {@code null}
+     */
+    @Nullable
+    public int[] getCandidates(Text key, Operator operator, Value... values) {
+        NavigableMap<Value, Postings> range = index.get(key);
+        if(range == null) {
+            return new int[0];
+        }
+        Value v1 = values[0];
+        switch (operator) {
+        case EQUALS:
+            Postings postings = range.get(v1);
+            return postings == null ? new int[0] : merge(Collections
+                    .singleton(postings));
+        case GREATER_THAN:
+            return merge(range.tailMap(v1, false).values());
+        case GREATER_THAN_OR_EQUALS:
+            return merge(range.tailMap(v1, true).values());
+        case LESS_THAN:
+            return merge(range.headMap(v1, false).values());
+        case LESS_THAN_OR_EQUALS:
+            return merge(range.headMap(v1, true).values());
+        case BETWEEN:
+            Value v2 = values[1];
+            return Value.Sorter.INSTANCE.compare(v1, v2) < 0 ? merge(range
+                    .subMap(v1, true, v2, false).values()) : new int[0];
+        default:
+            return null;
+        }
+    }
+
+    /**
+     * Index the value of {@code write}, which is at {@code position} in the
+     * group of writes. The positions of the indexed writes must be increasing.
+     * 
+     * @param write
+     * @param position
+     */
+    public void index(Write write, int position) {
+        NavigableMap<Value, Postings> values = index.get(write.getKey());
+        if(values == null) {
+            values = Maps.newTreeMap(Value.Sorter.INSTANCE);
+            index.put(write.getKey(), values);
+        }
+        Postings postings = values.get(write.getValue());
+        if(postings == null) {
+            postings = new Postings();
+            values.put(write.getValue(), postings);
+        }
+        postings.add(position);
+    }
+
+    /**
+     * Return all the positions in the {@code postings} in ascending order.
+     * Since each write has a single value, the postings are disjoint.
+     * 
+     * @param postings
+     * @return the merged positions
+     */
+    private static int[] merge(Collection<Postings> postings) {
+        int size = 0;
+        for (Postings posting : postings) {
+            size += posting.size();
+        }
+        int[] merged = new int[size];
+        int offset = 0;
+        for (Postings posting : postings) {
+            posting.copyTo(merged, offset);
+            offset += posting.size();
+        }
+        if(postings.size() > 1) {
+            Arrays.sort(merged);
+        }
+        return merged;
+    }
+
+}
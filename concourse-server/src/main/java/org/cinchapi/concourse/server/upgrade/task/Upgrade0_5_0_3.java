@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2013-2015 Cinchapi Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.cinchapi.concourse.server.upgrade.task;
+
+import java.util.Iterator;
+
+import org.cinchapi.concourse.server.GlobalState;
+import org.cinchapi.concourse.server.io.FileSystem;
+import org.cinchapi.concourse.server.storage.db.Database;
+import org.cinchapi.concourse.server.upgrade.SmartUpgradeTask;
+import org.cinchapi.concourse.util.Environments;
+
+/**
+ * Rebuild the search blocks in each environment so that they use the
+ * positional n-gram index instead of storing every substring of every term.
+ * 
+ * @author Jeff Nelson
+ */
+public class Upgrade0_5_0_3 extends SmartUpgradeTask {
+
+    @Override
+    public String getDescription() {
+        return "Rebuild the search index using positional n-grams";
+    }
+
+    @Override
+    protected void doTask() {
+        Iterator<String> envIt = Environments.iterator(
+                GlobalState.BUFFER_DIRECTORY, GlobalState.DATABASE_DIRECTORY);
+        while (envIt.hasNext()) {
+            String env = envIt.next();
+            Database.rebuildSearchIndex(FileSystem.makePath(
+                    GlobalState.DATABASE_DIRECTORY, env));
+        }
+    }
+
+}
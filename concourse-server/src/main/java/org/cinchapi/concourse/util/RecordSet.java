@@ -0,0 +1,807 @@
+/*
+ * Copyright (c) 2013-2015 Cinchapi Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.cinchapi.concourse.util;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * A compressed {@link java.util.Set Set} of record ids that is organized like
+ * a roaring bitmap.
+ * <p>
+ * Each record is split into its high 48 bits, which select a container, and
+ * its low 16 bits, which are stored in that container. A container with few
+ * elements is a sorted array of the low bits and a container with many
+ * elements is a bitmap with a bit for each possible low value. So a set of
+ * sparse records (like the timestamp based ids that Concourse generates) and a
+ * set of dense records both take little space, and the {@link #and(RecordSet)
+ * intersection} and {@link #or(RecordSet) union} of two sets are computed by
+ * merging the containers with the same high bits using word operations instead
+ * of hashing boxed longs.
+ * </p>
+ * <p>
+ * Elements are iterated in ascending order. Removing an element from the set
+ * does not release the space that it occupied.
+ * </p>
+ * 
+ * @author Jeff Nelson
+ */
+@NotThreadSafe
+public class RecordSet extends AbstractSet<Long> {
+
+    /**
+     * Return a new, empty {@link RecordSet}.
+     * 
+     * @return the RecordSet
+     */
+    public static RecordSet create() {
+        return new RecordSet();
+    }
+
+    /**
+     * Return a {@link RecordSet} that contains all the {@code records}. If
+     * {@code records} is already a RecordSet, a copy is returned. The copy is
+     * built most efficiently when the {@code records} are iterated in
+     * ascending order.
+     * 
+     * @param records
+     * @return the RecordSet
+     */
+    public static RecordSet copyOf(Collection<Long> records) {
+        if(records instanceof RecordSet) {
+            return ((RecordSet) records).copy();
+        }
+        else {
+            RecordSet set = new RecordSet();
+            for (long record : records) {
+                set.add(record);
+            }
+            return set;
+        }
+    }
+
+    /**
+     * Return the intersection of {@code a} and {@code b} as a
+     * {@link RecordSet}, converting either one as necessary.
+     * 
+     * @param a
+     * @param b
+     * @return the intersection
+     */
+    public static RecordSet intersection(Collection<Long> a,
+            Collection<Long> b) {
+        return asRecordSet(a).and(asRecordSet(b));
+    }
+
+    /**
+     * Return the union of {@code a} and {@code b} as a {@link RecordSet},
+     * converting either one as necessary.
+     * 
+     * @param a
+     * @param b
+     * @return the union
+     */
+    public static RecordSet union(Collection<Long> a, Collection<Long> b) {
+        return asRecordSet(a).or(asRecordSet(b));
+    }
+
+    /**
+     * Return {@code records} if it is a {@link RecordSet} or a new RecordSet
+     * that contains all of them otherwise.
+     * 
+     * @param records
+     * @return the RecordSet
+     */
+    private static RecordSet asRecordSet(Collection<Long> records) {
+        return records instanceof RecordSet ? (RecordSet) records
+                : copyOf(records);
+    }
+
+    /**
+     * Return the high bits of {@code record} that select its container.
+     * 
+     * @param record
+     * @return the high bits
+     */
+    private static long high(long record) {
+        return record >> 16;
+    }
+
+    /**
+     * Return the low bits of {@code record} that are stored in its container.
+     * 
+     * @param record
+     * @return the low bits
+     */
+    private static char low(long record) {
+        return (char) record;
+    }
+
+    /**
+     * The number of containers that the set can initially hold.
+     */
+    private static final int INITIAL_CAPACITY = 4;
+
+    /**
+     * The high bits for each container, in ascending order.
+     */
+    private long[] keys;
+
+    /**
+     * The container for each of the {@link #keys}.
+     */
+    private Container[] containers;
+
+    /**
+     * The number of containers in the set.
+     */
+    private int count = 0;
+
+    /**
+     * The number of elements in the set.
+     */
+    private int size = 0;
+
+    /**
+     * Construct a new instance.
+     */
+    private RecordSet() {
+        this(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Construct a new instance that can hold {@code capacity} containers
+     * before it must grow.
+     * 
+     * @param capacity
+     */
+    private RecordSet(int capacity) {
+        this.keys = new long[Math.max(capacity, 1)];
+        this.containers = new Container[keys.length];
+    }
+
+    @Override
+    public boolean add(Long record) {
+        return add(record.longValue());
+    }
+
+    /**
+     * Add {@code record} to the set.
+     * 
+     * @param record
+     * @return {@code true} if the set did not already contain the record
+     */
+    public boolean add(long record) {
+        long high = high(record);
+        int index = count > 0 && keys[count - 1] == high ? count - 1 : Arrays
+                .binarySearch(keys, 0, count, high);
+        if(index < 0) {
+            index = -index - 1;
+            insert(index, high, new Container());
+        }
+        Container container = containers[index];
+        if(container.add(low(record))) {
+            ++size;
+            return true;
+        }
+        else {
+            return false;
+        }
+    }
+
+    /**
+     * Return a new {@link RecordSet} that contains the elements that are in
+     * both this set and {@code other}.
+     * 
+     * @param other
+     * @return the intersection
+     */
+    public RecordSet and(RecordSet other) {
+        RecordSet result = new RecordSet(Math.min(count, other.count));
+        int i = 0;
+        int j = 0;
+        while (i < count && j < other.count) {
+            if(keys[i] < other.keys[j]) {
+                ++i;
+            }
+            else if(keys[i] > other.keys[j]) {
+                ++j;
+            }
+            else {
+                Container container = containers[i].and(other.containers[j]);
+                if(container.cardinality > 0) {
+                    result.append(keys[i], container);
+                }
+                ++i;
+                ++j;
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(containers, 0, count, null);
+        count = 0;
+        size = 0;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return o instanceof Long && contains(((Long) o).longValue());
+    }
+
+    /**
+     * Return {@code true} if {@code record} is in the set.
+     * 
+     * @param record
+     * @return {@code true} if the record is contained
+     */
+    public boolean contains(long record) {
+        int index = Arrays.binarySearch(keys, 0, count, high(record));
+        return index >= 0 && containers[index].contains(low(record));
+    }
+
+    /**
+     * Return a copy of this set that is not affected by subsequent changes.
+     * 
+     * @return the copy
+     */
+    public RecordSet copy() {
+        RecordSet copy = new RecordSet(count);
+        for (int i = 0; i < count; ++i) {
+            if(containers[i].cardinality > 0) {
+                copy.append(keys[i], containers[i].copy());
+            }
+        }
+        return copy;
+    }
+
+    @Override
+    public Iterator<Long> iterator() {
+        return new RecordSetIterator();
+    }
+
+    /**
+     * Return a new {@link RecordSet} that contains the elements that are in
+     * either this set or {@code other}.
+     * 
+     * @param other
+     * @return the union
+     */
+    public RecordSet or(RecordSet other) {
+        RecordSet result = new RecordSet(count + other.count);
+        int i = 0;
+        int j = 0;
+        while (i < count || j < other.count) {
+            if(j == other.count || (i < count && keys[i] < other.keys[j])) {
+                if(containers[i].cardinality > 0) {
+                    result.append(keys[i], containers[i].copy());
+                }
+                ++i;
+            }
+            else if(i == count || keys[i] > other.keys[j]) {
+                if(other.containers[j].cardinality > 0) {
+                    result.append(other.keys[j], other.containers[j].copy());
+                }
+                ++j;
+            }
+            else {
+                Container container = containers[i].or(other.containers[j]);
+                if(container.cardinality > 0) {
+                    result.append(keys[i], container);
+                }
+                ++i;
+                ++j;
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        return o instanceof Long && remove(((Long) o).longValue());
+    }
+
+    /**
+     * Remove {@code record} from the set.
+     * 
+     * @param record
+     * @return {@code true} if the set contained the record
+     */
+    public boolean remove(long record) {
+        int index = Arrays.binarySearch(keys, 0, count, high(record));
+        if(index >= 0 && containers[index].remove(low(record))) {
+            --size;
+            return true;
+        }
+        else {
+            return false;
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Append the non-empty {@code container} for the {@code high} bits, which
+     * must be greater than those of every other container in the set.
+     * 
+     * @param high
+     * @param container
+     */
+    private void append(long high, Container container) {
+        insert(count, high, container);
+        size += container.cardinality;
+    }
+
+    /**
+     * Insert the {@code container} for the {@code high} bits at
+     * {@code index}, growing the storage if necessary. This method does not
+     * change the {@link #size}.
+     * 
+     * @param index
+     * @param high
+     * @param container
+     */
+    private void insert(int index, long high, Container container) {
+        if(count == keys.length) {
+            int capacity = count + (count >> 1) + 1;
+            keys = Arrays.copyOf(keys, capacity);
+            containers = Arrays.copyOf(containers, capacity);
+        }
+        if(index < count) {
+            System.arraycopy(keys, index, keys, index + 1, count - index);
+            System.arraycopy(containers, index, containers, index + 1, count
+                    - index);
+        }
+        keys[index] = high;
+        containers[index] = container;
+        ++count;
+    }
+
+    /**
+     * The low 16 bits of the records in a {@link RecordSet} that share the
+     * same high bits. A container is either a sorted {@link #array} (when it
+     * has at most {@link #ARRAY_LIMIT} elements) or a {@link #bitmap}.
+     * 
+     * @author Jeff Nelson
+     */
+    private static final class Container {
+
+        /**
+         * The largest number of elements that are stored in an array. Beyond
+         * this point, a bitmap takes less space.
+         */
+        private static final int ARRAY_LIMIT = 4096;
+
+        /**
+         * The number of words in a bitmap.
+         */
+        private static final int BITMAP_WORDS = 1024;
+
+        /**
+         * The sorted elements if this container is an array, otherwise
+         * {@code null}.
+         */
+        private char[] array;
+
+        /**
+         * The bits for each element if this container is a bitmap, otherwise
+         * {@code null}.
+         */
+        private long[] bitmap;
+
+        /**
+         * The number of elements in the container.
+         */
+        private int cardinality = 0;
+
+        /**
+         * Construct a new empty array container.
+         */
+        Container() {
+            this.array = new char[4];
+        }
+
+        /**
+         * Construct a new container with the specified components.
+         * 
+         * @param array
+         * @param bitmap
+         * @param cardinality
+         */
+        private Container(char[] array, long[] bitmap, int cardinality) {
+            this.array = array;
+            this.bitmap = bitmap;
+            this.cardinality = cardinality;
+        }
+
+        /**
+         * Add {@code low} to the container.
+         * 
+         * @param low
+         * @return {@code true} if the container did not already contain it
+         */
+        boolean add(char low) {
+            if(bitmap != null) {
+                long word = bitmap[low >>> 6];
+                long updated = word | (1L << low);
+                bitmap[low >>> 6] = updated;
+                if(updated != word) {
+                    ++cardinality;
+                    return true;
+                }
+                return false;
+            }
+            else {
+                // Appending in ascending order is the common case, so check
+                // for it before searching
+                int index = cardinality == 0 || array[cardinality - 1] < low ? -cardinality - 1
+                        : Arrays.binarySearch(array, 0, cardinality, low);
+                if(index >= 0) {
+                    return false;
+                }
+                else if(cardinality == ARRAY_LIMIT) {
+                    toBitmap();
+                    return add(low);
+                }
+                index = -index - 1;
+                if(cardinality == array.length) {
+                    array = Arrays.copyOf(array, Math.min(ARRAY_LIMIT,
+                            cardinality << 1));
+                }
+                System.arraycopy(array, index, array, index + 1, cardinality
+                        - index);
+                array[index] = low;
+                ++cardinality;
+                return true;
+            }
+        }
+
+        /**
+         * Return a new container with the elements that are in both this
+         * container and {@code other}.
+         * 
+         * @param other
+         * @return the intersection
+         */
+        Container and(Container other) {
+            if(bitmap != null && other.bitmap != null) {
+                long[] words = new long[BITMAP_WORDS];
+                int cardinality = 0;
+                for (int i = 0; i < BITMAP_WORDS; ++i) {
+                    words[i] = bitmap[i] & other.bitmap[i];
+                    cardinality += Long.bitCount(words[i]);
+                }
+                Container container = new Container(null, words, cardinality);
+                if(cardinality <= ARRAY_LIMIT) {
+                    container.toArray();
+                }
+                return container;
+            }
+            else if(bitmap != null) {
+                return other.and(this);
+            }
+            else {
+                char[] elements = new char[cardinality];
+                int size = 0;
+                if(other.bitmap != null) {
+                    for (int i = 0; i < cardinality; ++i) {
+                        if(other.contains(array[i])) {
+                            elements[size++] = array[i];
+                        }
+                    }
+                }
+                else {
+                    int i = 0;
+                    int j = 0;
+                    while (i < cardinality && j < other.cardinality) {
+                        if(array[i] < other.array[j]) {
+                            ++i;
+                        }
+                        else if(array[i] > other.array[j]) {
+                            ++j;
+                        }
+                        else {
+                            elements[size++] = array[i];
+                            ++i;
+                            ++j;
+                        }
+                    }
+                }
+                return new Container(elements, null, size);
+            }
+        }
+
+        /**
+         * Return {@code true} if {@code low} is in the container.
+         * 
+         * @param low
+         * @return {@code true} if the element is contained
+         */
+        boolean contains(char low) {
+            if(bitmap != null) {
+                return (bitmap[low >>> 6] & (1L << low)) != 0;
+            }
+            else {
+                return Arrays.binarySearch(array, 0, cardinality, low) >= 0;
+            }
+        }
+
+        /**
+         * Return a copy of the container.
+         * 
+         * @return the copy
+         */
+        Container copy() {
+            return new Container(array == null ? null : Arrays.copyOf(array,
+                    Math.max(cardinality, 1)), bitmap == null ? null
+                    : bitmap.clone(), cardinality);
+        }
+
+        /**
+         * Return the smallest element in the container that is greater than
+         * or equal to {@code from} if this container is a bitmap.
+         * 
+         * @param from
+         * @return the next element or -1 if there is none
+         */
+        int nextSetBit(int from) {
+            int index = from >>> 6;
+            if(index >= BITMAP_WORDS) {
+                return -1;
+            }
+            long word = bitmap[index] & (-1L << from);
+            for (;;) {
+                if(word != 0) {
+                    return (index << 6) + Long.numberOfTrailingZeros(word);
+                }
+                else if(++index == BITMAP_WORDS) {
+                    return -1;
+                }
+                word = bitmap[index];
+            }
+        }
+
+        /**
+         * Return a new container with the elements that are in either this
+         * container or {@code other}.
+         * 
+         * @param other
+         * @return the union
+         */
+        Container or(Container other) {
+            if(bitmap != null || other.bitmap != null
+                    || cardinality + other.cardinality > ARRAY_LIMIT) {
+                long[] words = new long[BITMAP_WORDS];
+                copyInto(words);
+                other.copyInto(words);
+                int cardinality = 0;
+                for (long word : words) {
+                    cardinality += Long.bitCount(word);
+                }
+                Container container = new Container(null, words, cardinality);
+                if(cardinality <= ARRAY_LIMIT) {
+                    container.toArray();
+                }
+                return container;
+            }
+            else {
+                char[] elements = new char[Math.max(cardinality
+                        + other.cardinality, 1)];
+                int size = 0;
+                int i = 0;
+                int j = 0;
+                while (i < cardinality || j < other.cardinality) {
+                    if(j == other.cardinality
+                            || (i < cardinality && array[i] < other.array[j])) {
+                        elements[size++] = array[i++];
+                    }
+                    else if(i == cardinality || array[i] > other.array[j]) {
+                        elements[size++] = other.array[j++];
+                    }
+                    else {
+                        elements[size++] = array[i];
+                        ++i;
+                        ++j;
+                    }
+                }
+                return new Container(elements, null, size);
+            }
+        }
+
+        /**
+         * Remove {@code low} from the container.
+         * 
+         * @param low
+         * @return {@code true} if the container contained it
+         */
+        boolean remove(char low) {
+            if(bitmap != null) {
+                long word = bitmap[low >>> 6];
+                long updated = word & ~(1L << low);
+                bitmap[low >>> 6] = updated;
+                if(updated != word) {
+                    --cardinality;
+                    return true;
+                }
+                return false;
+            }
+            else {
+                int index = Arrays.binarySearch(array, 0, cardinality, low);
+                if(index >= 0) {
+                    System.arraycopy(array, index + 1, array, index,
+                            cardinality - index - 1);
+                    --cardinality;
+                    return true;
+                }
+                return false;
+            }
+        }
+
+        /**
+         * Set the bits for all the elements in this container in
+         * {@code words}.
+         * 
+         * @param words
+         */
+        private void copyInto(long[] words) {
+            if(bitmap != null) {
+                for (int i = 0; i < BITMAP_WORDS; ++i) {
+                    words[i] |= bitmap[i];
+                }
+            }
+            else {
+                for (int i = 0; i < cardinality; ++i) {
+                    words[array[i] >>> 6] |= 1L << array[i];
+                }
+            }
+        }
+
+        /**
+         * Convert this container from a bitmap to an array.
+         */
+        private void toArray() {
+            char[] elements = new char[Math.max(cardinality, 1)];
+            int size = 0;
+            for (int i = nextSetBit(0); i >= 0; i = nextSetBit(i + 1)) {
+                elements[size++] = (char) i;
+            }
+            array = elements;
+            bitmap = null;
+        }
+
+        /**
+         * Convert this container from an array to a bitmap.
+         */
+        private void toBitmap() {
+            long[] words = new long[BITMAP_WORDS];
+            copyInto(words);
+            bitmap = words;
+            array = null;
+        }
+
+    }
+
+    /**
+     * The {@link Iterator} that traverses the elements in a
+     * {@link RecordSet} in ascending order.
+     * 
+     * @author Jeff Nelson
+     */
+    private final class RecordSetIterator implements Iterator<Long> {
+
+        /**
+         * The index of the container that holds the next element.
+         */
+        private int index = 0;
+
+        /**
+         * The position of the next element in the container: an index if the
+         * container is an array and the element itself if it is a bitmap.
+         */
+        private int position = -1;
+
+        /**
+         * The last element that was returned from {@link #next()}, which is
+         * removed in {@link #remove()}.
+         */
+        private long last;
+
+        /**
+         * A flag that indicates whether {@link #remove()} may be called.
+         */
+        private boolean removable = false;
+
+        /**
+         * Construct a new instance.
+         */
+        RecordSetIterator() {
+            advance(0);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return index < count;
+        }
+
+        @Override
+        public Long next() {
+            if(!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Container container = containers[index];
+            char low = container.bitmap != null ? (char) position
+                    : container.array[position];
+            last = (keys[index] << 16) | low;
+            removable = true;
+            advance(position + 1);
+            return last;
+        }
+
+        @Override
+        public void remove() {
+            if(!removable) {
+                throw new IllegalStateException();
+            }
+            removable = false;
+            Container container = index < count ? containers[index] : null;
+            // Removing an element from an array container shifts the
+            // subsequent elements, so the position must be adjusted if the
+            // next element is in the same container
+            if(container != null && container.array != null
+                    && keys[index] == high(last)) {
+                --position;
+            }
+            RecordSet.this.remove(last);
+        }
+
+        /**
+         * Advance to the next element, starting at {@code from} in the
+         * current container, and moving to subsequent containers as
+         * necessary.
+         * 
+         * @param from
+         */
+        private void advance(int from) {
+            while (index < count) {
+                Container container = containers[index];
+                if(container.bitmap != null) {
+                    position = container.nextSetBit(from);
+                    if(position >= 0) {
+                        return;
+                    }
+                }
+                else if(from < container.cardinality) {
+                    position = from;
+                    return;
+                }
+                ++index;
+                from = 0;
+            }
+        }
+
+    }
+
+}
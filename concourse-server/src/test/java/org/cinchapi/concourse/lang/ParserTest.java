@@ -18,6 +18,10 @@ package org.cinchapi.concourse.lang;
 import java.util.List;
 import java.util.Queue;
 
+import org.cinchapi.concourse.lang.ast.AST;
+import org.cinchapi.concourse.lang.ast.AndTree;
+import org.cinchapi.concourse.lang.ast.ExpressionTree;
+import org.cinchapi.concourse.lang.ast.OrTree;
 import org.cinchapi.concourse.thrift.Operator;
 import org.cinchapi.concourse.time.Time;
 import org.cinchapi.concourse.util.Convert;
@@ -581,4 +585,21 @@ public class ParserTest {
                                                                // parsed
         }
     }
+
+    @Test
+    public void testPostfixNotationToAbstractSyntaxTree() {
+        String ccl = "a = 1 and (b = 2 or c = 3)";
+        AST ast = Parser.toAbstractSyntaxTree(Parser.toPostfixNotation(ccl));
+        Assert.assertTrue(ast instanceof AndTree);
+        AndTree and = (AndTree) ast;
+        Assert.assertTrue(and.getLeftChild() instanceof ExpressionTree);
+        Assert.assertEquals("a", ((Expression) and.getLeftChild().getSymbol())
+                .getKeyRaw());
+        Assert.assertTrue(and.getRightChild() instanceof OrTree);
+        OrTree or = (OrTree) and.getRightChild();
+        Assert.assertEquals("b", ((Expression) or.getLeftChild().getSymbol())
+                .getKeyRaw());
+        Assert.assertEquals("c", ((Expression) or.getRightChild().getSymbol())
+                .getKeyRaw());
+    }
 }
@@ -55,6 +55,19 @@ public class ConcourseServerTest extends ConcourseBaseTest {
         }
     }
 
+    @Test(expected = IllegalStateException.class)
+    public void testCannotStartServerWithUnknownClientWorkerModel()
+            throws TTransportException {
+        String oldModel = GlobalState.CLIENT_WORKER_MODEL;
+        try {
+            GlobalState.CLIENT_WORKER_MODEL = "foo";
+            new ConcourseServer(1, "buffer", "db");
+        }
+        finally {
+            GlobalState.CLIENT_WORKER_MODEL = oldModel;
+        }
+    }
+
     @Test
     public void testFindEnvReturnsDefaultForEmptyString() {
         Assert.assertEquals(GlobalState.DEFAULT_ENVIRONMENT,
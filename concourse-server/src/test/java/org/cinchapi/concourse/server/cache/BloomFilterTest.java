@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2013-2015 Cinchapi Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.cinchapi.concourse.server.cache;
+
+import java.io.EOFException;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import org.cinchapi.concourse.server.io.Byteable;
+import org.cinchapi.concourse.server.io.FileSystem;
+import org.cinchapi.concourse.server.storage.cache.BloomFilter;
+import org.cinchapi.concourse.test.ConcourseBaseTest;
+import org.cinchapi.concourse.util.TestData;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Unit tests for {@link BloomFilter}.
+ * 
+ * @author Jeff Nelson
+ */
+public class BloomFilterTest extends ConcourseBaseTest {
+
+    private String file;
+
+    @Override
+    protected void beforeEachTest() {
+        super.beforeEachTest();
+        file = TestData.getTemporaryTestFile();
+    }
+
+    @Override
+    protected void afterEachTest() {
+        super.afterEachTest();
+        if(FileSystem.hasFile(file)) {
+            FileSystem.deleteFile(file);
+        }
+    }
+
+    @Test
+    public void testOpenedFilterMatchesSyncedFilter() {
+        int count = 1000;
+        BloomFilter filter = BloomFilter.create(file, count);
+        List<Byteable[]> added = Lists.newArrayList();
+        for (int i = 0; i < count; ++i) {
+            Byteable[] byteables = getByteables();
+            filter.put(byteables);
+            added.add(byteables);
+        }
+        filter.sync();
+        BloomFilter opened = BloomFilter.open(file);
+        for (Byteable[] byteables : added) {
+            Assert.assertTrue(opened.mightContain(byteables));
+        }
+        for (int i = 0; i < count; ++i) {
+            Byteable[] byteables = getByteables();
+            Assert.assertEquals(filter.mightContain(byteables),
+                    opened.mightContain(byteables));
+        }
+    }
+
+    @Test
+    public void testFalsePositiveProbability() {
+        int count = 5000;
+        BloomFilter filter = BloomFilter.create(count);
+        for (int i = 0; i < count; ++i) {
+            filter.put(getByteables());
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < count; ++i) {
+            if(filter.mightContain(getByteables())) {
+                ++falsePositives;
+            }
+        }
+        Assert.assertTrue(falsePositives < count * 0.06);
+    }
+
+    @Test
+    public void testCannotOpenLegacyFormat() {
+        // A filter that was written using Java serialization
+        FileSystem.writeBytes(ByteBuffer.wrap(new byte[] { (byte) 0xAC,
+                (byte) 0xED, 0, 5, 0x73, 0x72, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0 }),
+                file);
+        try {
+            BloomFilter.open(file);
+            Assert.fail();
+        }
+        catch (RuntimeException e) {
+            Assert.assertTrue(e.getCause() instanceof StreamCorruptedException);
+        }
+    }
+
+    @Test
+    public void testCannotOpenTruncatedFilter() {
+        BloomFilter filter = BloomFilter.create(file, 100);
+        filter.put(getByteables());
+        filter.sync();
+        ByteBuffer bytes = FileSystem.readBytes(file);
+        bytes.limit(bytes.capacity() - 8);
+        ByteBuffer truncated = ByteBuffer.allocate(bytes.limit());
+        truncated.put(bytes);
+        truncated.flip();
+        FileSystem.deleteFile(file);
+        FileSystem.writeBytes(truncated, file);
+        try {
+            BloomFilter.open(file);
+            Assert.fail();
+        }
+        catch (RuntimeException e) {
+            Assert.assertTrue(e.getCause() instanceof EOFException);
+        }
+    }
+
+    /**
+     * Get an array of byteables to put into the bloom filter
+     * 
+     * @return the byteables
+     */
+    private Byteable[] getByteables() {
+        return new Byteable[] { TestData.getText(), TestData.getValue(),
+                TestData.getPrimaryKey() };
+    }
+
+}
@@ -18,6 +18,8 @@ package org.cinchapi.concourse.server.model;
 import java.util.List;
 import java.util.Set;
 
+import org.cinchapi.concourse.Link;
+import org.cinchapi.concourse.Tag;
 import org.cinchapi.concourse.server.io.ByteableTest;
 import org.cinchapi.concourse.test.Variables;
 import org.cinchapi.concourse.util.Convert;
@@ -182,6 +184,44 @@ public class ValueTest extends ByteableTest {
 
     }
 
+    @Test
+    public void testSortKeyOrderMatchesObjectOrder() {
+        List<Object> objects = Lists.<Object> newArrayList(0, -0.0, 1, 1L,
+                1.0, 1.0f, -1, -1.5, -1.25f, -100L, 0.1, 0.1f, 10, 9.99,
+                Integer.MAX_VALUE, Long.MIN_VALUE + 1, Double.MAX_VALUE,
+                -Double.MAX_VALUE, Double.MIN_VALUE, 123456789.123456789,
+                Link.to(1), Link.to(-1), "", "a", "A", "ab", "aB", "b",
+                "\u00e9", "\u00c9", "10", false, true,
+                Tag.create("tag"));
+        for (int i = 0; i < TestData.getScaleCount(); ++i) {
+            objects.add(TestData.getObject());
+        }
+        for (Object o1 : objects) {
+            for (Object o2 : objects) {
+                Value v1 = Variables.register("v1",
+                        Value.wrap(Convert.javaToThrift(o1)));
+                Value v2 = Variables.register("v2",
+                        Value.wrap(Convert.javaToThrift(o2)));
+                int expected;
+                if(o1 instanceof Number && o2 instanceof Number) {
+                    expected = Numbers.compare((Number) o1, (Number) o2);
+                }
+                else if(o1 instanceof Number) {
+                    expected = -1;
+                }
+                else if(o2 instanceof Number) {
+                    expected = 1;
+                }
+                else {
+                    expected = o1.toString().compareToIgnoreCase(
+                            o2.toString());
+                }
+                Assert.assertEquals(Integer.signum(expected),
+                        Integer.signum(v1.compareTo(v2)));
+            }
+        }
+    }
+
     @Override
     protected Class<Value> getTestClass() {
         return Value.class;
@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2013-2015 Cinchapi Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.cinchapi.concourse.server.query;
+
+import java.io.File;
+import java.util.Set;
+
+import org.cinchapi.concourse.Aggregation;
+import org.cinchapi.concourse.server.io.FileSystem;
+import org.cinchapi.concourse.server.storage.Engine;
+import org.cinchapi.concourse.thrift.TObject;
+import org.cinchapi.concourse.time.Time;
+import org.cinchapi.concourse.util.Convert;
+import org.cinchapi.concourse.util.TestData;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.Sets;
+
+/**
+ * Unit tests for the {@link Aggregator}.
+ * 
+ * @author Jeff Nelson
+ */
+public class AggregatorTest {
+
+    private String directory;
+    private Engine engine;
+
+    @Before
+    public void setUp() {
+        directory = TestData.DATA_DIR + File.separator + Time.now();
+        engine = new Engine(directory + File.separator + "buffer", directory
+                + File.separator + "db");
+        engine.start();
+    }
+
+    @After
+    public void tearDown() {
+        engine.stop();
+        FileSystem.deleteDirectory(directory);
+    }
+
+    @Test
+    public void testAggregateKey() {
+        for (long i = 1; i <= 10; ++i) {
+            engine.add("a", Convert.javaToThrift(i), i);
+        }
+        engine.add("a", Convert.javaToThrift("foo"), 1);
+        Assert.assertEquals(Convert.javaToThrift(11L),
+                Aggregator.aggregate(Aggregation.COUNT, "a", engine));
+        Assert.assertEquals(Convert.javaToThrift(55L),
+                Aggregator.aggregate(Aggregation.SUM, "a", engine));
+        Assert.assertEquals(Convert.javaToThrift(5.5),
+                Aggregator.aggregate(Aggregation.AVERAGE, "a", engine));
+        Assert.assertEquals(Convert.javaToThrift(1L),
+                Aggregator.aggregate(Aggregation.MIN, "a", engine));
+        Assert.assertEquals(Convert.javaToThrift("foo"),
+                Aggregator.aggregate(Aggregation.MAX, "a", engine));
+    }
+
+    @Test
+    public void testAggregateDecimals() {
+        engine.add("a", Convert.javaToThrift(1), 1);
+        engine.add("a", Convert.javaToThrift(1.5), 2);
+        engine.add("a", Convert.javaToThrift(1.5), 3);
+        Assert.assertEquals(Convert.javaToThrift(4.0),
+                Aggregator.aggregate(Aggregation.SUM, "a", engine));
+    }
+
+    @Test
+    public void testAggregateRecords() {
+        int count = QueryPlanner.PROBE_THRESHOLD * 2;
+        Set<Long> even = Sets.newHashSet();
+        Set<Long> few = Sets.newHashSet();
+        for (long i = 0; i < count; ++i) {
+            engine.add("a", Convert.javaToThrift(i % 10), i);
+            if(i % 2 == 0) {
+                even.add(i);
+            }
+            if(i < 10) {
+                few.add(i);
+            }
+        }
+        Assert.assertEquals(Convert.javaToThrift((long) count / 2),
+                Aggregator.aggregate(Aggregation.COUNT, "a", even, engine));
+        Assert.assertEquals(Convert.javaToThrift(20L * count / 10),
+                Aggregator.aggregate(Aggregation.SUM, "a", even, engine));
+        Assert.assertEquals(Convert.javaToThrift(45L),
+                Aggregator.aggregate(Aggregation.SUM, "a", few, engine));
+        Assert.assertEquals(Convert.javaToThrift(9L),
+                Aggregator.aggregate(Aggregation.MAX, "a", few, engine));
+    }
+
+    @Test
+    public void testAggregateHistorical() {
+        engine.add("a", Convert.javaToThrift(1), 1);
+        engine.add("a", Convert.javaToThrift(2), 2);
+        long timestamp = Time.now();
+        engine.add("a", Convert.javaToThrift(3), 3);
+        engine.remove("a", Convert.javaToThrift(1), 1);
+        Assert.assertEquals(Convert.javaToThrift(3L), Aggregator.aggregate(
+                Aggregation.SUM, "a", timestamp, engine));
+        Assert.assertEquals(Convert.javaToThrift(1), Aggregator.aggregate(
+                Aggregation.MIN, "a", Sets.newHashSet(1L, 3L), timestamp,
+                engine));
+        Assert.assertEquals(Convert.javaToThrift(5L),
+                Aggregator.aggregate(Aggregation.SUM, "a", engine));
+    }
+
+    @Test
+    public void testAggregateSumThatOverflowsALong() {
+        engine.add("a", Convert.javaToThrift(Long.MAX_VALUE), 1);
+        engine.add("a", Convert.javaToThrift(Long.MAX_VALUE), 2);
+        engine.add("a", Convert.javaToThrift(Long.MAX_VALUE), 3);
+        double sum = 3.0 * Long.MAX_VALUE;
+        Assert.assertEquals(Convert.javaToThrift(sum),
+                Aggregator.aggregate(Aggregation.SUM, "a", engine));
+        Assert.assertEquals(Convert.javaToThrift(sum / 3),
+                Aggregator.aggregate(Aggregation.AVERAGE, "a", engine));
+        Assert.assertEquals(Convert.javaToThrift(sum), Aggregator.aggregate(
+                Aggregation.SUM, "a", Sets.newHashSet(1L, 2L, 3L), engine));
+    }
+
+    @Test
+    public void testAggregateEmpty() {
+        Assert.assertEquals(Convert.javaToThrift(0L),
+                Aggregator.aggregate(Aggregation.COUNT, "a", engine));
+        for (Aggregation function : new Aggregation[] { Aggregation.SUM,
+                Aggregation.AVERAGE, Aggregation.MIN, Aggregation.MAX }) {
+            Assert.assertEquals(TObject.NULL,
+                    Aggregator.aggregate(function, "a", engine));
+        }
+    }
+
+}
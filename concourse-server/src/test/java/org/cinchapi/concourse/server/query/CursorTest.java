@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2013-2015 Cinchapi Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.cinchapi.concourse.server.query;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.cinchapi.concourse.server.storage.temp.Queue;
+import org.cinchapi.concourse.server.storage.temp.Write;
+import org.cinchapi.concourse.thrift.AccessToken;
+import org.cinchapi.concourse.thrift.TObject;
+import org.cinchapi.concourse.time.Time;
+import org.cinchapi.concourse.util.Convert;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+
+/**
+ * Unit tests for {@link Cursor}.
+ * 
+ * @author Jeff Nelson
+ */
+public class CursorTest {
+
+    private static final AccessToken OWNER = new AccessToken(
+            ByteBuffer.wrap(new byte[] { 1 }));
+
+    @Test
+    public void testRecordCursorIsSortedAndChunked() {
+        Set<Long> records = Sets.newHashSet();
+        for (long i = 10; i > 0; --i) {
+            records.add(i);
+        }
+        Cursor<Long> cursor = Cursor.records(records, OWNER);
+        List<Long> fetched = Lists.newArrayList();
+        List<Long> rows;
+        while (!(rows = cursor.next(3)).isEmpty()) {
+            Assert.assertTrue(rows.size() <= 3);
+            fetched.addAll(rows);
+        }
+        Assert.assertEquals(Lists.newArrayList(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L,
+                9L, 10L), fetched);
+        Assert.assertTrue(cursor.isExhausted());
+    }
+
+    @Test
+    public void testRecordCursorIsSnapshot() {
+        Set<Long> records = Sets.newHashSet(1L, 2L, 3L);
+        Cursor<Long> cursor = Cursor.records(records, OWNER);
+        records.add(4L);
+        records.remove(1L);
+        Assert.assertEquals(Lists.newArrayList(1L, 2L, 3L), cursor.next(10));
+    }
+
+    @Test
+    public void testValueCursor() {
+        Queue queue = new Queue(4);
+        queue.insert(Write.add("foo", Convert.javaToThrift(1), 1));
+        queue.insert(Write.add("foo", Convert.javaToThrift(1), 2));
+        queue.insert(Write.add("foo", Convert.javaToThrift(2), 3));
+        queue.insert(Write.add("foo", Convert.javaToThrift(3), 4));
+        Cursor<Map<TObject, Set<Long>>> cursor = Cursor.values(queue, "foo",
+                Time.now(), OWNER);
+        List<Map<TObject, Set<Long>>> rows = cursor.next(2);
+        Assert.assertEquals(2, rows.size());
+        Assert.assertEquals(Sets.newHashSet(1L, 2L),
+                rows.get(0).get(Convert.javaToThrift(1)));
+        Assert.assertEquals(Sets.newHashSet(3L),
+                rows.get(1).get(Convert.javaToThrift(2)));
+        Assert.assertFalse(cursor.isExhausted());
+        Assert.assertEquals(1, cursor.next(2).size());
+        Assert.assertTrue(cursor.isExhausted());
+    }
+
+    @Test
+    public void testValueCursorReadsAsOfWhenItWasOpened() {
+        Queue queue = new Queue(4);
+        queue.insert(Write.add("foo", Convert.javaToThrift(1), 1));
+        queue.insert(Write.add("foo", Convert.javaToThrift(3), 2));
+        Cursor<Map<TObject, Set<Long>>> cursor = Cursor.values(queue, "foo",
+                Time.now(), OWNER);
+        Assert.assertEquals(Sets.newHashSet(1L),
+                cursor.next(1).get(0).get(Convert.javaToThrift(1)));
+        queue.insert(Write.add("foo", Convert.javaToThrift(2), 3));
+        queue.insert(Write.remove("foo", Convert.javaToThrift(3), 2));
+        List<Map<TObject, Set<Long>>> rows = cursor.next(10);
+        Assert.assertEquals(1, rows.size());
+        Assert.assertEquals(Sets.newHashSet(2L),
+                rows.get(0).get(Convert.javaToThrift(3)));
+    }
+
+    @Test
+    public void testOwnership() {
+        Cursor<Long> cursor = Cursor.records(Sets.newHashSet(1L), OWNER);
+        Assert.assertTrue(cursor.isOwnedBy(new AccessToken(ByteBuffer
+                .wrap(new byte[] { 1 }))));
+        Assert.assertFalse(cursor.isOwnedBy(new AccessToken(ByteBuffer
+                .wrap(new byte[] { 2 }))));
+    }
+
+    @Test
+    public void testIsIdle() throws InterruptedException {
+        Cursor<Long> cursor = Cursor.records(Sets.newHashSet(1L), OWNER);
+        Assert.assertFalse(cursor.isIdle(1, TimeUnit.MINUTES));
+        Thread.sleep(5);
+        Assert.assertTrue(cursor.isIdle(1, TimeUnit.MILLISECONDS));
+    }
+
+}
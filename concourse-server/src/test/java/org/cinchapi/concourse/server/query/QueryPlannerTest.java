@@ -0,0 +1,264 @@
+/*
+ * Copyright (c) 2013-2015 Cinchapi Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.cinchapi.concourse.server.query;
+
+import java.io.File;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.cinchapi.concourse.lang.ConjunctionSymbol;
+import org.cinchapi.concourse.lang.Expression;
+import org.cinchapi.concourse.lang.Parser;
+import org.cinchapi.concourse.lang.PostfixNotationSymbol;
+import org.cinchapi.concourse.lang.ast.AST;
+import org.cinchapi.concourse.server.io.FileSystem;
+import org.cinchapi.concourse.server.storage.Engine;
+import org.cinchapi.concourse.server.storage.Statistics;
+import org.cinchapi.concourse.server.storage.Store;
+import org.cinchapi.concourse.test.Variables;
+import org.cinchapi.concourse.time.Time;
+import org.cinchapi.concourse.util.Convert;
+import org.cinchapi.concourse.util.TSets;
+import org.cinchapi.concourse.util.TestData;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+
+/**
+ * Unit tests for the {@link QueryPlanner}.
+ * 
+ * @author Jeff Nelson
+ */
+public class QueryPlannerTest {
+
+    private String directory;
+    private Engine engine;
+
+    @Before
+    public void setUp() {
+        directory = TestData.DATA_DIR + File.separator + Time.now();
+        engine = new Engine(directory + File.separator + "buffer", directory
+                + File.separator + "db");
+        engine.start();
+    }
+
+    @After
+    public void tearDown() {
+        engine.stop();
+        FileSystem.deleteDirectory(directory);
+    }
+
+    @Test
+    public void testPlannedFindMatchesUnplannedFind() {
+        int count = Variables.register("count",
+                QueryPlanner.PROBE_THRESHOLD * 2 + TestData.getScaleCount());
+        for (int i = 0; i < count; ++i) {
+            engine.add("a", Convert.javaToThrift(i % 10), i);
+            engine.add("b", Convert.javaToThrift(i % 7), i);
+            engine.add("c", Convert.javaToThrift("foo" + (i % 3)), i);
+        }
+        String[] ccls = { "a = 1", "a = 1 and b = 2",
+                "a > 3 and b != 2 and c = foo1",
+                "c regex foo.* and a = 5 and b < 4",
+                "a = 1 and (b = 2 or b = 3) and c != foo0",
+                "(a = 1 or b = 2) and (a = 2 or c = foo2)",
+                "a = 1 and b = 1 or c = foo1 and a >= 8",
+                "a = 1 and a = 2 and b = 3", "a = 11 or b <= 1" };
+        for (String ccl : ccls) {
+            Variables.register("ccl", ccl);
+            Assert.assertEquals(findUnplanned(ccl, engine), QueryPlanner.find(
+                    Parser.toAbstractSyntaxTree(Parser.toPostfixNotation(ccl)),
+                    engine));
+        }
+    }
+
+    @Test
+    public void testSelectiveExpressionsAreCheaper() {
+        Assert.assertTrue(cost("a = 1") < cost("a > 1"));
+        Assert.assertTrue(cost("a > 1") < cost("a != 1"));
+        Assert.assertTrue(cost("a = 1 and b != 1") < cost("a = 1 or b != 1"));
+    }
+
+    @Test
+    public void testStatisticsChangeThePlanOrder() {
+        for (int i = 0; i < 1000; ++i) {
+            engine.add("a", Convert.javaToThrift(1), i);
+        }
+        for (int i = 0; i < 10; ++i) {
+            engine.add("b", Convert.javaToThrift(1000 + i), i);
+        }
+        Statistics statistics = engine.getStatistics();
+        Assert.assertTrue(cost("a = 1") < cost("b > 500"));
+        Assert.assertTrue(cost("a = 1", statistics) > cost("b > 500",
+                statistics));
+        final List<String> keys = Lists.newArrayList();
+        Store store = (Store) Proxy.newProxyInstance(
+                Store.class.getClassLoader(), new Class<?>[] { Store.class },
+                new InvocationHandler() {
+
+                    @Override
+                    public Object invoke(Object proxy, Method method,
+                            Object[] args) throws Throwable {
+                        if(method.getName().equals("find")
+                                && args[0] instanceof String) {
+                            keys.add((String) args[0]);
+                        }
+                        return method.invoke(engine, args);
+                    }
+
+                });
+        AST ast = Parser.toAbstractSyntaxTree(Parser
+                .toPostfixNotation("a = 1 and b > 500"));
+        Assert.assertEquals(
+                Sets.newHashSet(0L, 1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L),
+                QueryPlanner.find(ast, store, statistics));
+        Assert.assertEquals(Lists.newArrayList("b"), keys);
+        keys.clear();
+        QueryPlanner.find(ast, store);
+        Assert.assertEquals("a", keys.get(0));
+    }
+
+    @Test
+    public void testPageSortedByRecord() {
+        Set<Long> records = Sets.newHashSet();
+        for (long i = 20; i > 0; --i) {
+            records.add(i);
+        }
+        Assert.assertEquals(Lists.newArrayList(6L, 7L, 8L),
+                QueryPlanner.page(records, null, 5, 3, engine));
+        Assert.assertEquals(Lists.newArrayList(19L, 20L),
+                QueryPlanner.page(records, null, 18, 5, engine));
+        Assert.assertTrue(QueryPlanner.page(records, null, 20, 5, engine)
+                .isEmpty());
+    }
+
+    @Test
+    public void testPageSortedByKey() {
+        Set<Long> records = Sets.newHashSet();
+        for (long i = 1; i <= 10; ++i) {
+            records.add(i);
+            if(i % 5 != 0) {
+                engine.add("a", Convert.javaToThrift(100 - i), i);
+            }
+            engine.add("a", Convert.javaToThrift(200), i);
+        }
+        engine.add("a", Convert.javaToThrift(0), 11); // not in the records
+        Assert.assertEquals(Lists.newArrayList(9L, 8L, 7L),
+                QueryPlanner.page(records, "a", 0, 3, engine));
+        Assert.assertEquals(Lists.newArrayList(2L, 1L, 5L, 10L),
+                QueryPlanner.page(records, "a", 6, 10, engine));
+        Assert.assertEquals(Lists.newArrayList(1L, 2L, 3L),
+                QueryPlanner.page(records, "b", 0, 3, engine));
+    }
+
+    @Test
+    public void testOrderedPageOnlyReadsTheValuesItNeeds() {
+        int count = 3000;
+        for (int i = 0; i < count; ++i) {
+            engine.add("a", Convert.javaToThrift(i), i);
+        }
+        Set<Long> records = Sets.newHashSet(5L, 10L, 1500L, 2999L);
+        final AtomicInteger read = new AtomicInteger(0);
+        Store store = (Store) Proxy.newProxyInstance(
+                Store.class.getClassLoader(), new Class<?>[] { Store.class },
+                new InvocationHandler() {
+
+                    @Override
+                    public Object invoke(Object proxy, Method method,
+                            Object[] args) throws Throwable {
+                        Assert.assertFalse(method.getName().equals("browse")
+                                && args.length == 1);
+                        Object result = method.invoke(engine, args);
+                        if(method.getName().equals("browse")) {
+                            read.addAndGet(((Map<?, ?>) result).size());
+                        }
+                        return result;
+                    }
+
+                });
+        Assert.assertEquals(Lists.newArrayList(5L, 10L),
+                QueryPlanner.page(records, "a", 0, 2, store));
+        Assert.assertTrue(read.get() < count / 2);
+        read.set(0);
+        Assert.assertEquals(Lists.newArrayList(10L, 1500L),
+                QueryPlanner.page(records, "a", 1, 2, store));
+        Assert.assertTrue(read.get() < count);
+    }
+
+    /**
+     * Return the estimated cost of the {@code ccl} statement.
+     * 
+     * @param ccl
+     * @return the cost
+     */
+    private static long cost(String ccl) {
+        return cost(ccl, null);
+    }
+
+    /**
+     * Return the estimated cost of the {@code ccl} statement given the
+     * {@code statistics}.
+     * 
+     * @param ccl
+     * @param statistics
+     * @return the cost
+     */
+    private static long cost(String ccl, Statistics statistics) {
+        return QueryPlanner.cost(
+                Parser.toAbstractSyntaxTree(Parser.toPostfixNotation(ccl)),
+                statistics);
+    }
+
+    /**
+     * Evaluate {@code ccl} against {@code store} one expression at a time
+     * from left to right without any planning.
+     * 
+     * @param ccl
+     * @param store
+     * @return the matching records
+     */
+    private static Set<Long> findUnplanned(String ccl, Store store) {
+        Queue<PostfixNotationSymbol> queue = Parser.toPostfixNotation(ccl);
+        Deque<Set<Long>> stack = new ArrayDeque<Set<Long>>();
+        for (PostfixNotationSymbol symbol : queue) {
+            if(symbol == ConjunctionSymbol.AND) {
+                stack.push(TSets.intersection(stack.pop(), stack.pop()));
+            }
+            else if(symbol == ConjunctionSymbol.OR) {
+                stack.push(TSets.union(stack.pop(), stack.pop()));
+            }
+            else {
+                Expression exp = (Expression) symbol;
+                stack.push(store.find(exp.getKeyRaw(), exp.getOperatorRaw(),
+                        exp.getValuesRaw()));
+            }
+        }
+        return stack.pop();
+    }
+
+}
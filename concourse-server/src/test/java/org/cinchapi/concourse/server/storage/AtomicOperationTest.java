@@ -15,6 +15,7 @@
  */
 package org.cinchapi.concourse.server.storage;
 
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -28,6 +29,7 @@ import org.cinchapi.concourse.util.TestData;
 import org.junit.Assert;
 import org.junit.Test;
 
+import com.google.common.collect.Iterables;
 import com.google.common.collect.Sets;
 
 /**
@@ -39,6 +41,28 @@ public abstract class AtomicOperationTest extends BufferedStoreTest {
 
     protected Compoundable destination;
 
+    @Test
+    public void testBrowseKeyInBatchesSkipsDestinationValuesThatAreRemoved() {
+        String key = TestData.getSimpleString();
+        for (int i = 0; i < 20; ++i) {
+            destination.accept(Write.add(key, Convert.javaToThrift(i), i));
+        }
+        AtomicOperation atomic = (AtomicOperation) store;
+        for (int i = 0; i < 10; ++i) {
+            atomic.remove(key, Convert.javaToThrift(i), i);
+        }
+        atomic.add(key, Convert.javaToThrift(30), 30);
+        Map<TObject, Set<Long>> batch = atomic.browse(key, null, 5);
+        Assert.assertEquals(5, batch.size());
+        Assert.assertEquals(Convert.javaToThrift(10),
+                Iterables.getFirst(batch.keySet(), null));
+        batch = atomic.browse(key, Convert.javaToThrift(19), 5);
+        Assert.assertEquals(Sets.newHashSet(Convert.javaToThrift(30)),
+                batch.keySet());
+        Assert.assertTrue(atomic.browse(key, Convert.javaToThrift(30), 5)
+                .isEmpty());
+    }
+
     @Test
     public void testNoDeadlockIfAddToKeyAsValueBeforeFindingEqKeyAndValue() {
         long record = TestData.getLong();
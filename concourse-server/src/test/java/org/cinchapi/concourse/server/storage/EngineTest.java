@@ -22,6 +22,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+import org.cinchapi.concourse.server.GlobalState;
 import org.cinchapi.concourse.server.concurrent.Threads;
 import org.cinchapi.concourse.server.io.FileSystem;
 import org.cinchapi.concourse.server.storage.db.Database;
@@ -150,6 +151,44 @@ public class EngineTest extends BufferedStoreTest {
         }
     }
 
+    @Test
+    public void testBufferKeepsTransportedPagesUntilDatabaseSyncs()
+            throws Exception {
+        Engine engine = (Engine) store;
+        Buffer buffer = (Buffer) engine.buffer;
+        Database db = (Database) engine.destination;
+        Method method = buffer.getClass().getDeclaredMethod("canTransport");
+        method.setAccessible(true);
+        long blockSize = GlobalState.DATABASE_BLOCK_SIZE;
+        try {
+            int count = 0;
+            for (int i = 0; i < 2; ++i) {
+                if(i > 0) {
+                    GlobalState.DATABASE_BLOCK_SIZE = 1;
+                }
+                while (!(boolean) method.invoke(buffer)) {
+                    engine.add("count", Convert.javaToThrift(count),
+                            Integer.valueOf(count).longValue());
+                    count++;
+                }
+                while ((boolean) method.invoke(buffer)) {
+                    buffer.transport(db);
+                }
+                buffer.transport(db); // exhaust the first page
+                Assert.assertEquals(i == 0 ? 2 : 1,
+                        getBufferPageCount(buffer));
+            }
+            for (int i = 0; i < count; i++) {
+                Assert.assertTrue(engine.find("count", Operator.EQUALS,
+                        Convert.javaToThrift(i)).contains(
+                        Integer.valueOf(i).longValue()));
+            }
+        }
+        finally {
+            GlobalState.DATABASE_BLOCK_SIZE = blockSize;
+        }
+    }
+
     @Test
     public void testBufferTransportBlockingIfWritesAreNotWithinThreshold() {
         String loc = TestData.DATA_DIR + File.separator + Time.now();
@@ -439,6 +478,22 @@ public class EngineTest extends BufferedStoreTest {
         ((Engine) store).add(key, value, record);
     }
 
+    /**
+     * Return the number of page files in the {@code buffer} directory.
+     * 
+     * @param buffer
+     * @return the number of pages
+     */
+    private static int getBufferPageCount(Buffer buffer) {
+        int count = 0;
+        for (File file : new File(buffer.getBackingStore()).listFiles()) {
+            if(file.getName().endsWith(".buf")) {
+                ++count;
+            }
+        }
+        return count;
+    }
+
     @Override
     protected void cleanup(Store store) {
         FileSystem.deleteDirectory(directory);
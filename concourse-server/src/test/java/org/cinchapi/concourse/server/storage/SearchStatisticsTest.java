@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2013-2015 Cinchapi Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.cinchapi.concourse.server.storage;
+
+import java.io.File;
+import java.util.List;
+import java.util.Map;
+
+import org.cinchapi.concourse.server.io.FileSystem;
+import org.cinchapi.concourse.server.storage.db.Database;
+import org.cinchapi.concourse.server.storage.temp.Queue;
+import org.cinchapi.concourse.server.storage.temp.Write;
+import org.cinchapi.concourse.time.Time;
+import org.cinchapi.concourse.util.Convert;
+import org.cinchapi.concourse.util.TestData;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Unit tests for {@link SearchStatistics}.
+ * 
+ * @author Jeff Nelson
+ */
+public class SearchStatisticsTest {
+
+    private static final String[] VALUES = { "the quick fox is brown",
+            "a quick fox chased a quick fox",
+            "brown bears are not quick", "foxes are quick and brown",
+            "nothing to see here" };
+
+    private String directory;
+
+    @Before
+    public void setUp() {
+        directory = TestData.DATA_DIR + File.separator + Time.now();
+        FileSystem.mkdirs(directory);
+    }
+
+    @After
+    public void tearDown() {
+        FileSystem.deleteDirectory(directory);
+    }
+
+    @Test
+    public void testRanksByRelevance() {
+        SearchStatistics statistics = new SearchStatistics("quick fox");
+        for (int i = 0; i < VALUES.length; ++i) {
+            statistics.addValue(i, VALUES[i], true);
+        }
+        // Only the first two values contain the phrase and the second one
+        // contains it twice
+        List<Long> ranked = Lists.newArrayList(statistics.getTopRecords(10)
+                .keySet());
+        Assert.assertEquals(Lists.newArrayList(1L, 0L), ranked);
+        Assert.assertEquals(Lists.newArrayList(1L), Lists
+                .newArrayList(statistics.getTopRecords(1).keySet()));
+        Assert.assertTrue(statistics.getTopRecords(0).isEmpty());
+    }
+
+    @Test
+    public void testRemovedValueIsNotRanked() {
+        SearchStatistics statistics = new SearchStatistics("quick");
+        for (int i = 0; i < VALUES.length; ++i) {
+            statistics.addValue(i, VALUES[i], true);
+        }
+        statistics.addValue(2, VALUES[2], false);
+        Assert.assertFalse(statistics.getTopRecords(10).containsKey(2L));
+        Assert.assertEquals(3, statistics.getTopRecords(10).size());
+    }
+
+    @Test
+    public void testIndexedAndBufferedScoresAreConsistent() {
+        Database db = new Database(directory + File.separator + "db");
+        db.start();
+        Queue queue = new Queue(VALUES.length);
+        for (int i = 0; i < VALUES.length; ++i) {
+            Write write = Write.add("foo", Convert.javaToThrift(VALUES[i]), i);
+            db.accept(write);
+            queue.insert(write, false);
+        }
+        db.triggerSync();
+        SearchStatistics indexed = new SearchStatistics("uick");
+        db.gatherSearchStatistics("foo", indexed);
+        SearchStatistics buffered = new SearchStatistics("uick");
+        queue.gatherSearchStatistics("foo", buffered);
+        Map<Long, Double> expected = buffered.getTopRecords(10);
+        Assert.assertEquals(4, expected.size());
+        Assert.assertEquals(expected, indexed.getTopRecords(10));
+
+        // A buffered removal cancels out the indexed value
+        SearchStatistics merged = new SearchStatistics("quick fox");
+        db.gatherSearchStatistics("foo", merged);
+        Assert.assertEquals(Lists.newArrayList(1L, 0L),
+                Lists.newArrayList(merged.getTopRecords(10).keySet()));
+        merged = new SearchStatistics("quick fox");
+        queue = new Queue(1);
+        queue.insert(Write.remove("foo", Convert.javaToThrift(VALUES[1]), 1),
+                false);
+        queue.gatherSearchStatistics("foo", merged);
+        db.gatherSearchStatistics("foo", merged);
+        Assert.assertEquals(Lists.newArrayList(0L),
+                Lists.newArrayList(merged.getTopRecords(10).keySet()));
+        db.stop();
+    }
+
+    @Test
+    public void testLengthsOfValuesInTheSameRecordAreIndependent() {
+        Database db = new Database(directory + File.separator + "db");
+        db.start();
+        Queue queue = new Queue(VALUES.length + 3);
+        List<Write> writes = Lists.newArrayList();
+        for (int i = 0; i < VALUES.length; ++i) {
+            writes.add(Write.add("foo", Convert.javaToThrift(VALUES[i]), i));
+        }
+        // Values with the same length whose hash codes share the low 10 bits
+        // must not cancel each other out when one of them is removed
+        writes.add(Write.add("foo", Convert.javaToThrift("lazy dog sleeps"),
+                0));
+        writes.add(Write.add("foo", Convert.javaToThrift("tired cat akd"), 0));
+        writes.add(Write.remove("foo", Convert.javaToThrift("tired cat akd"),
+                0));
+        for (Write write : writes) {
+            db.accept(write);
+            queue.insert(write, false);
+        }
+        db.triggerSync();
+        SearchStatistics indexed = new SearchStatistics("quick fox");
+        db.gatherSearchStatistics("foo", indexed);
+        SearchStatistics buffered = new SearchStatistics("quick fox");
+        queue.gatherSearchStatistics("foo", buffered);
+        Assert.assertEquals(buffered.toString(), indexed.toString());
+        Assert.assertEquals(buffered.getTopRecords(10),
+                indexed.getTopRecords(10));
+        db.stop();
+    }
+
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2013-2015 Cinchapi Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.cinchapi.concourse.server.storage;
+
+import java.io.File;
+
+import org.cinchapi.concourse.server.io.FileSystem;
+import org.cinchapi.concourse.server.storage.db.Database;
+import org.cinchapi.concourse.server.storage.temp.Write;
+import org.cinchapi.concourse.thrift.Operator;
+import org.cinchapi.concourse.time.Time;
+import org.cinchapi.concourse.util.Convert;
+import org.cinchapi.concourse.util.TestData;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link Statistics} and {@link KeyStatistics}.
+ * 
+ * @author Jeff Nelson
+ */
+public class StatisticsTest {
+
+    private String directory;
+
+    @Before
+    public void setUp() {
+        directory = TestData.DATA_DIR + File.separator + Time.now();
+        FileSystem.mkdirs(directory);
+    }
+
+    @After
+    public void tearDown() {
+        FileSystem.deleteDirectory(directory);
+    }
+
+    @Test
+    public void testApplyAddAndRemove() {
+        Statistics statistics = new Statistics();
+        statistics.apply(Write.add("a", Convert.javaToThrift(1), 1));
+        statistics.apply(Write.add("a", Convert.javaToThrift(2.5), 2));
+        statistics.apply(Write.add("a", Convert.javaToThrift("foo"), 3));
+        statistics.apply(Write.add("a", Convert.javaToThrift(-8L), 4));
+        statistics.apply(Write.remove("a", Convert.javaToThrift(2.5), 2));
+        KeyStatistics stats = statistics.get("a");
+        Assert.assertEquals(3, stats.getCount());
+        Assert.assertEquals(2, stats.getNumericCount());
+        Assert.assertEquals(-7L, stats.getSum());
+        Assert.assertEquals(-8, stats.getMinimum(), 0);
+        Assert.assertEquals(2.5, stats.getMaximum(), 0);
+        long[] histogram = stats.getHistogram();
+        Assert.assertEquals(1, histogram[65]); // 1
+        Assert.assertEquals(1, histogram[60]); // -8
+        Assert.assertEquals(0, histogram[66]); // 2.5
+        Assert.assertEquals(0, statistics.get("b").getCount());
+    }
+
+    @Test
+    public void testSumIsOnlyExactIfItCannotOverflow() {
+        Statistics statistics = new Statistics();
+        statistics.apply(Write.add("a", Convert.javaToThrift(1L << 61), 1));
+        statistics.apply(Write.add("a", Convert.javaToThrift(1L << 61), 2));
+        Assert.assertTrue(statistics.get("a").isSumExact());
+        statistics.apply(Write.add("a", Convert.javaToThrift(1L << 61), 3));
+        statistics.apply(Write.add("a", Convert.javaToThrift(1L << 61), 4));
+        Assert.assertFalse(statistics.get("a").isSumExact());
+    }
+
+    @Test
+    public void testEstimate() {
+        Statistics statistics = new Statistics();
+        for (int i = 0; i < 100; ++i) {
+            statistics.apply(Write.add("a", Convert.javaToThrift(i), i));
+        }
+        statistics.apply(Write.add("a", Convert.javaToThrift("foo"), 100));
+        KeyStatistics stats = statistics.get("a");
+        Assert.assertEquals(1, stats.estimate(Operator.EQUALS,
+                Convert.javaToThrift(1)));
+        Assert.assertEquals(1, stats.estimate(Operator.EQUALS,
+                Convert.javaToThrift("bar")));
+        Assert.assertEquals(36, stats.estimate(Operator.GREATER_THAN,
+                Convert.javaToThrift(70)));
+        Assert.assertEquals(8, stats.estimate(Operator.LESS_THAN,
+                Convert.javaToThrift(5)));
+        Assert.assertEquals(12, stats.estimate(Operator.BETWEEN,
+                Convert.javaToThrift(4), Convert.javaToThrift(10)));
+        Assert.assertEquals(101, stats.estimate(Operator.REGEX,
+                Convert.javaToThrift("f.*")));
+        Assert.assertEquals(0, statistics.get("b").estimate(
+                Operator.EQUALS, Convert.javaToThrift(1)));
+    }
+
+    @Test
+    public void testSyncAndLoad() {
+        Statistics statistics = new Statistics();
+        for (int i = 0; i < 100; ++i) {
+            statistics.apply(Write.add("a", Convert.javaToThrift(i), i));
+            statistics.apply(Write.add("b", Convert.javaToThrift(i * 1.5), i));
+        }
+        String file = directory + File.separator + "statistics";
+        statistics.sync(file, "foo");
+        Statistics loaded = Statistics.load(file);
+        Assert.assertEquals("foo", loaded.getCheckpoint());
+        Assert.assertEquals(statistics.getVersion(), loaded.getVersion());
+        Assert.assertEquals(statistics.toString(), loaded.toString());
+        Assert.assertNull(Statistics.load(file + "bar"));
+    }
+
+    @Test
+    public void testDatabaseSyncsStatistics() {
+        String path = directory + File.separator + "db";
+        Database db = new Database(path);
+        db.start();
+        for (int i = 0; i < 10; ++i) {
+            db.accept(Write.add("a", Convert.javaToThrift(i), i));
+        }
+        db.triggerSync();
+        db.stop();
+        db = new Database(path);
+        db.start();
+        Assert.assertEquals(10, db.getStatistics().get("a").getCount());
+        Assert.assertEquals(45L, db.getStatistics().get("a").getSum());
+        db.stop();
+    }
+
+    @Test
+    public void testDatabaseRebuildsMissingStatistics() {
+        String path = directory + File.separator + "db";
+        Database db = new Database(path);
+        db.start();
+        for (int i = 0; i < 10; ++i) {
+            db.accept(Write.add("a", Convert.javaToThrift(i), i));
+        }
+        db.triggerSync();
+        db.stop();
+        FileSystem.deleteFile(path + File.separator + "csb" + File.separator
+                + "statistics");
+        db = new Database(path);
+        db.start();
+        Assert.assertEquals(10, db.getStatistics().get("a").getCount());
+        Assert.assertEquals(45L, db.getStatistics().get("a").getSum());
+        db.stop();
+    }
+
+    @Test
+    public void testEngineStatisticsSurviveRestart() {
+        String buffer = directory + File.separator + "buffer";
+        String db = directory + File.separator + "db";
+        Engine engine = new Engine(buffer, db);
+        engine.start();
+        for (int i = 0; i < 10; ++i) {
+            engine.add("a", Convert.javaToThrift(i), i);
+        }
+        engine.remove("a", Convert.javaToThrift(9), 9);
+        engine.set("a", Convert.javaToThrift(10), 0);
+        engine.stop();
+        engine = new Engine(buffer, db);
+        engine.start();
+        Assert.assertEquals(9, engine.getStatistics("a").getCount());
+        Assert.assertEquals(46L, engine.getStatistics("a").getSum());
+        engine.stop();
+    }
+
+}
@@ -249,6 +249,49 @@ public abstract class StoreTest extends ConcourseBaseTest {
 
     }
 
+    @Test
+    public void testBrowseKeyInBatches() {
+        String key = TestData.getSimpleString();
+        for (TObject value : getValues()) {
+            for (int i = 0; i < TestData.getScaleCount() % 4; i++) {
+                long record = TestData.getLong();
+                if(!store.verify(key, value, record)) {
+                    add(key, value, record);
+                    if(TestData.getInt() % 3 == 0) {
+                        remove(key, value, record);
+                    }
+                }
+            }
+        }
+        Map<TObject, Set<Long>> expected = store.browse(key);
+        Map<TObject, Set<Long>> actual = browseInBatches(key,
+                TestData.getScaleCount() % 5 + 1, Time.NONE);
+        Assert.assertEquals(expected, actual);
+        Assert.assertEquals(Lists.newArrayList(expected.keySet()),
+                Lists.newArrayList(actual.keySet()));
+    }
+
+    @Test
+    public void testBrowseKeyInBatchesWithTime() {
+        String key = TestData.getSimpleString();
+        for (TObject value : getValues()) {
+            for (int i = 0; i < TestData.getScaleCount() % 4; i++) {
+                long record = TestData.getLong();
+                if(!store.verify(key, value, record)) {
+                    add(key, value, record);
+                }
+            }
+        }
+        long timestamp = Time.now();
+        Map<TObject, Set<Long>> expected = store.browse(key, timestamp);
+        for (TObject value : getValues()) {
+            add(key, value, TestData.getLong());
+        }
+        Assert.assertEquals(expected,
+                browseInBatches(key, TestData.getScaleCount() % 5 + 1,
+                        timestamp));
+    }
+
     @Test
     public void testBrowseKeyIsSorted() {
         String key = TestData.getSimpleString();
@@ -504,6 +547,41 @@ public abstract class StoreTest extends ConcourseBaseTest {
         Assert.assertEquals(data.asMap(), store.select(record, timestamp));
     }
 
+    @Test
+    public void testChronologize() {
+        String key = Variables.register("key", TestData.getSimpleString());
+        long record = Variables.register("record", TestData.getLong());
+        addAndRemoveRandomValues(key, record);
+        Map<Long, Set<TObject>> expected = getChronology(key, record);
+        Map<Long, Set<TObject>> chronology = store.chronologize(key, record,
+                0, Time.NONE);
+        Assert.assertEquals(expected, chronology);
+        Assert.assertEquals(Lists.newArrayList(expected.keySet()),
+                Lists.newArrayList(chronology.keySet()));
+    }
+
+    @Test
+    public void testChronologizeRange() {
+        String key = Variables.register("key", TestData.getSimpleString());
+        long record = Variables.register("record", TestData.getLong());
+        addAndRemoveRandomValues(key, record);
+        List<Long> timestamps = Lists.newArrayList(getChronology(key, record)
+                .keySet());
+        if(!timestamps.isEmpty()) {
+            long start = timestamps.get(timestamps.size() / 3);
+            long end = timestamps.get((timestamps.size() * 2) / 3);
+            Map<Long, Set<TObject>> expected = Maps.newLinkedHashMap();
+            for (Entry<Long, Set<TObject>> entry : getChronology(key, record)
+                    .entrySet()) {
+                if(entry.getKey() >= start && entry.getKey() < end) {
+                    expected.put(entry.getKey(), entry.getValue());
+                }
+            }
+            Assert.assertEquals(expected,
+                    store.chronologize(key, record, start, end));
+        }
+    }
+
     @Test
     public void testCaseInsensitiveSearchLower() { // CON-10
         String key = Variables.register("key", "foo");
@@ -1588,6 +1666,22 @@ public abstract class StoreTest extends ConcourseBaseTest {
      */
     protected abstract void remove(String key, TObject value, long record);
 
+    /**
+     * Add random values to {@code key} in {@code record} and remove some of
+     * them along the way.
+     * 
+     * @param key
+     * @param record
+     */
+    private void addAndRemoveRandomValues(String key, long record) {
+        for (TObject value : getValues()) {
+            add(key, value, record);
+            if(TestData.getInt() % 3 == 0) {
+                remove(key, value, record);
+            }
+        }
+    }
+
     /**
      * Add {@code key} as a value that satisfies {@code operator} relative to
      * {@code min}.
@@ -1626,6 +1720,32 @@ public abstract class StoreTest extends ConcourseBaseTest {
         return records;
     }
 
+    /**
+     * Browse {@code key} (at {@code timestamp} unless it is {@link Time#NONE})
+     * by walking the values in batches of at most {@code limit}.
+     * 
+     * @param key
+     * @param limit
+     * @param timestamp
+     * @return the data
+     */
+    private Map<TObject, Set<Long>> browseInBatches(String key, int limit,
+            long timestamp) {
+        Map<TObject, Set<Long>> data = Maps.newLinkedHashMap();
+        TObject after = null;
+        Map<TObject, Set<Long>> batch;
+        while (!(batch = timestamp == Time.NONE ? store.browse(key, after,
+                limit) : store.browse(key, after, limit, timestamp))
+                .isEmpty()) {
+            Assert.assertTrue(batch.size() <= limit);
+            for (Entry<TObject, Set<Long>> entry : batch.entrySet()) {
+                Assert.assertNull(data.put(entry.getKey(), entry.getValue()));
+                after = entry.getKey();
+            }
+        }
+        return data;
+    }
+
     /**
      * Do the repro work for the {@link #testBrowseKey} repros.
      * 
@@ -1640,6 +1760,25 @@ public abstract class StoreTest extends ConcourseBaseTest {
         Assert.assertEquals(data.asMap(), store.browse(key));
     }
 
+    /**
+     * Return the chronology of {@code key} in {@code record} that is computed
+     * by reading the field at the timestamp of each revision in its audit.
+     * 
+     * @param key
+     * @param record
+     * @return the chronology
+     */
+    private Map<Long, Set<TObject>> getChronology(String key, long record) {
+        Map<Long, Set<TObject>> chronology = Maps.newLinkedHashMap();
+        for (long timestamp : store.audit(key, record).keySet()) {
+            Set<TObject> values = store.select(key, record, timestamp);
+            if(!values.isEmpty()) {
+                chronology.put(timestamp, values);
+            }
+        }
+        return chronology;
+    }
+
     /**
      * Return a set of keys.
      * 
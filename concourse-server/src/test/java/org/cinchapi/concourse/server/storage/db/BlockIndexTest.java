@@ -16,6 +16,7 @@
 package org.cinchapi.concourse.server.storage.db;
 
 import java.io.File;
+import java.nio.ByteBuffer;
 
 import org.cinchapi.concourse.server.io.FileSystem;
 import org.cinchapi.concourse.server.model.PrimaryKey;
@@ -84,6 +85,54 @@ public class BlockIndexTest extends ConcourseBaseTest {
         }
     }
 
+    @Test
+    public void testBlockIndexIsMappedAgainAfterUnmap() {
+        int count = TestData.getScaleCount();
+        BlockIndex index = BlockIndex.create(file, count);
+        for (int i = 0; i < count; i++) {
+            PrimaryKey key = PrimaryKey.wrap(i);
+            index.putStart(i, key);
+            index.putEnd(i * 2, key);
+        }
+        index.sync();
+        Assert.assertEquals(0, index.getStart(PrimaryKey.wrap(0)));
+        Assert.assertTrue(index.isLoaded());
+        index.unmap();
+        Assert.assertFalse(index.isLoaded());
+        for (int i = 0; i < count; i++) {
+            PrimaryKey key = PrimaryKey.wrap(i);
+            Assert.assertEquals(i, index.getStart(key));
+            Assert.assertEquals(i * 2, index.getEnd(key));
+        }
+    }
+
+    @Test
+    public void testLegacyFormatIsUpgraded() {
+        // Write each entry in the legacy format: the length of the entry,
+        // followed by the start, the end and the key
+        int count = TestData.getScaleCount();
+        ByteBuffer bytes = ByteBuffer.allocate(count * 20);
+        for (int i = 0; i < count; ++i) {
+            bytes.putInt(16);
+            bytes.putInt(i * 10);
+            bytes.putInt(i * 10 + 9);
+            PrimaryKey.wrap(i).copyTo(bytes);
+        }
+        bytes.flip();
+        FileSystem.writeBytes(bytes, file);
+        BlockIndex index = BlockIndex.open(file);
+        for (int i = 0; i < count; i++) {
+            PrimaryKey key = PrimaryKey.wrap(i);
+            Assert.assertEquals(i * 10, index.getStart(key));
+            Assert.assertEquals(i * 10 + 9, index.getEnd(key));
+        }
+        Assert.assertEquals(BlockIndex.NO_ENTRY,
+                index.getStart(PrimaryKey.wrap(count)));
+        Assert.assertEquals(16 + count * 16, FileSystem.getFileSize(file));
+        index = BlockIndex.open(file);
+        Assert.assertEquals(0, index.getStart(PrimaryKey.wrap(0)));
+    }
+
     @Test
     public void testBlockWorksAfterBeingSynced() {
         // basically check that we can sync to disk and the block index still
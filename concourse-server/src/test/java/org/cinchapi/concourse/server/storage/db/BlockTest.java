@@ -16,6 +16,7 @@
 package org.cinchapi.concourse.server.storage.db;
 
 import java.io.File;
+import java.lang.reflect.Constructor;
 import java.util.Iterator;
 import java.util.Set;
 
@@ -140,6 +141,14 @@ public abstract class BlockTest<L extends Byteable & Comparable<L>, K extends By
         Assert.assertEquals(revisions, stored);
     }
 
+    @Test
+    public void testFilterIsLoadedOnFirstUseAfterDiskLoad() throws Exception {
+        block.insert(getLocator(), getKey(), getValue(), Time.now(),
+                Action.ADD);
+        block.sync();
+        doTestFilterIsLoadedOnFirstUseAfterDiskLoad();
+    }
+
     @Test
     public final void testEquals() {
         String id = Long.toString(TestData.getLong());
@@ -154,6 +163,33 @@ public abstract class BlockTest<L extends Byteable & Comparable<L>, K extends By
         Assert.assertEquals(s, t);
     }
 
+    /**
+     * Load the synced {@link #block} from disk and check that its filter is
+     * not read until it is needed to look for a revision in the block and that
+     * it is read again if it is needed after the block is unmapped.
+     * 
+     * @throws Exception
+     */
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    protected void doTestFilterIsLoadedOnFirstUseAfterDiskLoad()
+            throws Exception {
+        Constructor<? extends Block> constructor = block.getClass()
+                .getDeclaredConstructor(String.class, String.class,
+                        Boolean.TYPE);
+        constructor.setAccessible(true);
+        Block<L, K, V> loaded = constructor.newInstance(block.getId(),
+                directory, true);
+        Revision<L, K, V> revision = loaded.iterator().next();
+        Assert.assertFalse(loaded.isFilterLoaded());
+        Assert.assertTrue(loaded.mightContain(revision.getLocator(),
+                revision.getKey(), revision.getValue()));
+        Assert.assertTrue(loaded.isFilterLoaded());
+        loaded.unmap();
+        Assert.assertFalse(loaded.isFilterLoaded());
+        Assert.assertTrue(loaded.mightContain(revision.getLocator(),
+                revision.getKey(), revision.getValue()));
+    }
+
     protected abstract L getLocator();
 
     protected abstract K getKey();
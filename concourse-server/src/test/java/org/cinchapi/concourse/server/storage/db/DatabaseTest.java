@@ -16,11 +16,16 @@
 package org.cinchapi.concourse.server.storage.db;
 
 import java.io.File;
+import java.io.IOException;
 import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
+import org.cinchapi.concourse.server.GlobalState;
+import org.cinchapi.concourse.server.io.Composite;
 import org.cinchapi.concourse.server.io.FileSystem;
 import org.cinchapi.concourse.server.model.PrimaryKey;
 import org.cinchapi.concourse.server.model.Text;
@@ -38,7 +43,11 @@ import org.junit.Assert;
 import org.junit.Ignore;
 import org.junit.Test;
 
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
+import com.google.common.hash.Hashing;
+import com.google.common.io.Files;
 
 /**
  * Unit tests for the {@link Database}.
@@ -103,6 +112,181 @@ public class DatabaseTest extends StoreTest {
                 (long) count * increase));
     }
 
+    @Test
+    public void testRecordCacheRecordsStatsAndReweighsRecords()
+            throws Exception {
+        Database db = (Database) store;
+        String key = TestData.getSimpleString();
+        long record = TestData.getLong();
+        db.accept(Write.add(key, TestData.getTObject(), record));
+        db.select(key, record);
+        db.select(key, record);
+        Field field = db.getClass().getDeclaredField("cppc");
+        field.setAccessible(true);
+        RecordCache<?> cppc = (RecordCache<?>) field.get(db);
+        Assert.assertTrue(cppc.stats().hitCount() > 0);
+        Assert.assertEquals(cppc.stats().missCount(), cppc.stats().loadCount());
+        Composite composite = Composite.create(PrimaryKey.wrap(record),
+                Text.wrap(key));
+        long footprint = cppc.peek(composite).getFootprint();
+        db.accept(Write.add(key, TestData.getTObject(), record));
+        Assert.assertTrue(cppc.peek(composite).getFootprint() > footprint);
+        Assert.assertTrue(db.getRecordCacheStats().contains("cppc"));
+    }
+
+    @Test
+    public void testLargeRecordDoesNotEvictRecordCache() throws Exception {
+        long size = GlobalState.DATABASE_CACHE_SIZE;
+        GlobalState.DATABASE_CACHE_SIZE = 3 * 64 * 1024;
+        Database db = new Database(current + File.separator + "cache");
+        GlobalState.DATABASE_CACHE_SIZE = size;
+        db.start();
+        try {
+            String key = TestData.getSimpleString();
+            long hot = TestData.getLong();
+            long large = hot + 1;
+            db.accept(Write.add(key, Convert.javaToThrift(0), hot));
+            for (int i = 0; i < 1000; ++i) {
+                db.accept(Write.add(key, Convert.javaToThrift(i), large));
+            }
+            db.select(key, hot);
+            db.select(key, large);
+            db.select(key, large);
+            Field field = db.getClass().getDeclaredField("cppc");
+            field.setAccessible(true);
+            RecordCache<?> cppc = (RecordCache<?>) field.get(db);
+            Assert.assertEquals(1, cppc.size());
+            Assert.assertNotNull(cppc.peek(Composite.create(
+                    PrimaryKey.wrap(hot), Text.wrap(key))));
+            Assert.assertEquals(0, cppc.stats().evictionCount());
+            Assert.assertEquals(3, cppc.stats().loadCount());
+        }
+        finally {
+            db.stop();
+        }
+    }
+
+    @Test
+    public void testAcceptBatchOfWrites() {
+        Database db = (Database) store;
+        String key = TestData.getSimpleString();
+        long record = TestData.getLong();
+        db.select(key, record); // make sure the record is cached
+        int count = TestData.getScaleCount();
+        List<Write> batch = Lists.newArrayList();
+        Set<TObject> expected = Sets.newHashSet();
+        for (int i = 0; i < count; ++i) {
+            TObject value = Convert.javaToThrift(i);
+            batch.add(Write.add(key, value, record));
+            expected.add(value);
+        }
+        batch.add(Write.remove(key, Convert.javaToThrift(0), record));
+        expected.remove(Convert.javaToThrift(0));
+        db.accept(batch);
+        Assert.assertEquals(expected, db.select(key, record));
+        for (TObject value : expected) {
+            Assert.assertTrue(db.find(key, Operator.EQUALS, value).contains(
+                    record));
+        }
+    }
+
+    @Test
+    public void testCompactionMergesBlocksWithoutLosingData() throws Exception {
+        Database db = (Database) store;
+        String key = TestData.getSimpleString();
+        int count = TestData.getScaleCount();
+        Set<Long> records = Sets.newHashSet();
+        for (int i = 0; i < 4; ++i) {
+            for (int j = 0; j < count; ++j) {
+                long record = TestData.getLong();
+                TObject value = Convert.javaToThrift(j);
+                db.accept(Write.add(key, value, record));
+                db.accept(Write.add(key, Convert.javaToThrift(j + 1), record));
+                db.accept(Write.remove(key, value, record));
+                records.add(record);
+            }
+            db.triggerSync();
+        }
+        Map<Long, Map<String, Set<TObject>>> expected = Maps.newHashMap();
+        for (long record : records) {
+            expected.put(record, db.select(record));
+        }
+        Map<TObject, Set<Long>> browse = db.browse(key);
+        Field cpb = db.getClass().getDeclaredField("cpb");
+        cpb.setAccessible(true);
+        Assert.assertEquals(5, ((List<?>) cpb.get(db)).size());
+        Assert.assertTrue(db.compact());
+        Assert.assertEquals(2, ((List<?>) cpb.get(db)).size());
+        Assert.assertFalse(db.compact());
+        for (long record : records) { // the compacted blocks are unmapped
+            Assert.assertEquals(expected.get(record), db.select(record));
+        }
+        assertManifestsMatchBlocks();
+        db.stop();
+        db = new Database(db.getBackingStore()); // simulate server restart
+        db.start();
+        Assert.assertEquals(2, ((List<?>) cpb.get(db)).size());
+        for (long record : records) {
+            Assert.assertEquals(expected.get(record), db.select(record));
+        }
+        Assert.assertEquals(browse, db.browse(key));
+        db.stop();
+    }
+
+    @Test
+    public void testManifestRecordsTheChecksumOfEachSyncedBlock()
+            throws Exception {
+        Database db = (Database) store;
+        for (int i = 0; i < 3; ++i) {
+            db.accept(Write.add(TestData.getSimpleString(),
+                    Convert.javaToThrift(TestData.getString()),
+                    TestData.getLong()));
+            db.triggerSync();
+        }
+        assertManifestsMatchBlocks();
+    }
+
+    @Test
+    public void testDatabaseLoadsBlocksThatAreMissingFromTheManifest()
+            throws Exception {
+        Database db = (Database) store;
+        String key = TestData.getSimpleString();
+        TObject value = Convert.javaToThrift(TestData.getString());
+        long record = TestData.getLong();
+        db.accept(Write.add(key, value, record));
+        db.triggerSync();
+        db.stop();
+        FileSystem.deleteFile(current + File.separator + "cpb"
+                + File.separator + "manifest");
+        FileSystem.writeBytes(ByteBuffer.wrap(new byte[] { 0, 0, 0, 9 }),
+                current + File.separator + "csb" + File.separator
+                        + "manifest");
+        db = new Database(db.getBackingStore()); // simulate server restart
+        db.start();
+        Assert.assertEquals(Sets.newHashSet(value), db.select(key, record));
+        assertManifestsMatchBlocks();
+        db.stop();
+    }
+
+    @Test
+    public void testRebuildSearchIndex() {
+        Database db = (Database) store;
+        db.accept(Write.add("foo", Convert.javaToThrift("the quick brown fox"),
+                1));
+        db.accept(Write.add("foo", Convert.javaToThrift("jumped over"), 2));
+        db.triggerSync();
+        db.accept(Write.add("foo", Convert.javaToThrift("the lazy dog"), 3));
+        db.triggerSync();
+        db.stop();
+        Database.rebuildSearchIndex(db.getBackingStore());
+        db = new Database(db.getBackingStore()); // simulate server restart
+        db.start();
+        Assert.assertEquals(Sets.newHashSet(1L), db.search("foo", "uick bro"));
+        Assert.assertEquals(Sets.newHashSet(2L), db.search("foo", "ump"));
+        Assert.assertEquals(Sets.newHashSet(3L), db.search("foo", "lazy"));
+        db.stop();
+    }
+
     @Test
     @Ignore
     public void testOnDiskStreamingIterator() {
@@ -162,4 +346,29 @@ public class DatabaseTest extends StoreTest {
         }
     }
 
+    /**
+     * Assert that the manifest in each block directory records the actual
+     * size and checksum of each block that is synced to that directory and
+     * nothing else.
+     * 
+     * @throws IOException
+     */
+    private void assertManifestsMatchBlocks() throws IOException {
+        for (String directory : new String[] { "cpb", "csb", "ctb" }) {
+            String path = current + File.separator + directory;
+            BlockManifest manifest = BlockManifest.load(path + File.separator
+                    + "manifest");
+            int blocks = 0;
+            for (File file : new File(path).listFiles()) {
+                if(file.getName().endsWith(Block.BLOCK_NAME_EXTENSION)) {
+                    Assert.assertEquals(Files.hash(file, Hashing.md5())
+                            .toString(), manifest.getChecksum(
+                            Block.getId(file.getName()), file.length()));
+                    ++blocks;
+                }
+            }
+            Assert.assertEquals(blocks, manifest.size());
+        }
+    }
+
 }
@@ -15,10 +15,15 @@
  */
 package org.cinchapi.concourse.server.storage.db;
 
+import java.io.File;
+import java.nio.ByteBuffer;
+
+import org.cinchapi.concourse.server.io.FileSystem;
 import org.cinchapi.concourse.server.model.PrimaryKey;
 import org.cinchapi.concourse.server.model.Text;
 import org.cinchapi.concourse.server.model.Value;
 import org.cinchapi.concourse.server.storage.Action;
+import org.cinchapi.concourse.server.storage.cache.BloomFilter;
 import org.cinchapi.concourse.server.storage.db.Block;
 import org.cinchapi.concourse.server.storage.db.PrimaryBlock;
 import org.cinchapi.concourse.time.Time;
@@ -46,6 +51,24 @@ public class PrimaryBlockTest extends BlockTest<PrimaryKey, Text, Value> {
         Assert.assertTrue(record.get(key).contains(value));
     }
 
+    @Test
+    public void testFilterInLegacyFormatIsRebuilt() throws Exception {
+        PrimaryKey locator = getLocator();
+        Text key = getKey();
+        Value value = getValue();
+        block.insert(locator, key, value, Time.now(), Action.ADD);
+        block.sync();
+        String filter = directory + File.separator + block.getId()
+                + Block.FILTER_NAME_EXTENSION;
+        FileSystem.deleteFile(filter);
+        FileSystem.writeBytes(ByteBuffer.wrap(new byte[] { (byte) 0xAC,
+                (byte) 0xED, 0, 5 }), filter);
+        PrimaryBlock loaded = new PrimaryBlock(block.getId(), directory, true);
+        Assert.assertTrue(loaded.mightContain(locator, key, value));
+        Assert.assertTrue(BloomFilter.open(filter).mightContain(locator, key,
+                value));
+    }
+
     @Override
     protected PrimaryKey getLocator() {
         return TestData.getPrimaryKey();
@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2013-2015 Cinchapi Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.cinchapi.concourse.server.storage.db;
+
+import java.util.concurrent.Callable;
+
+import org.cinchapi.concourse.server.io.Composite;
+import org.cinchapi.concourse.server.model.PrimaryKey;
+import org.cinchapi.concourse.server.model.Text;
+import org.cinchapi.concourse.server.model.Value;
+import org.cinchapi.concourse.server.storage.Action;
+import org.cinchapi.concourse.test.ConcourseBaseTest;
+import org.cinchapi.concourse.time.Time;
+import org.cinchapi.concourse.util.Convert;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link RecordCache}.
+ * 
+ * @author Jeff Nelson
+ */
+public class RecordCacheTest extends ConcourseBaseTest {
+
+    /**
+     * The maximum weight of the cache, which gives each of its four segments
+     * 64 KB, so records of up to 1 KB are admitted on their first load and no
+     * record can weigh more than 16 KB.
+     */
+    private static final long MAXIMUM_WEIGHT = 4 * 64 * 1024;
+
+    private final RecordCache<PrimaryRecord> cache = new RecordCache<PrimaryRecord>(
+            MAXIMUM_WEIGHT);
+
+    @Test
+    public void testSmallRecordIsCachedOnFirstLoad() {
+        PrimaryRecord record = getRecord(1, 512);
+        Composite composite = Composite.create(PrimaryKey.wrap(1));
+        Assert.assertSame(record, cache.get(composite, loader(record)));
+        Assert.assertSame(record, cache.peek(composite));
+    }
+
+    @Test
+    public void testLargeRecordIsCachedOnSecondLoad() {
+        PrimaryRecord record = getRecord(1, 8 * 1024);
+        Composite composite = Composite.create(PrimaryKey.wrap(1));
+        cache.get(composite, loader(record));
+        Assert.assertNull(cache.peek(composite));
+        cache.get(composite, loader(record));
+        Assert.assertSame(record, cache.peek(composite));
+    }
+
+    @Test
+    public void testRecordHeavierThanMaxRecordWeightIsNeverCached() {
+        PrimaryRecord hot = getRecord(1, 512);
+        Composite hotComposite = Composite.create(PrimaryKey.wrap(1));
+        cache.get(hotComposite, loader(hot));
+        PrimaryRecord record = getRecord(2, 32 * 1024);
+        Composite composite = Composite.create(PrimaryKey.wrap(2));
+        for (int i = 0; i < 3; ++i) {
+            cache.get(composite, loader(record));
+        }
+        Assert.assertNull(cache.peek(composite));
+        Assert.assertSame(hot, cache.peek(hotComposite));
+        Assert.assertEquals(0, cache.stats().evictionCount());
+        Assert.assertEquals(4, cache.stats().loadCount());
+    }
+
+    @Test
+    public void testRecordIsRemovedWhenItOutgrowsMaxRecordWeight() {
+        PrimaryRecord record = getRecord(1, 512);
+        Composite composite = Composite.create(PrimaryKey.wrap(1));
+        cache.get(composite, loader(record));
+        int i = Integer.MAX_VALUE; // don't repeat the values in the record
+        while (cache.peek(composite) != null) {
+            long footprint = record.getFootprint();
+            record.append(getRevision(1, i--));
+            cache.reweigh(composite, record, footprint);
+        }
+        Assert.assertTrue(record.getFootprint() > 16 * 1024);
+    }
+
+    /**
+     * Return a {@link PrimaryRecord} for {@code pkey} whose footprint is just
+     * larger than {@code footprint}.
+     * 
+     * @param pkey
+     * @param footprint
+     * @return the record
+     */
+    private PrimaryRecord getRecord(long pkey, long footprint) {
+        PrimaryRecord record = Record.createPrimaryRecord(PrimaryKey
+                .wrap(pkey));
+        for (int i = 0; record.getFootprint() <= footprint; ++i) {
+            record.append(getRevision(pkey, i));
+        }
+        return record;
+    }
+
+    /**
+     * Return a revision that adds {@code value} to the "foo" key in
+     * {@code pkey}.
+     * 
+     * @param pkey
+     * @param value
+     * @return the revision
+     */
+    private PrimaryRevision getRevision(long pkey, int value) {
+        return Revision.createPrimaryRevision(PrimaryKey.wrap(pkey),
+                Text.wrap("foo"), Value.wrap(Convert.javaToThrift(value)),
+                Time.now(), Action.ADD);
+    }
+
+    /**
+     * Return a loader that returns {@code record}.
+     * 
+     * @param record
+     * @return the loader
+     */
+    private Callable<PrimaryRecord> loader(final PrimaryRecord record) {
+        return new Callable<PrimaryRecord>() {
+
+            @Override
+            public PrimaryRecord call() {
+                return record;
+            }
+
+        };
+    }
+
+}
@@ -140,6 +140,20 @@ public abstract class RecordTest<L extends Byteable & Comparable<L>, K extends B
                 .equals(getRecord(locator, k2)));
     }
 
+    @Test
+    public void testFootprintGrowsWithAppends() {
+        L locator = getLocator();
+        K key = getKey();
+        record = getRecord(locator, key);
+        Assert.assertEquals(0, record.getFootprint());
+        long footprint = 0;
+        for (int i = 0; i < TestData.getScaleCount(); ++i) {
+            record.append(getRevision(locator, key, getValue()));
+            Assert.assertTrue(record.getFootprint() > footprint);
+            footprint = record.getFootprint();
+        }
+    }
+
     @Test
     public void testGet() {
         L locator = getLocator();
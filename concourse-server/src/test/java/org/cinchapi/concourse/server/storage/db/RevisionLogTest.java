@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2013-2015 Cinchapi Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.cinchapi.concourse.server.storage.db;
+
+import java.util.Set;
+
+import org.cinchapi.concourse.server.model.PrimaryKey;
+import org.cinchapi.concourse.server.model.Value;
+import org.cinchapi.concourse.server.storage.Action;
+import org.cinchapi.concourse.util.Convert;
+import org.cinchapi.concourse.util.TestData;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+
+/**
+ * Unit tests for {@link RevisionLog}.
+ * 
+ * @author Jeff Nelson
+ */
+public class RevisionLogTest {
+
+    @Test
+    public void testAppendAndRead() {
+        RevisionLog<Value> log = RevisionLog.create();
+        for (int i = 0; i < 100; ++i) {
+            log.append(Value.wrap(Convert.javaToThrift(i)), i * 10,
+                    i % 3 == 0 ? Action.REMOVE : Action.ADD);
+        }
+        Assert.assertEquals(100, log.size());
+        for (int i = 0; i < 100; ++i) {
+            Assert.assertEquals(Value.wrap(Convert.javaToThrift(i)),
+                    log.getValue(i));
+            Assert.assertEquals(i * 10, log.getVersion(i));
+            Assert.assertEquals(i % 3 == 0 ? Action.REMOVE : Action.ADD,
+                    log.getType(i));
+        }
+    }
+
+    @Test
+    public void testPrimaryKeyLog() {
+        RevisionLog<PrimaryKey> log = RevisionLog.createForPrimaryKeys();
+        for (int i = 0; i < 50; ++i) {
+            log.append(PrimaryKey.wrap(i * 7), i + 1, Action.ADD);
+        }
+        for (int i = 0; i < 50; ++i) {
+            Assert.assertEquals(PrimaryKey.wrap(i * 7), log.getValue(i));
+            Assert.assertEquals(i + 1, log.getVersion(i));
+        }
+    }
+
+    @Test
+    public void testCount() {
+        RevisionLog<PrimaryKey> log = RevisionLog.createForPrimaryKeys();
+        Assert.assertEquals(0, log.count(Long.MAX_VALUE));
+        for (int i = 1; i <= 10; ++i) {
+            log.append(PrimaryKey.wrap(1), i * 10, i % 2 == 0 ? Action.REMOVE
+                    : Action.ADD);
+        }
+        Assert.assertEquals(0, log.count(9));
+        Assert.assertEquals(1, log.count(10));
+        Assert.assertEquals(1, log.count(19));
+        Assert.assertEquals(5, log.count(50));
+        Assert.assertEquals(10, log.count(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void testGetWithCheckpointsMatchesReplay() {
+        RevisionLog<PrimaryKey> log = RevisionLog.createForPrimaryKeys();
+        Set<PrimaryKey> present = Sets.newLinkedHashSet();
+        int checkpoints = 0;
+        for (int i = 0; i < 5000; ++i) {
+            PrimaryKey value = PrimaryKey.wrap(Math.abs(TestData.getInt()
+                    % (i < 2500 ? 500 : 20)));
+            long version = (i + 1) * 10;
+            if(present.remove(value)) {
+                log.append(value, version, Action.REMOVE);
+            }
+            else {
+                present.add(value);
+                log.append(value, version, Action.ADD);
+            }
+            checkpoints += log.checkpoint(present) > 0 ? 1 : 0;
+        }
+        Assert.assertTrue(checkpoints > 0);
+        Assert.assertTrue(log.get(9).isEmpty());
+        Assert.assertEquals(Lists.newArrayList(present),
+                Lists.newArrayList(log.get(Long.MAX_VALUE)));
+        for (int i = 0; i < log.size(); i += 37) {
+            Set<PrimaryKey> expected = Sets.newLinkedHashSet();
+            for (int j = 0; j <= i; ++j) {
+                if(log.getType(j) == Action.ADD) {
+                    expected.add(log.getValue(j));
+                }
+                else {
+                    expected.remove(log.getValue(j));
+                }
+            }
+            Assert.assertEquals(Lists.newArrayList(expected),
+                    Lists.newArrayList(log.get((i + 1) * 10 + 5)));
+        }
+    }
+
+}
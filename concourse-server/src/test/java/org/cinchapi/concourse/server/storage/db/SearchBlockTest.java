@@ -18,6 +18,7 @@ package org.cinchapi.concourse.server.storage.db;
 // import java.util.Iterator;
 // import java.util.Set;
 
+import java.util.Set;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
@@ -70,6 +71,17 @@ public class SearchBlockTest extends BlockTest<Text, Text, Position> {
                 Action.ADD);
     }
 
+    @Override
+    @Test
+    public void testFilterIsLoadedOnFirstUseAfterDiskLoad() throws Exception {
+        while (block.size() <= 0) {
+            ((SearchBlock) block).insert(getLocator(), getStringValue(),
+                    getRecord(), Time.now(), Action.ADD);
+        }
+        block.sync();
+        doTestFilterIsLoadedOnFirstUseAfterDiskLoad();
+    }
+
     private Value getStringValue() {
         return Value.wrap(Convert.javaToThrift(TestData.getString()));
     }
@@ -161,6 +173,43 @@ public class SearchBlockTest extends BlockTest<Text, Text, Position> {
         Assert.assertTrue(searchRecord.search(term).contains(record));
     }
 
+    @Test
+    public void testSearchVerifiesGramOffsets() {
+        Text key = Variables.register("key", Text.wrap("strings"));
+        PrimaryKey a = PrimaryKey.wrap(1);
+        PrimaryKey b = PrimaryKey.wrap(2);
+        ((SearchBlock) block).insert(key,
+                Value.wrap(Convert.javaToThrift("xyz abcbcab")), a,
+                Time.now(), Action.ADD);
+        ((SearchBlock) block).insert(key,
+                Value.wrap(Convert.javaToThrift("xyz zzabcabzz")), b,
+                Time.now(), Action.ADD);
+        // Both values contain all the grams of 'abcab', but only the second
+        // contains them at consecutive offsets
+        Assert.assertFalse(search(key, "abcab").contains(a));
+        Assert.assertTrue(search(key, "abcab").contains(b));
+        Assert.assertTrue(search(key, "xy bcbc").contains(a));
+        Assert.assertFalse(search(key, "xy bcbc").contains(b));
+        Assert.assertTrue(search(key, "bc").contains(a));
+        Assert.assertTrue(search(key, "bc").contains(b));
+    }
+
+    @Test
+    public void testSearchInfixBeyondMaxOffset() {
+        Text key = Variables.register("key", Text.wrap("strings"));
+        PrimaryKey record = PrimaryKey.wrap(1);
+        String term = Strings.repeat("x", NGrams.MAX_OFFSET + 100) + "needlezz";
+        ((SearchBlock) block).insert(key,
+                Value.wrap(Convert.javaToThrift("abc " + term)), record,
+                Time.now(), Action.ADD);
+        Assert.assertTrue(search(key, "xneedlez").contains(record));
+        Assert.assertTrue(search(key, "needle").contains(record));
+        Assert.assertTrue(search(key, "abc needle").contains(record));
+        Assert.assertTrue(search(key, "xxxx").contains(record));
+        Assert.assertFalse(search(key, "xneedlex").contains(record));
+        Assert.assertFalse(search(key, "needle abc").contains(record));
+    }
+
     @Test
     public void testAsyncInsert() {// Verify that inserting data serially and
                                    // asynchronously produces a SearchBlock with
@@ -256,6 +305,28 @@ public class SearchBlockTest extends BlockTest<Text, Text, Position> {
      // Direct insert for SearchBlock is unsupported
     }
 
+    /**
+     * Seek the grams of {@code query} in {@code key} from the {@link #block}
+     * and return the records that match.
+     * 
+     * @param key
+     * @param query
+     * @return the matching records
+     */
+    private Set<PrimaryKey> search(Text key, String query) {
+        Text text = Text.wrap(query);
+        SearchRecord record = Record.createSearchRecordPartial(key, text);
+        for (String tok : query
+                .split(TStrings.REGEX_GROUP_OF_ONE_OR_MORE_WHITESPACE_CHARS)) {
+            for (String gram : NGrams.getQueryGrams(tok)) {
+                ((SearchBlock) block).seek(key, Text.wrap(gram), record);
+            }
+            ((SearchBlock) block).seek(key,
+                    Text.wrap(NGrams.getUnpackedGram(tok)), record);
+        }
+        return record.search(text);
+    }
+
     /**
      * The implementation of {@link #testMightContainLocatorKeyValue()}.
      * 
@@ -274,12 +345,12 @@ public class SearchBlockTest extends BlockTest<Text, Text, Position> {
         Variables.register("term", term);
         Variables.register("record", record);
         Variables.register("position", position);
-        Assert.assertFalse(block.mightContain(locator, term,
-                Position.wrap(record, position)));
+        Text gram = Text.wrap(NGrams.getQueryGrams(term.toString()).get(0));
+        Position indexed = Position.wrap(record, NGrams.encode(position, 0));
+        Assert.assertFalse(block.mightContain(locator, gram, indexed));
         ((SearchBlock) block).insert(locator, value, record, Time.now(),
                 Action.ADD);
-        Assert.assertTrue(block.mightContain(locator, term,
-                Position.wrap(record, position)));
+        Assert.assertTrue(block.mightContain(locator, gram, indexed));
     }
 
     @Override
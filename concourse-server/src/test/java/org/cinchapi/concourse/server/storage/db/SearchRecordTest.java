@@ -23,6 +23,8 @@ import org.cinchapi.concourse.server.storage.db.SearchRecord;
 import org.cinchapi.concourse.server.storage.db.SearchRevision;
 import org.cinchapi.concourse.time.Time;
 import org.cinchapi.concourse.util.TestData;
+import org.junit.Assert;
+import org.junit.Test;
 
 /**
  * Unit tests for {@link SearchIndex}.
@@ -62,4 +64,23 @@ public class SearchRecordTest extends RecordTest<Text, Text, Position> {
                 getAction(locator, key, value));
     }
 
+    @Test
+    public void testRevisionsAreNotCheckpointed() {
+        Text locator = getLocator();
+        Text key = getKey();
+        record = getRecord(locator);
+        record.append(getRevision(locator, key, getValue()));
+        long growth = -1;
+        for (int i = 0; i < 1000; ++i) {
+            long footprint = record.getFootprint();
+            record.append(getRevision(locator, key, getValue()));
+            if(growth < 0) {
+                growth = record.getFootprint() - footprint;
+            }
+            else {
+                Assert.assertEquals(growth, record.getFootprint() - footprint);
+            }
+        }
+    }
+
 }
@@ -72,6 +72,22 @@ public class SecondaryRecordTest extends
         return TestData.getPrimaryKey();
     }
 
+    @Test
+    public void testFootprintIncludesSortKeys() {
+        Text locator = TestData.getText();
+        PrimaryKey record = TestData.getPrimaryKey();
+        Value small = Value.wrap(Convert.javaToThrift("foo"));
+        Value large = Value.wrap(Convert.javaToThrift(TestData
+                .getString() + TestData.getString()));
+        SecondaryRecord a = getRecord(locator);
+        a.append(getRevision(locator, small, record));
+        SecondaryRecord b = getRecord(locator);
+        b.append(getRevision(locator, large, record));
+        Assert.assertEquals(large.size() - small.size()
+                + large.getSortKey().length - small.getSortKey().length,
+                b.getFootprint() - a.getFootprint());
+    }
+
     @Test
     public void testFindBrowseOnlyReturnsRelevantData() {
         Text locator = TestData.getText();
@@ -16,18 +16,24 @@
 package org.cinchapi.concourse.server.storage.temp;
 
 import java.io.File;
+import java.util.Arrays;
 import java.util.ConcurrentModificationException;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 
+import org.cinchapi.concourse.server.GlobalState;
 import org.cinchapi.concourse.server.io.FileSystem;
+import org.cinchapi.concourse.server.storage.Action;
 import org.cinchapi.concourse.server.storage.PermanentStore;
 import org.cinchapi.concourse.server.storage.Store;
 import org.cinchapi.concourse.server.storage.temp.Buffer;
 import org.cinchapi.concourse.server.storage.temp.Limbo;
 import org.cinchapi.concourse.test.Variables;
+import org.cinchapi.concourse.thrift.Operator;
+import org.cinchapi.concourse.thrift.TObject;
 import org.cinchapi.concourse.time.Time;
 import org.cinchapi.concourse.util.Convert;
 import org.cinchapi.concourse.util.TestData;
@@ -37,6 +43,7 @@ import org.junit.Test;
 import org.mockito.Mockito;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
 
 /**
  * Unit tests for {@link Buffer}.
@@ -155,6 +162,97 @@ public class BufferTest extends LimboTest {
         Assert.assertFalse(it0.hasNext());
     }
 
+    @Test
+    public void testPageSizeGrowsWhenPagesFillQuickly() {
+        Buffer buffer = (Buffer) store;
+        int count = 0;
+        while (!buffer.canTransport()) {
+            add("foo", Convert.javaToThrift(count), 1);
+            count++;
+        }
+        Assert.assertEquals(Math.max(GlobalState.BUFFER_PAGE_SIZE,
+                Math.min(GlobalState.BUFFER_PAGE_SIZE * 2,
+                        GlobalState.BUFFER_MAX_PAGE_SIZE)), buffer
+                .getPageSize());
+    }
+
+    @Test
+    public void testIndexedSearchMatchesLinearScan() {
+        Buffer buffer = (Buffer) store;
+        Queue queue = new Queue(100);
+        String[] words = { "foo", "bar", "baz", "foobar", "barbaz", "qux",
+                "the", "fooqux" };
+        String key = "name";
+        int count = 0;
+        while (!buffer.canTransport() || count < 500) {
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i <= count % 4; ++i) {
+                sb.append(words[(count * 7 + i * 3) % words.length]);
+                sb.append(" ");
+            }
+            Write write = count % 5 == 4 ? Write.remove(key,
+                    Convert.javaToThrift(sb.toString().trim()), count % 13)
+                    : Write.add(key, Convert.javaToThrift(sb.toString()
+                            .trim()), count % 13);
+            buffer.insert(write);
+            queue.insert(write);
+            ++count;
+        }
+        for (String query : new String[] { "foo", "o", "ba", "oob", "bar baz",
+                "obar ba", "the qux", "zzz", "a" }) {
+            Variables.register("query", query);
+            Assert.assertEquals(queue.search(key, query),
+                    buffer.search(key, query));
+        }
+    }
+
+    @Test
+    public void testRangeExploreMatchesLinearScan() {
+        Buffer buffer = (Buffer) store;
+        Queue queue = new Queue(100);
+        Object[] values = { 1, 2L, 2.0, 3.5f, 7, "a", "A", "b", "Bb", false };
+        String key = "age";
+        Set<String> stored = Sets.newHashSet();
+        long timestamp = 0;
+        int count = 0;
+        while (!buffer.canTransport() || count < 500) {
+            TObject value = Convert.javaToThrift(values[(count * 7)
+                    % values.length]);
+            long record = count % 11;
+            Write write = stored.add(record + ":" + value) ? Write.add(key,
+                    value, record) : Write.remove(key, value, record);
+            if(write.getType() == Action.REMOVE) {
+                stored.remove(record + ":" + value);
+            }
+            buffer.insert(write);
+            queue.insert(write);
+            if(count == 250) {
+                timestamp = Time.now();
+            }
+            ++count;
+        }
+        Object[][] criteria = { { Operator.EQUALS, 2 },
+                { Operator.EQUALS, "a" }, { Operator.GREATER_THAN, 2 },
+                { Operator.GREATER_THAN_OR_EQUALS, 2.0 },
+                { Operator.LESS_THAN, "b" },
+                { Operator.LESS_THAN_OR_EQUALS, 3.5f },
+                { Operator.BETWEEN, 2, "b" }, { Operator.BETWEEN, 7, 1 },
+                { Operator.NOT_EQUALS, 7 }, { Operator.REGEX, "b*" } };
+        for (Object[] criterion : criteria) {
+            Operator operator = (Operator) criterion[0];
+            TObject[] operands = new TObject[criterion.length - 1];
+            for (int i = 0; i < operands.length; ++i) {
+                operands[i] = Convert.javaToThrift(criterion[i + 1]);
+            }
+            Variables.register("criterion", Arrays.toString(criterion));
+            Assert.assertEquals(queue.explore(key, operator, operands),
+                    buffer.explore(key, operator, operands));
+            Assert.assertEquals(
+                    queue.explore(timestamp, key, operator, operands),
+                    buffer.explore(timestamp, key, operator, operands));
+        }
+    }
+
     @Test
     public void testWaitUntilTransportable() throws InterruptedException {
         final AtomicLong later = new AtomicLong(0);
@@ -203,4 +301,38 @@ public class BufferTest extends LimboTest {
         Assert.assertEquals(expected, stored);
     }
 
+    @Test
+    public void testConcurrentSyncedInserts() throws InterruptedException {
+        final Buffer buffer = (Buffer) store;
+        final String key = TestData.getSimpleString();
+        int threads = Variables.register("threads",
+                (TestData.getScaleCount() % 8) + 2);
+        final int writesPerThread = Variables.register("writesPerThread",
+                TestData.getScaleCount());
+        List<Thread> workers = Lists.newArrayList();
+        for (int i = 0; i < threads; ++i) {
+            final long record = i;
+            Thread worker = new Thread(new Runnable() {
+
+                @Override
+                public void run() {
+                    for (int j = 0; j < writesPerThread; ++j) {
+                        buffer.insert(Write.add(key, Convert.javaToThrift(j),
+                                record), true);
+                    }
+                }
+
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        buffer.sync();
+        for (int i = 0; i < threads; ++i) {
+            Assert.assertEquals(writesPerThread, buffer.select(key, i).size());
+        }
+    }
+
 }
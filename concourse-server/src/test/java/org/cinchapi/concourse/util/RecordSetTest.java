@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2013-2015 Cinchapi Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.cinchapi.concourse.util;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.cinchapi.concourse.test.ConcourseBaseTest;
+import org.cinchapi.concourse.test.Variables;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+
+/**
+ * Unit tests for {@link RecordSet}.
+ * 
+ * @author Jeff Nelson
+ */
+public class RecordSetTest extends ConcourseBaseTest {
+
+    @Test
+    public void testAddContainsAndRemove() {
+        Random random = new Random(Variables.register("seed",
+                TestData.getLong()));
+        RecordSet set = RecordSet.create();
+        Set<Long> expected = Sets.newTreeSet();
+        for (int i = 0; i < 20000; ++i) {
+            long record = getRecord(random);
+            if(random.nextInt(4) == 0) {
+                Assert.assertEquals(expected.remove(record), set.remove(record));
+            }
+            else {
+                Assert.assertEquals(expected.add(record), set.add(record));
+            }
+        }
+        Assert.assertEquals(expected.size(), set.size());
+        Assert.assertEquals(Lists.newArrayList(expected),
+                Lists.newArrayList(set));
+        for (long record : expected) {
+            Assert.assertTrue(set.contains(record));
+        }
+        Assert.assertEquals(expected, set);
+        Assert.assertEquals(expected.hashCode(), set.hashCode());
+    }
+
+    @Test
+    public void testAndOr() {
+        Random random = new Random(Variables.register("seed",
+                TestData.getLong()));
+        Set<Long> a = Sets.newTreeSet();
+        Set<Long> b = Sets.newTreeSet();
+        for (int i = 0; i < 30000; ++i) {
+            a.add(getRecord(random));
+            b.add(getRecord(random));
+        }
+        RecordSet x = RecordSet.copyOf(a);
+        RecordSet y = RecordSet.copyOf(b);
+        Set<Long> and = Sets.newTreeSet(Sets.intersection(a, b));
+        Set<Long> or = Sets.newTreeSet(Sets.union(a, b));
+        Assert.assertEquals(Lists.newArrayList(and),
+                Lists.newArrayList(x.and(y)));
+        Assert.assertEquals(Lists.newArrayList(or),
+                Lists.newArrayList(x.or(y)));
+        Assert.assertEquals(and.size(), x.and(y).size());
+        Assert.assertEquals(or.size(), x.or(y).size());
+        Assert.assertEquals(and, RecordSet.intersection(a, y));
+        Assert.assertEquals(or, RecordSet.union(x, b));
+    }
+
+    @Test
+    public void testIteratorRemove() {
+        Random random = new Random(Variables.register("seed",
+                TestData.getLong()));
+        RecordSet set = RecordSet.create();
+        Set<Long> expected = Sets.newTreeSet();
+        for (int i = 0; i < 20000; ++i) {
+            long record = getRecord(random);
+            set.add(record);
+            expected.add(record);
+        }
+        Iterator<Long> it = set.iterator();
+        List<Long> seen = Lists.newArrayList();
+        while (it.hasNext()) {
+            long record = it.next();
+            seen.add(record);
+            if(record % 3 == 0) {
+                it.remove();
+                expected.remove(record);
+            }
+        }
+        Assert.assertEquals(seen.size(), Sets.newHashSet(seen).size());
+        Assert.assertEquals(expected, set);
+        Assert.assertEquals(Lists.newArrayList(expected),
+                Lists.newArrayList(set));
+    }
+
+    @Test
+    public void testCopyIsIndependent() {
+        RecordSet set = RecordSet.create();
+        set.add(1);
+        set.add(-1);
+        RecordSet copy = set.copy();
+        set.add(2);
+        copy.remove(1L);
+        Assert.assertEquals(Sets.newHashSet(1L, -1L, 2L), set);
+        Assert.assertEquals(Sets.newHashSet(-1L), copy);
+    }
+
+    /**
+     * Return a random record that is either sparse, clustered in a dense
+     * range or negative so that all kinds of containers are exercised.
+     * 
+     * @param random
+     * @return the record
+     */
+    private static long getRecord(Random random) {
+        switch (random.nextInt(3)) {
+        case 0:
+            return random.nextLong();
+        case 1:
+            return (1L << 40) + random.nextInt(10000);
+        default:
+            return -random.nextInt(9000);
+        }
+    }
+
+}
@@ -29,6 +29,7 @@ import org.cinchapi.concourse.thrift.ConcourseService;
 import org.cinchapi.concourse.thrift.Diff;
 import org.cinchapi.concourse.thrift.Operator;
 import org.cinchapi.concourse.thrift.TCriteria;
+import org.cinchapi.concourse.thrift.TMutation;
 import org.cinchapi.concourse.thrift.TObject;
 import org.cinchapi.concourse.thrift.TParseException;
 import org.cinchapi.concourse.thrift.TSecurityException;
@@ -597,6 +598,13 @@ class Mockcourse implements ConcourseService.Iface {
         return browseKeyTime(key, Time.now(), creds, transaction, environment);
     }
 
+    @Override
+    public List<Map<TObject, Set<Long>>> browseKeyPage(String key, int offset,
+            int limit, AccessToken creds, TransactionToken transaction,
+            String environment) throws TException {
+        throw new UnsupportedOperationException();
+    }
+
     @Override
     public Map<String, Map<TObject, Set<Long>>> browseKeys(List<String> keys,
             AccessToken creds, TransactionToken transaction, String environment)
@@ -874,6 +882,21 @@ class Mockcourse implements ConcourseService.Iface {
         return selectCclTime(ccl, Time.now(), creds, transaction, environment);
     }
 
+    @Override
+    public List<Map<Long, Map<String, Set<TObject>>>> selectCclPage(
+            String ccl, String order, int offset, int limit, AccessToken creds,
+            TransactionToken transaction, String environment) throws TException {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public List<Map<Long, Map<String, Set<TObject>>>> selectCriteriaPage(
+            TCriteria criteria, String order, int offset, int limit,
+            AccessToken creds, TransactionToken transaction, String environment)
+            throws TException {
+        throw new UnsupportedOperationException();
+    }
+
     @Override
     public Map<Long, Map<String, Set<TObject>>> selectCriteriaTime(
             TCriteria criteria, long timestamp, AccessToken creds,
@@ -973,6 +996,22 @@ class Mockcourse implements ConcourseService.Iface {
                 environment);
     }
 
+    @Override
+    public List<Map<Long, Map<String, Set<TObject>>>> selectKeysCclPage(
+            List<String> keys, String ccl, String order, int offset, int limit,
+            AccessToken creds, TransactionToken transaction, String environment)
+            throws TException {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public List<Map<Long, Map<String, Set<TObject>>>> selectKeysCriteriaPage(
+            List<String> keys, TCriteria criteria, String order, int offset,
+            int limit, AccessToken creds, TransactionToken transaction,
+            String environment) throws TException {
+        throw new UnsupportedOperationException();
+    }
+
     @Override
     public Map<Long, Map<String, Set<TObject>>> selectKeysCriteriaTime(
             List<String> keys, TCriteria criteria, long timestamp,
@@ -1377,6 +1416,109 @@ class Mockcourse implements ConcourseService.Iface {
         return fakeResults;
     }
 
+    @Override
+    public List<Long> findCriteriaPage(TCriteria criteria, String order,
+            int offset, int limit, AccessToken creds,
+            TransactionToken transaction, String environment) throws TException {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public List<Long> findCclPage(String ccl, String order, int offset,
+            int limit, AccessToken creds, TransactionToken transaction,
+            String environment) throws TException {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public TObject aggregateKey(String function, String key, AccessToken creds,
+            TransactionToken transaction, String environment)
+            throws TException {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public TObject aggregateKeyTime(String function, String key,
+            long timestamp, AccessToken creds, TransactionToken transaction,
+            String environment)
+            throws TException {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public TObject aggregateKeyCriteria(String function, String key,
+            TCriteria criteria, AccessToken creds,
+            TransactionToken transaction, String environment)
+            throws TException {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public TObject aggregateKeyCriteriaTime(String function, String key,
+            TCriteria criteria, long timestamp, AccessToken creds,
+            TransactionToken transaction, String environment)
+            throws TException {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public TObject aggregateKeyCcl(String function, String key, String ccl,
+            AccessToken creds, TransactionToken transaction, String environment)
+            throws TException {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public TObject aggregateKeyCclTime(String function, String key,
+            String ccl, long timestamp, AccessToken creds,
+            TransactionToken transaction, String environment)
+            throws TException {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public List<Boolean> mutate(List<TMutation> mutations, AccessToken creds,
+            TransactionToken transaction, String environment) throws TException {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public long openCursorCriteria(TCriteria criteria, AccessToken creds,
+            TransactionToken transaction, String environment) throws TException {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public long openCursorCcl(String ccl, AccessToken creds,
+            TransactionToken transaction, String environment) throws TException {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public long openCursorKey(String key, AccessToken creds,
+            TransactionToken transaction, String environment) throws TException {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public List<Long> fetchCursorRecords(long cursor, int count,
+            AccessToken creds, String environment) throws TException {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public List<Map<TObject, Set<Long>>> fetchCursorValues(long cursor,
+            int count, AccessToken creds, String environment)
+            throws TException {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void closeCursor(long cursor, AccessToken creds,
+            String environment) throws TException {
+        throw new UnsupportedOperationException();
+    }
+
     @Override
   public Set<Long> findCcl(String ccl, AccessToken creds,
           TransactionToken transaction, String environment)
@@ -1500,6 +1642,13 @@ class Mockcourse implements ConcourseService.Iface {
         return matches;
     }
 
+    @Override
+    public Map<Long, Double> searchRanked(String key, String query, int limit,
+            AccessToken creds, TransactionToken transaction, String environment)
+            throws TException {
+        throw new UnsupportedOperationException();
+    }
+
     @Override
     public Map<Long, String> auditRecord(long record, AccessToken creds,
             TransactionToken transaction, String environment) throws TException {
@@ -303,6 +303,22 @@ service ConcourseService {
     6: string environment)
   throws (1: shared.TSecurityException ex, 2: shared.TTransactionException ex2);
 
+  # Apply every mutation in the batch, in order, within a single atomic
+  # operation so that the entire batch is sent in one framed request, locked
+  # in one pass and synced to the buffer once. The result contains, for each
+  # mutation, whether it changed any data. Since the results are positional,
+  # they are returned in a list. A batch that contains a mutation without
+  # the key or value it needs is rejected before any of it is applied.
+
+  list<bool> mutate(
+    1: list<data.TMutation> mutations,
+    2: shared.AccessToken creds,
+    3: shared.TransactionToken transaction,
+    4: string environment)
+  throws (1: shared.TSecurityException ex,
+    2: shared.TTransactionException ex2,
+    3: shared.TParseException ex3);
+
   # ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
   # ~~~~~~~~ Read Methods ~~~~~~~~
   # ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
@@ -1137,6 +1153,262 @@ service ConcourseService {
     5: string environment)
   throws (1: shared.TSecurityException ex, 2: shared.TTransactionException ex2);
 
+  # Return the (at most) |limit| records that match a fulltext search for
+  # |query| in |key| mapped to their BM25 relevance score. Higher scores are
+  # more relevant. The ranking happens on the server so only the top records
+  # are sent over the wire.
+  map<i64, double> searchRanked(
+    1: string key,
+    2: string query,
+    3: i32 limit,
+    4: shared.AccessToken creds,
+    5: shared.TransactionToken transaction,
+    6: string environment)
+  throws (1: shared.TSecurityException ex, 2: shared.TTransactionException ex2);
+
+  # ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+  # ~~~~~~~~ Paging Methods ~~~~~~~~
+  # ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+
+  # Each of the paging methods only returns the records that fall within the
+  # page that starts at |offset| and contains at most |limit| records. If an
+  # |order| key is given, the records are sorted by their smallest value for
+  # that key (records without a value for the key come last) and then by id.
+  # Otherwise, the records are sorted by id. Since maps and sets are not
+  # ordered on the wire, the records are returned in a list (and each select
+  # result is a single entry map from the record to its data).
+
+  list<i64> findCriteriaPage(
+    1: data.TCriteria criteria,
+    2: string order,
+    3: i32 offset,
+    4: i32 limit,
+    5: shared.AccessToken creds,
+    6: shared.TransactionToken transaction,
+    7: string environment)
+  throws (1: shared.TSecurityException ex,
+    2: shared.TTransactionException ex2,
+    3: shared.TParseException ex3);
+
+  list<i64> findCclPage(
+    1: string ccl,
+    2: string order,
+    3: i32 offset,
+    4: i32 limit,
+    5: shared.AccessToken creds,
+    6: shared.TransactionToken transaction,
+    7: string environment)
+  throws (1: shared.TSecurityException ex,
+    2: shared.TTransactionException ex2,
+    3: shared.TParseException ex3);
+
+  list<map<i64, map<string, set<data.TObject>>>> selectCriteriaPage(
+    1: data.TCriteria criteria,
+    2: string order,
+    3: i32 offset,
+    4: i32 limit,
+    5: shared.AccessToken creds,
+    6: shared.TransactionToken transaction,
+    7: string environment)
+  throws (1: shared.TSecurityException ex,
+    2: shared.TTransactionException ex2,
+    3: shared.TParseException ex3);
+
+  list<map<i64, map<string, set<data.TObject>>>> selectCclPage(
+    1: string ccl,
+    2: string order,
+    3: i32 offset,
+    4: i32 limit,
+    5: shared.AccessToken creds,
+    6: shared.TransactionToken transaction,
+    7: string environment)
+  throws (1: shared.TSecurityException ex,
+    2: shared.TTransactionException ex2,
+    3: shared.TParseException ex3);
+
+  list<map<i64, map<string, set<data.TObject>>>> selectKeysCriteriaPage(
+    1: list<string> keys,
+    2: data.TCriteria criteria,
+    3: string order,
+    4: i32 offset,
+    5: i32 limit,
+    6: shared.AccessToken creds,
+    7: shared.TransactionToken transaction,
+    8: string environment)
+  throws (1: shared.TSecurityException ex,
+    2: shared.TTransactionException ex2,
+    3: shared.TParseException ex3);
+
+  list<map<i64, map<string, set<data.TObject>>>> selectKeysCclPage(
+    1: list<string> keys,
+    2: string ccl,
+    3: string order,
+    4: i32 offset,
+    5: i32 limit,
+    6: shared.AccessToken creds,
+    7: shared.TransactionToken transaction,
+    8: string environment)
+  throws (1: shared.TSecurityException ex,
+    2: shared.TTransactionException ex2,
+    3: shared.TParseException ex3);
+
+  # Return the page of the values that are stored for |key| (in sorted
+  # order) along with the records that contain each value.
+  list<map<data.TObject, set<i64>>> browseKeyPage(
+    1: string key,
+    2: i32 offset,
+    3: i32 limit,
+    4: shared.AccessToken creds,
+    5: shared.TransactionToken transaction,
+    6: string environment)
+  throws (1: shared.TSecurityException ex,
+    2: shared.TTransactionException ex2,
+    3: shared.TParseException ex3);
+
+  # ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+  # ~~~~~~~~ Cursor Methods ~~~~~~~~
+  # ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+
+  # A cursor captures a snapshot of a result set when it is opened and hands
+  # it out in chunks of at most |count| rows, so that a client can walk a
+  # large result without holding all of it in memory. Each open method
+  # returns the id of the cursor, which is only valid for the |creds| that
+  # opened it. A cursor is released once it is exhausted, when it is closed
+  # or after it is idle for too long. Fetching from a cursor that has been
+  # released throws a TInvalidCursorException.
+
+  i64 openCursorCriteria(
+    1: data.TCriteria criteria,
+    2: shared.AccessToken creds,
+    3: shared.TransactionToken transaction,
+    4: string environment)
+  throws (1: shared.TSecurityException ex, 2: shared.TTransactionException ex2);
+
+  i64 openCursorCcl(
+    1: string ccl,
+    2: shared.AccessToken creds,
+    3: shared.TransactionToken transaction,
+    4: string environment)
+  throws (1: shared.TSecurityException ex,
+    2: shared.TTransactionException ex2,
+    3: shared.TParseException ex3);
+
+  # Open a cursor over the values that are stored for |key| (in sorted order)
+  # along with the records that contain each value.
+  i64 openCursorKey(
+    1: string key,
+    2: shared.AccessToken creds,
+    3: shared.TransactionToken transaction,
+    4: string environment)
+  throws (1: shared.TSecurityException ex, 2: shared.TTransactionException ex2);
+
+  # Return the next |count| records from a cursor that was opened with
+  # #openCursorCriteria or #openCursorCcl. An empty list means that the
+  # cursor is exhausted.
+  list<i64> fetchCursorRecords(
+    1: i64 cursor,
+    2: i32 count,
+    3: shared.AccessToken creds,
+    4: string environment)
+  throws (1: shared.TSecurityException ex,
+    2: shared.TInvalidCursorException ex2);
+
+  # Return the next |count| values from a cursor that was opened with
+  # #openCursorKey. An empty list means that the cursor is exhausted. Each
+  # fetch reads the values as of the time the cursor was opened.
+  list<map<data.TObject, set<i64>>> fetchCursorValues(
+    1: i64 cursor,
+    2: i32 count,
+    3: shared.AccessToken creds,
+    4: string environment)
+  throws (1: shared.TSecurityException ex,
+    2: shared.TTransactionException ex2,
+    3: shared.TInvalidCursorException ex3);
+
+  void closeCursor(
+    1: i64 cursor,
+    2: shared.AccessToken creds,
+    3: string environment)
+  throws (1: shared.TSecurityException ex);
+
+  # ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+  # ~~~~~~~~ Aggregation Methods ~~~~~~~~
+  # ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+
+  # Each of the aggregation methods reduces the values that are stored for
+  # |key| (in the records that match the criteria, if one is given) to a
+  # single value using the |function|, which is the name of a COUNT, SUM,
+  # AVERAGE, MIN or MAX aggregation. The reduction happens on the server so
+  # only the result is sent over the wire. A TParseException is thrown if the
+  # |function| is not one of those names.
+
+  data.TObject aggregateKey(
+    1: string function,
+    2: string key,
+    3: shared.AccessToken creds,
+    4: shared.TransactionToken transaction,
+    5: string environment)
+  throws (1: shared.TSecurityException ex,
+    2: shared.TTransactionException ex2,
+    3: shared.TParseException ex3);
+
+  data.TObject aggregateKeyTime(
+    1: string function,
+    2: string key,
+    3: i64 timestamp,
+    4: shared.AccessToken creds,
+    5: shared.TransactionToken transaction,
+    6: string environment)
+  throws (1: shared.TSecurityException ex,
+    2: shared.TTransactionException ex2,
+    3: shared.TParseException ex3);
+
+  data.TObject aggregateKeyCriteria(
+    1: string function,
+    2: string key,
+    3: data.TCriteria criteria,
+    4: shared.AccessToken creds,
+    5: shared.TransactionToken transaction,
+    6: string environment)
+  throws (1: shared.TSecurityException ex,
+    2: shared.TTransactionException ex2,
+    3: shared.TParseException ex3);
+
+  data.TObject aggregateKeyCriteriaTime(
+    1: string function,
+    2: string key,
+    3: data.TCriteria criteria,
+    4: i64 timestamp,
+    5: shared.AccessToken creds,
+    6: shared.TransactionToken transaction,
+    7: string environment)
+  throws (1: shared.TSecurityException ex,
+    2: shared.TTransactionException ex2,
+    3: shared.TParseException ex3);
+
+  data.TObject aggregateKeyCcl(
+    1: string function,
+    2: string key,
+    3: string ccl,
+    4: shared.AccessToken creds,
+    5: shared.TransactionToken transaction,
+    6: string environment)
+  throws (1: shared.TSecurityException ex,
+    2: shared.TTransactionException ex2,
+    3: shared.TParseException ex3);
+
+  data.TObject aggregateKeyCclTime(
+    1: string function,
+    2: string key,
+    3: string ccl,
+    4: i64 timestamp,
+    5: shared.AccessToken creds,
+    6: shared.TransactionToken transaction,
+    7: string environment)
+  throws (1: shared.TSecurityException ex,
+    2: shared.TTransactionException ex2,
+    3: shared.TParseException ex3);
+
   # ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
   # ~~~~~~~~ Version Control ~~~~~~~~
   # ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
@@ -62,3 +62,26 @@ struct TSymbol {
 struct TCriteria {
   1:required list<TSymbol> symbols
 }
+
+/**
+ * A representation for an enum that declares the type of a TMutation.
+ */
+enum TMutationType {
+  ADD = 1,
+  REMOVE = 2,
+  SET = 3,
+  CLEAR = 4
+}
+
+/**
+ * A representation for a single write operation that can be passed over
+ * the wire via Thrift as part of a batch. The key is required for every
+ * type of mutation except a CLEAR of an entire record and the value is
+ * only required for an ADD, REMOVE or SET.
+ */
+struct TMutation {
+  1:required TMutationType type,
+  2:required i64 record,
+  3:optional string key,
+  4:optional TObject value
+}
@@ -102,3 +102,12 @@ exception TParseException {
 exception TDuplicateEntryException {
   1: string message
 }
+
+/**
+ * The exception that is thrown from the server when a client references a
+ * cursor that does not exist, because it was exhausted, closed or released
+ * after being idle for too long.
+ */
+exception TInvalidCursorException {
+  1: string message
+}